@@ -37,15 +37,15 @@ public class WebMvcConfiguration implements WebMvcConfigurer {
         registry.addResourceHandler("/public/**")
                 .addResourceLocations("classpath:/public/");
         
-        // 配置附件访问路径（用户头像等）
-        // 访问 /attachments/** 时，映射到本地文件系统
+        // 配置用户头像访问路径
+        // 只公开附件目录下的 users/ 头像目录，表格附件需登录后通过 /table/attachment/download 下载
         // 路径从环境变量 ATTACHMENT_BASE_PATH 读取
         String fileLocation = "file:" + attachmentBasePath;
         if (!fileLocation.endsWith("/")) {
             fileLocation += "/";
         }
-        registry.addResourceHandler("/attachments/**")
-                .addResourceLocations(fileLocation);
+        registry.addResourceHandler("/attachments/users/**")
+                .addResourceLocations(fileLocation + "users/");
     }
 
     @Override
@@ -64,7 +64,7 @@ public class WebMvcConfiguration implements WebMvcConfigurer {
                         "/user/send-code",  // 发送验证码接口
                         "/actuator/**",     // 监控端点
                         "/error",           // 错误页面
-                        "/attachments/**"   // 附件访问（静态资源，无需认证）
+                        "/attachments/users/**"   // 用户头像（静态资源，无需认证）
                 )
                 .order(2);
     }
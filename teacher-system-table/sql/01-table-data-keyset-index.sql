@@ -0,0 +1,6 @@
+-- 表格数据游标分页索引
+-- 普通成员: WHERE table_id = ? AND user_id = ? ORDER BY created_at DESC, id DESC
+-- 管理员:   WHERE table_id = ? ORDER BY created_at DESC, id DESC
+ALTER TABLE table_data
+    ADD INDEX idx_table_user_created (table_id, user_id, created_at, id),
+    ADD INDEX idx_table_created (table_id, created_at, id);
@@ -0,0 +1,21 @@
+-- 表格用户得分汇总投影
+-- 由 TableDataRepositoryImpl 在保存、审核、退回、删除数据的同一事务内按变更前后镜像累加增量（INSERT ... ON DUPLICATE KEY UPDATE）
+-- 条数减为0的行保留，查询时过滤
+-- 出现偏差时可调用 POST /table/score-agg/rebuild 重建
+CREATE TABLE IF NOT EXISTS table_user_score_agg
+(
+    table_id     INT            NOT NULL COMMENT '表格ID',
+    user_id      VARCHAR(64)    NOT NULL COMMENT '用户工号',
+    data_count   INT            NOT NULL DEFAULT 0 COMMENT '数据条数',
+    scored_count INT            NOT NULL DEFAULT 0 COMMENT '已打分条数',
+    total_score  DECIMAL(12, 2) NOT NULL DEFAULT 0 COMMENT '总分',
+    updated_at   DATETIME       NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (table_id, user_id)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='表格用户得分汇总';
+
+-- 初始化历史数据
+INSERT INTO table_user_score_agg (table_id, user_id, data_count, scored_count, total_score)
+SELECT table_id, user_id, COUNT(*), COUNT(score), COALESCE(SUM(score), 0)
+FROM table_data
+GROUP BY table_id, user_id;
@@ -0,0 +1,4 @@
+-- 表格数据乐观锁版本号
+-- 保存、退回、审核均以 WHERE id = ? AND status IN (...) AND version = ? 条件更新，并将 version 加 1
+ALTER TABLE table_data
+    ADD COLUMN version INT NOT NULL DEFAULT 0 COMMENT '版本号' AFTER status;
@@ -0,0 +1,21 @@
+-- 邮件发件箱
+-- 退回通知与数据状态变更在同一事务内写入，由 EmailServiceImpl 后台定时批量发送
+-- status: 0=待发送, 1=已发送, 2=发送失败（超过最大重试次数）
+CREATE TABLE IF NOT EXISTS email_outbox
+(
+    id              BIGINT       NOT NULL AUTO_INCREMENT COMMENT '主键',
+    to_email        VARCHAR(255) NOT NULL COMMENT '收件人邮箱',
+    subject         VARCHAR(255) NOT NULL COMMENT '邮件主题',
+    body            MEDIUMTEXT   NOT NULL COMMENT '邮件正文（HTML）',
+    biz_type        VARCHAR(32)  NOT NULL COMMENT '业务类型',
+    biz_id          BIGINT       NULL COMMENT '业务ID（如数据ID）',
+    status          TINYINT      NOT NULL DEFAULT 0 COMMENT '状态：0=待发送，1=已发送，2=发送失败',
+    attempts        INT          NOT NULL DEFAULT 0 COMMENT '已尝试次数',
+    next_attempt_at DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '下次尝试时间',
+    last_error      VARCHAR(500) NULL COMMENT '最近一次失败原因',
+    created_at      DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    sent_at         DATETIME     NULL COMMENT '发送成功时间',
+    PRIMARY KEY (id),
+    INDEX idx_status_next_attempt (status, next_attempt_at)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='邮件发件箱';
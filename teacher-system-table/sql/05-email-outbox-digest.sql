@@ -0,0 +1,6 @@
+-- 邮件发件箱：汇总（digest）模式
+-- 同一 digest_key 的待发送邮件在发送时合并为一封，body 保存单条通知的正文片段
+ALTER TABLE email_outbox
+    ADD COLUMN digest_key     VARCHAR(300) NULL COMMENT '汇总键（业务类型+收件人），为空时单独发送' AFTER biz_id,
+    ADD COLUMN recipient_name VARCHAR(128) NULL COMMENT '收件人姓名（汇总邮件称呼用）' AFTER digest_key,
+    ADD INDEX idx_digest_key_status (digest_key, status);
@@ -0,0 +1,12 @@
+-- 字段索引列登记表
+-- 常用筛选字段在 table_data 上生成虚拟列 fx_xxx 并建立 (table_id, fx_xxx) 索引，
+-- 由 TableFieldIndexServiceImpl 根据筛选频率自动创建，字段从所有表格中删除后自动移除
+CREATE TABLE IF NOT EXISTS table_field_index
+(
+    column_name VARCHAR(64)  NOT NULL COMMENT '生成列名',
+    field_name  VARCHAR(255) NOT NULL COMMENT '字段名称',
+    created_at  DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    PRIMARY KEY (column_name),
+    UNIQUE KEY uk_field_name (field_name)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='字段索引列登记';
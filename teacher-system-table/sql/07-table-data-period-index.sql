@@ -0,0 +1,4 @@
+-- 提交时期范围查询索引
+-- 按时期筛选: WHERE table_id = ? AND submission_period BETWEEN ? AND ?
+ALTER TABLE table_data
+    ADD INDEX idx_table_period (table_id, submission_period, id);
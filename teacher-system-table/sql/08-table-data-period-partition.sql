@@ -0,0 +1,24 @@
+-- 按提交时期分区（可选，数据量较大时执行）
+-- 按年份 RANGE COLUMNS 分区，查询带时期条件时只扫描命中的分区
+-- 注意:
+--   1. 分区表的主键和唯一索引必须包含分区列，因此主键改为 (id, submission_period)，id 由号段分配（见 sql/15），仍全局唯一
+--   2. 分区表不支持外键，执行前需确认 table_data 上没有外键约束
+--   3. 主键列不能为 NULL：执行前把空时期按创建时间补为所在月份；
+--      执行后需开启 table.partition.enabled，服务端新增数据（包括暂存和导入）未填写时期时才会取当前月份，
+--      未分区时时期列保持可空，未填写的数据不设置时期
+-- 后续年份的分区由 TableDataPartitionServiceImpl 定时从 pmax 中拆分创建（需开启 table.partition.enabled）
+UPDATE table_data SET submission_period = DATE_FORMAT(created_at, '%Y-%m') WHERE submission_period IS NULL;
+
+ALTER TABLE table_data
+    MODIFY submission_period VARCHAR(7) NOT NULL COMMENT '提交时期(yyyy-MM)',
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, submission_period);
+
+ALTER TABLE table_data
+    PARTITION BY RANGE COLUMNS (submission_period) (
+        PARTITION p2024 VALUES LESS THAN ('2025-01'),
+        PARTITION p2025 VALUES LESS THAN ('2026-01'),
+        PARTITION p2026 VALUES LESS THAN ('2027-01'),
+        PARTITION p2027 VALUES LESS THAN ('2028-01'),
+        PARTITION pmax VALUES LESS THAN (MAXVALUE)
+        );
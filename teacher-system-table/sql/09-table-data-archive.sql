@@ -0,0 +1,42 @@
+-- 表格数据冷热分离
+-- 已关闭时期（默认为去年之前）的数据由 TableDataArchiveServiceImpl 分批从 table_data 迁移到归档表，
+-- data_content 以 COMPRESS() 压缩存储，读取时按请求的时期范围路由到在线表、归档表或两者合并
+CREATE TABLE IF NOT EXISTS table_data_archive
+(
+    id                BIGINT         NOT NULL COMMENT '数据ID，与迁移前一致',
+    table_id          INT            NOT NULL COMMENT '表格ID',
+    user_id           VARCHAR(64)             DEFAULT NULL COMMENT '数据所属用户工号',
+    submission_period VARCHAR(7)              DEFAULT NULL COMMENT '提交时期(yyyy-MM)',
+    data_content_z    LONGBLOB                DEFAULT NULL COMMENT '压缩后的数据内容JSON，UNCOMPRESS()解压',
+    score             DECIMAL(12, 2)          DEFAULT NULL COMMENT '分数',
+    review_material   TEXT                    DEFAULT NULL COMMENT '审核材料',
+    reject_reason     TEXT                    DEFAULT NULL COMMENT '退回原因',
+    status            TINYINT        NOT NULL COMMENT '状态',
+    version           INT            NOT NULL DEFAULT 0 COMMENT '版本号',
+    created_by        VARCHAR(64)             DEFAULT NULL COMMENT '创建人',
+    updated_by        VARCHAR(64)             DEFAULT NULL COMMENT '更新人',
+    created_at        DATETIME                DEFAULT NULL COMMENT '创建时间',
+    updated_at        DATETIME                DEFAULT NULL COMMENT '更新时间',
+    archived_at       DATETIME       NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '归档时间',
+    PRIMARY KEY (id),
+    KEY idx_archive_table_period (table_id, submission_period, id),
+    KEY idx_archive_table_created (table_id, created_at, id),
+    KEY idx_archive_table_user_created (table_id, user_id, created_at, id),
+    KEY idx_archive_user (user_id),
+    KEY idx_archive_status (status)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='表格数据归档';
+
+-- 归档水位（单行）
+-- 时期早于 archived_before 的数据全部在归档表，不早于 archiving_before 的数据全部在在线表
+CREATE TABLE IF NOT EXISTS table_data_archive_state
+(
+    id               TINYINT    NOT NULL COMMENT '固定为1',
+    archived_before  VARCHAR(7) NOT NULL DEFAULT '0000-00' COMMENT '已完成归档的时期上界（不含）',
+    archiving_before VARCHAR(7) NOT NULL DEFAULT '0000-00' COMMENT '正在归档的时期上界（不含）',
+    updated_at       DATETIME   NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (id)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='表格数据归档水位';
+
+INSERT IGNORE INTO table_data_archive_state (id) VALUES (1);
@@ -0,0 +1,27 @@
+-- 表格异步删除
+-- 删除表格时先将 table_meta.deleted 置为1（之后的查询不再可见），并写入删除任务，
+-- 由 TableDeleteJobServiceImpl 在后台分批删除数据和附件，最后删除字段与元信息
+ALTER TABLE table_meta
+    ADD COLUMN deleted TINYINT NOT NULL DEFAULT 0 COMMENT '是否已删除：0=否，1=是（后台清理中）';
+
+CREATE TABLE IF NOT EXISTS table_delete_job
+(
+    id                  BIGINT       NOT NULL AUTO_INCREMENT COMMENT '任务ID',
+    table_id            INT          NOT NULL COMMENT '表格ID',
+    status              TINYINT      NOT NULL DEFAULT 0 COMMENT '状态：0=待执行，1=执行中，2=已完成，3=失败',
+    total_rows          BIGINT       NOT NULL DEFAULT 0 COMMENT '开始执行时的数据条数（含归档数据）',
+    deleted_rows        BIGINT       NOT NULL DEFAULT 0 COMMENT '已删除数据条数',
+    deleted_attachments BIGINT       NOT NULL DEFAULT 0 COMMENT '已删除附件数',
+    failed_attachments  BIGINT       NOT NULL DEFAULT 0 COMMENT '删除失败或不存在的附件数',
+    attempts            INT          NOT NULL DEFAULT 0 COMMENT '执行次数',
+    lease_until         DATETIME              DEFAULT NULL COMMENT '执行租约到期时间，到期未完成时由其他实例接管',
+    last_error          VARCHAR(500)          DEFAULT NULL COMMENT '最近一次失败原因',
+    created_by          VARCHAR(64)           DEFAULT NULL COMMENT '操作人',
+    created_at          DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at          DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    finished_at         DATETIME              DEFAULT NULL COMMENT '完成时间',
+    PRIMARY KEY (id),
+    KEY idx_status_lease (status, lease_until),
+    KEY idx_table_id (table_id)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='表格删除任务';
@@ -0,0 +1,5 @@
+-- 表格字段按表格查询索引
+-- 表格列表: table_meta LEFT JOIN table_field ON table_id GROUP BY
+-- 字段列表: WHERE table_id = ? ORDER BY id
+ALTER TABLE table_field
+    ADD INDEX idx_field_table_id (table_id, id);
@@ -0,0 +1,4 @@
+-- 表格结构版本号
+-- 修改表格（元信息或字段）时加 1，表格服务的进程内结构缓存以 表格ID + 版本号 标识一份结构
+ALTER TABLE table_meta
+    ADD COLUMN schema_version INT NOT NULL DEFAULT 0 COMMENT '结构版本号' AFTER table_alias_name;
@@ -0,0 +1,15 @@
+-- 表格字段排序序号
+-- 修改表格时字段按差异更新，不再删除重建，字段ID保持不变，字段顺序由 sort_order 表示
+ALTER TABLE table_field
+    ADD COLUMN sort_order INT NOT NULL DEFAULT 0 COMMENT '排序序号' AFTER field_name;
+
+-- 按原有ID顺序回填
+UPDATE table_field f
+    JOIN (SELECT id, ROW_NUMBER() OVER (PARTITION BY table_id ORDER BY id) - 1 AS rn FROM table_field) r
+    ON r.id = f.id
+SET f.sort_order = r.rn;
+
+-- 字段列表: WHERE table_id = ? ORDER BY sort_order, id
+ALTER TABLE table_field
+    DROP INDEX idx_field_table_id,
+    ADD INDEX idx_field_table_sort (table_id, sort_order, id);
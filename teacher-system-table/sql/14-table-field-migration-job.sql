@@ -0,0 +1,35 @@
+-- 字段改名/删除后的数据内容迁移
+-- 修改表格时若有字段改名或删除，写入迁移任务，由 TableFieldMigrationServiceImpl 在后台按ID分批
+-- 以 JSON_SET/JSON_REMOVE 在数据库内改写 data_content 的键（先在线表，后归档表），每批与检查点同一事务提交
+CREATE TABLE IF NOT EXISTS table_field_migration_job
+(
+    id                BIGINT       NOT NULL AUTO_INCREMENT COMMENT '任务ID',
+    table_id          INT          NOT NULL COMMENT '表格ID',
+    renames           JSON         NOT NULL COMMENT '字段改名：{"原名称": "新名称"}',
+    removed_fields    JSON         NOT NULL COMMENT '删除的字段名称列表',
+    status            TINYINT      NOT NULL DEFAULT 0 COMMENT '状态：0=待执行，1=执行中，2=已完成，3=失败',
+    hot_last_id       BIGINT       NOT NULL DEFAULT 0 COMMENT '在线表检查点（已处理的最大数据ID）',
+    archive_last_id   BIGINT       NOT NULL DEFAULT 0 COMMENT '归档表检查点（已处理的最大数据ID）',
+    hot_done          TINYINT      NOT NULL DEFAULT 0 COMMENT '在线表是否已处理完',
+    total_rows        BIGINT       NOT NULL DEFAULT 0 COMMENT '开始执行时的数据条数（含归档数据）',
+    scanned_rows      BIGINT       NOT NULL DEFAULT 0 COMMENT '已扫描数据条数',
+    rewritten_rows    BIGINT       NOT NULL DEFAULT 0 COMMENT '已改写数据条数',
+    attempts          INT          NOT NULL DEFAULT 0 COMMENT '执行次数',
+    lease_until       DATETIME              DEFAULT NULL COMMENT '执行租约到期时间，到期未完成时由其他实例接管',
+    last_error        VARCHAR(500)          DEFAULT NULL COMMENT '最近一次失败原因',
+    created_by        VARCHAR(64)           DEFAULT NULL COMMENT '操作人',
+    created_at        DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at        DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    finished_at       DATETIME              DEFAULT NULL COMMENT '完成时间',
+    PRIMARY KEY (id),
+    KEY idx_status_lease (status, lease_until),
+    KEY idx_table_id (table_id, id)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='字段迁移任务';
+
+-- 按表格ID分批扫描: WHERE table_id = ? AND id > ? ORDER BY id LIMIT ?
+ALTER TABLE table_data
+    ADD INDEX idx_table_id (table_id, id);
+
+ALTER TABLE table_data_archive
+    ADD INDEX idx_archive_table_id (table_id, id);
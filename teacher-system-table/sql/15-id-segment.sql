@@ -0,0 +1,26 @@
+-- 号段ID分配
+-- 各实例每次从 id_segment 租用一段ID（max_id 加 step），在内存中依次分配，用完前异步预取下一段。
+-- 表格ID不再随机生成；table_data 写入前即确定ID，批量导入可一次多行 INSERT 写入已知主键
+CREATE TABLE IF NOT EXISTS id_segment
+(
+    biz_tag     VARCHAR(64)  NOT NULL COMMENT '业务标识',
+    max_id      BIGINT       NOT NULL COMMENT '已分配出去的最大ID',
+    step        INT          NOT NULL COMMENT '每次租用的ID数量',
+    description VARCHAR(255)          DEFAULT NULL COMMENT '说明',
+    updated_at  DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (biz_tag)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='号段ID分配';
+
+-- 表格ID从1开始分配，与历史随机ID重复时由表格服务跳过
+INSERT IGNORE INTO id_segment (biz_tag, max_id, step, description)
+VALUES ('table_meta', 0, 20, '表格ID');
+
+-- 数据ID从现有最大ID之后开始（含归档数据）。
+-- 显式写入的ID会推高 AUTO_INCREMENT，旧版本实例自增写入的ID可能与号段重复，执行前需停止全部旧版本实例
+INSERT IGNORE INTO id_segment (biz_tag, max_id, step, description)
+SELECT 'table_data',
+       GREATEST(COALESCE((SELECT MAX(id) FROM table_data), 0),
+                COALESCE((SELECT MAX(id) FROM table_data_archive), 0)),
+       1000,
+       '表格数据ID';
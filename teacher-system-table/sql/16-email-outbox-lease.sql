@@ -0,0 +1,4 @@
+-- 邮件发件箱：显式租约
+-- 领取时写入 leased_until，发送完成或等待重试时清空；汇总邮件一并领取同键邮件时跳过仍在租约内的行
+ALTER TABLE email_outbox
+    ADD COLUMN leased_until DATETIME NULL COMMENT '领取租约到期时间，为空表示未被领取' AFTER next_attempt_at;
@@ -0,0 +1,12 @@
+-- 集群锁
+-- 多实例部署时，字段索引列维护、分区维护、归档等后台任务只在持有锁的实例上执行。
+-- 锁以行 + 租约实现（不依赖连接级的 GET_LOCK，连接池归还连接不会丢锁），持有者中断后租约到期即可被其他实例获取
+CREATE TABLE IF NOT EXISTS cluster_lock
+(
+    name        VARCHAR(64)  NOT NULL COMMENT '锁名称',
+    owner       VARCHAR(128) NULL COMMENT '持有者（实例标识），为空表示未被持有',
+    lease_until DATETIME     NULL COMMENT '租约到期时间',
+    updated_at  DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (name)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='集群锁';
@@ -0,0 +1,17 @@
+-- 字段索引列登记表增加状态，筛选次数改为按 (表格, 字段) 持久化汇总
+-- state: 0=创建中，1=可用，2=删除中。查询只使用可用的索引列，每次筛选前重新读取登记表；
+-- 删除时先标记为删除中，超过 table.filter.index.drop-grace-ms 后才执行 DROP COLUMN，避免其他实例正在执行的查询引用已删除的列
+ALTER TABLE table_field_index
+    ADD COLUMN state      TINYINT  NOT NULL DEFAULT 1 COMMENT '状态：0=创建中，1=可用，2=删除中' AFTER field_name,
+    ADD COLUMN updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '状态更新时间' AFTER created_at;
+
+-- 各实例定时把本地的筛选次数累加到这里，持有集群锁的实例在维护周期内读取后扣减
+CREATE TABLE IF NOT EXISTS table_field_filter_hit
+(
+    table_id   INT          NOT NULL COMMENT '表格ID',
+    field_name VARCHAR(255) NOT NULL COMMENT '字段名称',
+    hits       BIGINT       NOT NULL DEFAULT 0 COMMENT '可走索引的筛选次数',
+    updated_at DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (table_id, field_name)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='字段筛选次数';
@@ -0,0 +1,5 @@
+-- 归档候选查询索引
+-- 归档任务先按 submission_period < ? ORDER BY submission_period, id 普通读取一批候选ID，
+-- 再只对这些ID加锁迁移，避免加锁扫描整张在线表
+ALTER TABLE table_data
+    ADD INDEX idx_period_id (submission_period, id);
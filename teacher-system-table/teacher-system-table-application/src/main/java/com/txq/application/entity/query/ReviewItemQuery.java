@@ -0,0 +1,27 @@
+package com.txq.application.entity.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 批量审核条目Query
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewItemQuery {
+    // 数据ID
+    private Long id;
+
+    // 分数
+    private BigDecimal score;
+
+    // 退回原因
+    private String rejectReason;
+
+    // 读取到的版本号（可选，不一致时该条目失败）
+    private Integer version;
+}
@@ -11,6 +11,9 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class TableFieldQuery {
+    // 字段ID，修改表格时传入已有字段的ID可改名，新增字段为空
+    private Integer fieldId;
+
     // 管理员操作字段
     private boolean root;
 
@@ -0,0 +1,25 @@
+package com.txq.application.entity.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 附件签名下载地址值对象
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttachmentDownloadUrlVO {
+    /**
+     * 下载地址（相对API根路径），带过期时间和签名，浏览器可直接打开并发起 Range 请求
+     */
+    private String url;
+
+    /**
+     * 过期时间（毫秒）
+     */
+    private long expiresAt;
+}
@@ -0,0 +1,42 @@
+package com.txq.application.entity.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.file.Path;
+
+/**
+ * 附件文件值对象（下载用）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttachmentFileVO {
+    /**
+     * 本地文件路径（已校验位于附件目录下）
+     */
+    private Path localPath;
+
+    /**
+     * 文件名（去掉附件ID前缀）
+     */
+    private String fileName;
+
+    /**
+     * 文件大小（字节）
+     */
+    private long fileSize;
+
+    /**
+     * 最后修改时间（毫秒）
+     */
+    private long lastModified;
+
+    /**
+     * 强ETag，由文件大小和修改时间生成
+     */
+    private String etag;
+}
@@ -0,0 +1,28 @@
+package com.txq.application.entity.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量删除结果VO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchDeleteResultVO {
+
+    /**
+     * 实际删除条数
+     */
+    private Integer deletedCount;
+
+    /**
+     * 未删除的数据及原因
+     */
+    private List<RejectedItemVO> rejectedItems;
+}
@@ -0,0 +1,33 @@
+package com.txq.application.entity.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量审核结果VO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchReviewResultVO {
+
+    /**
+     * 成功条数
+     */
+    private Integer successCount;
+
+    /**
+     * 失败条数
+     */
+    private Integer failedCount;
+
+    /**
+     * 逐条结果（与请求顺序一致）
+     */
+    private List<ReviewItemResultVO> results;
+}
@@ -0,0 +1,48 @@
+package com.txq.application.entity.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 数值字段聚合结果VO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FieldAggregateVO {
+
+    /**
+     * 分组键：按用户分组时为用户工号，按时期分组时为提交时期，不分组时为null
+     */
+    private String groupKey;
+
+    /**
+     * 数值条数（字段值不是数字的数据不计入）
+     */
+    private Long count;
+
+    /**
+     * 合计
+     */
+    private BigDecimal sum;
+
+    /**
+     * 平均值
+     */
+    private BigDecimal avg;
+
+    /**
+     * 最小值
+     */
+    private BigDecimal min;
+
+    /**
+     * 最大值
+     */
+    private BigDecimal max;
+}
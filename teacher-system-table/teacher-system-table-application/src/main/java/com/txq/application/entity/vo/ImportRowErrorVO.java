@@ -0,0 +1,26 @@
+package com.txq.application.entity.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 导入失败行VO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowErrorVO {
+
+    /**
+     * 行号（表头为第1行）
+     */
+    private Integer rowNumber;
+
+    /**
+     * 失败原因
+     */
+    private String message;
+}
@@ -0,0 +1,26 @@
+package com.txq.application.entity.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量操作中被拒绝的条目VO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RejectedItemVO {
+
+    /**
+     * 数据ID
+     */
+    private Long id;
+
+    /**
+     * 拒绝原因
+     */
+    private String reason;
+}
@@ -0,0 +1,36 @@
+package com.txq.application.entity.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量审核单条结果VO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewItemResultVO {
+
+    /**
+     * 数据ID
+     */
+    private Long id;
+
+    /**
+     * 审核动作：score=打分，reject=退回
+     */
+    private String action;
+
+    /**
+     * 是否成功
+     */
+    private Boolean success;
+
+    /**
+     * 失败原因
+     */
+    private String message;
+}
@@ -0,0 +1,43 @@
+package com.txq.application.entity.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 表格数据批量导入结果VO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableDataImportResultVO {
+
+    /**
+     * 数据总行数（不含表头和空行）
+     */
+    private Integer totalRows;
+
+    /**
+     * 成功导入行数
+     */
+    private Integer successCount;
+
+    /**
+     * 失败行数
+     */
+    private Integer failedCount;
+
+    /**
+     * 失败行明细
+     */
+    private List<ImportRowErrorVO> errors;
+
+    /**
+     * 失败明细是否因数量过多被截断
+     */
+    private Boolean errorsTruncated;
+}
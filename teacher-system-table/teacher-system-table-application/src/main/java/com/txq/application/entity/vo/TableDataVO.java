@@ -1,14 +1,15 @@
 package com.txq.application.entity.vo;
 
+import com.fasterxml.jackson.databind.util.RawValue;
 import lombok.Builder;
 import lombok.Data;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Map;
 
 /**
  * 表格数据值对象
+ * dataContent 直接携带数据库中的JSON文本，序列化时原样输出
  */
 @Data
 @Builder
@@ -17,11 +18,12 @@ public class TableDataVO {
     private Integer tableId;
     private String userId;
     private String submissionPeriod; // 提交时期（格式：YYYY-MM）
-    private Map<String, Object> dataContent;
+    private RawValue dataContent;    // 数据内容（原始JSON）
     private BigDecimal score;
     private String reviewMaterial;
     private String rejectReason; // 退回原因
     private Integer status; // 0=暂存，1=已提交，2=已打分，3=已退回
+    private Integer version; // 版本号，更新时回传用于冲突检测
     private String createdBy;
     private String updatedBy;
     private LocalDateTime createdAt;
@@ -0,0 +1,67 @@
+package com.txq.application.entity.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 表格删除任务进度VO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableDeleteJobVO {
+
+    /**
+     * 任务ID
+     */
+    private Long jobId;
+
+    /**
+     * 表格ID
+     */
+    private Integer tableId;
+
+    /**
+     * 状态：pending=待执行，running=执行中，done=已完成，failed=失败
+     */
+    private String status;
+
+    /**
+     * 开始执行时的数据条数，未开始时为0
+     */
+    private Long totalRows;
+
+    /**
+     * 已删除数据条数
+     */
+    private Long deletedRows;
+
+    /**
+     * 已删除附件数
+     */
+    private Long deletedAttachments;
+
+    /**
+     * 删除失败或不存在的附件数
+     */
+    private Long failedAttachments;
+
+    /**
+     * 进度百分比（0-100）
+     */
+    private Integer progress;
+
+    /**
+     * 最近一次失败原因
+     */
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime finishedAt;
+}
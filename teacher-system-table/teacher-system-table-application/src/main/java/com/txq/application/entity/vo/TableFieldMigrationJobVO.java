@@ -0,0 +1,74 @@
+package com.txq.application.entity.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 字段迁移任务进度VO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableFieldMigrationJobVO {
+
+    /**
+     * 任务ID
+     */
+    private Long jobId;
+
+    /**
+     * 表格ID
+     */
+    private Integer tableId;
+
+    /**
+     * 状态：pending=待执行，running=执行中，done=已完成，failed=失败
+     */
+    private String status;
+
+    /**
+     * 字段改名：原名称 -> 新名称
+     */
+    private Map<String, String> renames;
+
+    /**
+     * 删除的字段名称
+     */
+    private List<String> removedFields;
+
+    /**
+     * 开始执行时的数据条数，未开始时为0
+     */
+    private Long totalRows;
+
+    /**
+     * 已扫描数据条数
+     */
+    private Long scannedRows;
+
+    /**
+     * 已改写数据条数
+     */
+    private Long rewrittenRows;
+
+    /**
+     * 进度百分比（0-100）
+     */
+    private Integer progress;
+
+    /**
+     * 最近一次失败原因
+     */
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime finishedAt;
+}
@@ -13,6 +13,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class TableFieldVO {
+    private Integer fieldId;
     private boolean root;
     private String fieldName;
 }
@@ -1,5 +1,6 @@
 package com.txq.application.entity.vo;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -42,8 +43,9 @@ public class TableUserScoreVO {
     private Double avgScore;
     
     /**
-     * 该用户在此表的数据列表
+     * 该用户在此表的数据列表（汇总模式下不返回）
      */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<TableDataVO> dataList;
 }
 
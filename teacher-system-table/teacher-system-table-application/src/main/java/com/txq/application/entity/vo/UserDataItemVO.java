@@ -1,6 +1,7 @@
 package com.txq.application.entity.vo;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.util.RawValue;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,7 +9,6 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Map;
 
 /**
  * 用户数据项VO
@@ -35,9 +35,9 @@ public class UserDataItemVO {
     private String tableName;
     
     /**
-     * 数据内容（JSON）
+     * 数据内容（原始JSON，序列化时原样输出）
      */
-    private Map<String, Object> dataContent;
+    private RawValue dataContent;
     
     /**
      * 分数
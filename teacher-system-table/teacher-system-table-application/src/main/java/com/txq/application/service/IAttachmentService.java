@@ -1,8 +1,13 @@
 package com.txq.application.service;
 
+import com.txq.application.entity.vo.AttachmentDownloadUrlVO;
+import com.txq.application.entity.vo.AttachmentFileVO;
 import com.txq.application.entity.vo.AttachmentVO;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 /**
  * 附件服务接口
  */
@@ -34,5 +39,44 @@ public interface IAttachmentService {
      * @return 附件信息
      */
     AttachmentVO getAttachment(String attachmentId);
+    
+    /**
+     * 获取待下载的附件文件
+     * 需要登录，普通成员只能下载路径中用户工号为自己的附件，管理员不限
+     *
+     * @param filePath 上传时返回的相对路径，如 /table-data/{userId}/{attachmentId}_{filename}
+     * @return 附件文件信息
+     */
+    AttachmentFileVO getAttachmentFile(String filePath);
+    
+    /**
+     * 签发附件的短期下载地址
+     * 校验规则同 {@link #getAttachmentFile}，地址带过期时间和签名，浏览器可直接打开、流式下载并发起 Range 请求
+     *
+     * @param filePath 上传时返回的相对路径
+     * @return 签名下载地址
+     */
+    AttachmentDownloadUrlVO createDownloadUrl(String filePath);
+    
+    /**
+     * 按签名下载地址获取待下载的附件文件，不需要登录凭证
+     *
+     * @param filePath 附件相对路径
+     * @param expires 过期时间（秒级时间戳）
+     * @param signature 签名
+     * @return 附件文件信息
+     */
+    AttachmentFileVO getSignedAttachmentFile(String filePath, long expires, String signature);
+    
+    /**
+     * 将附件的指定区间写出到输出流
+     * 通过 FileChannel.transferTo 直接写出，不整体读入内存
+     *
+     * @param file 附件文件
+     * @param position 起始偏移
+     * @param count 写出字节数
+     * @param out 输出流
+     * @return 实际写出的字节数
+     */
+    long transferAttachment(AttachmentFileVO file, long position, long count, OutputStream out) throws IOException;
 }
-
@@ -7,7 +7,8 @@ import java.util.Map;
  */
 public interface IEmailService {
     /**
-     * 发送数据退回通知邮件
+     * 将数据退回通知写入发件箱，由后台任务异步发送
+     * 在业务事务内调用时与退回操作一起提交
      *
      * @param toEmail      收件人邮箱
      * @param userName     用户名
@@ -18,8 +19,15 @@ public interface IEmailService {
      * @param rejectReason 退回原因
      * @param dataId       数据ID
      */
-    void sendRejectNotification(String toEmail, String userName, String userId, String tableName, 
+    void enqueueRejectNotification(String toEmail, String userName, String userId, String tableName, 
                                 String submissionPeriod, Map<String, Object> dataContent, 
                                 String rejectReason, Long dataId);
+
+    /**
+     * 发送发件箱中到期的邮件
+     *
+     * @return 本次发送成功的邮件数
+     */
+    int dispatchOutbox();
 }
 
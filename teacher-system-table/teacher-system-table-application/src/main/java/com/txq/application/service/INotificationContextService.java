@@ -0,0 +1,25 @@
+package com.txq.application.service;
+
+import com.txq.domain.model.NotificationRecipient;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 通知上下文服务接口
+ * 按数据ID解析通知收件人，多条数据合并为按批次的 IN 查询
+ */
+public interface INotificationContextService {
+
+    /**
+     * 解析单条数据的通知收件人
+     * @return 数据不存在时返回null
+     */
+    NotificationRecipient resolveRecipient(Long dataId);
+
+    /**
+     * 批量解析数据的通知收件人
+     * @return key为数据ID，不存在的数据不返回
+     */
+    Map<Long, NotificationRecipient> resolveRecipients(Collection<Long> dataIds);
+}
@@ -0,0 +1,14 @@
+package com.txq.application.service;
+
+/**
+ * 表格数据归档服务接口
+ * 已关闭时期的数据迁移到归档表，读取时按时期范围自动路由
+ */
+public interface ITableDataArchiveService {
+
+    /**
+     * 分批归档已关闭时期的数据
+     * @return 本次归档的数据条数
+     */
+    long archiveClosedPeriods();
+}
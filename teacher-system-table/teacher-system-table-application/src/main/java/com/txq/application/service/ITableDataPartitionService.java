@@ -0,0 +1,18 @@
+package com.txq.application.service;
+
+/**
+ * 表格数据分区维护服务接口
+ */
+public interface ITableDataPartitionService {
+
+    /**
+     * 提前创建后续年份的分区，table_data 未分区时不做处理
+     * @return 本次创建的分区数
+     */
+    int ensurePartitions();
+
+    /**
+     * 新增数据的提交时期：已填写时原样返回；未填写时，开启分区后（时期列是主键的一部分）取当前月份，否则保持为空
+     */
+    String resolveNewPeriod(String submissionPeriod);
+}
@@ -1,8 +1,14 @@
 package com.txq.application.service;
 
+import com.txq.application.entity.query.ReviewItemQuery;
+import com.txq.application.entity.vo.BatchDeleteResultVO;
+import com.txq.application.entity.vo.BatchReviewResultVO;
+import com.txq.application.entity.vo.CursorPageVO;
+import com.txq.application.entity.vo.FieldAggregateVO;
 import com.txq.application.entity.vo.TableDataVO;
 import com.txq.application.entity.vo.TableScoreStatisticsVO;
 import com.txq.application.entity.vo.UserDataStatisticsVO;
+import com.txq.domain.model.PeriodRange;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -16,29 +22,60 @@ public interface ITableDataService {
     /**
      * 保存表格数据（新增或更新）
      * 会根据用户角色进行权限控制
-     * @param submissionPeriod 提交时期（格式：YYYY-MM）
+     * @param submissionPeriod 提交时期（格式：YYYY-MM），新增时为空则不设置（开启分区后取当前月份），更新时为空则保持不变
      * @param status 数据状态：0=暂存，1=已提交，2=已打分
+     * @param version 更新时客户端读取到的版本号，为null时以服务端读取的版本号为准
      */
     Long saveTableData(Long id, Integer tableId, String dataUserId, String submissionPeriod,
-                      Map<String, Object> dataContent, BigDecimal score, String reviewMaterial, Integer status);
+                      Map<String, Object> dataContent, BigDecimal score, String reviewMaterial, Integer status,
+                      Integer version);
 
     /**
      * 暂存数据（普通用户功能）
      * 状态设置为0（暂存）
      * @param dataUserId 数据所属用户ID（管理员可指定，普通用户为null时使用当前用户）
+     * @param version 更新时客户端读取到的版本号，可为null
      */
-    Long saveDraft(Long id, Integer tableId, String dataUserId, String submissionPeriod, Map<String, Object> dataContent, String reviewMaterial);
+    Long saveDraft(Long id, Integer tableId, String dataUserId, String submissionPeriod, Map<String, Object> dataContent, String reviewMaterial,
+                   Integer version);
 
     /**
      * 提交数据（普通用户功能）
      * 状态设置为1（已提交）
+     * @param version 更新时客户端读取到的版本号，可为null
      */
-    Long submitData(Long id, Integer tableId, String submissionPeriod, Map<String, Object> dataContent, String reviewMaterial);
+    Long submitData(Long id, Integer tableId, String submissionPeriod, Map<String, Object> dataContent, String reviewMaterial,
+                    Integer version);
 
     /**
-     * 获取表格的所有数据
+     * 获取表格的所有数据，按创建时间倒序
+     * 普通成员只返回自己的数据
+     * @param period 提交时期范围
+     * @param filters 字段筛选表达式（字段名:运算符:值），可为null
      */
-    List<TableDataVO> getTableData(Integer tableId);
+    List<TableDataVO> getTableData(Integer tableId, PeriodRange period, List<String> filters);
+
+    /**
+     * 游标分页获取表格数据，按创建时间倒序
+     * 普通成员只返回自己的数据
+     * @param cursor 上一页返回的游标，为空时查询第一页
+     * @param size 每页条数
+     * @param period 提交时期范围
+     * @param filters 字段筛选表达式（字段名:运算符:值），可为null
+     */
+    CursorPageVO<TableDataVO> getTableDataPage(Integer tableId, String cursor, Integer size, PeriodRange period,
+                                               List<String> filters);
+
+    /**
+     * 游标分页获取指定用户在表格中的数据，按创建时间倒序
+     * 管理员可查看任意用户，普通成员只能查看自己
+     * @param dataUserId 数据所属用户ID
+     * @param cursor 上一页返回的游标，为空时查询第一页
+     * @param size 每页条数
+     * @param period 提交时期范围
+     */
+    CursorPageVO<TableDataVO> getUserTableDataPage(Integer tableId, String dataUserId, String cursor, Integer size,
+                                                   PeriodRange period);
 
     /**
      * 获取单条数据
@@ -52,8 +89,10 @@ public interface ITableDataService {
 
     /**
      * 批量删除数据
+     * 权限规则与单条删除一致，不满足规则的数据跳过并在结果中返回原因
+     * @return 删除结果
      */
-    void batchDeleteData(List<Long> ids);
+    BatchDeleteResultVO batchDeleteData(List<Long> ids);
 
     /**
      * 获取用户的数据统计
@@ -62,20 +101,61 @@ public interface ITableDataService {
      */
     UserDataStatisticsVO getUserDataStatistics(String userId);
 
+    /**
+     * 聚合数值字段（管理员功能）
+     * 在数据库内计算字段值为数字的数据的条数、合计、平均、最小和最大值
+     * @param fieldName 字段名称
+     * @param groupBy 分组方式：none=不分组（默认），user=按用户，period=按提交时期
+     * @param statuses 数据状态范围，为空时不限
+     * @param period 提交时期范围
+     * @param filters 字段筛选表达式（字段名:运算符:值），可为null
+     */
+    List<FieldAggregateVO> aggregateField(Integer tableId, String fieldName, String groupBy,
+                                          List<Integer> statuses, PeriodRange period, List<String> filters);
+
     /**
      * 获取表格的用户得分统计（管理员功能）
      * @param tableId 表格ID
+     * @param period 提交时期范围，不限时读取得分汇总投影，否则从表格数据实时汇总
      * @return 表格用户得分统计
      */
-    TableScoreStatisticsVO getTableScoreStatistics(Integer tableId);
+    TableScoreStatisticsVO getTableScoreStatistics(Integer tableId, PeriodRange period);
+
+    /**
+     * 获取表格的用户得分汇总（管理员功能）
+     * 只返回每个用户的条数、总分和平均分，不包含数据明细
+     * 明细通过 getUserTableDataPage 按需分页获取
+     * @param tableId 表格ID
+     * @param period 提交时期范围，不限时读取得分汇总投影，否则从表格数据实时汇总
+     * @return 表格用户得分汇总（userScores.dataList 为空）
+     */
+    TableScoreStatisticsVO getTableScoreSummary(Integer tableId, PeriodRange period);
+
+    /**
+     * 从表格数据重建用户得分汇总（管理员功能）
+     * 用于修复汇总与明细数据之间的偏差
+     * @param tableId 表格ID，为null时重建全部表格
+     * @return 重建的汇总行数
+     */
+    int rebuildScoreAggregates(Integer tableId);
 
     /**
      * 退回数据（管理员功能）
      * 状态设置为3（已退回），并发送邮件通知用户
      * @param id 数据ID
      * @param rejectReason 退回原因
+     * @param version 客户端读取到的版本号，为null时以服务端读取的版本号为准
+     */
+    void rejectData(Long id, String rejectReason, Integer version);
+
+    /**
+     * 批量审核（管理员功能）
+     * 每个条目给出分数即打分（状态置为2），给出退回原因即退回（状态置为3并发送邮件通知）
+     * 只能审核已提交或已打分的数据
+     * @param items 审核条目
+     * @return 逐条审核结果
      */
-    void rejectData(Long id, String rejectReason);
+    BatchReviewResultVO batchReviewData(List<ReviewItemQuery> items);
 
     /**
      * 获取全局数据统计（管理员功能）
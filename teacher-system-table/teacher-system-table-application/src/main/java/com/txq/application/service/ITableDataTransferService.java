@@ -0,0 +1,41 @@
+package com.txq.application.service;
+
+import com.txq.application.entity.vo.TableDataImportResultVO;
+import com.txq.domain.model.PeriodRange;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.OutputStream;
+
+/**
+ * 表格数据导入导出服务接口
+ */
+public interface ITableDataTransferService {
+
+    /**
+     * 校验导出权限（管理员功能）
+     * 在写出响应头之前调用，校验失败时抛出业务异常
+     * @param tableId 表格ID
+     * @return 导出文件名
+     */
+    String prepareExport(Integer tableId);
+
+    /**
+     * 以CSV格式流式导出表格数据
+     * 列顺序：数据ID、用户工号、提交时期、表格字段（按定义顺序）、分数、状态、创建时间
+     * @param tableId 表格ID
+     * @param period 提交时期范围
+     * @param outputStream 输出流（调用方负责关闭）
+     * @return 导出行数
+     */
+    long exportTableData(Integer tableId, PeriodRange period, OutputStream outputStream);
+
+    /**
+     * 批量导入CSV数据（管理员功能）
+     * 表头需包含“用户工号”列，可选“提交时期”“分数”列，其余列按表格字段名匹配，未知列忽略
+     * 导出文件可直接作为导入模板使用
+     * @param tableId 表格ID
+     * @param file CSV文件（UTF-8编码）
+     * @return 导入结果（包含失败行明细）
+     */
+    TableDataImportResultVO importTableData(Integer tableId, MultipartFile file);
+}
@@ -0,0 +1,27 @@
+package com.txq.application.service;
+
+import com.txq.application.entity.vo.TableDeleteJobVO;
+
+/**
+ * 表格删除任务服务接口
+ * 删除表格时立即标记删除并返回任务ID，数据与附件由后台任务分批清理
+ */
+public interface ITableDeleteJobService {
+
+    /**
+     * 标记表格已删除并创建删除任务，仅管理员可操作
+     * @return 任务ID
+     */
+    Long submit(Integer tableId);
+
+    /**
+     * 查询任务进度
+     */
+    TableDeleteJobVO getJob(Long jobId);
+
+    /**
+     * 领取并执行待执行的删除任务
+     * @return 本次执行完成的任务数
+     */
+    int runPendingJobs();
+}
@@ -0,0 +1,31 @@
+package com.txq.application.service;
+
+import com.txq.domain.model.TableDataFilter;
+
+import java.util.List;
+
+/**
+ * 数据内容字段筛选与字段索引列服务接口
+ * 筛选条件下推为 MySQL JSON 路径表达式，常用筛选字段自动建立生成列索引
+ */
+public interface ITableFieldIndexService {
+
+    /**
+     * 解析并校验筛选表达式，有索引列的字段改为按索引列比较
+     * @param tableId 表格ID
+     * @param expressions 筛选表达式，格式为 字段名:运算符:值，运算符为 eq/ne/gt/ge/lt/le/like/prefix
+     * @return 筛选条件，expressions 为空时返回空列表
+     */
+    List<TableDataFilter> resolveFilters(Integer tableId, List<String> expressions);
+
+    /**
+     * 把本实例累计的筛选次数写入数据库
+     */
+    void flushFilterHits();
+
+    /**
+     * 维护字段索引列：为筛选次数达到阈值的字段创建索引列，删除已不在任何表格中的字段的索引列
+     * 多实例部署时只在持有集群锁的实例上执行
+     */
+    void maintainIndexes();
+}
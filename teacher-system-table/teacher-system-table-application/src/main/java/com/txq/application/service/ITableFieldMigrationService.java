@@ -0,0 +1,22 @@
+package com.txq.application.service;
+
+import com.txq.application.entity.vo.TableFieldMigrationJobVO;
+
+/**
+ * 字段迁移服务接口
+ * 字段改名或删除后，由后台任务分批改写已有数据内容中的字段键
+ */
+public interface ITableFieldMigrationService {
+
+    /**
+     * 查询表格最近一次迁移任务的进度
+     * @return 任务进度，表格没有迁移任务时返回null
+     */
+    TableFieldMigrationJobVO getLatestJob(Integer tableId);
+
+    /**
+     * 领取并执行待执行的迁移任务
+     * @return 本次执行完成的任务数
+     */
+    int runPendingJobs();
+}
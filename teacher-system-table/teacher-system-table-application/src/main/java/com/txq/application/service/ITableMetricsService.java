@@ -0,0 +1,93 @@
+package com.txq.application.service;
+
+/**
+ * 表格指标服务接口
+ * 用于在应用层收集表格业务指标
+ */
+public interface ITableMetricsService {
+
+    // ========== 数据导出相关 ==========
+
+    /**
+     * 记录一次数据导出
+     * @param rows 导出行数
+     * @param bytes 写出字节数
+     * @param durationNanos 导出耗时（纳秒）
+     */
+    void recordDataExport(long rows, long bytes, long durationNanos);
+
+    /**
+     * 记录一次失败或被中断的数据导出（不计入导出耗时和字节数分布）
+     */
+    void recordDataExportFailure();
+
+    // ========== 数据导入相关 ==========
+
+    /**
+     * 记录一次数据导入
+     * @param successRows 成功行数
+     * @param failedRows 失败行数
+     * @param durationNanos 导入耗时（纳秒）
+     */
+    void recordDataImport(long successRows, long failedRows, long durationNanos);
+
+    // ========== 数据审核相关 ==========
+
+    /**
+     * 记录审核结果
+     * @param scoredRows 打分条数
+     * @param rejectedRows 退回条数
+     */
+    void recordDataReviewed(long scoredRows, long rejectedRows);
+
+    /**
+     * 记录数据删除
+     * @param rows 删除条数
+     */
+    void recordDataDeleted(long rows);
+
+    // ========== 数据筛选相关 ==========
+
+    /**
+     * 记录一次字段筛选查询中各条件的执行方式
+     * @param indexedFilters 使用字段索引列的条件数
+     * @param scanFilters 按 JSON 路径取值比较的条件数
+     */
+    void recordFieldFilter(long indexedFilters, long scanFilters);
+
+    // ========== 表格结构缓存相关 ==========
+
+    /**
+     * 记录一次表格结构缓存访问
+     * @param hit 是否命中缓存
+     */
+    void recordSchemaCache(boolean hit);
+
+    // ========== 附件相关 ==========
+
+    /**
+     * 记录一次附件下载
+     * @param bytes 写出字节数，条件请求命中缓存时为0
+     * @param durationNanos 下载耗时（纳秒）
+     */
+    void recordAttachmentDownload(long bytes, long durationNanos);
+
+    // ========== 邮件相关 ==========
+
+    /**
+     * 记录一批邮件的发送结果
+     * @param sent 发送成功条数
+     * @param retried 失败待重试条数
+     * @param failed 最终失败条数
+     */
+    void recordEmailDispatch(long sent, long retried, long failed);
+
+    // ========== 统计指标相关 ==========
+
+    /**
+     * 更新统计指标
+     * @param activeTableCount 当前表格数量
+     * @param pendingDataCount 待审核数据条数
+     */
+    void updateStatistics(int activeTableCount, long pendingDataCount);
+}
@@ -0,0 +1,23 @@
+package com.txq.application.service;
+
+import com.txq.domain.model.TableSchema;
+
+/**
+ * 表格结构服务接口
+ * 进程内缓存表格元信息与字段定义，供字段查询、导入导出和筛选校验复用
+ */
+public interface ITableSchemaService {
+
+    /**
+     * 获取表格结构
+     * @param tableId 表格ID
+     * @return 表格结构，表格不存在或已删除时返回null
+     */
+    TableSchema getSchema(Integer tableId);
+
+    /**
+     * 使指定表格的缓存结构失效（修改、删除表格后调用）
+     * @param tableId 表格ID
+     */
+    void invalidate(Integer tableId);
+}
@@ -31,7 +31,8 @@ public interface ITableService {
     void updateTable(Integer tableId, TableQuery tableQuery);
 
     /**
-     * 删除表格
+     * 删除表格：标记删除并创建后台删除任务，仅管理员可操作
+     * @return 删除任务ID，可通过删除任务接口查询进度
      */
-    void deleteTable(Integer tableId);
+    Long deleteTable(Integer tableId);
 }
@@ -0,0 +1,41 @@
+package com.txq.application.service;
+
+/**
+ * 表格数据状态计数服务接口
+ * 在内存中维护各状态的数据条数和表格总数，读取为O(1)，定期与数据库校准
+ */
+public interface ITableStatusCounterService {
+
+    /**
+     * 记录一条数据的状态变化，在当前事务提交后生效
+     * @param fromStatus 变化前状态，新增数据时为null
+     * @param toStatus 变化后状态，删除数据时为null
+     */
+    void recordStatusChange(Integer fromStatus, Integer toStatus);
+
+    /**
+     * 记录表格新增，在当前事务提交后生效
+     */
+    void recordTableCreated();
+
+    /**
+     * 获取指定状态的数据条数
+     * @param status 数据状态：0=暂存，1=已提交，2=已打分，3=已退回
+     */
+    long getStatusCount(int status);
+
+    /**
+     * 获取数据总条数
+     */
+    long getTotalCount();
+
+    /**
+     * 获取表格总数
+     */
+    int getTableCount();
+
+    /**
+     * 从数据库重新统计并覆盖内存计数
+     */
+    void reconcile();
+}
@@ -1,22 +1,45 @@
 package com.txq.application.service.impl;
 
+import com.txq.application.entity.vo.AttachmentDownloadUrlVO;
+import com.txq.application.entity.vo.AttachmentFileVO;
 import com.txq.application.entity.vo.AttachmentVO;
 import com.txq.application.service.IAttachmentService;
+import com.txq.common.context.UserContext;
 import com.txq.common.exception.BizException;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static com.txq.domain.status.ErrorCode.PERMISSION_DENIED_ERROR_CODE;
+import static com.txq.domain.status.ErrorCode.USER_NOT_LOGIN_ERROR_CODE;
 
 /**
  * 附件服务实现
@@ -29,6 +52,20 @@ public class AttachmentServiceImpl implements IAttachmentService {
     @Value("${attachment.base-path}")
     private String attachmentBasePath;
 
+    /**
+     * 下载地址签名密钥，多实例部署时各实例需配置相同的值
+     */
+    @Value("${attachment.download.sign-secret:}")
+    private String signSecret;
+
+    /**
+     * 签名下载地址的有效期（秒）
+     */
+    @Value("${attachment.download.url-ttl-seconds:600}")
+    private long urlTtlSeconds;
+
+    private byte[] signKey;
+
     private final String projectRoot = System.getProperty("user.dir");
 
     // 支持的文件类型
@@ -39,6 +76,15 @@ public class AttachmentServiceImpl implements IAttachmentService {
             ".txt", ".md"
     );
 
+    // 附件分类：作为目录名，只允许字母、数字、下划线和短横线
+    private static final Pattern CATEGORY_PATTERN = Pattern.compile("^[A-Za-z0-9_-]{1,32}$");
+
+    // 用户头像目录，通过 /attachments/users/** 公开访问，不能作为附件分类
+    private static final String AVATAR_DIR = "users";
+
+    // 存储文件名前缀：{attachmentId}_
+    private static final Pattern ATTACHMENT_ID_PREFIX = Pattern.compile("^[0-9a-f]{32}_");
+
     // 最大文件大小：10MB
     private static final long MAX_FILE_SIZE = 10 * 1024 * 1024;
 
@@ -48,11 +94,15 @@ public class AttachmentServiceImpl implements IAttachmentService {
     private static final int ATTACHMENT_TYPE_ERROR_CODE = 20003;
     private static final int ATTACHMENT_UPLOAD_ERROR_CODE = 20004;
     private static final int ATTACHMENT_NOT_FOUND_ERROR_CODE = 20005;
+    private static final int ATTACHMENT_CATEGORY_ERROR_CODE = 20006;
 
     @Override
     public AttachmentVO uploadAttachment(String userId, MultipartFile file, String category, String relatedId) {
         // 验证文件
         validateFile(file);
+        if (category == null || !CATEGORY_PATTERN.matcher(category).matches() || AVATAR_DIR.equals(category)) {
+            throw new BizException(ATTACHMENT_CATEGORY_ERROR_CODE, "附件分类不合法");
+        }
 
         // 生成附件ID
         String attachmentId = UUID.randomUUID().toString().replace("-", "");
@@ -85,7 +135,8 @@ public class AttachmentServiceImpl implements IAttachmentService {
 
             // 构建相对路径和URL
             String relativePath = "/" + dirPath + "/" + newFilename;
-            String fileUrl = "/api/v1/attachments" + relativePath;
+            String fileUrl = "/api/v1/table/attachment/download?path="
+                    + URLEncoder.encode(relativePath, StandardCharsets.UTF_8);
 
             // 返回附件信息
             return AttachmentVO.builder()
@@ -120,6 +171,146 @@ public class AttachmentServiceImpl implements IAttachmentService {
         throw new BizException(ATTACHMENT_NOT_FOUND_ERROR_CODE, "附件不存在");
     }
 
+    /**
+     * 初始化下载地址签名密钥，未配置时使用随机密钥（仅本实例签发的地址有效）
+     */
+    @PostConstruct
+    public void initSignKey() {
+        if (signSecret == null || signSecret.isBlank()) {
+            signKey = new byte[32];
+            new SecureRandom().nextBytes(signKey);
+            log.warn("未配置 attachment.download.sign-secret，使用随机密钥，多实例部署时签名下载地址只在签发实例有效");
+        } else {
+            signKey = signSecret.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    public AttachmentFileVO getAttachmentFile(String filePath) {
+        String operatorId = UserContext.getUserId();
+        List<Integer> roleIds = UserContext.getRoleIds();
+        if (operatorId == null || roleIds == null || roleIds.isEmpty()) {
+            throw new BizException(USER_NOT_LOGIN_ERROR_CODE, "用户未登录或权限信息缺失");
+        }
+        Path basePath = getBasePath();
+        Path localPath = resolveLocalPath(basePath, filePath);
+
+        // 附件路径为 {category}/{userId}/{文件名}，普通成员只能下载自己上传的附件
+        boolean isAdmin = roleIds.contains(1) || roleIds.contains(2);
+        Path relativePath = basePath.relativize(localPath);
+        if (!isAdmin && (relativePath.getNameCount() < 3 || !operatorId.equals(relativePath.getName(1).toString()))) {
+            log.warn("用户 {} 无权限下载附件: {}", operatorId, filePath);
+            throw new BizException(PERMISSION_DENIED_ERROR_CODE, "无权限下载该附件");
+        }
+        return toAttachmentFile(localPath);
+    }
+
+    @Override
+    public AttachmentDownloadUrlVO createDownloadUrl(String filePath) {
+        // 签发前按当前用户做与直接下载相同的校验
+        getAttachmentFile(filePath);
+        long expires = System.currentTimeMillis() / 1000 + urlTtlSeconds;
+        String url = "/table/attachment/download?path=" + URLEncoder.encode(filePath, StandardCharsets.UTF_8)
+                + "&expires=" + expires
+                + "&signature=" + sign(filePath, expires);
+        return AttachmentDownloadUrlVO.builder()
+                .url(url)
+                .expiresAt(expires * 1000)
+                .build();
+    }
+
+    @Override
+    public AttachmentFileVO getSignedAttachmentFile(String filePath, long expires, String signature) {
+        if (filePath == null || signature == null || expires < System.currentTimeMillis() / 1000
+                || !MessageDigest.isEqual(sign(filePath, expires).getBytes(StandardCharsets.US_ASCII),
+                signature.getBytes(StandardCharsets.US_ASCII))) {
+            throw new BizException(PERMISSION_DENIED_ERROR_CODE, "下载链接无效或已过期");
+        }
+        return toAttachmentFile(resolveLocalPath(getBasePath(), filePath));
+    }
+
+    /**
+     * 附件根目录
+     */
+    private Path getBasePath() {
+        return Paths.get(attachmentBasePath).toAbsolutePath().normalize();
+    }
+
+    /**
+     * 解析附件本地路径，路径必须位于附件根目录下且文件存在
+     */
+    private Path resolveLocalPath(Path basePath, String filePath) {
+        if (filePath == null || filePath.isBlank()) {
+            throw new BizException(ATTACHMENT_NOT_FOUND_ERROR_CODE, "附件不存在");
+        }
+        Path localPath;
+        try {
+            localPath = basePath.resolve(filePath.replaceFirst("^[/\\\\]+", "")).normalize();
+        } catch (InvalidPathException e) {
+            throw new BizException(ATTACHMENT_NOT_FOUND_ERROR_CODE, "附件不存在");
+        }
+        if (!localPath.startsWith(basePath) || !Files.isRegularFile(localPath)) {
+            log.warn("附件不存在或路径不在附件目录下: {}", filePath);
+            throw new BizException(ATTACHMENT_NOT_FOUND_ERROR_CODE, "附件不存在");
+        }
+        return localPath;
+    }
+
+    /**
+     * 读取附件文件属性
+     */
+    private AttachmentFileVO toAttachmentFile(Path localPath) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(localPath, BasicFileAttributes.class);
+        } catch (IOException e) {
+            log.warn("读取附件属性失败: {}", localPath, e);
+            throw new BizException(ATTACHMENT_NOT_FOUND_ERROR_CODE, "附件不存在");
+        }
+        long fileSize = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String storedName = localPath.getFileName().toString();
+
+        return AttachmentFileVO.builder()
+                .localPath(localPath)
+                .fileName(ATTACHMENT_ID_PREFIX.matcher(storedName).replaceFirst(""))
+                .fileSize(fileSize)
+                .lastModified(lastModified)
+                .etag("\"" + Long.toHexString(fileSize) + "-" + Long.toHexString(lastModified) + "\"")
+                .build();
+    }
+
+    /**
+     * 对附件路径和过期时间做 HMAC-SHA256 签名（URL安全的Base64）
+     */
+    private String sign(String filePath, long expires) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(signKey, "HmacSHA256"));
+            byte[] digest = mac.doFinal((filePath + "\n" + expires).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("附件下载地址签名失败", e);
+        }
+    }
+
+    @Override
+    public long transferAttachment(AttachmentFileVO file, long position, long count, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.getLocalPath(), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long written = 0;
+            while (written < count) {
+                long transferred = channel.transferTo(position + written, count - written, target);
+                if (transferred <= 0) {
+                    // 文件在下载过程中被截断
+                    break;
+                }
+                written += transferred;
+            }
+            return written;
+        }
+    }
+
     /**
      * 删除旧附件（同一用户同一关联ID的旧文件）
      */
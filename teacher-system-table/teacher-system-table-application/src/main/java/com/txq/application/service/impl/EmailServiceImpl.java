@@ -1,141 +1,332 @@
 package com.txq.application.service.impl;
 
 import com.txq.application.service.IEmailService;
+import com.txq.application.service.ITableMetricsService;
+import com.txq.application.utils.MailTemplate;
+import com.txq.domain.infra.repository.EmailOutboxRepository;
+import com.txq.domain.model.EmailOutboxMessage;
+import jakarta.annotation.PostConstruct;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 邮件服务实现
+ * 业务侧只写发件箱，由定时任务批量领取并通过同一个 SMTP 连接发送，失败按指数退避重试
+ * 邮件正文由 templates/mail 下的模板渲染；开启汇总模式时，同一收件人在汇总窗口内的通知合并为一封
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class EmailServiceImpl implements IEmailService {
 
+    /**
+     * 退回通知业务类型
+     */
+    private static final String BIZ_TYPE_REJECT = "DATA_REJECT";
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy年MM月dd日 HH:mm:ss");
+
     private final JavaMailSender mailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final ITableMetricsService tableMetricsService;
+
+    /**
+     * 发送任务执行标记，防止上一轮未结束时重复进入
+     */
+    private final AtomicBoolean dispatching = new AtomicBoolean(false);
+
+    private MailTemplate rejectTemplate;
+    private MailTemplate rejectDigestTemplate;
+    private MailTemplate rejectItemTemplate;
+    private MailTemplate dataRowTemplate;
+    private MailTemplate dataRowEmptyTemplate;
 
     @Value("${spring.mail.username:}")
     private String fromEmail;
 
+    @Value("${table.mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${table.mail.outbox.lease-seconds:300}")
+    private int leaseSeconds;
+
+    @Value("${table.mail.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${table.mail.outbox.backoff-base-seconds:60}")
+    private int backoffBaseSeconds;
+
+    @Value("${table.mail.outbox.backoff-max-seconds:3600}")
+    private int backoffMaxSeconds;
+
+    @Value("${table.mail.digest.enabled:false}")
+    private boolean digestEnabled;
+
+    @Value("${table.mail.digest.window-seconds:300}")
+    private int digestWindowSeconds;
+
+    /**
+     * 启动时解析邮件模板，模板缺失或格式错误时启动失败
+     */
+    @PostConstruct
+    public void loadTemplates() {
+        rejectTemplate = MailTemplate.load("templates/mail/reject.html");
+        rejectDigestTemplate = MailTemplate.load("templates/mail/reject-digest.html");
+        rejectItemTemplate = MailTemplate.load("templates/mail/reject-item.html");
+        dataRowTemplate = MailTemplate.load("templates/mail/data-row.html");
+        dataRowEmptyTemplate = MailTemplate.load("templates/mail/data-row-empty.html");
+        log.info("邮件模板加载完成，汇总模式: {}, 汇总窗口: {}秒", digestEnabled, digestWindowSeconds);
+    }
+
+    @Override
+    public void enqueueRejectNotification(String toEmail, String userName, String userId, String tableName,
+                                          String submissionPeriod, Map<String, Object> dataContent,
+                                          String rejectReason, Long dataId) {
+        String subject = "【数据退回通知】" + tableName;
+        String item = buildRejectItem(tableName, submissionPeriod, dataContent, rejectReason, dataId);
+        if (digestEnabled) {
+            // 汇总模式：只保存正文片段，窗口结束后与同一收件人的其他通知合并发送
+            emailOutboxRepository.enqueue(List.of(EmailOutboxMessage.digest(
+                    toEmail, userName, subject, item, BIZ_TYPE_REJECT, dataId)), digestWindowSeconds);
+        } else {
+            String content = buildRejectContent(userName, userId, item);
+            emailOutboxRepository.enqueue(List.of(EmailOutboxMessage.of(
+                    toEmail, subject, content, BIZ_TYPE_REJECT, dataId)), 0);
+        }
+        log.info("退回通知邮件已写入发件箱: toEmail={}, tableName={}, userName={}, dataId={}",
+                toEmail, tableName, userName, dataId);
+    }
+
     @Override
-    public void sendRejectNotification(String toEmail, String userName, String userId, String tableName, 
-                                      String submissionPeriod, Map<String, Object> dataContent, 
-                                      String rejectReason, Long dataId) {
+    @Scheduled(initialDelayString = "${table.mail.outbox.dispatch-interval-ms:5000}",
+            fixedDelayString = "${table.mail.outbox.dispatch-interval-ms:5000}")
+    public int dispatchOutbox() {
+        if (!dispatching.compareAndSet(false, true)) {
+            return 0;
+        }
+        int totalSent = 0;
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            helper.setFrom(fromEmail);
-            helper.setTo(toEmail);
-            helper.setSubject("【数据退回通知】" + tableName);
-            
-            // 格式化提交时期
-            String periodText = submissionPeriod != null ? submissionPeriod : "未设置";
-            
-            // 构建数据内容表格
-            StringBuilder dataTableRows = new StringBuilder();
-            if (dataContent != null && !dataContent.isEmpty()) {
-                for (Map.Entry<String, Object> entry : dataContent.entrySet()) {
-                    String value = entry.getValue() != null ? entry.getValue().toString() : "-";
-                    dataTableRows.append(String.format(
-                        "<tr>" +
-                        "  <td style=\"padding: 7px 8px; border-bottom: 1px solid #e0e0e0; color: #666; width: 110px; white-space: nowrap;\">%s</td>" +
-                        "  <td style=\"padding: 7px 8px; border-bottom: 1px solid #e0e0e0; color: #333; font-weight: 500; word-break: break-all;\">%s</td>" +
-                        "</tr>",
-                        entry.getKey(), value
-                    ));
+            while (true) {
+                List<EmailOutboxMessage> batch = emailOutboxRepository.claimDue(batchSize, leaseSeconds, digestWindowSeconds);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                totalSent += dispatchBatch(batch);
+                if (batch.size() < batchSize) {
+                    break;
                 }
-            } else {
-                dataTableRows.append(
-                    "<tr>" +
-                    "  <td colspan=\"2\" style=\"padding: 8px; text-align: center; color: #999;\">无数据内容</td>" +
-                    "</tr>"
-                );
             }
-            
-            // 获取当前时间
-            String currentTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy年MM月dd日 HH:mm:ss"));
-            
-            // HTML 邮件内容
-            String content = String.format(
-                "<div style=\"font-family: 'Microsoft YaHei', Arial, sans-serif; max-width: 650px; margin: 0 auto; padding: 20px; " +
-                "border: 1px solid #e0e0e0; border-radius: 10px; background-color: #fafafa;\">" +
-                
-                "  <div style=\"text-align: center; padding-bottom: 15px; border-bottom: 2px solid #ff9800;\">" +
-                "    <h2 style=\"color: #ff9800; margin: 0; font-size: 22px;\">📋 数据退回通知</h2>" +
-                "    <p style=\"color: #999; font-size: 11px; margin: 5px 0 0 0;\">%s</p>" +
-                "  </div>" +
-                
-                "  <div style=\"padding: 15px 0;\">" +
-                "    <p style=\"margin: 0; font-size: 15px;\">尊敬的 <b style=\"color: #2e6da4;\">%s</b>（工号：%s）：</p>" +
-                "    <p style=\"margin: 8px 0 0 0; color: #666; font-size: 14px;\">您提交的数据已被退回，请查看详情并修改。</p>" +
-                "  </div>" +
-                
-                "  <div style=\"background: white; border-radius: 6px; padding: 15px; margin: 15px 0; border: 1px solid #e0e0e0;\">" +
-                "    <h3 style=\"color: #333; margin: 0 0 12px 0; font-size: 15px; border-bottom: 2px solid #2e6da4; padding-bottom: 6px;\">📊 数据信息</h3>" +
-                "    <table style=\"width: 100%%; border-collapse: collapse; font-size: 14px;\">" +
-                "      <tr>" +
-                "        <td style=\"padding: 8px; border-bottom: 1px solid #e0e0e0; color: #666; width: 90px; white-space: nowrap;\">数据编号</td>" +
-                "        <td style=\"padding: 8px; border-bottom: 1px solid #e0e0e0; color: #333; font-weight: 500;\">#%d</td>" +
-                "      </tr>" +
-                "      <tr>" +
-                "        <td style=\"padding: 8px; border-bottom: 1px solid #e0e0e0; color: #666; white-space: nowrap;\">所属表格</td>" +
-                "        <td style=\"padding: 8px; border-bottom: 1px solid #e0e0e0; color: #333; font-weight: 500;\">%s</td>" +
-                "      </tr>" +
-                "      <tr>" +
-                "        <td style=\"padding: 8px; border-bottom: 1px solid #e0e0e0; color: #666; white-space: nowrap;\">成果时期</td>" +
-                "        <td style=\"padding: 8px; border-bottom: 1px solid #e0e0e0; color: #333; font-weight: 500;\">%s</td>" +
-                "      </tr>" +
-                "    </table>" +
-                "  </div>" +
-                
-                "  <div style=\"background: white; border-radius: 6px; padding: 15px; margin: 15px 0; border: 1px solid #e0e0e0;\">" +
-                "    <h3 style=\"color: #333; margin: 0 0 12px 0; font-size: 15px; border-bottom: 2px solid #2e6da4; padding-bottom: 6px;\">📝 数据内容</h3>" +
-                "    <table style=\"width: 100%%; border-collapse: collapse; font-size: 13px;\">" +
-                "      %s" +
-                "    </table>" +
-                "  </div>" +
-                
-                "  <div style=\"background: #fff3e0; border-left: 4px solid #ff9800; padding: 15px; margin: 15px 0; border-radius: 4px;\">" +
-                "    <h3 style=\"color: #f57c00; margin: 0 0 8px 0; font-size: 15px;\">⚠️ 退回原因</h3>" +
-                "    <p style=\"white-space: pre-wrap; color: #333; margin: 0; line-height: 1.5; font-size: 14px;\">%s</p>" +
-                "  </div>" +
-                
-                "  <div style=\"background: #e3f2fd; padding: 12px; border-radius: 4px; margin: 15px 0; border-left: 4px solid #2196f3;\">" +
-                "    <p style=\"margin: 0; color: #1976d2; font-size: 13px;\">💡 <b>提示：</b>请修改数据后重新提交</p>" +
-                "  </div>" +
-                
-                "  <hr style=\"border: none; border-top: 1px solid #ddd; margin: 20px 0;\">" +
-                "  <div style=\"text-align: center;\">" +
-                "    <p style=\"font-size: 11px; color: #999; margin: 3px 0;\">本邮件由系统自动发送，请勿回复</p>" +
-                "    <p style=\"font-size: 11px; color: #999; margin: 3px 0;\">外国语学院科研系统</p>" +
-                "  </div>" +
-                "</div>",
-                currentTime, userName, userId, dataId, tableName, periodText, dataTableRows.toString(), rejectReason
-            );
-            
-            helper.setText(content, true);  // true 表示使用 HTML 格式
-            
-            mailSender.send(message);
-            log.info("退回通知邮件发送成功: toEmail={}, tableName={}, userName={}, dataId={}", 
-                    toEmail, tableName, userName, dataId);
-        } catch (MessagingException e) {
-            log.error("发送退回通知邮件失败: toEmail={}, tableName={}, 错误信息: {}", 
-                    toEmail, tableName, e.getMessage(), e);
-            // 邮件发送失败不影响业务主流程，只记录日志
         } catch (Exception e) {
-            log.error("发送退回通知邮件时发生未知错误: toEmail={}, tableName={}", toEmail, tableName, e);
+            log.error("发送发件箱邮件时发生未知错误", e);
+        } finally {
+            dispatching.set(false);
         }
+        return totalSent;
+    }
+
+    /**
+     * 发送一批已领取的邮件并回写结果
+     * 汇总键相同的邮件合并为一封，发送结果回写到其中每一条
+     * @return 发送成功条数
+     */
+    private int dispatchBatch(List<EmailOutboxMessage> batch) {
+        Map<MimeMessage, List<EmailOutboxMessage>> pending = new IdentityHashMap<>(batch.size() * 2);
+        long failed = 0;
+        for (List<EmailOutboxMessage> group : groupByDigestKey(batch)) {
+            try {
+                pending.put(toMimeMessage(group), group);
+            } catch (MessagingException e) {
+                // 邮件本身无法构建（如地址非法），重试也不会成功
+                log.error("构建邮件失败，不再重试: toEmail={}, 条数={}", group.get(0).toEmail(), group.size(), e);
+                for (EmailOutboxMessage message : group) {
+                    emailOutboxRepository.markFailed(message.id(), e.getMessage());
+                }
+                failed += group.size();
+            }
+        }
+        if (pending.isEmpty()) {
+            tableMetricsService.recordEmailDispatch(0, 0, failed);
+            return 0;
+        }
+
+        Map<Object, Exception> failedMessages = Map.of();
+        Exception batchError = null;
+        try {
+            // 一次调用内复用同一个 SMTP 连接发送整批邮件
+            mailSender.send(pending.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failedMessages = e.getFailedMessages();
+            if (failedMessages.isEmpty()) {
+                batchError = e;
+            }
+        } catch (MailException e) {
+            batchError = e;
+        }
+
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        long retried = 0;
+        for (Map.Entry<MimeMessage, List<EmailOutboxMessage>> entry : pending.entrySet()) {
+            Exception error = batchError != null ? batchError : findFailure(failedMessages, entry.getKey());
+            for (EmailOutboxMessage message : entry.getValue()) {
+                if (error == null) {
+                    sentIds.add(message.id());
+                } else if (scheduleRetry(message, error)) {
+                    retried++;
+                } else {
+                    failed++;
+                }
+            }
+        }
+        emailOutboxRepository.markSent(sentIds);
+        tableMetricsService.recordEmailDispatch(sentIds.size(), retried, failed);
+        log.info("发件箱邮件发送完成: 邮件数={}, sent={}, retried={}, failed={}",
+                pending.size(), sentIds.size(), retried, failed);
+        return sentIds.size();
+    }
+
+    /**
+     * 按汇总键分组，无汇总键的邮件各自成组
+     */
+    private Collection<List<EmailOutboxMessage>> groupByDigestKey(List<EmailOutboxMessage> batch) {
+        Map<Object, List<EmailOutboxMessage>> groups = new LinkedHashMap<>();
+        for (EmailOutboxMessage message : batch) {
+            Object key = message.isDigest() ? message.digestKey() : message.id();
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(message);
+        }
+        return groups.values();
+    }
+
+    /**
+     * 按对象身份查找发送失败原因（MimeMessage 未重写 equals）
+     */
+    private Exception findFailure(Map<Object, Exception> failedMessages, MimeMessage mimeMessage) {
+        for (Map.Entry<Object, Exception> entry : failedMessages.entrySet()) {
+            if (entry.getKey() == mimeMessage) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 安排重试，超过最大尝试次数时标记为最终失败
+     * @return 是否安排了重试
+     */
+    private boolean scheduleRetry(EmailOutboxMessage message, Exception error) {
+        // 领取时已计入本次尝试
+        int attempt = message.attempts() + 1;
+        if (attempt >= maxAttempts) {
+            log.error("邮件发送失败且已达最大尝试次数: outboxId={}, toEmail={}, attempts={}",
+                    message.id(), message.toEmail(), attempt, error);
+            emailOutboxRepository.markFailed(message.id(), error.getMessage());
+            return false;
+        }
+        long delay = (long) backoffBaseSeconds << Math.min(attempt - 1, 20);
+        int delaySeconds = (int) Math.min(delay, backoffMaxSeconds);
+        log.warn("邮件发送失败，{}秒后重试: outboxId={}, toEmail={}, attempts={}, 错误信息: {}",
+                delaySeconds, message.id(), message.toEmail(), attempt, error.getMessage());
+        emailOutboxRepository.markRetry(message.id(), delaySeconds, error.getMessage());
+        return true;
+    }
+
+    /**
+     * 构建一封邮件：单独发送的邮件直接使用已渲染的正文，汇总邮件在发送时渲染
+     */
+    private MimeMessage toMimeMessage(List<EmailOutboxMessage> group) throws MessagingException {
+        EmailOutboxMessage first = group.get(0);
+        String subject;
+        String body;
+        if (!first.isDigest()) {
+            subject = first.subject();
+            body = first.body();
+        } else {
+            subject = group.size() == 1 ? first.subject() : "【数据退回通知】您有" + group.size() + "条数据被退回";
+            body = buildDigestContent(group);
+        }
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(first.toEmail());
+        helper.setSubject(subject);
+        helper.setText(body, true);  // true 表示使用 HTML 格式
+        return mimeMessage;
+    }
+
+    /**
+     * 构建单条退回通知的正文片段（数据信息、数据内容、退回原因）
+     */
+    private String buildRejectItem(String tableName, String submissionPeriod, Map<String, Object> dataContent,
+                                   String rejectReason, Long dataId) {
+        // 构建数据内容表格
+        StringBuilder rows;
+        if (dataContent != null && !dataContent.isEmpty()) {
+            rows = new StringBuilder(dataContent.size() * (dataRowTemplate.getLiteralLength() + 32));
+            Map<String, String> rowValues = new HashMap<>(4);
+            for (Map.Entry<String, Object> entry : dataContent.entrySet()) {
+                rowValues.put("key", entry.getKey());
+                rowValues.put("value", entry.getValue() != null ? entry.getValue().toString() : "-");
+                dataRowTemplate.renderTo(rows, rowValues);
+            }
+        } else {
+            rows = new StringBuilder(dataRowEmptyTemplate.render(Map.of()));
+        }
+
+        Map<String, String> values = new HashMap<>(8);
+        values.put("dataId", String.valueOf(dataId));
+        values.put("tableName", tableName);
+        values.put("period", submissionPeriod != null ? submissionPeriod : "未设置");
+        values.put("rows", rows.toString());
+        values.put("rejectReason", rejectReason);
+        return rejectItemTemplate.render(values);
     }
-}
 
+    /**
+     * 构建单独发送的退回通知邮件正文
+     */
+    private String buildRejectContent(String userName, String userId, String item) {
+        Map<String, String> values = new HashMap<>(8);
+        values.put("currentTime", currentTime());
+        values.put("userName", userName);
+        values.put("userId", userId);
+        values.put("items", item);
+        return rejectTemplate.render(values);
+    }
+
+    /**
+     * 构建汇总邮件正文，各条通知的片段按写入顺序拼接
+     */
+    private String buildDigestContent(List<EmailOutboxMessage> group) {
+        int capacity = 0;
+        for (EmailOutboxMessage message : group) {
+            capacity += message.body().length();
+        }
+        StringBuilder items = new StringBuilder(capacity);
+        for (EmailOutboxMessage message : group) {
+            items.append(message.body());
+        }
+        Map<String, String> values = new HashMap<>(8);
+        values.put("currentTime", currentTime());
+        values.put("userName", group.get(0).recipientName());
+        values.put("count", String.valueOf(group.size()));
+        values.put("items", items.toString());
+        return rejectDigestTemplate.render(values);
+    }
+
+    private String currentTime() {
+        return LocalDateTime.now().format(TIME_FORMATTER);
+    }
+}
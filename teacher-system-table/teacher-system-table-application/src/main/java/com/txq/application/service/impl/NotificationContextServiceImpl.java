@@ -0,0 +1,48 @@
+package com.txq.application.service.impl;
+
+import com.txq.application.service.INotificationContextService;
+import com.txq.domain.infra.repository.TableDataRepository;
+import com.txq.domain.model.NotificationRecipient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * 通知上下文服务实现
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationContextServiceImpl implements INotificationContextService {
+
+    /**
+     * 单次查询的数据ID数量
+     */
+    private static final int LOOKUP_BATCH_SIZE = 500;
+
+    private final TableDataRepository tableDataRepository;
+
+    @Override
+    public NotificationRecipient resolveRecipient(Long dataId) {
+        if (dataId == null) {
+            return null;
+        }
+        return resolveRecipients(List.of(dataId)).get(dataId);
+    }
+
+    @Override
+    public Map<Long, NotificationRecipient> resolveRecipients(Collection<Long> dataIds) {
+        Map<Long, NotificationRecipient> recipients = new HashMap<>();
+        if (dataIds == null || dataIds.isEmpty()) {
+            return recipients;
+        }
+        List<Long> ids = dataIds.stream().filter(Objects::nonNull).distinct().toList();
+        for (int from = 0; from < ids.size(); from += LOOKUP_BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, ids.size()));
+            for (NotificationRecipient recipient : tableDataRepository.findRecipientsByDataIds(chunk)) {
+                recipients.put(recipient.dataId(), recipient);
+            }
+        }
+        return recipients;
+    }
+}
@@ -0,0 +1,131 @@
+package com.txq.application.service.impl;
+
+import com.txq.application.service.ITableDataArchiveService;
+import com.txq.domain.infra.ClusterLock;
+import com.txq.domain.infra.repository.TableDataArchiveRepository;
+import com.txq.domain.model.ArchiveWatermark;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Year;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 表格数据归档服务实现
+ * 保留最近 retain-years 年及当年的时期在在线表，更早的时期视为已关闭，分批迁移到归档表。
+ * 迁移前先推进 archiving_before，并等待各实例的水位缓存过期，使迁移期间的读取同时覆盖两张表、写入不再落入已关闭时期；
+ * 每批先按时期索引不加锁读取候选ID，再只锁定并迁移这些行，直到读取不到候选数据才推进 archived_before。
+ * 归档上界未变化时直接跳过；多实例部署时只在持有集群锁的实例上执行
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TableDataArchiveServiceImpl implements ITableDataArchiveService {
+
+    private final TableDataArchiveRepository tableDataArchiveRepository;
+    private final ClusterLock clusterLock;
+
+    private final AtomicBoolean archiving = new AtomicBoolean(false);
+
+    @Value("${table.archive.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * 在线表保留的整年数（不含当年）
+     */
+    @Value("${table.archive.retain-years:1}")
+    private int retainYears;
+
+    /**
+     * 每批迁移条数（一个事务）
+     */
+    @Value("${table.archive.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * 批次之间的暂停时长（毫秒），降低对在线写入的影响
+     */
+    @Value("${table.archive.pause-ms:100}")
+    private long pauseMs;
+
+    /**
+     * 推进水位后、开始迁移前，除缓存过期时间外额外等待的时长（毫秒），覆盖按旧水位校验后仍在执行的写入
+     */
+    @Value("${table.archive.settle-ms:5000}")
+    private long settleMs;
+
+    /**
+     * 归档锁租约（秒），每迁移一批续租
+     */
+    @Value("${table.archive.lock-lease-seconds:300}")
+    private int lockLeaseSeconds;
+
+    @Override
+    @Scheduled(initialDelayString = "${table.archive.interval-ms:3600000}",
+            fixedDelayString = "${table.archive.interval-ms:3600000}")
+    public long archiveClosedPeriods() {
+        if (!enabled) {
+            return 0;
+        }
+        String before = (Year.now().getValue() - Math.max(retainYears, 0)) + "-01";
+        if (tableDataArchiveRepository.findWatermark().archivedBefore().compareTo(before) >= 0) {
+            return 0;
+        }
+        if (!archiving.compareAndSet(false, true)) {
+            return 0;
+        }
+        if (!clusterLock.tryLock(ClusterLock.ARCHIVE, lockLeaseSeconds)) {
+            archiving.set(false);
+            log.debug("表格数据归档由其他实例执行");
+            return 0;
+        }
+        long archived = 0;
+        long startTime = System.nanoTime();
+        try {
+            tableDataArchiveRepository.startArchiving(before);
+            Thread.sleep(ArchiveWatermark.CACHE_TTL_MS + Math.max(settleMs, 0));
+            archived = archivePass(before);
+            tableDataArchiveRepository.finishArchiving(before);
+            if (archived > 0) {
+                log.info("表格数据归档完成，时期早于: {}, 归档条数: {}, 耗时: {}ms",
+                        before, archived, (System.nanoTime() - startTime) / 1_000_000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("表格数据归档被中断，已归档条数: {}", archived);
+        } catch (Exception e) {
+            // 已迁移的批次已提交，下次从索引起点继续
+            log.error("表格数据归档失败，时期早于: {}, 已归档条数: {}", before, archived, e);
+        } finally {
+            clusterLock.unlock(ClusterLock.ARCHIVE);
+            archiving.set(false);
+        }
+        return archived;
+    }
+
+    /**
+     * 分批迁移提交时期早于 before 的数据，直到在线表中没有候选数据
+     * 已迁移的数据从在线表删除，每批都从时期索引起点读取，迁移期间写入的遗漏数据也会被读到
+     */
+    private long archivePass(String before) throws InterruptedException {
+        long archived = 0;
+        while (true) {
+            if (!clusterLock.tryLock(ClusterLock.ARCHIVE, lockLeaseSeconds)) {
+                throw new IllegalStateException("归档锁已失效");
+            }
+            List<Long> candidateIds = tableDataArchiveRepository.findArchivableIds(before, chunkSize);
+            if (candidateIds.isEmpty()) {
+                return archived;
+            }
+            // 候选数据在读取后被修改时不会被锁定迁移，下一批的普通读取也不会再读到
+            archived += tableDataArchiveRepository.archiveChunk(before, candidateIds).size();
+            if (pauseMs > 0) {
+                Thread.sleep(pauseMs);
+            }
+        }
+    }
+}
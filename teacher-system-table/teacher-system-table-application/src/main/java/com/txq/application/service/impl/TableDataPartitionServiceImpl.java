@@ -0,0 +1,86 @@
+package com.txq.application.service.impl;
+
+import com.txq.application.service.ITableDataPartitionService;
+import com.txq.application.utils.PeriodUtils;
+import com.txq.domain.infra.ClusterLock;
+import com.txq.domain.infra.repository.TableDataPartitionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Year;
+import java.util.List;
+
+/**
+ * 表格数据分区维护服务实现
+ * 定时从 pmax 中拆分出未来年份的分区，保证新时期的数据写入独立分区而不是堆积在 pmax
+ * 默认关闭，执行 sql/08 分区脚本后开启；多实例部署时只在持有集群锁的实例上执行 REORGANIZE
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TableDataPartitionServiceImpl implements ITableDataPartitionService {
+
+    private final TableDataPartitionRepository tableDataPartitionRepository;
+    private final ClusterLock clusterLock;
+
+    @Value("${table.partition.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * 提前创建的年数
+     */
+    @Value("${table.partition.ahead-years:2}")
+    private int aheadYears;
+
+    /**
+     * 维护锁租约（秒），需大于拆分 pmax 的耗时
+     */
+    @Value("${table.partition.lock-lease-seconds:600}")
+    private int lockLeaseSeconds;
+
+    @Override
+    public String resolveNewPeriod(String submissionPeriod) {
+        if (submissionPeriod != null || !enabled) {
+            return submissionPeriod;
+        }
+        return PeriodUtils.currentPeriod();
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${table.partition.maintain-initial-delay-ms:60000}",
+            fixedDelayString = "${table.partition.maintain-interval-ms:86400000}")
+    public int ensurePartitions() {
+        if (!enabled) {
+            return 0;
+        }
+        if (!clusterLock.tryLock(ClusterLock.PARTITION, lockLeaseSeconds)) {
+            log.debug("表格数据分区维护由其他实例执行");
+            return 0;
+        }
+        try {
+            if (!tableDataPartitionRepository.isPartitioned()) {
+                return 0;
+            }
+            List<Integer> years = tableDataPartitionRepository.findPartitionYears();
+            int targetYear = Year.now().getValue() + aheadYears;
+            int nextYear = years.isEmpty() ? Year.now().getValue() : years.get(years.size() - 1) + 1;
+            int created = 0;
+            for (int year = nextYear; year <= targetYear; year++) {
+                tableDataPartitionRepository.addYearPartition(year);
+                created++;
+            }
+            if (created > 0) {
+                log.info("表格数据分区维护完成，新建分区数: {}, 已覆盖至: {}", created, targetYear);
+            }
+            return created;
+        } catch (Exception e) {
+            log.error("表格数据分区维护失败", e);
+            return 0;
+        } finally {
+            clusterLock.unlock(ClusterLock.PARTITION);
+        }
+    }
+}
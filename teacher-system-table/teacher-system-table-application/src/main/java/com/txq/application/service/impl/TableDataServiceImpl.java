@@ -2,18 +2,31 @@ package com.txq.application.service.impl;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.txq.application.entity.query.ReviewItemQuery;
 import com.txq.application.entity.vo.*;
 import com.txq.application.service.IEmailService;
+import com.txq.application.service.INotificationContextService;
+import com.txq.application.service.ITableDataPartitionService;
 import com.txq.application.service.ITableDataService;
+import com.txq.application.service.ITableFieldIndexService;
+import com.txq.application.service.ITableMetricsService;
+import com.txq.application.service.ITableSchemaService;
+import com.txq.application.service.ITableStatusCounterService;
 import com.txq.common.context.UserContext;
 import com.txq.common.exception.BizException;
+import com.txq.domain.infra.repository.TableDataArchiveRepository;
 import com.txq.domain.infra.repository.TableDataRepository;
+import com.txq.domain.model.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -27,14 +40,75 @@ import static com.txq.domain.status.ErrorCode.*;
 @RequiredArgsConstructor
 public class TableDataServiceImpl implements ITableDataService {
 
+    /**
+     * 游标分页默认每页条数
+     */
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    /**
+     * 游标分页最大每页条数
+     */
+    private static final int MAX_PAGE_SIZE = 200;
+
+    /**
+     * 单次批量审核最大条数
+     */
+    private static final int MAX_BATCH_REVIEW_SIZE = 5000;
+
+    /**
+     * 管理员可修改任意状态的数据
+     */
+    private static final List<Integer> ADMIN_EDITABLE_STATUSES = List.of(0, 1, 2, 3);
+
+    /**
+     * 普通成员不能修改已打分(2)的数据
+     */
+    private static final List<Integer> MEMBER_EDITABLE_STATUSES = List.of(0, 1, 3);
+
+    /**
+     * 数值字段聚合的分组方式：不分组、按用户、按提交时期
+     */
+    private static final Set<String> AGGREGATE_GROUPS = Set.of("none", "user", "period");
+
+    private static final String REVIEW_ACTION_SCORE = "score";
+    private static final String REVIEW_ACTION_REJECT = "reject";
+
     private final TableDataRepository tableDataRepository;
 
+    private final ITableSchemaService tableSchemaService;
+
+    private final TableDataArchiveRepository tableDataArchiveRepository;
+
     private final IEmailService emailService;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final INotificationContextService notificationContextService;
+
+    private final ITableMetricsService tableMetricsService;
+
+    private final ITableStatusCounterService tableStatusCounterService;
+
+    private final ITableFieldIndexService tableFieldIndexService;
+
+    private final ITableDataPartitionService tableDataPartitionService;
+
+    private final ObjectMapper objectMapper;
 
     @Override
     public Long saveTableData(Long id, Integer tableId, String dataUserId, String submissionPeriod,
-                              Map<String, Object> dataContent, BigDecimal score, String reviewMaterial, Integer status) {
+                              Map<String, Object> dataContent, BigDecimal score, String reviewMaterial, Integer status,
+                              Integer version) {
+        return doSaveTableData(id, tableId, dataUserId, submissionPeriod, dataContent, score, reviewMaterial, status,
+                version, false);
+    }
+
+    /**
+     * 保存表格数据
+     * 更新时只读取一次数据状态，写入以 status IN + version 为条件，期间数据被修改则返回版本冲突
+     * @param keepExistingOwner 更新且未指定所属用户时，是否保留原数据的所属用户
+     */
+    private Long doSaveTableData(Long id, Integer tableId, String dataUserId, String submissionPeriod,
+                                 Map<String, Object> dataContent, BigDecimal score, String reviewMaterial, Integer status,
+                                 Integer version, boolean keepExistingOwner) {
         // 获取当前操作用户信息
         String operatorId = UserContext.getUserId();
         List<Integer> roleIds = UserContext.getRoleIds();
@@ -50,6 +124,36 @@ public class TableDataServiceImpl implements ITableDataService {
         boolean isAdmin = roleIds.contains(1) || roleIds.contains(2);
         log.info("是否是管理员: {}, 角色列表: {}", isAdmin, roleIds);
 
+        // 如果是普通成员(roleId=3)且提交了分数，则拒绝
+        if (!isAdmin && score != null) {
+            throw new BizException(NO_PERMISSION_SET_SCORE_ERROR_CODE, "普通成员无权限设置分数");
+        }
+
+        // 已归档的时期只读
+        if (submissionPeriod != null && tableDataArchiveRepository.findWatermark().isClosed(submissionPeriod)) {
+            throw new BizException(TABLE_DATA_ARCHIVED_ERROR_CODE, "提交时期已归档，不能再写入数据");
+        }
+
+        // 如果是更新操作，读取数据当前的状态和版本号
+        TableDataState existing = null;
+        if (id != null) {
+            List<TableDataState> states = tableDataRepository.findDataStatesByIds(List.of(id));
+            if (states.isEmpty()) {
+                // 在线表中没有但能读到的数据已迁移到归档表
+                if (tableDataRepository.findDataById(id) != null) {
+                    throw new BizException(TABLE_DATA_ARCHIVED_ERROR_CODE, "数据所在时期已归档，不能再修改");
+                }
+                throw new BizException(TABLE_DATA_NOT_EXIST_ERROR_CODE, "数据不存在");
+            }
+            existing = states.get(0);
+            if (version != null && !version.equals(existing.version())) {
+                throw new BizException(TABLE_DATA_VERSION_CONFLICT_ERROR_CODE, "数据已被他人修改，请刷新后重试");
+            }
+            if (keepExistingOwner && dataUserId == null) {
+                dataUserId = existing.userId();
+            }
+        }
+
         // 确定数据所属用户
         String finalDataUserId = dataUserId;
         if (!isAdmin) {
@@ -60,11 +164,6 @@ public class TableDataServiceImpl implements ITableDataService {
             finalDataUserId = operatorId;
         }
 
-        // 如果是普通成员(roleId=3)且提交了分数，则拒绝
-        if (!isAdmin && score != null) {
-            throw new BizException(NO_PERMISSION_SET_SCORE_ERROR_CODE, "普通成员无权限设置分数");
-        }
-
         // 确定最终状态
         Integer finalStatus = status;
         if (finalStatus == null) {
@@ -76,79 +175,76 @@ public class TableDataServiceImpl implements ITableDataService {
             finalStatus = 2; // 已打分
         }
 
-        // 如果是更新操作，需要检查数据是否存在
-        if (id != null) {
-            Map<String, Object> existingData = tableDataRepository.findDataById(id);
-            if (existingData == null) {
-                throw new BizException(TABLE_DATA_NOT_EXIST_ERROR_CODE, "数据不存在");
+        if (existing == null) {
+            log.info("新增表格数据，操作用户: {}, 角色: {}, 数据所属用户: {}, 表格ID: {}, 提交时期: {}, 最终状态: {}",
+                    operatorId, roleIds, finalDataUserId, tableId, submissionPeriod, finalStatus);
+            // 未填写时期的新数据（如草稿）保持为空，仅分区后取当前月份
+            Long newId = tableDataRepository.insertTableData(tableId, finalDataUserId,
+                    tableDataPartitionService.resolveNewPeriod(submissionPeriod), dataContent,
+                    score, reviewMaterial, finalStatus, operatorId);
+            if (newId == null) {
+                throw new BizException(PARAM_ERROR_CODE, "表格不存在或已删除");
             }
+            tableStatusCounterService.recordStatusChange(null, finalStatus);
+            return newId;
+        }
 
-            Integer existingStatus = (Integer) existingData.get("status");
-            
-            // 如果数据是被退回的（status=3），重新提交时清除分数，重置为待审核状态
-            if (!isAdmin && existingStatus != null && existingStatus == 3) {
-                score = null;  // 清除之前的分数
-                finalStatus = 1;  // 重置为已提交状态
-                log.info("普通成员重新提交被退回的数据，清除分数，状态重置为已提交");
-            } 
-            // 如果是普通成员且数据不是被退回的，保留原有分数（不允许修改）
-            else if (!isAdmin && existingData.get("score") != null) {
-                score = (BigDecimal) existingData.get("score");
-            }
+        Integer existingStatus = existing.status();
 
-            // 如果数据已打分（status=2），普通用户不能修改
-            if (!isAdmin && existingStatus != null && existingStatus == 2) {
-                throw new BizException(SCORED_DATA_CANNOT_DELETE_ERROR_CODE, "已打分数据不允许修改");
-            }
+        // 如果数据是被退回的（status=3），重新提交时清除分数，重置为待审核状态
+        if (!isAdmin && existingStatus != null && existingStatus == 3) {
+            score = null;  // 清除之前的分数
+            finalStatus = 1;  // 重置为已提交状态
+            log.info("普通成员重新提交被退回的数据，清除分数，状态重置为已提交");
+        }
+        // 如果是普通成员且数据不是被退回的，保留原有分数（不允许修改）
+        else if (!isAdmin && existing.score() != null) {
+            score = existing.score();
+        }
+
+        // 如果数据已打分（status=2），普通用户不能修改
+        if (!isAdmin && existingStatus != null && existingStatus == 2) {
+            throw new BizException(SCORED_DATA_CANNOT_DELETE_ERROR_CODE, "已打分数据不允许修改");
         }
 
         log.info("保存表格数据，操作用户: {}, 角色: {}, 数据所属用户: {}, 表格ID: {}, 数据ID: {}, 提交时期: {}, 最终状态: {}",
                 operatorId, roleIds, finalDataUserId, tableId, id, submissionPeriod, finalStatus);
 
-        return tableDataRepository.saveTableData(id, tableId, finalDataUserId, submissionPeriod, dataContent, score, reviewMaterial, finalStatus, operatorId);
+        // 普通成员不能修改已打分数据，写入时再次以状态为条件，防止读取后被打分
+        boolean updated = tableDataRepository.updateTableData(existing, isAdmin ? ADMIN_EDITABLE_STATUSES : MEMBER_EDITABLE_STATUSES,
+                tableId, finalDataUserId, submissionPeriod, dataContent, score, reviewMaterial, finalStatus, operatorId);
+        if (!updated) {
+            throw new BizException(TABLE_DATA_VERSION_CONFLICT_ERROR_CODE, "数据已被他人修改，请刷新后重试");
+        }
+        tableStatusCounterService.recordStatusChange(existingStatus, finalStatus);
+        return id;
     }
 
     @Override
-    public Long saveDraft(Long id, Integer tableId, String dataUserId, String submissionPeriod, Map<String, Object> dataContent, String reviewMaterial) {
+    public Long saveDraft(Long id, Integer tableId, String dataUserId, String submissionPeriod, Map<String, Object> dataContent, String reviewMaterial,
+                          Integer version) {
         String currentUserId = UserContext.getUserId();
-        List<Integer> roleIds = UserContext.getRoleIds();
-        
-        // 判断是否为管理员
-        boolean isAdmin = roleIds != null && (roleIds.contains(1) || roleIds.contains(2));
-        
-        // 如果是编辑已有数据且dataUserId为null，需要获取原数据的userId
-        String finalDataUserId = dataUserId;
-        if (id != null && finalDataUserId == null) {
-            // 编辑已有数据，获取原数据的userId
-            Map<String, Object> existingData = tableDataRepository.findDataById(id);
-            if (existingData != null) {
-                finalDataUserId = (String) existingData.get("userId");
-            }
-        }
-        
-        // 如果还是null，使用当前用户ID
-        if (finalDataUserId == null) {
-            finalDataUserId = currentUserId;
-        }
-        
+
         log.info("暂存数据，操作用户: {}, 数据所属用户: {}, 表格ID: {}, 数据ID: {}, 提交时期: {}", 
-                currentUserId, finalDataUserId, tableId, id, submissionPeriod);
+                currentUserId, dataUserId, tableId, id, submissionPeriod);
 
-        // 状态设置为0（暂存/未提交）
-        return saveTableData(id, tableId, finalDataUserId, submissionPeriod, dataContent, null, reviewMaterial, 0);
+        // 状态设置为0（暂存/未提交），编辑已有数据且未指定所属用户时保留原数据的所属用户
+        return doSaveTableData(id, tableId, dataUserId, submissionPeriod, dataContent, null, reviewMaterial, 0,
+                version, true);
     }
 
     @Override
-    public Long submitData(Long id, Integer tableId, String submissionPeriod, Map<String, Object> dataContent, String reviewMaterial) {
+    public Long submitData(Long id, Integer tableId, String submissionPeriod, Map<String, Object> dataContent, String reviewMaterial,
+                           Integer version) {
         String userId = UserContext.getUserId();
         log.info("提交数据，用户: {}, 表格ID: {}, 数据ID: {}, 提交时期: {}", userId, tableId, id, submissionPeriod);
 
         // 状态设置为1（已提交）
-        return saveTableData(id, tableId, userId, submissionPeriod, dataContent, null, reviewMaterial, 1);
+        return saveTableData(id, tableId, userId, submissionPeriod, dataContent, null, reviewMaterial, 1, version);
     }
 
     @Override
-    public List<TableDataVO> getTableData(Integer tableId) {
+    public List<TableDataVO> getTableData(Integer tableId, PeriodRange period, List<String> filters) {
         // 获取当前用户信息
         String userId = UserContext.getUserId();
         List<Integer> roleIds = UserContext.getRoleIds();
@@ -160,22 +256,88 @@ public class TableDataServiceImpl implements ITableDataService {
         // 判断是否为管理员（超级管理员或管理员）
         boolean isAdmin = roleIds.contains(1) || roleIds.contains(2);
 
-        List<Map<String, Object>> dataList = tableDataRepository.findDataByTableId(tableId);
+        // 普通用户只返回自己的数据，用户与字段筛选条件均下推到SQL
+        List<TableDataRow> dataList = tableDataRepository.findDataPageByTableId(
+                tableId, isAdmin ? null : userId, period, tableFieldIndexService.resolveFilters(tableId, filters),
+                null, null, null);
 
-        // 如果是普通用户，只返回该用户自己的数据
-        if (!isAdmin) {
-            final String currentUserId = userId;
-            dataList = dataList.stream()
-                    .filter(data -> currentUserId.equals(data.get("userId")))
-                    .collect(Collectors.toList());
+        return dataList.stream().map(this::convertToVO).collect(Collectors.toList());
+    }
+
+    @Override
+    public CursorPageVO<TableDataVO> getTableDataPage(Integer tableId, String cursor, Integer size, PeriodRange period,
+                                                      List<String> filters) {
+        String userId = UserContext.getUserId();
+        List<Integer> roleIds = UserContext.getRoleIds();
+
+        if (userId == null || roleIds == null || roleIds.isEmpty()) {
+            throw new BizException(USER_NOT_LOGIN_ERROR_CODE, "用户未登录或权限信息缺失");
         }
 
-        return dataList.stream().map(this::convertToVO).collect(Collectors.toList());
+        // 普通用户只查询自己的数据，过滤条件下推到SQL
+        boolean isAdmin = roleIds.contains(1) || roleIds.contains(2);
+        return queryDataPage(tableId, isAdmin ? null : userId, period,
+                tableFieldIndexService.resolveFilters(tableId, filters), cursor, size);
+    }
+
+    @Override
+    public CursorPageVO<TableDataVO> getUserTableDataPage(Integer tableId, String dataUserId, String cursor, Integer size,
+                                                          PeriodRange period) {
+        String userId = UserContext.getUserId();
+        List<Integer> roleIds = UserContext.getRoleIds();
+
+        if (userId == null || roleIds == null || roleIds.isEmpty()) {
+            throw new BizException(USER_NOT_LOGIN_ERROR_CODE, "用户未登录或权限信息缺失");
+        }
+
+        // 管理员可查看任意用户，普通成员只能查看自己
+        boolean isAdmin = roleIds.contains(1) || roleIds.contains(2);
+        if (!isAdmin && !userId.equals(dataUserId)) {
+            throw new BizException(PERMISSION_DENIED_ERROR_CODE, "无权限查看他人数据");
+        }
+        return queryDataPage(tableId, dataUserId, period, List.of(), cursor, size);
+    }
+
+    /**
+     * 按游标查询一页数据
+     * @param ownerId 数据所属用户ID，为null时查询全部用户
+     * @param period 提交时期范围
+     * @param filters 字段筛选条件
+     */
+    private CursorPageVO<TableDataVO> queryDataPage(Integer tableId, String ownerId, PeriodRange period,
+                                                    List<TableDataFilter> filters, String cursor, Integer size) {
+        int pageSize = normalizePageSize(size);
+        CursorPosition position = decodeCursor(cursor);
+
+        // 多取一条用于判断是否还有下一页
+        List<TableDataRow> dataList = tableDataRepository.findDataPageByTableId(
+                tableId, ownerId, period, filters,
+                position != null ? position.createdAt() : null,
+                position != null ? position.id() : null,
+                pageSize + 1);
+
+        boolean hasMore = dataList.size() > pageSize;
+        if (hasMore) {
+            dataList = dataList.subList(0, pageSize);
+        }
+
+        List<TableDataVO> list = dataList.stream().map(this::convertToVO).collect(Collectors.toList());
+        String nextCursor = null;
+        if (hasMore) {
+            TableDataVO last = list.get(list.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+
+        return CursorPageVO.<TableDataVO>builder()
+                .list(list)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
     }
 
     @Override
     public TableDataVO getDataById(Long id) {
-        Map<String, Object> data = tableDataRepository.findDataById(id);
+        TableDataRow data = tableDataRepository.findDataById(id);
         return data != null ? convertToVO(data) : null;
     }
 
@@ -190,21 +352,22 @@ public class TableDataServiceImpl implements ITableDataService {
         }
 
         // 检查数据是否存在
-        Map<String, Object> data = tableDataRepository.findDataById(id);
-        if (data == null) {
+        List<TableDataState> states = tableDataRepository.findDataStatesByIds(List.of(id));
+        if (states.isEmpty()) {
             throw new BizException(TABLE_DATA_NOT_EXIST_ERROR_CODE, "数据不存在");
         }
+        TableDataState data = states.get(0);
 
         // 普通成员只能删除自己创建的数据，管理员可以删除任何数据
         boolean isAdmin = roleIds.contains(1) || roleIds.contains(2);
-        String createdBy = (String) data.get("createdBy");
+        String createdBy = data.createdBy();
 
         if (!isAdmin && !userId.equals(createdBy)) {
             throw new BizException(NO_PERMISSION_DELETE_DATA_ERROR_CODE, "无权删除他人创建的数据");
         }
 
         // 检查数据状态：普通用户不能删除已打分的数据
-        Integer status = (Integer) data.get("status");
+        Integer status = data.status();
         if (!isAdmin && status != null && status == 2) {
             throw new BizException(SCORED_DATA_CANNOT_DELETE_ERROR_CODE, "已打分数据不允许删除");
         }
@@ -212,18 +375,70 @@ public class TableDataServiceImpl implements ITableDataService {
         log.info("删除表格数据，用户: {}, 角色: {}, 数据ID: {}, 状态: {}", userId, roleIds, id, status);
 
         tableDataRepository.deleteData(id);
+        tableMetricsService.recordDataDeleted(1);
+        tableStatusCounterService.recordStatusChange(status, null);
     }
 
     @Override
-    public void batchDeleteData(List<Long> ids) {
+    public BatchDeleteResultVO batchDeleteData(List<Long> ids) {
         if (ids == null || ids.isEmpty()) {
-            return;
+            return BatchDeleteResultVO.builder()
+                    .deletedCount(0)
+                    .rejectedItems(Collections.emptyList())
+                    .build();
         }
 
-        // 逐个检查权限
-        for (Long id : ids) {
-            deleteData(id);  // 复用单个删除的权限检查逻辑
+        String userId = UserContext.getUserId();
+        List<Integer> roleIds = UserContext.getRoleIds();
+
+        if (userId == null || roleIds == null || roleIds.isEmpty()) {
+            throw new BizException(USER_NOT_LOGIN_ERROR_CODE, "用户未登录或权限信息缺失");
+        }
+
+        boolean isAdmin = roleIds.contains(1) || roleIds.contains(2);
+
+        // 1. 一次查询所有候选数据的权限校验字段
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        Map<Long, TableDataState> statesById = tableDataRepository.findDataStatesByIds(distinctIds).stream()
+                .collect(Collectors.toMap(TableDataState::id, data -> data));
+
+        // 2. 在内存中校验与deleteData一致的权限规则
+        List<Long> allowedIds = new ArrayList<>(distinctIds.size());
+        List<RejectedItemVO> rejectedItems = new ArrayList<>();
+        for (Long id : distinctIds) {
+            TableDataState data = statesById.get(id);
+            String reason = null;
+            if (data == null) {
+                reason = "数据不存在";
+            } else if (!isAdmin && !userId.equals(data.createdBy())) {
+                // 普通成员只能删除自己创建的数据
+                reason = "无权删除他人创建的数据";
+            } else if (!isAdmin && Objects.equals(data.status(), 2)) {
+                // 普通用户不能删除已打分的数据
+                reason = "已打分数据不允许删除";
+            }
+
+            if (reason != null) {
+                rejectedItems.add(RejectedItemVO.builder().id(id).reason(reason).build());
+            } else {
+                allowedIds.add(id);
+            }
         }
+
+        // 3. 单个事务内按批次删除
+        int deletedCount = tableDataRepository.batchDeleteData(allowedIds);
+        tableMetricsService.recordDataDeleted(deletedCount);
+        for (Long id : allowedIds) {
+            tableStatusCounterService.recordStatusChange(statesById.get(id).status(), null);
+        }
+
+        log.info("批量删除表格数据，用户: {}, 角色: {}, 请求: {}, 删除: {}, 拒绝: {}",
+                userId, roleIds, distinctIds.size(), deletedCount, rejectedItems.size());
+
+        return BatchDeleteResultVO.builder()
+                .deletedCount(deletedCount)
+                .rejectedItems(rejectedItems)
+                .build();
     }
 
     @Override
@@ -231,7 +446,7 @@ public class TableDataServiceImpl implements ITableDataService {
         log.info("获取用户数据统计，用户ID: {}", userId);
 
         // 1. 查询用户的所有数据
-        List<Map<String, Object>> userDataList = tableDataRepository.findByUserId(userId);
+        List<TableDataRow> userDataList = tableDataRepository.findByUserId(userId);
 
         if (userDataList.isEmpty()) {
             return UserDataStatisticsVO.builder()
@@ -248,51 +463,44 @@ public class TableDataServiceImpl implements ITableDataService {
 
         // 计算总分数
         double totalScore = userDataList.stream()
-                .filter(data -> data.get("score") != null)
-                .mapToDouble(data -> ((BigDecimal) data.get("score")).doubleValue())
+                .filter(data -> data.score() != null)
+                .mapToDouble(data -> data.score().doubleValue())
                 .sum();
 
         // 计算平均分数
         long scoredCount = userDataList.stream()
-                .filter(data -> data.get("score") != null)
+                .filter(data -> data.score() != null)
                 .count();
         double avgScore = scoredCount > 0 ? totalScore / scoredCount : 0.0;
 
         // 3. 按表格分组
-        Map<Integer, List<Map<String, Object>>> groupedData = userDataList.stream()
-                .collect(Collectors.groupingBy(data -> convertToInteger(data.get("table_id"))));
+        Map<Integer, List<TableDataRow>> groupedData = userDataList.stream()
+                .collect(Collectors.groupingBy(TableDataRow::tableId));
 
         // 4. 构建按表格分组的数据
         List<DataByTableVO> dataByTable = groupedData.entrySet().stream()
                 .map(entry -> {
                     Integer tableId = entry.getKey();
-                    List<Map<String, Object>> dataList = entry.getValue();
+                    List<TableDataRow> dataList = entry.getValue();
 
-                    // 获取表格名称（从第一条数据中获取）
-                    String tableNameTemp = (String) dataList.get(0).get("table_full_name");
-                    final String tableName = (tableNameTemp != null) ? tableNameTemp : "未知表格";
+                    // 表格名称从结构缓存读取
+                    TableSchema schema = tableSchemaService.getSchema(tableId);
+                    final String tableName = schema != null && schema.tableFullName() != null
+                            ? schema.tableFullName() : "未知表格";
 
                     // 转换数据列表
                     List<UserDataItemVO> items = dataList.stream()
-                            .map(data -> {
-                                try {
-                                    return UserDataItemVO.builder()
-                                            .id(((Number) data.get("id")).longValue())
-                                            .tableId(convertToInteger(data.get("table_id")))
-                                            .tableName(tableName)
-                                            .dataContent(parseDataContent((String) data.get("data_content")))
-                                            .score((BigDecimal) data.get("score"))
-                                            .reviewMaterial((String) data.get("review_material"))
-                                            .status(convertToInteger(data.get("status")))
-                                            .createdAt((LocalDateTime) data.get("created_at"))
-                                            .updatedAt((LocalDateTime) data.get("updated_at"))
-                                            .build();
-                                } catch (Exception e) {
-                                    log.error("转换数据项失败", e);
-                                    return null;
-                                }
-                            })
-                            .filter(Objects::nonNull)
+                            .map(data -> UserDataItemVO.builder()
+                                    .id(data.id())
+                                    .tableId(data.tableId())
+                                    .tableName(tableName)
+                                    .dataContent(toRawJson(data.dataContent()))
+                                    .score(data.score())
+                                    .reviewMaterial(data.reviewMaterial())
+                                    .status(data.status())
+                                    .createdAt(data.createdAt())
+                                    .updatedAt(data.updatedAt())
+                                    .build())
                             .collect(Collectors.toList());
 
                     return DataByTableVO.builder()
@@ -317,74 +525,146 @@ public class TableDataServiceImpl implements ITableDataService {
     }
 
     /**
-     * 解析数据内容JSON
+     * 游标位置
      */
-    private Map<String, Object> parseDataContent(String dataContentJson) {
-        try {
-            return objectMapper.readValue(dataContentJson,
-                    new TypeReference<Map<String, Object>>() {
-                    });
-        } catch (Exception e) {
-            log.error("解析数据内容失败: {}", dataContentJson, e);
-            return Collections.emptyMap();
+    private record CursorPosition(LocalDateTime createdAt, Long id) {
+    }
+
+    /**
+     * 规范化每页条数
+     */
+    private int normalizePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
         }
+        return Math.min(size, MAX_PAGE_SIZE);
     }
 
     /**
-     * 将对象转换为Integer
-     * 处理 TINYINT(1) 被 MyBatis 映射为 Boolean 的问题
+     * 编码游标：Base64URL(createdAt|id)
      */
-    private Integer convertToInteger(Object value) {
-        if (value == null) {
+    private String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标，为空时返回null
+     */
+    private CursorPosition decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
             return null;
         }
-        if (value instanceof Integer) {
-            return (Integer) value;
-        }
-        if (value instanceof Boolean) {
-            return ((Boolean) value) ? 1 : 0;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator <= 0) {
+                throw new BizException(PARAM_ERROR_CODE, "分页游标无效");
+            }
+            return new CursorPosition(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BizException(PARAM_ERROR_CODE, "分页游标无效");
         }
-        if (value instanceof Number) {
-            return ((Number) value).intValue();
+    }
+
+    /**
+     * 将数据库中的JSON文本包装为原始值，序列化时原样输出
+     */
+    private RawValue toRawJson(String dataContentJson) {
+        return dataContentJson != null ? new RawValue(dataContentJson) : null;
+    }
+
+    /**
+     * 解析数据内容JSON（仅用于邮件等需要按字段读取的场景）
+     */
+    private Map<String, Object> parseDataContent(String dataContentJson) {
+        if (dataContentJson == null) {
+            return Collections.emptyMap();
         }
         try {
-            return Integer.parseInt(value.toString());
-        } catch (NumberFormatException e) {
-            log.warn("无法转换为Integer: {}", value);
-            return null;
+            return objectMapper.readValue(dataContentJson, new TypeReference<Map<String, Object>>() {
+            });
+        } catch (Exception e) {
+            log.error("解析数据内容失败: {}", dataContentJson, e);
+            return Collections.emptyMap();
         }
     }
 
     /**
-     * 将Map转换为VO
+     * 将数据行转换为VO
      */
-    @SuppressWarnings("unchecked")
-    private TableDataVO convertToVO(Map<String, Object> map) {
+    private TableDataVO convertToVO(TableDataRow row) {
         return TableDataVO.builder()
-                .id(((Number) map.get("id")).longValue())
-                .tableId((Integer) map.get("tableId"))
-                .userId((String) map.get("userId"))
-                .submissionPeriod((String) map.get("submissionPeriod"))
-                .dataContent((Map<String, Object>) map.get("dataContent"))
-                .score((BigDecimal) map.get("score"))
-                .reviewMaterial((String) map.get("reviewMaterial"))
-                .rejectReason((String) map.get("rejectReason"))
-                .status(convertToInteger(map.get("status")))
-                .createdBy((String) map.get("createdBy"))
-                .updatedBy((String) map.get("updatedBy"))
-                .createdAt((LocalDateTime) map.get("createdAt"))
-                .updatedAt((LocalDateTime) map.get("updatedAt"))
+                .id(row.id())
+                .tableId(row.tableId())
+                .userId(row.userId())
+                .submissionPeriod(row.submissionPeriod())
+                .dataContent(toRawJson(row.dataContent()))
+                .score(row.score())
+                .reviewMaterial(row.reviewMaterial())
+                .rejectReason(row.rejectReason())
+                .status(row.status())
+                .createdBy(row.createdBy())
+                .updatedBy(row.updatedBy())
+                .createdAt(row.createdAt())
+                .updatedAt(row.updatedAt())
                 .build();
     }
 
     @Override
-    public TableScoreStatisticsVO getTableScoreStatistics(Integer tableId) {
-        log.info("获取表格用户得分统计，表格ID: {}", tableId);
+    public List<FieldAggregateVO> aggregateField(Integer tableId, String fieldName, String groupBy,
+                                                 List<Integer> statuses, PeriodRange period, List<String> filters) {
+        String operatorId = UserContext.getUserId();
+        List<Integer> roleIds = UserContext.getRoleIds();
+
+        if (operatorId == null || roleIds == null || roleIds.isEmpty()) {
+            throw new BizException(USER_NOT_LOGIN_ERROR_CODE, "用户未登录或权限信息缺失");
+        }
+
+        // 权限控制：只有管理员可以聚合全表数据
+        boolean isAdmin = roleIds.contains(1) || roleIds.contains(2);
+        if (!isAdmin) {
+            throw new BizException(PERMISSION_DENIED_ERROR_CODE, "无权限统计表格数据");
+        }
+
+        String group = groupBy == null || groupBy.isBlank() ? "none" : groupBy.trim().toLowerCase();
+        if (!AGGREGATE_GROUPS.contains(group)) {
+            throw new BizException(PARAM_ERROR_CODE, "分组方式只能为 none、user 或 period");
+        }
+        if (fieldName == null || fieldName.isBlank()) {
+            throw new BizException(PARAM_ERROR_CODE, "统计字段不能为空");
+        }
+        TableSchema schema = tableSchemaService.getSchema(tableId);
+        if (schema == null) {
+            throw new BizException(PARAM_ERROR_CODE, "表格不存在");
+        }
+        if (!schema.hasField(fieldName)) {
+            throw new BizException(PARAM_ERROR_CODE, "统计字段不存在: " + fieldName);
+        }
+
+        List<FieldAggregateRow> rows = tableDataRepository.aggregateField(tableId, fieldName, group, statuses, period,
+                tableFieldIndexService.resolveFilters(tableId, filters));
+        return rows.stream()
+                .map(row -> FieldAggregateVO.builder()
+                        .groupKey(row.groupKey())
+                        .count(row.count())
+                        .sum(row.sum())
+                        .avg(row.avg())
+                        .min(row.min())
+                        .max(row.max())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public TableScoreStatisticsVO getTableScoreStatistics(Integer tableId, PeriodRange period) {
+        log.info("获取表格用户得分统计，表格ID: {}, 时期范围: {}", tableId, period);
 
-        // 1. 查询表格的所有数据（关联用户信息）
-        List<Map<String, Object>> allData = tableDataRepository.findByTableIdWithUser(tableId);
+        // 1. 读取每个用户的统计（已按总分降序）
+        List<TableUserScoreRow> aggList = findUserScores(tableId, period);
 
-        if (allData.isEmpty()) {
+        if (aggList.isEmpty()) {
             return TableScoreStatisticsVO.builder()
                     .tableId(tableId)
                     .tableName("")
@@ -395,92 +675,117 @@ public class TableDataServiceImpl implements ITableDataService {
                     .build();
         }
 
-        // 2. 按用户分组
-        Map<String, List<Map<String, Object>>> groupedByUser = allData.stream()
-                .collect(Collectors.groupingBy(data -> (String) data.get("user_id")));
-
-        // 3. 计算每个用户的统计信息
-        List<TableUserScoreVO> userScores = groupedByUser.entrySet().stream()
-                .map(entry -> {
-                    String userId = entry.getKey();
-                    List<Map<String, Object>> userDataList = entry.getValue();
-
-                    // 获取用户名（从第一条数据中获取）
-                    String username = (String) userDataList.get(0).get("username");
-                    if (username == null) {
-                        username = "未知用户";
-                    }
-
-                    // 计算该用户的总分和平均分
-                    double totalScore = userDataList.stream()
-                            .filter(data -> data.get("score") != null)
-                            .mapToDouble(data -> ((BigDecimal) data.get("score")).doubleValue())
-                            .sum();
-
-                    long scoredCount = userDataList.stream()
-                            .filter(data -> data.get("score") != null)
-                            .count();
-
-                    double avgScore = scoredCount > 0 ? totalScore / scoredCount : 0.0;
-
-                    // 转换数据列表
-                    List<TableDataVO> dataVOList = userDataList.stream()
-                            .map(data -> {
-                                try {
-                                    return TableDataVO.builder()
-                                            .id(((Number) data.get("id")).longValue())
-                                            .tableId(convertToInteger(data.get("table_id")))
-                                            .userId((String) data.get("user_id"))
-                                            .dataContent(parseDataContent((String) data.get("data_content")))
-                                            .score((BigDecimal) data.get("score"))
-                                            .reviewMaterial((String) data.get("review_material"))
-                                            .status(convertToInteger(data.get("status")))
-                                            .createdBy((String) data.get("created_by"))
-                                            .updatedBy((String) data.get("updated_by"))
-                                            .createdAt((LocalDateTime) data.get("created_at"))
-                                            .updatedAt((LocalDateTime) data.get("updated_at"))
-                                            .build();
-                                } catch (Exception e) {
-                                    log.error("转换数据项失败", e);
-                                    return null;
-                                }
-                            })
-                            .filter(Objects::nonNull)
-                            .collect(Collectors.toList());
+        // 2. 查询时期范围内的表格数据，按用户分组作为明细
+        Map<String, List<TableDataVO>> dataByUser = tableDataRepository.findDataPageByTableId(
+                        tableId, null, period, null, null, null, null).stream()
+                .map(this::convertToVO)
+                .collect(Collectors.groupingBy(TableDataVO::getUserId));
+
+        // 3. 组装每个用户的统计信息
+        int totalDataCount = 0;
+        double totalScore = 0.0;
+        List<TableUserScoreVO> userScores = new ArrayList<>(aggList.size());
+        for (TableUserScoreRow agg : aggList) {
+            String userId = agg.userId();
+            String username = agg.username();
+            int dataCount = agg.dataCount();
+            int scoredCount = agg.scoredCount();
+            double userTotalScore = agg.totalScore().doubleValue();
+
+            totalDataCount += dataCount;
+            totalScore += userTotalScore;
+
+            userScores.add(TableUserScoreVO.builder()
+                    .userId(userId)
+                    .username(username != null ? username : "未知用户")
+                    .dataCount(dataCount)
+                    .totalScore(userTotalScore)
+                    .avgScore(scoredCount > 0 ? userTotalScore / scoredCount : 0.0)
+                    .dataList(dataByUser.getOrDefault(userId, Collections.emptyList()))
+                    .build());
+        }
 
-                    return TableUserScoreVO.builder()
-                            .userId(userId)
-                            .username(username)
-                            .dataCount(userDataList.size())
-                            .totalScore(totalScore)
-                            .avgScore(avgScore)
-                            .dataList(dataVOList)
-                            .build();
-                })
-                .sorted(Comparator.comparing(TableUserScoreVO::getTotalScore).reversed())  // 按总分降序排列
-                .collect(Collectors.toList());
+        // 4. 构建返回结果
+        return TableScoreStatisticsVO.builder()
+                .tableId(tableId)
+                .tableName("")  // 表格名称可以从前端传入或从其他地方获取
+                .totalUsers(aggList.size())
+                .totalDataCount(totalDataCount)
+                .totalScore(totalScore)
+                .userScores(userScores)
+                .build();
+    }
 
-        // 4. 计算整体统计
-        int totalUsers = groupedByUser.size();
-        int totalDataCount = allData.size();
-        double totalScore = allData.stream()
-                .filter(data -> data.get("score") != null)
-                .mapToDouble(data -> ((BigDecimal) data.get("score")).doubleValue())
-                .sum();
+    @Override
+    public TableScoreStatisticsVO getTableScoreSummary(Integer tableId, PeriodRange period) {
+        log.info("获取表格用户得分汇总，表格ID: {}, 时期范围: {}", tableId, period);
+
+        // 每个用户的条数、总分、平均分均由SQL计算，不读取数据明细
+        List<TableUserScoreRow> aggList = findUserScores(tableId, period);
+
+        int totalDataCount = 0;
+        double totalScore = 0.0;
+        List<TableUserScoreVO> userScores = new ArrayList<>(aggList.size());
+        for (TableUserScoreRow agg : aggList) {
+            String username = agg.username();
+            int dataCount = agg.dataCount();
+            double userTotalScore = agg.totalScore().doubleValue();
+
+            totalDataCount += dataCount;
+            totalScore += userTotalScore;
+
+            userScores.add(TableUserScoreVO.builder()
+                    .userId(agg.userId())
+                    .username(username != null ? username : "未知用户")
+                    .dataCount(dataCount)
+                    .totalScore(userTotalScore)
+                    .avgScore(agg.avgScore().doubleValue())
+                    .build());
+        }
 
-        // 5. 构建返回结果
         return TableScoreStatisticsVO.builder()
                 .tableId(tableId)
-                .tableName("")  // 表格名称可以从前端传入或从其他地方获取
-                .totalUsers(totalUsers)
+                .tableName("")
+                .totalUsers(aggList.size())
                 .totalDataCount(totalDataCount)
                 .totalScore(totalScore)
                 .userScores(userScores)
                 .build();
     }
 
+    /**
+     * 读取用户得分统计：不限时期时读取得分汇总投影，否则按时期范围从表格数据实时汇总
+     */
+    private List<TableUserScoreRow> findUserScores(Integer tableId, PeriodRange period) {
+        if (period == null || period.isUnbounded()) {
+            return tableDataRepository.findUserScoreAggByTableId(tableId);
+        }
+        return tableDataRepository.findUserScoreByPeriod(tableId, period);
+    }
+
     @Override
-    public void rejectData(Long id, String rejectReason) {
+    public int rebuildScoreAggregates(Integer tableId) {
+        String operatorId = UserContext.getUserId();
+        List<Integer> roleIds = UserContext.getRoleIds();
+
+        if (operatorId == null || roleIds == null || roleIds.isEmpty()) {
+            throw new BizException(USER_NOT_LOGIN_ERROR_CODE, "用户未登录或权限信息缺失");
+        }
+
+        // 权限控制：只有管理员可以重建汇总
+        boolean isAdmin = roleIds.contains(1) || roleIds.contains(2);
+        if (!isAdmin) {
+            throw new BizException(PERMISSION_DENIED_ERROR_CODE, "无权限重建得分汇总");
+        }
+
+        int rows = tableDataRepository.rebuildUserScoreAgg(tableId);
+        log.info("重建得分汇总完成，操作用户: {}, 表格ID: {}, 汇总行数: {}", operatorId, tableId, rows);
+        return rows;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void rejectData(Long id, String rejectReason, Integer version) {
         log.info("退回数据，数据ID: {}, 退回原因: {}", id, rejectReason);
 
         // 获取当前操作用户信息
@@ -498,60 +803,228 @@ public class TableDataServiceImpl implements ITableDataService {
         }
 
         // 1. 查询数据信息
-        Map<String, Object> dataMap = tableDataRepository.findDataById(id);
-        if (dataMap == null) {
+        TableDataRow data = tableDataRepository.findDataById(id);
+        if (data == null) {
             throw new BizException(PARAM_ERROR_CODE, "数据不存在");
         }
+        if (version != null && !version.equals(data.version())) {
+            throw new BizException(TABLE_DATA_VERSION_CONFLICT_ERROR_CODE, "数据已被他人修改，请刷新后重试");
+        }
+        if (data.status() == null || (data.status() != 1 && data.status() != 2)) {
+            throw new BizException(DATA_STATUS_ERROR_CODE, "只能退回已提交或已打分的数据");
+        }
+        if (tableDataArchiveRepository.findWatermark().isClosed(data.submissionPeriod())) {
+            throw new BizException(TABLE_DATA_ARCHIVED_ERROR_CODE, "数据所在时期已归档，不能退回");
+        }
+
+        // 2. 退回数据（以读取时的版本号为条件更新状态和退回原因）
+        if (!tableDataRepository.rejectData(id, data.version(), rejectReason, operatorId)) {
+            // 读取后被迁移到归档表时在线表中已没有该数据
+            if (tableDataRepository.findDataStatesByIds(List.of(id)).isEmpty()) {
+                throw new BizException(TABLE_DATA_ARCHIVED_ERROR_CODE, "数据所在时期已归档，不能退回");
+            }
+            throw new BizException(TABLE_DATA_VERSION_CONFLICT_ERROR_CODE, "数据已被他人修改，请刷新后重试");
+        }
 
-        // 2. 退回数据（更新状态和退回原因）
-        tableDataRepository.rejectData(id, rejectReason, operatorId);
+        // 3. 邮件通知写入发件箱，与退回操作同一事务提交
+        sendRejectNotification(data, rejectReason, notificationContextService.resolveRecipient(id));
+        tableStatusCounterService.recordStatusChange(data.status(), 3);
 
-        // 3. 发送邮件通知
-        try {
-            // 获取数据所属用户ID
-            String userId = (String) dataMap.get("userId");
-            Integer tableId = (Integer) dataMap.get("tableId");
-            String submissionPeriod = (String) dataMap.get("submissionPeriod");
-            Map<String, Object> dataContent = (Map<String, Object>) dataMap.get("dataContent");
-
-            // 从数据库查询用户和表格信息
-            List<Map<String, Object>> userDataList = tableDataRepository.findByTableIdWithUser(tableId);
-
-            // 找到对应用户的数据
-            Map<String, Object> userData = userDataList.stream()
-                    .filter(data -> userId.equals(data.get("user_id")))
-                    .findFirst()
-                    .orElse(null);
-
-            if (userData != null) {
-                String userEmail = (String) userData.get("email");
-                String username = (String) userData.get("username");
-                String tableName = (String) userData.get("table_full_name");
-
-                if (userEmail != null && !userEmail.isEmpty()) {
-                    emailService.sendRejectNotification(
-                        userEmail, 
-                        username, 
-                        userId, 
-                        tableName, 
-                        submissionPeriod, 
-                        dataContent, 
-                        rejectReason, 
-                        id
-                    );
-                    log.info("退回通知邮件已发送: userId={}, email={}, dataId={}", userId, userEmail, id);
-                } else {
-                    log.warn("用户邮箱为空，无法发送退回通知: userId={}", userId);
+        log.info("数据退回成功，数据ID: {}", id);
+    }
+
+    /**
+     * 将退回通知写入发件箱，由邮件服务后台发送
+     * 收件人缺失时只记录日志；写入失败时抛出异常，随退回操作一起回滚
+     * @param data 被退回的数据（退回前读取）
+     * @param recipient 通知收件人，为null时不发送
+     */
+    private void sendRejectNotification(TableDataRow data, String rejectReason, NotificationRecipient recipient) {
+        Long id = data.id();
+        String userId = data.userId();
+        if (recipient == null) {
+            log.warn("未找到用户数据，无法发送退回通知: userId={}", userId);
+            return;
+        }
+        String userEmail = recipient.email();
+        if (userEmail == null || userEmail.isEmpty()) {
+            log.warn("用户邮箱为空，无法发送退回通知: userId={}", userId);
+            return;
+        }
+        emailService.enqueueRejectNotification(
+            userEmail,
+            recipient.username(),
+            userId,
+            recipient.tableFullName(),
+            data.submissionPeriod(),
+            parseDataContent(data.dataContent()),
+            rejectReason,
+            id
+        );
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public BatchReviewResultVO batchReviewData(List<ReviewItemQuery> items) {
+        String operatorId = UserContext.getUserId();
+        List<Integer> roleIds = UserContext.getRoleIds();
+
+        if (operatorId == null || roleIds == null || roleIds.isEmpty()) {
+            throw new BizException(USER_NOT_LOGIN_ERROR_CODE, "用户未登录或权限信息缺失");
+        }
+
+        // 权限控制：只有管理员可以审核数据
+        boolean isAdmin = roleIds.contains(1) || roleIds.contains(2);
+        if (!isAdmin) {
+            throw new BizException(PERMISSION_DENIED_ERROR_CODE, "无权限审核数据");
+        }
+
+        if (items == null || items.isEmpty()) {
+            throw new BizException(PARAM_ERROR_CODE, "审核条目不能为空");
+        }
+        if (items.size() > MAX_BATCH_REVIEW_SIZE) {
+            throw new BizException(PARAM_ERROR_CODE, "单次最多审核" + MAX_BATCH_REVIEW_SIZE + "条数据");
+        }
+
+        log.info("批量审核数据，操作用户: {}, 条数: {}", operatorId, items.size());
+
+        // 1. 一次查询所有待审核数据
+        List<Long> ids = items.stream()
+                .map(ReviewItemQuery::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, TableDataRow> existingById = tableDataRepository.findDataByIds(ids).stream()
+                .collect(Collectors.toMap(TableDataRow::id, data -> data));
+
+        // 2. 在内存中逐条校验，结果按请求顺序返回
+        List<ReviewItemResultVO> results = new ArrayList<>(items.size());
+        List<TableDataReview> reviews = new ArrayList<>();
+        Map<Long, ReviewItemResultVO> pendingResults = new HashMap<>();
+        for (ReviewItemQuery item : items) {
+            boolean reject = item.getRejectReason() != null;
+            ReviewItemResultVO result = ReviewItemResultVO.builder()
+                    .id(item.getId())
+                    .action(reject ? REVIEW_ACTION_REJECT : REVIEW_ACTION_SCORE)
+                    .success(false)
+                    .build();
+            results.add(result);
+
+            String error = validateReviewItem(item, existingById, pendingResults);
+            if (error != null) {
+                result.setMessage(error);
+                continue;
+            }
+
+            // 以读取时的版本号为条件更新，校验之后被修改的数据不会被覆盖
+            Integer version = existingById.get(item.getId()).version();
+            reviews.add(reject
+                    ? TableDataReview.reject(item.getId(), item.getRejectReason().trim(), version)
+                    : TableDataReview.score(item.getId(), item.getScore(), version));
+            pendingResults.put(item.getId(), result);
+        }
+
+        // 3. 按批次执行UPDATE
+        if (!reviews.isEmpty()) {
+            int updated = tableDataRepository.batchReviewData(reviews, operatorId);
+            if (updated == reviews.size()) {
+                pendingResults.values().forEach(result -> result.setSuccess(true));
+            } else {
+                // 校验之后有数据被并发修改，重新读取状态确认每条结果
+                log.warn("批量审核实际更新条数与预期不一致，预期: {}, 实际: {}", reviews.size(), updated);
+                Map<Long, TableDataRow> latestById = tableDataRepository.findDataByIds(new ArrayList<>(pendingResults.keySet())).stream()
+                        .collect(Collectors.toMap(TableDataRow::id, data -> data));
+                for (TableDataReview review : reviews) {
+                    ReviewItemResultVO result = pendingResults.get(review.getId());
+                    TableDataRow latest = latestById.get(review.getId());
+                    boolean applied = latest != null
+                            && latest.version() != null
+                            && latest.version() == review.getVersion() + 1
+                            && Objects.equals(latest.status(), review.getTargetStatus())
+                            && operatorId.equals(latest.updatedBy());
+                    result.setSuccess(applied);
+                    if (!applied) {
+                        result.setMessage("数据已被他人修改，请刷新后重试");
+                    }
                 }
+            }
+        }
+
+        // 4. 退回的数据写入邮件发件箱，收件人一次批量查询
+        long scoredCount = 0;
+        List<TableDataReview> appliedReviews = new ArrayList<>();
+        List<TableDataReview> rejectedReviews = new ArrayList<>();
+        for (TableDataReview review : reviews) {
+            if (!pendingResults.get(review.getId()).getSuccess()) {
+                continue;
+            }
+            appliedReviews.add(review);
+            if (review.isReject()) {
+                rejectedReviews.add(review);
             } else {
-                log.warn("未找到用户数据，无法发送退回通知: userId={}", userId);
+                scoredCount++;
             }
-        } catch (Exception e) {
-            log.error("发送退回通知邮件失败", e);
-            // 邮件发送失败不影响业务主流程
         }
+        long rejectedCount = rejectedReviews.size();
+        if (!rejectedReviews.isEmpty()) {
+            Map<Long, NotificationRecipient> recipients = notificationContextService.resolveRecipients(
+                    rejectedReviews.stream().map(TableDataReview::getId).collect(Collectors.toList()));
+            for (TableDataReview review : rejectedReviews) {
+                sendRejectNotification(existingById.get(review.getId()), review.getRejectReason(),
+                        recipients.get(review.getId()));
+            }
+        }
+        for (TableDataReview review : appliedReviews) {
+            tableStatusCounterService.recordStatusChange(existingById.get(review.getId()).status(), review.getTargetStatus());
+        }
+        tableMetricsService.recordDataReviewed(scoredCount, rejectedCount);
 
-        log.info("数据退回成功，数据ID: {}", id);
+        int successCount = (int) (scoredCount + rejectedCount);
+        log.info("批量审核完成，操作用户: {}, 打分: {}, 退回: {}, 失败: {}",
+                operatorId, scoredCount, rejectedCount, items.size() - successCount);
+
+        return BatchReviewResultVO.builder()
+                .successCount(successCount)
+                .failedCount(items.size() - successCount)
+                .results(results)
+                .build();
+    }
+
+    /**
+     * 校验单个审核条目
+     * @return 校验失败原因，通过时返回null
+     */
+    private String validateReviewItem(ReviewItemQuery item, Map<Long, TableDataRow> existingById,
+                                      Map<Long, ReviewItemResultVO> pendingResults) {
+        if (item.getId() == null) {
+            return "数据ID不能为空";
+        }
+        if (pendingResults.containsKey(item.getId())) {
+            return "重复的数据ID";
+        }
+        boolean hasScore = item.getScore() != null;
+        boolean hasReason = item.getRejectReason() != null;
+        if (hasScore == hasReason) {
+            return "分数与退回原因必须且只能填写一项";
+        }
+        if (hasScore && item.getScore().signum() < 0) {
+            return "分数不能为负数";
+        }
+        if (hasReason && item.getRejectReason().isBlank()) {
+            return "退回原因不能为空";
+        }
+        TableDataRow existing = existingById.get(item.getId());
+        if (existing == null) {
+            return "数据不存在";
+        }
+        if (item.getVersion() != null && !item.getVersion().equals(existing.version())) {
+            return "数据已被他人修改，请刷新后重试";
+        }
+        Integer status = existing.status();
+        if (status == null || (status != 1 && status != 2)) {
+            return "只能审核已提交或已打分的数据";
+        }
+        return null;
     }
 
     @Override
@@ -572,7 +1045,11 @@ public class TableDataServiceImpl implements ITableDataService {
             throw new BizException(PERMISSION_DENIED_ERROR_CODE, "无权限查看全局统计");
         }
 
-        Map<String, Long> statistics = tableDataRepository.countGlobalStatistics();
+        // 从内存计数读取，不扫描数据表
+        Map<String, Long> statistics = new HashMap<>();
+        statistics.put("totalCount", tableStatusCounterService.getTotalCount());
+        statistics.put("pendingCount", tableStatusCounterService.getStatusCount(1));
+        statistics.put("scoredCount", tableStatusCounterService.getStatusCount(2));
         log.info("全局统计数据: {}", statistics);
         return statistics;
     }
@@ -0,0 +1,427 @@
+package com.txq.application.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.txq.application.entity.vo.ImportRowErrorVO;
+import com.txq.application.entity.vo.TableDataImportResultVO;
+import com.txq.application.service.ITableDataPartitionService;
+import com.txq.application.service.ITableDataTransferService;
+import com.txq.application.service.ITableMetricsService;
+import com.txq.application.service.ITableSchemaService;
+import com.txq.application.service.ITableStatusCounterService;
+import com.txq.application.utils.CsvUtils;
+import com.txq.application.utils.PeriodUtils;
+import com.txq.common.context.UserContext;
+import com.txq.common.exception.BizException;
+import com.txq.domain.infra.repository.TableDataArchiveRepository;
+import com.txq.domain.infra.repository.TableDataRepository;
+import com.txq.domain.model.ArchiveWatermark;
+import com.txq.domain.model.PeriodRange;
+import com.txq.domain.model.TableDataImportRow;
+import com.txq.domain.model.TableSchema;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+import static com.txq.domain.status.ErrorCode.*;
+
+/**
+ * 表格数据导入导出服务实现
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TableDataTransferServiceImpl implements ITableDataTransferService {
+
+    /**
+     * 导出写缓冲区大小
+     */
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * 导入单批写入行数（一次多行INSERT、一个事务）
+     */
+    private static final int IMPORT_BATCH_SIZE = 500;
+
+    /**
+     * 导入结果中最多返回的失败明细条数
+     */
+    private static final int MAX_IMPORT_ERRORS = 1000;
+
+    // 导入导出固定列名
+    private static final String COLUMN_USER_ID = "用户工号";
+    private static final String COLUMN_SUBMISSION_PERIOD = "提交时期";
+    private static final String COLUMN_SCORE = "分数";
+
+    private final ITableSchemaService tableSchemaService;
+
+    private final TableDataRepository tableDataRepository;
+
+    private final TableDataArchiveRepository tableDataArchiveRepository;
+
+    private final ITableMetricsService tableMetricsService;
+
+    private final ITableStatusCounterService tableStatusCounterService;
+
+    private final ITableDataPartitionService tableDataPartitionService;
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String prepareExport(Integer tableId) {
+        checkAdmin("无权限导出数据");
+        if (tableSchemaService.getSchema(tableId) == null) {
+            throw new BizException(PARAM_ERROR_CODE, "表格不存在");
+        }
+        return "table-" + tableId + "-data.csv";
+    }
+
+    @Override
+    public long exportTableData(Integer tableId, PeriodRange period, OutputStream outputStream) {
+        checkAdmin("无权限导出数据");
+
+        long startTime = System.nanoTime();
+        TableSchema schema = tableSchemaService.getSchema(tableId);
+        if (schema == null) {
+            throw new BizException(PARAM_ERROR_CODE, "表格不存在");
+        }
+        Set<String> fieldNames = schema.fieldNames();
+
+        CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(countingStream, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+
+        long rows;
+        try {
+            writer.write(CsvUtils.BOM);
+            List<Object> header = new ArrayList<>(fieldNames.size() + 6);
+            header.add("数据ID");
+            header.add(COLUMN_USER_ID);
+            header.add(COLUMN_SUBMISSION_PERIOD);
+            header.addAll(fieldNames);
+            header.add(COLUMN_SCORE);
+            header.add("状态");
+            header.add("创建时间");
+            CsvUtils.writeRow(writer, header);
+
+            // 复用同一个行缓冲，逐行写出，不累积结果集
+            List<Object> row = new ArrayList<>(header.size());
+            rows = tableDataRepository.streamDataByTableId(tableId, period, data -> {
+                row.clear();
+                row.add(data.id());
+                row.add(data.userId());
+                row.add(data.submissionPeriod());
+                JsonNode dataContent = readDataContent(data.dataContent());
+                for (String fieldName : fieldNames) {
+                    row.add(toCellValue(dataContent != null ? dataContent.get(fieldName) : null));
+                }
+                row.add(data.score());
+                row.add(data.status());
+                row.add(data.createdAt() != null ? DATE_TIME_FORMATTER.format(data.createdAt()) : null);
+                try {
+                    CsvUtils.writeRow(writer, row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        } catch (IOException | UncheckedIOException e) {
+            // 客户端中断下载等情况，响应头已写出，不再抛出，记录失败指标
+            tableMetricsService.recordDataExportFailure();
+            log.warn("导出表格数据中断，tableId: {}, 已写出字节: {}", tableId, countingStream.getCount(), e);
+            return 0;
+        } catch (RuntimeException e) {
+            tableMetricsService.recordDataExportFailure();
+            log.error("导出表格数据失败，tableId: {}, 已写出字节: {}", tableId, countingStream.getCount(), e);
+            throw e;
+        }
+
+        long durationNanos = System.nanoTime() - startTime;
+        tableMetricsService.recordDataExport(rows, countingStream.getCount(), durationNanos);
+        log.info("导出表格数据完成，tableId: {}, 行数: {}, 字节数: {}, 耗时: {}ms, 速率: {} 行/秒",
+                tableId, rows, countingStream.getCount(), durationNanos / 1_000_000,
+                durationNanos > 0 ? rows * 1_000_000_000L / durationNanos : rows);
+        return rows;
+    }
+
+    @Override
+    public TableDataImportResultVO importTableData(Integer tableId, MultipartFile file) {
+        String operatorId = checkAdmin("无权限导入数据");
+        if (file == null || file.isEmpty()) {
+            throw new BizException(PARAM_ERROR_CODE, "导入文件为空");
+        }
+        TableSchema schema = tableSchemaService.getSchema(tableId);
+        if (schema == null) {
+            throw new BizException(PARAM_ERROR_CODE, "表格不存在");
+        }
+
+        long startTime = System.nanoTime();
+        Set<String> fieldNames = schema.fieldNames();
+
+        ArchiveWatermark watermark = tableDataArchiveRepository.findWatermark();
+        ImportResult result = new ImportResult();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            // 1. 解析表头，定位固定列和字段列
+            List<String> header = CsvUtils.readRow(reader);
+            if (header == null) {
+                throw new BizException(PARAM_ERROR_CODE, "导入文件缺少表头");
+            }
+            int userIdIndex = -1;
+            int periodIndex = -1;
+            int scoreIndex = -1;
+            Map<String, Integer> fieldIndexes = new LinkedHashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).trim();
+                if (i == 0 && !name.isEmpty() && name.charAt(0) == CsvUtils.BOM) {
+                    name = name.substring(1);
+                }
+                if (COLUMN_USER_ID.equals(name)) {
+                    userIdIndex = i;
+                } else if (COLUMN_SUBMISSION_PERIOD.equals(name)) {
+                    periodIndex = i;
+                } else if (COLUMN_SCORE.equals(name)) {
+                    scoreIndex = i;
+                } else if (fieldNames.contains(name)) {
+                    fieldIndexes.put(name, i);
+                }
+            }
+            if (userIdIndex < 0) {
+                throw new BizException(PARAM_ERROR_CODE, "表头缺少“" + COLUMN_USER_ID + "”列");
+            }
+            if (fieldIndexes.isEmpty()) {
+                throw new BizException(PARAM_ERROR_CODE, "表头未匹配到任何表格字段");
+            }
+
+            // 2. 逐行校验，攒满一批后写入
+            List<TableDataImportRow> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+            List<Integer> batchRowNumbers = new ArrayList<>(IMPORT_BATCH_SIZE);
+            int rowNumber = 1;
+            List<String> cells;
+            while ((cells = CsvUtils.readRow(reader)) != null) {
+                rowNumber++;
+                if (isBlankRow(cells)) {
+                    continue;
+                }
+                result.totalRows++;
+
+                String userId = cell(cells, userIdIndex);
+                if (userId.isEmpty()) {
+                    result.addError(rowNumber, COLUMN_USER_ID + "不能为空");
+                    continue;
+                }
+
+                String submissionPeriod = cell(cells, periodIndex);
+                if (!submissionPeriod.isEmpty() && !PeriodUtils.PERIOD_PATTERN.matcher(submissionPeriod).matches()) {
+                    result.addError(rowNumber, COLUMN_SUBMISSION_PERIOD + "格式错误，应为YYYY-MM");
+                    continue;
+                }
+                if (!submissionPeriod.isEmpty() && watermark.isClosed(submissionPeriod)) {
+                    result.addError(rowNumber, COLUMN_SUBMISSION_PERIOD + "已归档，不能再导入");
+                    continue;
+                }
+
+                BigDecimal score = null;
+                String scoreText = cell(cells, scoreIndex);
+                if (!scoreText.isEmpty()) {
+                    try {
+                        score = new BigDecimal(scoreText);
+                    } catch (NumberFormatException e) {
+                        result.addError(rowNumber, COLUMN_SCORE + "格式错误: " + scoreText);
+                        continue;
+                    }
+                    if (score.signum() < 0) {
+                        result.addError(rowNumber, COLUMN_SCORE + "不能为负数");
+                        continue;
+                    }
+                }
+
+                Map<String, Object> dataContent = new LinkedHashMap<>();
+                for (Map.Entry<String, Integer> entry : fieldIndexes.entrySet()) {
+                    dataContent.put(entry.getKey(), cell(cells, entry.getValue()));
+                }
+
+                // 带分数的行直接视为已打分，与管理员打分逻辑一致
+                batch.add(TableDataImportRow.of(tableId, userId,
+                        tableDataPartitionService.resolveNewPeriod(submissionPeriod.isEmpty() ? null : submissionPeriod),
+                        dataContent, score, score != null ? 2 : 1));
+                batchRowNumbers.add(rowNumber);
+
+                if (batch.size() >= IMPORT_BATCH_SIZE) {
+                    flushImportBatch(batch, batchRowNumbers, operatorId, result);
+                }
+            }
+            flushImportBatch(batch, batchRowNumbers, operatorId, result);
+        } catch (IOException e) {
+            log.error("读取导入文件失败，tableId: {}", tableId, e);
+            throw new BizException(PARAM_ERROR_CODE, "读取导入文件失败");
+        }
+
+        long durationNanos = System.nanoTime() - startTime;
+        tableMetricsService.recordDataImport(result.successCount, result.failedCount, durationNanos);
+        log.info("导入表格数据完成，tableId: {}, 总行数: {}, 成功: {}, 失败: {}, 耗时: {}ms",
+                tableId, result.totalRows, result.successCount, result.failedCount, durationNanos / 1_000_000);
+
+        return TableDataImportResultVO.builder()
+                .totalRows(result.totalRows)
+                .successCount(result.successCount)
+                .failedCount(result.failedCount)
+                .errors(result.errors)
+                .errorsTruncated(result.failedCount > result.errors.size())
+                .build();
+    }
+
+    /**
+     * 解析数据内容JSON，解析失败时返回null（该行字段列输出为空）
+     */
+    private JsonNode readDataContent(String dataContentJson) {
+        if (dataContentJson == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(dataContentJson);
+        } catch (IOException e) {
+            log.warn("解析数据内容失败: {}", dataContentJson, e);
+            return null;
+        }
+    }
+
+    /**
+     * 将JSON字段值转换为单元格内容，数值原样输出，其他标量输出文本，对象和数组输出JSON
+     */
+    private Object toCellValue(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        if (node.isNumber()) {
+            return node.numberValue();
+        }
+        return node.isValueNode() ? node.asText() : node.toString();
+    }
+
+    /**
+     * 写入一批导入数据，失败时整批记为失败并继续处理后续数据
+     */
+    private void flushImportBatch(List<TableDataImportRow> batch, List<Integer> rowNumbers,
+                                  String operatorId, ImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            if (tableDataRepository.batchInsertData(batch, operatorId) == 0) {
+                for (Integer rowNumber : rowNumbers) {
+                    result.addError(rowNumber, "表格不存在或已删除");
+                }
+            } else {
+                result.successCount += batch.size();
+                for (TableDataImportRow row : batch) {
+                    tableStatusCounterService.recordStatusChange(null, row.getStatus());
+                }
+            }
+        } catch (Exception e) {
+            log.error("批量写入导入数据失败，行号范围: {}-{}", rowNumbers.get(0), rowNumbers.get(rowNumbers.size() - 1), e);
+            for (Integer rowNumber : rowNumbers) {
+                result.addError(rowNumber, "写入数据库失败");
+            }
+        }
+        batch.clear();
+        rowNumbers.clear();
+    }
+
+    /**
+     * 获取单元格内容，列不存在时返回空字符串
+     */
+    private String cell(List<String> cells, int index) {
+        if (index < 0 || index >= cells.size()) {
+            return "";
+        }
+        return CsvUtils.unescapeFormula(cells.get(index).trim());
+    }
+
+    /**
+     * 判断是否为空行
+     */
+    private boolean isBlankRow(List<String> cells) {
+        for (String cell : cells) {
+            if (!cell.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 校验当前用户为管理员
+     * @return 当前用户ID
+     */
+    private String checkAdmin(String message) {
+        String operatorId = UserContext.getUserId();
+        List<Integer> roleIds = UserContext.getRoleIds();
+
+        if (operatorId == null || roleIds == null || roleIds.isEmpty()) {
+            throw new BizException(USER_NOT_LOGIN_ERROR_CODE, "用户未登录或权限信息缺失");
+        }
+
+        boolean isAdmin = roleIds.contains(1) || roleIds.contains(2);
+        if (!isAdmin) {
+            throw new BizException(PERMISSION_DENIED_ERROR_CODE, message);
+        }
+        return operatorId;
+    }
+
+    /**
+     * 导入结果累加器
+     */
+    private static class ImportResult {
+
+        private int totalRows;
+
+        private int successCount;
+
+        private int failedCount;
+
+        private final List<ImportRowErrorVO> errors = new ArrayList<>();
+
+        void addError(int rowNumber, String message) {
+            failedCount++;
+            if (errors.size() < MAX_IMPORT_ERRORS) {
+                errors.add(ImportRowErrorVO.builder().rowNumber(rowNumber).message(message).build());
+            }
+        }
+    }
+
+    /**
+     * 统计写出字节数的输出流
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
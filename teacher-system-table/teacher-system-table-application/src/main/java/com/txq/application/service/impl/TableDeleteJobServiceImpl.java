@@ -0,0 +1,261 @@
+package com.txq.application.service.impl;
+
+import com.txq.application.entity.vo.TableDeleteJobVO;
+import com.txq.application.service.ITableDeleteJobService;
+import com.txq.application.service.ITableStatusCounterService;
+import com.txq.common.context.UserContext;
+import com.txq.common.exception.BizException;
+import com.txq.domain.infra.repository.TableDataRepository;
+import com.txq.domain.infra.repository.TableDeleteJobRepository;
+import com.txq.domain.infra.repository.TableRepository;
+import com.txq.domain.model.TableDataAttachment;
+import com.txq.domain.model.TableDeleteJob;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.txq.domain.status.ErrorCode.*;
+
+/**
+ * 表格删除任务服务实现
+ * 每批读取一批数据的附件路径，附件在有界线程池中并行删除，随后在一个短事务内删除这批数据并记录进度；
+ * 在线表和归档表清空后再删除字段与元信息。执行中断时租约到期后由任一实例从剩余数据继续
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TableDeleteJobServiceImpl implements ITableDeleteJobService {
+
+    private final TableDeleteJobRepository tableDeleteJobRepository;
+
+    private final TableDataRepository tableDataRepository;
+
+    private final TableRepository tableRepository;
+
+    private final ITableStatusCounterService tableStatusCounterService;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${attachment.base-path}")
+    private String attachmentBasePath;
+
+    /**
+     * 每批删除的数据条数（一个事务）
+     */
+    @Value("${table.delete.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * 同时删除附件文件的线程数
+     */
+    @Value("${table.delete.io-concurrency:4}")
+    private int ioConcurrency;
+
+    /**
+     * 执行租约时长（秒），每批完成后续租
+     */
+    @Value("${table.delete.lease-seconds:300}")
+    private int leaseSeconds;
+
+    /**
+     * 最大执行次数，超过后标记为失败
+     */
+    @Value("${table.delete.max-attempts:5}")
+    private int maxAttempts;
+
+    private ExecutorService attachmentExecutor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        attachmentExecutor = Executors.newFixedThreadPool(Math.max(ioConcurrency, 1), runnable -> {
+            Thread thread = new Thread(runnable, "table-attachment-delete-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        attachmentExecutor.shutdownNow();
+    }
+
+    @Override
+    public Long submit(Integer tableId) {
+        checkAdmin("无权限删除表格");
+        Long jobId = tableDeleteJobRepository.createJob(tableId, UserContext.getUserId());
+        if (jobId == null) {
+            throw new BizException(PARAM_ERROR_CODE, "表格不存在");
+        }
+        log.info("表格已标记删除，tableId: {}, 删除任务ID: {}", tableId, jobId);
+        return jobId;
+    }
+
+    @Override
+    public TableDeleteJobVO getJob(Long jobId) {
+        checkAdmin("无权限查看删除任务");
+        TableDeleteJob job = tableDeleteJobRepository.findById(jobId);
+        if (job == null) {
+            throw new BizException(PARAM_ERROR_CODE, "删除任务不存在");
+        }
+        int progress;
+        if (job.status() == TableDeleteJob.STATUS_DONE) {
+            progress = 100;
+        } else if (job.totalRows() == null || job.totalRows() == 0) {
+            progress = 0;
+        } else {
+            progress = (int) Math.min(99, job.deletedRows() * 100 / job.totalRows());
+        }
+        return TableDeleteJobVO.builder()
+                .jobId(job.id())
+                .tableId(job.tableId())
+                .status(statusName(job.status()))
+                .totalRows(job.totalRows())
+                .deletedRows(job.deletedRows())
+                .deletedAttachments(job.deletedAttachments())
+                .failedAttachments(job.failedAttachments())
+                .progress(progress)
+                .lastError(job.lastError())
+                .createdAt(job.createdAt())
+                .finishedAt(job.finishedAt())
+                .build();
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${table.delete.poll-interval-ms:5000}",
+            fixedDelayString = "${table.delete.poll-interval-ms:5000}")
+    public int runPendingJobs() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        int finished = 0;
+        try {
+            TableDeleteJob job;
+            while ((job = tableDeleteJobRepository.claimNext(leaseSeconds)) != null) {
+                try {
+                    runJob(job);
+                    finished++;
+                } catch (Exception e) {
+                    log.error("表格删除任务执行失败，jobId: {}, tableId: {}", job.id(), job.tableId(), e);
+                    tableDeleteJobRepository.markError(job.id(), e.toString(), maxAttempts);
+                    break;
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+        return finished;
+    }
+
+    private void runJob(TableDeleteJob job) {
+        long startTime = System.nanoTime();
+        Integer tableId = job.tableId();
+        if (job.status() == TableDeleteJob.STATUS_PENDING) {
+            tableDeleteJobRepository.updateTotalRows(job.id(), tableDataRepository.countDataByTableId(tableId));
+        }
+
+        long deletedRows = deleteData(job, false) + deleteData(job, true);
+        tableRepository.purgeTable(tableId);
+        tableDeleteJobRepository.markDone(job.id());
+
+        // 表格下的数据已删除，重新统计状态计数
+        tableStatusCounterService.reconcile();
+        log.info("表格删除任务完成，jobId: {}, tableId: {}, 本次删除数据: {} 条, 耗时: {}ms",
+                job.id(), tableId, deletedRows, (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+    /**
+     * 分批删除在线表或归档表中的数据及附件
+     */
+    private long deleteData(TableDeleteJob job, boolean archived) {
+        long total = 0;
+        List<TableDataAttachment> chunk;
+        while (!(chunk = tableDataRepository.findAttachmentChunk(job.tableId(), archived, chunkSize)).isEmpty()) {
+            // 先删附件再删数据，中断后重试时附件路径仍可从剩余数据中读到
+            List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+            List<Long> ids = new ArrayList<>(chunk.size());
+            for (TableDataAttachment attachment : chunk) {
+                ids.add(attachment.id());
+                String reviewMaterial = attachment.reviewMaterial();
+                if (reviewMaterial != null && !reviewMaterial.isBlank()) {
+                    futures.add(CompletableFuture.supplyAsync(() -> deleteAttachment(reviewMaterial), attachmentExecutor));
+                }
+            }
+            long deletedAttachments = futures.stream().filter(CompletableFuture::join).count();
+            long failedAttachments = futures.size() - deletedAttachments;
+
+            int deleted = tableDataRepository.deleteDataChunk(ids, archived);
+            total += deleted;
+            tableDeleteJobRepository.addProgress(job.id(), deleted, deletedAttachments, failedAttachments, leaseSeconds);
+        }
+        return total;
+    }
+
+    /**
+     * 删除附件文件，路径需位于附件根目录下
+     * @param reviewMaterial 附件相对路径，格式: /table-data/{userId}/{attachmentId}_{filename}
+     * @return 是否删除成功
+     */
+    private boolean deleteAttachment(String reviewMaterial) {
+        Path basePath = Paths.get(attachmentBasePath).toAbsolutePath().normalize();
+        Path filePath = Paths.get(attachmentBasePath + reviewMaterial).toAbsolutePath().normalize();
+        if (!filePath.startsWith(basePath)) {
+            log.warn("附件路径不在附件目录下，跳过: {}", reviewMaterial);
+            return false;
+        }
+        try {
+            if (Files.deleteIfExists(filePath)) {
+                return true;
+            }
+            log.warn("附件文件不存在: {}", filePath);
+        } catch (IOException e) {
+            log.error("删除附件文件失败: {}", filePath, e);
+        }
+        return false;
+    }
+
+    /**
+     * 校验当前用户为管理员
+     */
+    private void checkAdmin(String message) {
+        String operatorId = UserContext.getUserId();
+        List<Integer> roleIds = UserContext.getRoleIds();
+
+        if (operatorId == null || roleIds == null || roleIds.isEmpty()) {
+            throw new BizException(USER_NOT_LOGIN_ERROR_CODE, "用户未登录或权限信息缺失");
+        }
+
+        boolean isAdmin = roleIds.contains(1) || roleIds.contains(2);
+        if (!isAdmin) {
+            throw new BizException(PERMISSION_DENIED_ERROR_CODE, message);
+        }
+    }
+
+    private static String statusName(Integer status) {
+        if (status == null) {
+            return "pending";
+        }
+        return switch (status) {
+            case TableDeleteJob.STATUS_RUNNING -> "running";
+            case TableDeleteJob.STATUS_DONE -> "done";
+            case TableDeleteJob.STATUS_FAILED -> "failed";
+            default -> "pending";
+        };
+    }
+}
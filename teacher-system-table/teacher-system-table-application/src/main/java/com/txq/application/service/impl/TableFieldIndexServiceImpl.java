@@ -0,0 +1,283 @@
+package com.txq.application.service.impl;
+
+import com.txq.application.service.ITableFieldIndexService;
+import com.txq.application.service.ITableMetricsService;
+import com.txq.application.service.ITableSchemaService;
+import com.txq.common.exception.BizException;
+import com.txq.domain.infra.ClusterLock;
+import com.txq.domain.infra.repository.TableFieldIndexRepository;
+import com.txq.domain.model.FilterOperator;
+import com.txq.domain.model.TableDataFilter;
+import com.txq.domain.model.TableFieldFilterHit;
+import com.txq.domain.model.TableFieldIndex;
+import com.txq.domain.model.TableSchema;
+import com.txq.domain.model.TableSchemaChangedEvent;
+import com.txq.domain.model.TableSchemaDiff;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static com.txq.domain.status.ErrorCode.PARAM_ERROR_CODE;
+
+/**
+ * 数据内容字段筛选与字段索引列服务实现
+ * 各实例按 (表格, 字段) 记录可走索引的筛选次数并定时累加到数据库；
+ * 持有集群锁的实例按汇总次数为高频字段创建生成列索引，并删除表格结构变更后已不再使用的字段的索引列。
+ * 索引列登记表带状态，每次筛选前重新读取可用的索引列，不在本地缓存
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TableFieldIndexServiceImpl implements ITableFieldIndexService {
+
+    /**
+     * 单次查询最多筛选条件数
+     */
+    private static final int MAX_FILTER_COUNT = 10;
+
+    private final ITableSchemaService tableSchemaService;
+    private final TableFieldIndexRepository tableFieldIndexRepository;
+    private final ITableMetricsService tableMetricsService;
+    private final ClusterLock clusterLock;
+
+    /**
+     * (表格ID, 字段名称) -> 上次写入数据库以来可走索引的筛选次数
+     */
+    private final ConcurrentHashMap<HitKey, LongAdder> filterHits = new ConcurrentHashMap<>();
+
+    @Value("${table.filter.index.enabled:true}")
+    private boolean indexEnabled;
+
+    @Value("${table.filter.index.min-hits:20}")
+    private long minHits;
+
+    @Value("${table.filter.index.max-columns:16}")
+    private int maxColumns;
+
+    /**
+     * 索引列标记删除后到实际删除列的宽限期，覆盖标记前已开始的查询
+     */
+    @Value("${table.filter.index.drop-grace-ms:60000}")
+    private long dropGraceMs;
+
+    /**
+     * 维护锁租约，需大于单条 DDL 的最长耗时；每执行一条 DDL 前续租
+     */
+    @Value("${table.filter.index.lock-lease-seconds:900}")
+    private int lockLeaseSeconds;
+
+    private record HitKey(Integer tableId, String fieldName) {
+    }
+
+    @Override
+    public List<TableDataFilter> resolveFilters(Integer tableId, List<String> expressions) {
+        if (expressions == null || expressions.isEmpty()) {
+            return List.of();
+        }
+        if (expressions.size() > MAX_FILTER_COUNT) {
+            throw new BizException(PARAM_ERROR_CODE, "筛选条件最多" + MAX_FILTER_COUNT + "个");
+        }
+        TableSchema schema = tableSchemaService.getSchema(tableId);
+        if (schema == null) {
+            throw new BizException(PARAM_ERROR_CODE, "表格不存在");
+        }
+        Set<String> fieldNames = schema.fieldNames();
+
+        List<TableDataFilter> parsed = new ArrayList<>(expressions.size());
+        Set<String> indexableFieldNames = new HashSet<>();
+        for (String expression : expressions) {
+            TableDataFilter filter = parseFilter(expression);
+            if (!fieldNames.contains(filter.getFieldName())) {
+                throw new BizException(PARAM_ERROR_CODE, "筛选字段不存在: " + filter.getFieldName());
+            }
+            if (filter.canUseIndex() && TableFieldIndex.isIndexableFieldName(filter.getFieldName())) {
+                filterHits.computeIfAbsent(new HitKey(tableId, filter.getFieldName()), k -> new LongAdder()).increment();
+                indexableFieldNames.add(filter.getFieldName());
+            }
+            parsed.add(filter);
+        }
+
+        // 只使用登记为可用的索引列，创建中和删除中的列不参与查询
+        Map<String, String> readyColumns = tableFieldIndexRepository.findReadyColumns(indexableFieldNames);
+        List<TableDataFilter> filters = new ArrayList<>(parsed.size());
+        long indexed = 0;
+        for (TableDataFilter filter : parsed) {
+            String column = indexableFieldNames.contains(filter.getFieldName())
+                    ? readyColumns.get(filter.getFieldName()) : null;
+            if (column != null) {
+                filter = filter.withColumn(column);
+                indexed++;
+            }
+            filters.add(filter);
+        }
+        tableMetricsService.recordFieldFilter(indexed, filters.size() - indexed);
+        return filters;
+    }
+
+    /**
+     * 字段改名后，本实例尚未写入的原名称筛选次数计入新名称；
+     * 已写入数据库的原名称次数在维护时因字段不再属于该表格而被丢弃，
+     * 原名称的索引列在没有表格再使用该名称后由定时维护删除
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSchemaChanged(TableSchemaChangedEvent event) {
+        for (TableSchemaDiff.FieldRename rename : event.renamed()) {
+            LongAdder hits = filterHits.remove(new HitKey(event.tableId(), rename.oldName()));
+            if (hits != null) {
+                filterHits.computeIfAbsent(new HitKey(event.tableId(), rename.newName()), k -> new LongAdder())
+                        .add(hits.sum());
+            }
+        }
+    }
+
+    /**
+     * 解析筛选表达式：字段名:运算符:值，值中可以包含冒号
+     */
+    private TableDataFilter parseFilter(String expression) {
+        String[] parts = expression == null ? new String[0] : expression.split(":", 3);
+        if (parts.length != 3 || parts[0].isBlank()) {
+            throw new BizException(PARAM_ERROR_CODE, "筛选条件格式错误，应为 字段名:运算符:值");
+        }
+        FilterOperator operator = FilterOperator.of(parts[1].trim());
+        if (operator == null) {
+            throw new BizException(PARAM_ERROR_CODE, "不支持的筛选运算符: " + parts[1]);
+        }
+        return TableDataFilter.of(parts[0].trim(), operator, parts[2]);
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${table.filter.index.flush-interval-ms:60000}",
+            fixedDelayString = "${table.filter.index.flush-interval-ms:60000}")
+    public void flushFilterHits() {
+        Map<HitKey, Long> hits = new HashMap<>();
+        filterHits.forEach((key, counter) -> {
+            long count = counter.sumThenReset();
+            if (count > 0) {
+                hits.put(key, count);
+            }
+        });
+        if (hits.isEmpty()) {
+            return;
+        }
+        try {
+            tableFieldIndexRepository.addFilterHits(hits.entrySet().stream()
+                    .map(entry -> new TableFieldFilterHit(entry.getKey().tableId(), entry.getKey().fieldName(), entry.getValue()))
+                    .toList());
+        } catch (Exception e) {
+            // 写入失败时放回本地，下次再写
+            hits.forEach((key, count) -> filterHits.computeIfAbsent(key, k -> new LongAdder()).add(count));
+            log.error("写入字段筛选次数失败", e);
+        }
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${table.filter.index.maintain-interval-ms:600000}",
+            fixedDelayString = "${table.filter.index.maintain-interval-ms:600000}")
+    public void maintainIndexes() {
+        if (!indexEnabled) {
+            return;
+        }
+        if (!clusterLock.tryLock(ClusterLock.FIELD_INDEX, lockLeaseSeconds)) {
+            log.debug("字段索引列维护由其他实例执行");
+            return;
+        }
+        try {
+            // 删除标记删除超过宽限期的索引列
+            for (TableFieldIndex index : tableFieldIndexRepository.findDropExpired((int) (dropGraceMs / 1000))) {
+                renewLock();
+                tableFieldIndexRepository.dropIndex(index);
+            }
+
+            Set<String> definedFieldNames = tableFieldIndexRepository.findDefinedFieldNames();
+            Set<String> registeredFieldNames = new HashSet<>();
+            int activeCount = 0;
+            for (TableFieldIndex index : tableFieldIndexRepository.findAll()) {
+                registeredFieldNames.add(index.fieldName());
+                if (index.state() == TableFieldIndex.STATE_DROPPING) {
+                    continue;
+                }
+                if (!definedFieldNames.contains(index.fieldName())) {
+                    // 已不在任何表格中的字段，先标记删除，宽限期后再删除列
+                    tableFieldIndexRepository.markDropping(index);
+                    continue;
+                }
+                if (index.state() == TableFieldIndex.STATE_BUILDING) {
+                    // 上次创建中断，继续完成
+                    renewLock();
+                    tableFieldIndexRepository.createIndex(index);
+                }
+                activeCount++;
+            }
+
+            // 按汇总的筛选次数从高到低为高频字段创建索引列，只统计仍属于该表格的字段
+            List<TableFieldFilterHit> hits = tableFieldIndexRepository.findFilterHits();
+            Map<String, Long> fieldHits = new HashMap<>();
+            for (TableFieldFilterHit hit : hits) {
+                TableSchema schema = tableSchemaService.getSchema(hit.tableId());
+                if (schema != null && schema.fieldNames().contains(hit.fieldName())) {
+                    fieldHits.merge(hit.fieldName(), hit.hits(), Long::sum);
+                }
+            }
+            List<String> candidates = fieldHits.entrySet().stream()
+                    .filter(entry -> entry.getValue() >= minHits)
+                    .filter(entry -> !registeredFieldNames.contains(entry.getKey()))
+                    .filter(entry -> TableFieldIndex.isIndexableFieldName(entry.getKey()))
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+            int available = maxColumns - activeCount;
+            for (String fieldName : candidates) {
+                if (available <= 0) {
+                    log.info("字段索引列已达上限 {}，未创建: {}", maxColumns, fieldName);
+                    break;
+                }
+                renewLock();
+                tableFieldIndexRepository.createIndex(
+                        new TableFieldIndex(fieldName, columnNameOf(fieldName), TableFieldIndex.STATE_BUILDING));
+                available--;
+            }
+
+            // 扣减本周期已读取的次数，新周期重新累计
+            tableFieldIndexRepository.addFilterHits(hits.stream()
+                    .map(hit -> new TableFieldFilterHit(hit.tableId(), hit.fieldName(), -hit.hits()))
+                    .toList());
+        } catch (Exception e) {
+            log.error("维护字段索引列失败", e);
+        } finally {
+            clusterLock.unlock(ClusterLock.FIELD_INDEX);
+        }
+    }
+
+    /**
+     * DDL 可能耗时较长，执行前续租，续租失败说明锁已被其他实例取得
+     */
+    private void renewLock() {
+        if (!clusterLock.tryLock(ClusterLock.FIELD_INDEX, lockLeaseSeconds)) {
+            throw new IllegalStateException("字段索引列维护锁已失效");
+        }
+    }
+
+    /**
+     * 生成列名：fx_ + 字段名称 SHA-256 的前16位十六进制
+     */
+    private String columnNameOf(String fieldName) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(fieldName.getBytes(StandardCharsets.UTF_8));
+            return "fx_" + HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
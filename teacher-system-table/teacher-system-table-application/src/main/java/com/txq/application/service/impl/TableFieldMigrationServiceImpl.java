@@ -0,0 +1,208 @@
+package com.txq.application.service.impl;
+
+import com.txq.application.entity.vo.TableFieldMigrationJobVO;
+import com.txq.application.service.ITableFieldMigrationService;
+import com.txq.common.context.UserContext;
+import com.txq.common.exception.BizException;
+import com.txq.domain.infra.repository.TableDataRepository;
+import com.txq.domain.infra.repository.TableFieldMigrationRepository;
+import com.txq.domain.model.TableFieldMigrationJob;
+import com.txq.domain.model.TableSchemaChangedEvent;
+import com.txq.domain.model.TableSchemaDiff;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.txq.domain.status.ErrorCode.PERMISSION_DENIED_ERROR_CODE;
+import static com.txq.domain.status.ErrorCode.USER_NOT_LOGIN_ERROR_CODE;
+
+/**
+ * 字段迁移服务实现
+ * 按数据ID分批在数据库内改写 data_content（先在线表，后归档表），每批改写与检查点在同一短事务内提交，
+ * 批次之间暂停以降低对在线写入的影响；执行中断时租约到期后由任一实例从检查点继续
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TableFieldMigrationServiceImpl implements ITableFieldMigrationService {
+
+    private final TableFieldMigrationRepository tableFieldMigrationRepository;
+
+    private final TableDataRepository tableDataRepository;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /**
+     * 每批改写的数据条数（一个事务）
+     */
+    @Value("${table.field-migration.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * 批次之间的暂停时长（毫秒）
+     */
+    @Value("${table.field-migration.pause-ms:50}")
+    private long pauseMs;
+
+    /**
+     * 执行租约时长（秒），每批完成后续租
+     */
+    @Value("${table.field-migration.lease-seconds:300}")
+    private int leaseSeconds;
+
+    /**
+     * 最大执行次数，超过后标记为失败
+     */
+    @Value("${table.field-migration.max-attempts:5}")
+    private int maxAttempts;
+
+    /**
+     * 字段改名或删除后创建迁移任务
+     * 在结构变更事务提交前执行，任务与结构变更一起提交或回滚
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onSchemaChanged(TableSchemaChangedEvent event) {
+        if (event.tableDeleted() || (event.renamed().isEmpty() && event.removedFieldNames().isEmpty())) {
+            return;
+        }
+        Map<String, String> renames = new LinkedHashMap<>();
+        for (TableSchemaDiff.FieldRename rename : event.renamed()) {
+            renames.put(rename.oldName(), rename.newName());
+        }
+        Long jobId = tableFieldMigrationRepository.createJob(event.tableId(), renames,
+                event.removedFieldNames(), UserContext.getUserId());
+        log.info("已创建字段迁移任务，tableId: {}, 任务ID: {}, 改名: {}, 删除: {}",
+                event.tableId(), jobId, renames, event.removedFieldNames());
+    }
+
+    @Override
+    public TableFieldMigrationJobVO getLatestJob(Integer tableId) {
+        checkAdmin("无权限查看字段迁移任务");
+        TableFieldMigrationJob job = tableFieldMigrationRepository.findLatestByTableId(tableId);
+        if (job == null) {
+            return null;
+        }
+        int progress;
+        if (job.status() == TableFieldMigrationJob.STATUS_DONE) {
+            progress = 100;
+        } else if (job.totalRows() == null || job.totalRows() == 0) {
+            progress = 0;
+        } else {
+            progress = (int) Math.min(99, job.scannedRows() * 100 / job.totalRows());
+        }
+        return TableFieldMigrationJobVO.builder()
+                .jobId(job.id())
+                .tableId(job.tableId())
+                .status(statusName(job.status()))
+                .renames(job.renames())
+                .removedFields(job.removedFields())
+                .totalRows(job.totalRows())
+                .scannedRows(job.scannedRows())
+                .rewrittenRows(job.rewrittenRows())
+                .progress(progress)
+                .lastError(job.lastError())
+                .createdAt(job.createdAt())
+                .finishedAt(job.finishedAt())
+                .build();
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${table.field-migration.poll-interval-ms:5000}",
+            fixedDelayString = "${table.field-migration.poll-interval-ms:5000}")
+    public int runPendingJobs() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        int finished = 0;
+        try {
+            TableFieldMigrationJob job;
+            while ((job = tableFieldMigrationRepository.claimNext(leaseSeconds)) != null) {
+                try {
+                    runJob(job);
+                    finished++;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (Exception e) {
+                    log.error("字段迁移任务执行失败，jobId: {}, tableId: {}", job.id(), job.tableId(), e);
+                    tableFieldMigrationRepository.markError(job.id(), e.toString(), maxAttempts);
+                    break;
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+        return finished;
+    }
+
+    private void runJob(TableFieldMigrationJob job) throws InterruptedException {
+        long startTime = System.nanoTime();
+        if (job.status() == TableFieldMigrationJob.STATUS_PENDING) {
+            tableFieldMigrationRepository.updateTotalRows(job.id(), tableDataRepository.countDataByTableId(job.tableId()));
+        }
+
+        // 先在线表后归档表：在线表处理期间被归档的数据，在归档表阶段从头扫描时仍会被处理
+        long chunks = 0;
+        if (!Boolean.TRUE.equals(job.hotDone())) {
+            chunks += migrate(job, false, job.hotLastId());
+        }
+        chunks += migrate(job, true, job.archiveLastId());
+        tableFieldMigrationRepository.markDone(job.id());
+        log.info("字段迁移任务完成，jobId: {}, tableId: {}, 本次批次: {}, 耗时: {}ms",
+                job.id(), job.tableId(), chunks, (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+    /**
+     * 从检查点开始分批迁移在线表或归档表
+     * @return 处理的批次数
+     */
+    private long migrate(TableFieldMigrationJob job, boolean archived, Long checkpoint) throws InterruptedException {
+        long chunks = 0;
+        Long afterId = checkpoint == null ? 0L : checkpoint;
+        while ((afterId = tableFieldMigrationRepository.migrateChunk(job, archived, afterId, chunkSize, leaseSeconds)) != null) {
+            chunks++;
+            if (pauseMs > 0) {
+                Thread.sleep(pauseMs);
+            }
+        }
+        return chunks;
+    }
+
+    private static String statusName(Integer status) {
+        if (status == null) {
+            return "pending";
+        }
+        return switch (status) {
+            case TableFieldMigrationJob.STATUS_RUNNING -> "running";
+            case TableFieldMigrationJob.STATUS_DONE -> "done";
+            case TableFieldMigrationJob.STATUS_FAILED -> "failed";
+            default -> "pending";
+        };
+    }
+
+    /**
+     * 校验当前用户为管理员
+     */
+    private void checkAdmin(String message) {
+        String operatorId = UserContext.getUserId();
+        List<Integer> roleIds = UserContext.getRoleIds();
+
+        if (operatorId == null || roleIds == null || roleIds.isEmpty()) {
+            throw new BizException(USER_NOT_LOGIN_ERROR_CODE, "用户未登录或权限信息缺失");
+        }
+
+        boolean isAdmin = roleIds.contains(1) || roleIds.contains(2);
+        if (!isAdmin) {
+            throw new BizException(PERMISSION_DENIED_ERROR_CODE, message);
+        }
+    }
+}
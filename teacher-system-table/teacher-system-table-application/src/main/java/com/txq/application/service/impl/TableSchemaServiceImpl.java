@@ -0,0 +1,88 @@
+package com.txq.application.service.impl;
+
+import com.txq.application.service.ITableMetricsService;
+import com.txq.application.service.ITableSchemaService;
+import com.txq.domain.infra.repository.TableRepository;
+import com.txq.domain.model.TableSchema;
+import com.txq.domain.model.TableSchemaChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 表格结构服务实现
+ * 按表格ID缓存结构，本实例修改或删除表格时立即失效；
+ * 多实例部署时其他实例的修改在缓存过期后可见，同一表格只会被更高版本号的结构替换
+ */
+@Service
+@RequiredArgsConstructor
+public class TableSchemaServiceImpl implements ITableSchemaService {
+
+    private final TableRepository tableRepository;
+
+    private final ITableMetricsService tableMetricsService;
+
+    /**
+     * 表格ID -> 缓存的结构
+     */
+    private final ConcurrentHashMap<Integer, CachedSchema> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 失效次数，加载期间发生失效的结果不写入缓存
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Value("${table.schema.cache-ttl-ms:300000}")
+    private long cacheTtlMs;
+
+    private record CachedSchema(TableSchema schema, long loadedAt) {
+    }
+
+    @Override
+    public TableSchema getSchema(Integer tableId) {
+        CachedSchema cached = cache.get(tableId);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt() < cacheTtlMs) {
+            tableMetricsService.recordSchemaCache(true);
+            return cached.schema();
+        }
+        tableMetricsService.recordSchemaCache(false);
+
+        long version = invalidations.get();
+        TableSchema schema = tableRepository.findSchema(tableId);
+        if (schema == null) {
+            // 不缓存不存在的表格，新建的表格无需等待过期
+            cache.remove(tableId);
+            return null;
+        }
+        store(version, schema);
+        return schema;
+    }
+
+    /**
+     * 表格修改或删除提交后使缓存失效
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSchemaChanged(TableSchemaChangedEvent event) {
+        invalidate(event.tableId());
+    }
+
+    @Override
+    public synchronized void invalidate(Integer tableId) {
+        invalidations.incrementAndGet();
+        cache.remove(tableId);
+    }
+
+    private synchronized void store(long version, TableSchema schema) {
+        if (invalidations.get() != version) {
+            return;
+        }
+        CachedSchema loaded = new CachedSchema(schema, System.currentTimeMillis());
+        cache.merge(schema.tableId(), loaded, (old, current) ->
+                current.schema().schemaVersion() >= old.schema().schemaVersion() ? current : old);
+    }
+}
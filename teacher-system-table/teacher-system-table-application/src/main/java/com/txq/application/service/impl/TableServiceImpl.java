@@ -4,27 +4,36 @@ import com.txq.application.entity.query.TableFieldQuery;
 import com.txq.application.entity.query.TableQuery;
 import com.txq.application.entity.vo.TableFieldVO;
 import com.txq.application.entity.vo.TableListItemVO;
+import com.txq.application.service.ITableDeleteJobService;
+import com.txq.application.service.ITableSchemaService;
 import com.txq.application.service.ITableService;
-import com.txq.domain.infra.repository.TableDataRepository;
+import com.txq.application.service.ITableStatusCounterService;
+import com.txq.common.exception.BizException;
+import com.txq.domain.infra.IdGenerator;
 import com.txq.domain.infra.repository.TableRepository;
 import com.txq.domain.model.Table;
 import com.txq.domain.model.TableField;
+import com.txq.domain.model.TableSchema;
+import com.txq.domain.model.TableSchemaChangedEvent;
+import com.txq.domain.model.TableSchemaDiff;
 import com.txq.domain.service.TableDomainService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+import static com.txq.domain.status.ErrorCode.TABLE_SCHEMA_VERSION_CONFLICT_ERROR_CODE;
+
 /**
  * 表格应用服务
  * Application层负责业务编排和业务逻辑
@@ -37,13 +46,32 @@ public class TableServiceImpl implements ITableService {
     private final TableDomainService tableDomainService;
 
     private final TableRepository tableRepository;
-    
-    private final TableDataRepository tableDataRepository;
-    
-    @Value("${attachment.base-path}")
-    private String attachmentBasePath;
-    
-    private final Random random = new Random();
+
+    private final ITableDeleteJobService tableDeleteJobService;
+
+    private final ITableStatusCounterService tableStatusCounterService;
+
+    private final ITableSchemaService tableSchemaService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final IdGenerator idGenerator;
+
+    /**
+     * 表格列表缓存，表格增删改时失效；多实例部署时其他实例的修改在缓存过期后可见
+     */
+    private volatile TableListSnapshot tableListSnapshot;
+
+    /**
+     * 缓存版本，失效时加1，加载期间发生失效的结果不写入缓存
+     */
+    private final AtomicLong tableListVersion = new AtomicLong();
+
+    @Value("${table.list.cache-ttl-ms:60000}")
+    private long tableListCacheTtlMs;
+
+    private record TableListSnapshot(List<TableListItemVO> tables, long loadedAt) {
+    }
 
     /**
      * 创建表格
@@ -57,7 +85,9 @@ public class TableServiceImpl implements ITableService {
         Integer tableId = generateTableId();
 
         // 3. 将Query转换为领域对象
-        List<TableField> tableFields = convertToTableFields(tableQuery.getTableFields());
+        List<TableField> tableFields = tableQuery.getTableFields().stream()
+                .map(query -> TableField.of(query.isRoot(), query.getFieldName()))
+                .collect(Collectors.toList());
         Table table = Table.create(
                 tableQuery.getTableFullName(),
                 tableQuery.getTableAliasName(),
@@ -66,25 +96,35 @@ public class TableServiceImpl implements ITableService {
 
         // 4. 持久化表格信息
         tableRepository.saveTable(table, tableId);
+        tableStatusCounterService.recordTableCreated();
+        invalidateTableList();
     }
 
     /**
-     * 将TableFieldQuery转换为TableField领域对象
+     * 将TableFieldQuery转换为TableField领域对象（保留字段ID，排序序号由差异计算时按顺序编号）
      */
     private List<TableField> convertToTableFields(List<TableFieldQuery> fieldQueries) {
         return fieldQueries.stream()
                 .map(query -> TableField.of(
+                        query.getFieldId(),
                         query.isRoot(),
-                        query.getFieldName()
+                        query.getFieldName(),
+                        0
                 ))
                 .collect(Collectors.toList());
     }
 
     /**
      * 生成表格ID
+     * 从号段分配，跳过与历史随机生成的表格ID重复的值
      */
     private Integer generateTableId() {
-        return Math.abs(random.nextInt());
+        while (true) {
+            Integer tableId = Math.toIntExact(idGenerator.nextId(IdGenerator.TABLE_META));
+            if (!tableRepository.isTableIdUsed(tableId)) {
+                return tableId;
+            }
+        }
     }
 
     /**
@@ -92,18 +132,37 @@ public class TableServiceImpl implements ITableService {
      */
     @Override
     public List<TableListItemVO> getTableList() {
+        TableListSnapshot snapshot = tableListSnapshot;
+        if (snapshot != null && System.currentTimeMillis() - snapshot.loadedAt() < tableListCacheTtlMs) {
+            return snapshot.tables();
+        }
+
+        long version = tableListVersion.get();
         // 从仓储层获取表格列表
         List<Map<String, Object>> tables = tableRepository.findAllTables();
         
         // 转换为VO
-        return tables.stream().map(table -> TableListItemVO.builder()
+        List<TableListItemVO> result = tables.stream().map(table -> TableListItemVO.builder()
                 .tableId((Integer) table.get("tableId"))
                 .tableFullName((String) table.get("tableFullName"))
                 .tableAliasName((String) table.get("tableAliasName"))
                 .fieldCount((Integer) table.get("fieldCount"))
                 .createTime((LocalDateTime) table.get("createTime"))
                 .build()
-        ).collect(Collectors.toList());
+        ).toList();
+        storeTableList(version, result);
+        return result;
+    }
+
+    private synchronized void storeTableList(long version, List<TableListItemVO> tables) {
+        if (tableListVersion.get() == version) {
+            tableListSnapshot = new TableListSnapshot(tables, System.currentTimeMillis());
+        }
+    }
+
+    private synchronized void invalidateTableList() {
+        tableListVersion.incrementAndGet();
+        tableListSnapshot = null;
     }
 
     /**
@@ -111,13 +170,17 @@ public class TableServiceImpl implements ITableService {
      */
     @Override
     public List<TableFieldVO> getTableFields(Integer tableId) {
-        // 从仓储层获取字段列表
-        List<Map<String, Object>> fields = tableRepository.findTableFields(tableId);
+        // 从结构缓存获取字段列表
+        TableSchema schema = tableSchemaService.getSchema(tableId);
+        if (schema == null) {
+            return List.of();
+        }
         
         // 转换为VO
-        return fields.stream().map(field -> TableFieldVO.builder()
-                .root((Boolean) field.get("root"))
-                .fieldName((String) field.get("fieldName"))
+        return schema.fields().stream().map(field -> TableFieldVO.builder()
+                .fieldId(field.getId())
+                .root(field.isRoot())
+                .fieldName(field.getFieldName())
                 .build()
         ).collect(Collectors.toList());
     }
@@ -126,9 +189,11 @@ public class TableServiceImpl implements ITableService {
      * 更新表格
      */
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void updateTable(Integer tableId, TableQuery tableQuery) {
-        // 1. 检查表格是否存在
-        if (!tableRepository.existsById(tableId)) {
+        // 1. 检查表格是否存在，读取当前结构（不经过缓存）
+        TableSchema stored = tableRepository.findSchema(tableId);
+        if (stored == null) {
             throw new RuntimeException("表格不存在");
         }
 
@@ -145,76 +210,31 @@ public class TableServiceImpl implements ITableService {
                 tableFields
         );
 
-        // 4. 更新表格信息
-        tableRepository.updateTable(table, tableId);
+        // 4. 计算字段差异，按读取时的结构版本号只写入变化部分
+        TableSchemaDiff diff = tableDomainService.diffFields(stored.fields(), tableFields);
+        if (!tableRepository.updateTable(table, tableId, stored.schemaVersion(), diff)) {
+            throw new BizException(TABLE_SCHEMA_VERSION_CONFLICT_ERROR_CODE, "表格已被他人修改，请刷新后重试");
+        }
+        // 字段迁移任务在提交前随结构变更一起写入，缓存在提交后失效
+        eventPublisher.publishEvent(TableSchemaChangedEvent.updated(tableId, diff));
     }
 
     /**
      * 删除表格
+     * 立即标记删除，数据、附件、字段和元信息由后台删除任务分批清理
      */
     @Override
-    public void deleteTable(Integer tableId) {
-        // 1. 检查表格是否存在
-        if (!tableRepository.existsById(tableId)) {
-            throw new RuntimeException("表格不存在");
-        }
-
-        // 2. 删除该表格的所有附件文件
-        deleteTableAttachments(tableId);
-
-        // 3. 删除表格（会同时删除表格元信息、字段信息和数据记录）
-        tableRepository.deleteTable(tableId);
-        
-        log.info("表格删除成功，tableId: {}", tableId);
+    public Long deleteTable(Integer tableId) {
+        Long jobId = tableDeleteJobService.submit(tableId);
+        eventPublisher.publishEvent(TableSchemaChangedEvent.deleted(tableId));
+        return jobId;
     }
-    
+
     /**
-     * 删除表格的所有附件文件
+     * 表格修改或删除提交后使表格列表缓存失效，提交前失效会被并发读取重新缓存旧列表
      */
-    private void deleteTableAttachments(Integer tableId) {
-        try {
-            // 查询该表格的所有数据记录
-            List<Map<String, Object>> dataList = tableDataRepository.findDataByTableId(tableId);
-            
-            if (dataList == null || dataList.isEmpty()) {
-                log.info("表格 {} 没有数据记录，无需删除附件", tableId);
-                return;
-            }
-            
-            int deletedCount = 0;
-            int totalAttachments = 0;
-            
-            // 遍历所有数据记录，删除附件文件
-            for (Map<String, Object> data : dataList) {
-                String reviewMaterial = (String) data.get("review_material");
-                
-                if (reviewMaterial != null && !reviewMaterial.trim().isEmpty()) {
-                    totalAttachments++;
-                    
-                    // 构建文件的完整路径
-                    // reviewMaterial 格式: /table-data/{userId}/{attachmentId}_{filename}
-                    Path filePath = Paths.get(attachmentBasePath + reviewMaterial);
-                    
-                    try {
-                        if (Files.exists(filePath)) {
-                            Files.delete(filePath);
-                            deletedCount++;
-                            log.info("删除附件文件: {}", filePath);
-                        } else {
-                            log.warn("附件文件不存在: {}", filePath);
-                        }
-                    } catch (IOException e) {
-                        log.error("删除附件文件失败: {}", filePath, e);
-                    }
-                }
-            }
-            
-            log.info("表格 {} 的附件删除完成，总计 {} 个附件，成功删除 {} 个", 
-                    tableId, totalAttachments, deletedCount);
-                    
-        } catch (Exception e) {
-            log.error("删除表格附件时出错，tableId: {}", tableId, e);
-            // 不抛出异常，允许继续删除表格数据
-        }
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSchemaChanged(TableSchemaChangedEvent event) {
+        invalidateTableList();
     }
 }
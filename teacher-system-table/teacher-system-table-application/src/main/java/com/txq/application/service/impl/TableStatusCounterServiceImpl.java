@@ -0,0 +1,148 @@
+package com.txq.application.service.impl;
+
+import com.txq.application.service.ITableMetricsService;
+import com.txq.application.service.ITableStatusCounterService;
+import com.txq.domain.infra.repository.TableDataRepository;
+import com.txq.domain.infra.repository.TableRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 表格数据状态计数服务实现
+ * 数据库为唯一可信来源：启动时从数据库初始化，并按固定间隔用数据库统计覆盖内存计数；
+ * 两次校准之间本实例的状态变化在事务提交后增量累加，回滚的变更不计入，其他实例的变更在下次校准时体现
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TableStatusCounterServiceImpl implements ITableStatusCounterService {
+
+    /**
+     * 状态取值范围：0=暂存，1=已提交，2=已打分，3=已退回
+     */
+    private static final int STATUS_COUNT = 4;
+
+    private static final int STATUS_PENDING = 1;
+
+    private final TableDataRepository tableDataRepository;
+
+    private final TableRepository tableRepository;
+
+    private final ITableMetricsService tableMetricsService;
+
+    private final AtomicLongArray statusCounts = new AtomicLongArray(STATUS_COUNT);
+
+    private final AtomicInteger tableCount = new AtomicInteger();
+
+    /**
+     * 应用启动完成后初始化计数
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        reconcile();
+    }
+
+    @Override
+    public void recordStatusChange(Integer fromStatus, Integer toStatus) {
+        if (fromStatus != null && fromStatus.equals(toStatus)) {
+            return;
+        }
+        afterCommit(() -> {
+            if (isValidStatus(fromStatus)) {
+                statusCounts.decrementAndGet(fromStatus);
+            }
+            if (isValidStatus(toStatus)) {
+                statusCounts.incrementAndGet(toStatus);
+            }
+            publishGauges();
+        });
+    }
+
+    @Override
+    public void recordTableCreated() {
+        afterCommit(() -> {
+            tableCount.incrementAndGet();
+            publishGauges();
+        });
+    }
+
+    @Override
+    public long getStatusCount(int status) {
+        return isValidStatus(status) ? Math.max(statusCounts.get(status), 0L) : 0L;
+    }
+
+    @Override
+    public long getTotalCount() {
+        long total = 0;
+        for (int status = 0; status < STATUS_COUNT; status++) {
+            total += getStatusCount(status);
+        }
+        return total;
+    }
+
+    @Override
+    public int getTableCount() {
+        return tableCount.get();
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${table.statistics.reconcile-interval-ms:60000}",
+            fixedDelayString = "${table.statistics.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        try {
+            Map<Integer, Long> counts = tableDataRepository.countDataByStatus();
+            long drift = 0;
+            for (int status = 0; status < STATUS_COUNT; status++) {
+                long actual = counts.getOrDefault(status, 0L);
+                drift += Math.abs(statusCounts.getAndSet(status, actual) - actual);
+            }
+            int actualTables = (int) tableRepository.countTables();
+            drift += Math.abs(tableCount.getAndSet(actualTables) - actualTables);
+            publishGauges();
+
+            if (drift > 0) {
+                log.info("状态计数已与数据库校准，偏差: {}, 各状态条数: {}, 表格数: {}", drift, counts, actualTables);
+            }
+        } catch (Exception e) {
+            // 校准失败时保留当前计数，等待下次校准
+            log.error("状态计数校准失败", e);
+        }
+    }
+
+    /**
+     * 在当前事务提交后执行，没有事务时立即执行
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * 同步Prometheus统计指标
+     */
+    private void publishGauges() {
+        tableMetricsService.updateStatistics(tableCount.get(), getStatusCount(STATUS_PENDING));
+    }
+
+    private boolean isValidStatus(Integer status) {
+        return status != null && status >= 0 && status < STATUS_COUNT;
+    }
+}
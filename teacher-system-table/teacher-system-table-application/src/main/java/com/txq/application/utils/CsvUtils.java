@@ -0,0 +1,147 @@
+package com.txq.application.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV读写工具类（RFC 4180）
+ */
+public class CsvUtils {
+
+    /**
+     * UTF-8 BOM，便于Excel正确识别中文
+     */
+    public static final char BOM = '\uFEFF';
+
+    /**
+     * 公式转义前缀
+     */
+    private static final char FORMULA_ESCAPE = '\'';
+
+    private CsvUtils() {
+    }
+
+    /**
+     * 写出一行CSV，行尾使用CRLF
+     */
+    public static void writeRow(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCell(writer, values.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * 写出单元格，包含逗号、引号或换行时加引号转义
+     * 非数值单元格以公式字符开头时加单引号前缀，防止在Excel中被当作公式执行
+     */
+    private static void writeCell(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (!(value instanceof Number) && isFormulaLike(text)) {
+            text = FORMULA_ESCAPE + text;
+        }
+        boolean needQuote = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                needQuote = true;
+                break;
+            }
+        }
+        if (!needQuote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    /**
+     * 去掉导出时添加的公式转义前缀，用于导入回读
+     */
+    public static String unescapeFormula(String text) {
+        if (text.length() > 1 && text.charAt(0) == FORMULA_ESCAPE && isFormulaLike(text.substring(1))) {
+            return text.substring(1);
+        }
+        return text;
+    }
+
+    /**
+     * 判断文本是否以 = + - @ 制表符或回车开头
+     */
+    private static boolean isFormulaLike(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        char first = text.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+
+    /**
+     * 读取一行CSV，支持引号内的逗号、换行和转义引号
+     * @return 单元格列表，已到达文件末尾时返回null
+     */
+    public static List<String> readRow(BufferedReader reader) throws IOException {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        boolean empty = true;
+        int c;
+        while ((c = reader.read()) != -1) {
+            empty = false;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        cell.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    cell.append((char) c);
+                }
+            } else if (c == '"' && cell.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                cells.add(cell.toString());
+                return cells;
+            } else {
+                cell.append((char) c);
+            }
+        }
+        if (empty) {
+            return null;
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+}
@@ -0,0 +1,162 @@
+package com.txq.application.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 邮件模板
+ * 启动时解析一次，渲染时按片段顺序拼接到预分配容量的缓冲区
+ * 占位符 {{name}} 输出时做HTML转义，{{{name}}} 原样输出（用于已渲染的片段）
+ */
+public final class MailTemplate {
+
+    private final String name;
+
+    /**
+     * 字面量片段，比占位符多一个
+     */
+    private final String[] literals;
+
+    /**
+     * 占位符名称
+     */
+    private final String[] keys;
+
+    /**
+     * 占位符是否原样输出
+     */
+    private final boolean[] raw;
+
+    /**
+     * 字面量总长度，用于估算输出容量
+     */
+    private final int literalLength;
+
+    private MailTemplate(String name, List<String> literals, List<String> keys, List<Boolean> raw) {
+        this.name = name;
+        this.literals = literals.toArray(new String[0]);
+        this.keys = keys.toArray(new String[0]);
+        this.raw = new boolean[raw.size()];
+        for (int i = 0; i < this.raw.length; i++) {
+            this.raw[i] = raw.get(i);
+        }
+        int length = 0;
+        for (String literal : this.literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * 从类路径加载并解析模板
+     * @param location 类路径下的模板路径，如 templates/mail/reject.html
+     */
+    public static MailTemplate load(String location) {
+        ClassLoader classLoader = MailTemplate.class.getClassLoader();
+        try (InputStream in = classLoader.getResourceAsStream(location)) {
+            if (in == null) {
+                throw new IllegalStateException("邮件模板不存在: " + location);
+            }
+            return compile(location, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("读取邮件模板失败: " + location, e);
+        }
+    }
+
+    /**
+     * 解析模板文本
+     */
+    public static MailTemplate compile(String name, String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        List<Boolean> raw = new ArrayList<>();
+        int pos = 0;
+        while (true) {
+            int open = source.indexOf("{{", pos);
+            if (open < 0) {
+                break;
+            }
+            boolean isRaw = source.startsWith("{{{", open);
+            String closeToken = isRaw ? "}}}" : "}}";
+            int keyStart = open + (isRaw ? 3 : 2);
+            int close = source.indexOf(closeToken, keyStart);
+            if (close < 0) {
+                throw new IllegalStateException("邮件模板占位符未闭合: " + name + ", 位置: " + open);
+            }
+            literals.add(source.substring(pos, open));
+            keys.add(source.substring(keyStart, close).trim());
+            raw.add(isRaw);
+            pos = close + closeToken.length();
+        }
+        literals.add(source.substring(pos));
+        return new MailTemplate(name, literals, keys, raw);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 渲染为字符串
+     * @param values 占位符取值，缺失的占位符输出为空
+     */
+    public String render(Map<String, String> values) {
+        int capacity = literalLength;
+        for (String value : values.values()) {
+            if (value != null) {
+                // 预留转义膨胀的余量
+                capacity += value.length() + (value.length() >> 3);
+            }
+        }
+        StringBuilder out = new StringBuilder(capacity);
+        renderTo(out, values);
+        return out.toString();
+    }
+
+    /**
+     * 渲染并追加到已有缓冲区，用于循环渲染多行片段
+     */
+    public void renderTo(StringBuilder out, Map<String, String> values) {
+        for (int i = 0; i < keys.length; i++) {
+            out.append(literals[i]);
+            String value = values.get(keys[i]);
+            if (value == null) {
+                continue;
+            }
+            if (raw[i]) {
+                out.append(value);
+            } else {
+                escapeHtml(out, value);
+            }
+        }
+        out.append(literals[keys.length]);
+    }
+
+    /**
+     * 字面量总长度
+     */
+    public int getLiteralLength() {
+        return literalLength;
+    }
+
+    /**
+     * HTML转义后追加
+     */
+    public static void escapeHtml(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
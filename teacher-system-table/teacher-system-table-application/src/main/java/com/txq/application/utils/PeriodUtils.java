@@ -0,0 +1,58 @@
+package com.txq.application.utils;
+
+import com.txq.common.exception.BizException;
+import com.txq.domain.model.PeriodRange;
+
+import java.time.YearMonth;
+import java.util.regex.Pattern;
+
+import static com.txq.domain.status.ErrorCode.PARAM_ERROR_CODE;
+
+/**
+ * 提交时期工具类
+ */
+public class PeriodUtils {
+
+    /**
+     * 提交时期格式：YYYY-MM
+     */
+    public static final Pattern PERIOD_PATTERN = Pattern.compile("^\\d{4}-(0[1-9]|1[0-2])$");
+
+    private PeriodUtils() {
+    }
+
+    /**
+     * 当前月份
+     * table_data 按时期分区后时期列是主键的一部分，不能为空，新增数据未填写时期时以此为默认时期
+     */
+    public static String currentPeriod() {
+        return YearMonth.now().toString();
+    }
+
+    /**
+     * 解析并校验时期范围，两端都为空时返回不限范围
+     * 时期格式固定为 YYYY-MM，字符串顺序与时间顺序一致，可直接按字符串比较
+     */
+    public static PeriodRange parseRange(String from, String to) {
+        String periodFrom = normalize(from, "起始时期");
+        String periodTo = normalize(to, "结束时期");
+        if (periodFrom == null && periodTo == null) {
+            return PeriodRange.ALL;
+        }
+        if (periodFrom != null && periodTo != null && periodFrom.compareTo(periodTo) > 0) {
+            throw new BizException(PARAM_ERROR_CODE, "起始时期不能晚于结束时期");
+        }
+        return new PeriodRange(periodFrom, periodTo);
+    }
+
+    private static String normalize(String period, String name) {
+        if (period == null || period.isBlank()) {
+            return null;
+        }
+        String value = period.trim();
+        if (!PERIOD_PATTERN.matcher(value).matches()) {
+            throw new BizException(PARAM_ERROR_CODE, name + "格式错误，应为YYYY-MM");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,140 @@
+package com.txq.application.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.txq.application.entity.vo.UserDataItemVO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * data_content 序列化基准测试：原始JSON直出（RawValue）与解析为Map后再序列化的对比
+ * <p>
+ * 模拟"我的统计"接口一次响应：每行数据库返回的 data_content JSON 文本组装为数据项VO后整体序列化，
+ * 两种方式输出的JSON在初始化时校验一致。运行方式：
+ * <pre>
+ * mvn -pl teacher-system-table/teacher-system-table-application -am test-compile
+ * mvn -pl teacher-system-table/teacher-system-table-application exec:exec -Dexec.executable=java \
+ *     -Dexec.classpathScope=test "-Dexec.args=-cp %classpath com.txq.application.benchmark.DataContentSerializationBenchmark"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataContentSerializationBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    // 单次响应的数据行数
+    private static final int ROWS = 100;
+
+    /**
+     * 每行的字段数，对应小表、常规表和大表
+     */
+    @Param({"8", "32", "128"})
+    private int fieldCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<String> dataContents;
+
+    @Setup
+    public void setUp() throws Exception {
+        dataContents = new ArrayList<>(ROWS);
+        for (int row = 0; row < ROWS; row++) {
+            dataContents.add(objectMapper.writeValueAsString(buildDataContent(row)));
+        }
+        if (!objectMapper.readTree(rawValue()).equals(objectMapper.readTree(mapParseAndSerialize()))) {
+            throw new IllegalStateException("两种序列化方式输出不一致");
+        }
+    }
+
+    /**
+     * 当前实现：JSON文本包装为RawValue原样写出
+     */
+    @Benchmark
+    public byte[] rawValue() throws Exception {
+        List<UserDataItemVO> items = new ArrayList<>(ROWS);
+        for (int row = 0; row < ROWS; row++) {
+            items.add(UserDataItemVO.builder()
+                    .id((long) row)
+                    .tableId(1)
+                    .tableName("教师基本信息表")
+                    .dataContent(new RawValue(dataContents.get(row)))
+                    .score(BigDecimal.valueOf(row % 100))
+                    .status(1)
+                    .build());
+        }
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    /**
+     * 原实现：JSON文本先解析为Map，再随VO重新序列化
+     */
+    @Benchmark
+    public byte[] mapParseAndSerialize() throws Exception {
+        List<MapDataItem> items = new ArrayList<>(ROWS);
+        for (int row = 0; row < ROWS; row++) {
+            items.add(new MapDataItem((long) row, 1, "教师基本信息表",
+                    objectMapper.readValue(dataContents.get(row), MAP_TYPE),
+                    BigDecimal.valueOf(row % 100), null, 1, null, null));
+        }
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    /**
+     * 构造一行数据内容：字段名为中文，值包含短文本、数字、日期和较长的备注
+     */
+    private Map<String, Object> buildDataContent(int row) {
+        Map<String, Object> content = new LinkedHashMap<>();
+        for (int i = 0; i < fieldCount; i++) {
+            String key = "字段" + i;
+            switch (i % 4) {
+                case 0 -> content.put(key, "教师" + row + "-" + i);
+                case 1 -> content.put(key, String.valueOf(row * 10 + i));
+                case 2 -> content.put(key, "2024-0" + (i % 9 + 1) + "-15");
+                default -> content.put(key, "本学期承担课程教学与科研任务，完成教学工作量并指导学生参加竞赛，备注第" + i + "项");
+            }
+        }
+        return content;
+    }
+
+    /**
+     * 原实现的数据项：数据内容为解析后的Map，其余字段与 {@link UserDataItemVO} 一致
+     */
+    @Data
+    @AllArgsConstructor
+    public static class MapDataItem {
+        private Long id;
+        private Integer tableId;
+        private String tableName;
+        private Map<String, Object> dataContent;
+        private BigDecimal score;
+        private String reviewMaterial;
+        private Integer status;
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DataContentSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,106 @@
+package com.txq.application.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 邮件模板解析与渲染测试
+ */
+class MailTemplateTest {
+
+    @Test
+    void rendersPlaceholdersInOrder() {
+        MailTemplate template = MailTemplate.compile("test", "<p>{{name}}，您有{{count}}条数据</p>");
+
+        String html = template.render(Map.of("name", "张三", "count", "2"));
+
+        assertEquals("<p>张三，您有2条数据</p>", html);
+    }
+
+    @Test
+    void escapedPlaceholderEncodesHtml() {
+        MailTemplate template = MailTemplate.compile("test", "<td>{{value}}</td>");
+
+        String html = template.render(Map.of("value", "<script>alert('x')</script> & \"q\""));
+
+        assertEquals("<td>&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt; &amp; &quot;q&quot;</td>", html);
+    }
+
+    @Test
+    void rawPlaceholderIsNotEscaped() {
+        MailTemplate template = MailTemplate.compile("test", "<table>{{{rows}}}</table>");
+
+        String html = template.render(Map.of("rows", "<tr><td>a&b</td></tr>"));
+
+        assertEquals("<table><tr><td>a&b</td></tr></table>", html);
+    }
+
+    @Test
+    void missingValueRendersEmpty() {
+        MailTemplate template = MailTemplate.compile("test", "[{{a}}][{{{b}}}]");
+        Map<String, String> values = new HashMap<>();
+        values.put("a", null);
+
+        assertEquals("[][]", template.render(values));
+    }
+
+    @Test
+    void keyIsTrimmedAndRepeatable() {
+        MailTemplate template = MailTemplate.compile("test", "{{ name }}-{{name}}");
+
+        assertEquals("x-x", template.render(Map.of("name", "x")));
+    }
+
+    @Test
+    void templateWithoutPlaceholders() {
+        MailTemplate template = MailTemplate.compile("test", "<p>固定内容</p>");
+
+        assertEquals("<p>固定内容</p>", template.render(Map.of()));
+        assertEquals("<p>固定内容</p>".length(), template.getLiteralLength());
+    }
+
+    @Test
+    void literalLengthExcludesPlaceholders() {
+        MailTemplate template = MailTemplate.compile("test", "ab{{x}}cd{{{y}}}e");
+
+        assertEquals(5, template.getLiteralLength());
+    }
+
+    @Test
+    void renderToAppendsToBuffer() {
+        MailTemplate row = MailTemplate.compile("row", "<tr><td>{{key}}</td></tr>");
+        StringBuilder out = new StringBuilder("<table>");
+
+        row.renderTo(out, Map.of("key", "a"));
+        row.renderTo(out, Map.of("key", "<b>"));
+        out.append("</table>");
+
+        assertEquals("<table><tr><td>a</td></tr><tr><td>&lt;b&gt;</td></tr></table>", out.toString());
+    }
+
+    @Test
+    void unclosedPlaceholderIsRejected() {
+        assertThrows(IllegalStateException.class, () -> MailTemplate.compile("test", "<p>{{name</p>"));
+        assertThrows(IllegalStateException.class, () -> MailTemplate.compile("test", "<p>{{{rows}}</p>"));
+    }
+
+    @Test
+    void loadsClasspathTemplates() {
+        MailTemplate reject = MailTemplate.load("templates/mail/reject.html");
+
+        assertEquals("templates/mail/reject.html", reject.getName());
+        String html = reject.render(Map.of("userName", "<张三>", "items", "<li>raw</li>"));
+        assertTrue(html.contains("&lt;张三&gt;"));
+        assertTrue(html.contains("<li>raw</li>"));
+        assertFalse(html.contains("{{"));
+    }
+
+    @Test
+    void missingTemplateIsRejected() {
+        assertThrows(IllegalStateException.class, () -> MailTemplate.load("templates/mail/not-exist.html"));
+    }
+}
@@ -1,8 +1,10 @@
 package com.txq.interfaces.config;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.Getter;
 import org.springframework.stereotype.Component;
 
@@ -43,9 +45,41 @@ public class TableMetricsConfig {
     /** 数据删除总数计数器 */
     private final Counter dataDeletedCounter;
     
-    /** 数据导出总数计数器 */
+    /** 数据导出总数计数器（按行累加） */
     private final Counter dataExportedCounter;
     
+    /** 数据导出耗时计时器 */
+    private final Timer dataExportTimer;
+    
+    /** 数据导出字节数分布 */
+    private final DistributionSummary dataExportBytesSummary;
+    
+    /** 数据导出失败或中断次数计数器 */
+    private final Counter dataExportFailedCounter;
+    
+    /** 数据导入总数计数器（按行累加） */
+    private final Counter dataImportedCounter;
+    
+    /** 数据导入失败行数计数器 */
+    private final Counter dataImportFailedCounter;
+    
+    /** 数据导入耗时计时器 */
+    private final Timer dataImportTimer;
+    
+    /** 使用字段索引列的筛选条件计数器 */
+    private final Counter dataFilterIndexedCounter;
+    
+    /** 按 JSON 路径取值的筛选条件计数器 */
+    private final Counter dataFilterScanCounter;
+    
+    // ========== 表格结构缓存相关指标 ==========
+    
+    /** 表格结构缓存命中计数器 */
+    private final Counter schemaCacheHitCounter;
+    
+    /** 表格结构缓存未命中计数器 */
+    private final Counter schemaCacheMissCounter;
+    
     // ========== 附件相关指标 ==========
     
     /** 附件上传总数计数器 */
@@ -54,9 +88,26 @@ public class TableMetricsConfig {
     /** 附件下载总数计数器 */
     private final Counter attachmentDownloadCounter;
     
+    /** 附件下载耗时计时器 */
+    private final Timer attachmentDownloadTimer;
+    
+    /** 附件下载字节数分布 */
+    private final DistributionSummary attachmentDownloadBytesSummary;
+    
     /** 附件删除总数计数器 */
     private final Counter attachmentDeleteCounter;
     
+    // ========== 邮件相关指标 ==========
+    
+    /** 邮件发送成功计数器 */
+    private final Counter emailSentCounter;
+    
+    /** 邮件发送失败待重试计数器 */
+    private final Counter emailRetryCounter;
+    
+    /** 邮件最终发送失败计数器 */
+    private final Counter emailFailedCounter;
+    
     // ========== 统计指标（Gauge） ==========
     
     /** 当前活跃表格数量 */
@@ -112,6 +163,61 @@ public class TableMetricsConfig {
                 .tag("type", "table_data")
                 .register(meterRegistry);
         
+        this.dataExportTimer = Timer.builder("table.data.export.duration")
+                .description("数据导出耗时")
+                .tag("type", "table_data")
+                .register(meterRegistry);
+        
+        this.dataExportBytesSummary = DistributionSummary.builder("table.data.export.bytes")
+                .description("数据导出写出字节数")
+                .baseUnit("bytes")
+                .tag("type", "table_data")
+                .register(meterRegistry);
+        
+        this.dataExportFailedCounter = Counter.builder("table.data.export.failed")
+                .description("数据导出失败或中断次数")
+                .tag("type", "table_data")
+                .register(meterRegistry);
+        
+        this.dataImportedCounter = Counter.builder("table.data.imported")
+                .description("数据导入成功总行数")
+                .tag("type", "table_data")
+                .register(meterRegistry);
+        
+        this.dataImportFailedCounter = Counter.builder("table.data.import.failed")
+                .description("数据导入失败总行数")
+                .tag("type", "table_data")
+                .register(meterRegistry);
+        
+        this.dataImportTimer = Timer.builder("table.data.import.duration")
+                .description("数据导入耗时")
+                .tag("type", "table_data")
+                .register(meterRegistry);
+        
+        // 字段索引命中率 = indexed / (indexed + scan)
+        this.dataFilterIndexedCounter = Counter.builder("table.data.filter.indexed")
+                .description("使用字段索引列的筛选条件总数")
+                .tag("type", "table_data")
+                .register(meterRegistry);
+        
+        this.dataFilterScanCounter = Counter.builder("table.data.filter.scan")
+                .description("按JSON路径取值的筛选条件总数")
+                .tag("type", "table_data")
+                .register(meterRegistry);
+        
+        // 结构缓存命中率 = hit / (hit + miss)
+        this.schemaCacheHitCounter = Counter.builder("table.schema.cache")
+                .description("表格结构缓存访问次数")
+                .tag("type", "table_management")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        
+        this.schemaCacheMissCounter = Counter.builder("table.schema.cache")
+                .description("表格结构缓存访问次数")
+                .tag("type", "table_management")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        
         // 初始化附件指标
         this.attachmentUploadCounter = Counter.builder("table.attachment.upload")
                 .description("附件上传总数")
@@ -123,11 +229,38 @@ public class TableMetricsConfig {
                 .tag("type", "attachment")
                 .register(meterRegistry);
         
+        this.attachmentDownloadTimer = Timer.builder("table.attachment.download.duration")
+                .description("附件下载耗时")
+                .tag("type", "attachment")
+                .register(meterRegistry);
+        
+        this.attachmentDownloadBytesSummary = DistributionSummary.builder("table.attachment.download.bytes")
+                .description("附件下载写出字节数")
+                .baseUnit("bytes")
+                .tag("type", "attachment")
+                .register(meterRegistry);
+        
         this.attachmentDeleteCounter = Counter.builder("table.attachment.delete")
                 .description("附件删除总数")
                 .tag("type", "attachment")
                 .register(meterRegistry);
         
+        // 初始化邮件指标
+        this.emailSentCounter = Counter.builder("table.email.sent")
+                .description("邮件发送成功总数")
+                .tag("type", "email")
+                .register(meterRegistry);
+        
+        this.emailRetryCounter = Counter.builder("table.email.retry")
+                .description("邮件发送失败待重试总数")
+                .tag("type", "email")
+                .register(meterRegistry);
+        
+        this.emailFailedCounter = Counter.builder("table.email.failed")
+                .description("邮件最终发送失败总数")
+                .tag("type", "email")
+                .register(meterRegistry);
+        
         // 注册Gauge指标
         Gauge.builder("table.active.count", activeTableCount, AtomicInteger::get)
                 .description("当前活跃表格数量")
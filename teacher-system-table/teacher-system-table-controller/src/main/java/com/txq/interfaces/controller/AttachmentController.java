@@ -1,15 +1,27 @@
 package com.txq.interfaces.controller;
 
+import com.txq.application.entity.vo.AttachmentDownloadUrlVO;
+import com.txq.application.entity.vo.AttachmentFileVO;
 import com.txq.application.entity.vo.AttachmentVO;
 import com.txq.application.service.IAttachmentService;
+import com.txq.application.service.ITableMetricsService;
 import com.txq.common.annotation.ApiRequestMapping;
 import com.txq.common.context.UserContext;
 import com.txq.common.result.Response;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
 /**
  * 附件控制器
  */
@@ -20,6 +32,17 @@ public class AttachmentController {
     
     private final IAttachmentService attachmentService;
     
+    private final ITableMetricsService tableMetricsService;
+    
+    // Tomcat sendfile 请求属性，设置后由容器在请求返回后直接从文件写入 socket
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+    
+    // 交给 sendfile 的最小字节数（同 Tomcat DefaultServlet 默认值），小文件直接写出
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+    
     /**
      * 上传附件
      */
@@ -55,5 +78,179 @@ public class AttachmentController {
         AttachmentVO attachment = attachmentService.getAttachment(attachmentId);
         return Response.success(attachment);
     }
-}
+    
+    /**
+     * 获取附件的签名下载地址
+     * 需要登录，普通成员只能获取自己上传的附件；浏览器用该地址直接打开附件，不需要携带 Authorization 头
+     */
+    @GetMapping("/download-url")
+    public Response<AttachmentDownloadUrlVO> getDownloadUrl(@RequestParam("path") String path) {
+        return Response.success(attachmentService.createDownloadUrl(path));
+    }
+    
+    /**
+     * 下载附件
+     * 带签名参数时按签名下载地址校验，否则需要登录，普通成员只能下载自己上传的附件
+     * 支持 ETag/Last-Modified 条件请求和单区间 Range 请求，大文件交给容器 sendfile，
+     * 其余通过 FileChannel.transferTo 写出，文件内容不整体读入内存
+     */
+    @GetMapping("/download")
+    public void downloadAttachment(@RequestParam("path") String path,
+                                   @RequestParam(value = "expires", required = false) Long expires,
+                                   @RequestParam(value = "signature", required = false) String signature,
+                                   HttpServletRequest request,
+                                   HttpServletResponse response) throws IOException {
+        long startNanos = System.nanoTime();
+        // 先校验路径，失败时仍按统一格式返回错误
+        AttachmentFileVO file = signature != null
+                ? attachmentService.getSignedAttachmentFile(path, expires != null ? expires : 0, signature)
+                : attachmentService.getAttachmentFile(path);
+        long fileSize = file.getFileSize();
+
+        response.setHeader(HttpHeaders.ETAG, file.getEtag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, file.getLastModified());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        // 签名地址在有效期内可直接访问，不随页面跳转外泄
+        response.setHeader("Referrer-Policy", "no-referrer");
+
+        if (isNotModified(request, file)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            tableMetricsService.recordAttachmentDownload(0, System.nanoTime() - startNanos);
+            return;
+        }
+
+        long start = 0;
+        long end = fileSize - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && isRangeApplicable(request, file)) {
+            long[] bounds = parseRange(range, fileSize);
+            if (bounds != null && bounds.length == 0) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + fileSize);
+                tableMetricsService.recordAttachmentDownload(0, System.nanoTime() - startNanos);
+                return;
+            }
+            if (bounds != null) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + fileSize);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename*=UTF-8''"
+                + URLEncoder.encode(file.getFileName(), StandardCharsets.UTF_8).replace("+", "%20"));
+        response.setContentLengthLong(count);
+
+        long served = 0;
+        if (count > 0 && !"HEAD".equals(request.getMethod())) {
+            if (count >= SENDFILE_MIN_BYTES && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+                // 耗时只统计到交给容器为止
+                request.setAttribute(SENDFILE_FILENAME_ATTR, file.getLocalPath().toString());
+                request.setAttribute(SENDFILE_START_ATTR, start);
+                request.setAttribute(SENDFILE_END_ATTR, end + 1);
+                served = count;
+            } else {
+                served = attachmentService.transferAttachment(file, start, count, response.getOutputStream());
+            }
+        }
+        tableMetricsService.recordAttachmentDownload(served, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * 条件请求是否命中：If-None-Match 优先，没有时再比较 If-Modified-Since
+     */
+    private boolean isNotModified(HttpServletRequest request, AttachmentFileVO file) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                // If-None-Match 使用弱比较
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if ("*".equals(candidate) || file.getEtag().equals(candidate)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = getDateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        // HTTP 日期精确到秒
+        return ifModifiedSince >= 0 && file.getLastModified() / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * If-Range 校验：文件已变化时忽略 Range，返回完整文件
+     */
+    private boolean isRangeApplicable(HttpServletRequest request, AttachmentFileVO file) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        String value = ifRange.trim();
+        if (value.startsWith("\"") || value.startsWith("W/")) {
+            // If-Range 使用强比较，弱ETag不匹配
+            return file.getEtag().equals(value);
+        }
+        long date = getDateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && file.getLastModified() / 1000 == date / 1000;
+    }
 
+    /**
+     * 解析单区间 Range 头
+     * @return {start, end}；格式无效或多区间时返回 null（按完整文件响应）；区间不可满足时返回空数组
+     */
+    static long[] parseRange(String range, long fileSize) {
+        if (!range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        String first = spec.substring(0, dash).trim();
+        String last = spec.substring(dash + 1).trim();
+        try {
+            if (first.isEmpty()) {
+                // 后缀区间：bytes=-500 表示最后500字节
+                long suffix = last.isEmpty() ? -1 : Long.parseLong(last);
+                if (suffix < 0) {
+                    return null;
+                }
+                if (suffix == 0 || fileSize == 0) {
+                    return new long[0];
+                }
+                return new long[]{Math.max(0, fileSize - suffix), fileSize - 1};
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (start < 0 || end < start) {
+                return null;
+            }
+            if (start >= fileSize) {
+                return new long[0];
+            }
+            return new long[]{start, Math.min(end, fileSize - 1)};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 读取日期请求头，格式无效时按未携带处理
+     */
+    private long getDateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+}
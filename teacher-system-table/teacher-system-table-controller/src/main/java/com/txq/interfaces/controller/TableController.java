@@ -1,19 +1,36 @@
 package com.txq.interfaces.controller;
 
+import com.txq.application.entity.vo.BatchDeleteResultVO;
+import com.txq.application.entity.vo.BatchReviewResultVO;
+import com.txq.application.entity.vo.CursorPageVO;
+import com.txq.application.entity.vo.FieldAggregateVO;
+import com.txq.application.entity.vo.TableDataImportResultVO;
 import com.txq.application.entity.vo.TableDataVO;
+import com.txq.application.entity.vo.TableDeleteJobVO;
+import com.txq.application.entity.vo.TableFieldMigrationJobVO;
 import com.txq.application.entity.vo.TableListItemVO;
 import com.txq.application.entity.vo.UserDataStatisticsVO;
 import com.txq.application.service.ITableDataService;
+import com.txq.application.service.ITableDataTransferService;
+import com.txq.application.service.ITableDeleteJobService;
+import com.txq.application.service.ITableFieldMigrationService;
 import com.txq.application.service.ITableService;
+import com.txq.application.utils.PeriodUtils;
 import com.txq.common.annotation.ApiRequestMapping;
 import com.txq.common.context.UserContext;
 import com.txq.common.result.Response;
+import com.txq.domain.model.PeriodRange;
 import com.txq.interfaces.converter.TableConverter;
 import com.txq.interfaces.dto.*;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -27,6 +44,9 @@ public class TableController {
 
     private final ITableService tableService;
     private final ITableDataService tableDataService;
+    private final ITableDataTransferService tableDataTransferService;
+    private final ITableDeleteJobService tableDeleteJobService;
+    private final ITableFieldMigrationService tableFieldMigrationService;
 
     /**
      * 创建表格
@@ -71,7 +91,7 @@ public class TableController {
         
         // 转换VO到DTO
         List<TableFieldDTO> dtoList = fields.stream()
-                .map(vo -> new TableFieldDTO(vo.isRoot(), vo.getFieldName()))
+                .map(vo -> new TableFieldDTO(vo.getFieldId(), vo.isRoot(), vo.getFieldName()))
                 .collect(Collectors.toList());
         
         return Response.success(dtoList);
@@ -79,10 +99,17 @@ public class TableController {
 
     /**
      * 获取表格数据列表
+     * 可通过 filter=字段名:运算符:值 按数据内容字段筛选，多个条件之间为且关系
+     * 可通过 periodFrom/periodTo（yyyy-MM，含边界）限定提交周期范围
      */
     @GetMapping("/{tableId}/data")
-    public Response<List<TableDataDTO>> getTableData(@PathVariable("tableId") Integer tableId) {
-        List<TableDataVO> dataList = tableDataService.getTableData(tableId);
+    public Response<List<TableDataDTO>> getTableData(
+            @PathVariable("tableId") Integer tableId,
+            @RequestParam(value = "periodFrom", required = false) String periodFrom,
+            @RequestParam(value = "periodTo", required = false) String periodTo,
+            @RequestParam(value = "filter", required = false) List<String> filters) {
+        List<TableDataVO> dataList = tableDataService.getTableData(
+                tableId, PeriodUtils.parseRange(periodFrom, periodTo), filters);
         
         // 转换VO到DTO
         List<TableDataDTO> dtoList = dataList.stream()
@@ -96,6 +123,7 @@ public class TableController {
                         .reviewMaterial(vo.getReviewMaterial())
                         .rejectReason(vo.getRejectReason())
                         .status(vo.getStatus())
+                        .version(vo.getVersion())
                         .createdBy(vo.getCreatedBy())
                         .updatedBy(vo.getUpdatedBy())
                         .createdAt(vo.getCreatedAt())
@@ -106,6 +134,54 @@ public class TableController {
         return Response.success(dtoList);
     }
 
+    /**
+     * 游标分页获取表格数据
+     * 首次请求不传cursor，后续请求传入上一页返回的nextCursor，并携带相同的筛选条件
+     */
+    @GetMapping("/{tableId}/data/page")
+    public Response<CursorPageVO<TableDataVO>> getTableDataPage(
+            @PathVariable("tableId") Integer tableId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "periodFrom", required = false) String periodFrom,
+            @RequestParam(value = "periodTo", required = false) String periodTo,
+            @RequestParam(value = "filter", required = false) List<String> filters) {
+        return Response.success(tableDataService.getTableDataPage(
+                tableId, cursor, size, PeriodUtils.parseRange(periodFrom, periodTo), filters));
+    }
+
+    /**
+     * 导出表格数据为CSV（管理员功能）
+     * 数据按 (created_at, id) 键集分批读取（每批一次短查询，不长时间占用连接）并逐批写出，内存占用与数据量无关
+     */
+    @GetMapping("/{tableId}/data/export")
+    public void exportTableData(@PathVariable("tableId") Integer tableId,
+                                @RequestParam(value = "periodFrom", required = false) String periodFrom,
+                                @RequestParam(value = "periodTo", required = false) String periodTo,
+                                HttpServletResponse response) throws IOException {
+        // 先校验参数和权限，失败时仍按统一格式返回错误
+        PeriodRange period = PeriodUtils.parseRange(periodFrom, periodTo);
+        String fileName = tableDataTransferService.prepareExport(tableId);
+        log.info("导出表格数据，表格ID: {}", tableId);
+
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader("Content-Disposition",
+                "attachment; filename*=UTF-8''" + URLEncoder.encode(fileName, StandardCharsets.UTF_8));
+        tableDataTransferService.exportTableData(tableId, period, response.getOutputStream());
+    }
+
+    /**
+     * 批量导入CSV数据（管理员功能）
+     * 按批次写入，返回逐行失败明细
+     */
+    @PostMapping("/{tableId}/data/import")
+    public Response<TableDataImportResultVO> importTableData(
+            @PathVariable("tableId") Integer tableId,
+            @RequestParam("file") MultipartFile file) {
+        log.info("导入表格数据，表格ID: {}, 文件: {}", tableId, file.getOriginalFilename());
+        return Response.success(tableDataTransferService.importTableData(tableId, file));
+    }
+
     /**
      * 保存表格数据（新增或更新）
      */
@@ -119,7 +195,8 @@ public class TableController {
                 request.getDataContent(),
                 request.getScore(),
                 request.getReviewMaterial(),
-                request.getStatus()
+                request.getStatus(),
+                request.getVersion()
         );
         return Response.success(id);
     }
@@ -135,7 +212,8 @@ public class TableController {
                 request.getUserId(),  // 传递userId参数
                 request.getSubmissionPeriod(),
                 request.getDataContent(),
-                request.getReviewMaterial()
+                request.getReviewMaterial(),
+                request.getVersion()
         );
         return Response.success(id);
     }
@@ -150,7 +228,8 @@ public class TableController {
                 request.getTableId(),
                 request.getSubmissionPeriod(),
                 request.getDataContent(),
-                request.getReviewMaterial()
+                request.getReviewMaterial(),
+                request.getVersion()
         );
         return Response.success(id);
     }
@@ -166,11 +245,11 @@ public class TableController {
 
     /**
      * 批量删除表格数据
+     * 返回实际删除条数和未删除的数据及原因
      */
     @PostMapping("/data/batch-delete")
-    public Response<String> batchDeleteTableData(@RequestBody List<Long> ids) {
-        tableDataService.batchDeleteData(ids);
-        return Response.success("批量删除成功");
+    public Response<BatchDeleteResultVO> batchDeleteTableData(@RequestBody List<Long> ids) {
+        return Response.success(tableDataService.batchDeleteData(ids));
     }
 
     /**
@@ -186,26 +265,89 @@ public class TableController {
 
     /**
      * 获取表格的用户得分统计（管理员功能）
+     * 默认只返回每个用户的汇总，明细通过 /{tableId}/users/{userId}/data 分页获取；mode=full 时附带全部数据明细
      */
     @GetMapping("/{tableId}/score-statistics")
     public Response<com.txq.application.entity.vo.TableScoreStatisticsVO> getTableScoreStatistics(
-            @PathVariable("tableId") Integer tableId) {
-        log.info("获取表格用户得分统计，表格ID: {}", tableId);
-        com.txq.application.entity.vo.TableScoreStatisticsVO statistics =
-                tableDataService.getTableScoreStatistics(tableId);
+            @PathVariable("tableId") Integer tableId,
+            @RequestParam(value = "mode", required = false) String mode,
+            @RequestParam(value = "periodFrom", required = false) String periodFrom,
+            @RequestParam(value = "periodTo", required = false) String periodTo) {
+        log.info("获取表格用户得分统计，表格ID: {}, 模式: {}, 周期: {} ~ {}", tableId, mode, periodFrom, periodTo);
+        PeriodRange period = PeriodUtils.parseRange(periodFrom, periodTo);
+        com.txq.application.entity.vo.TableScoreStatisticsVO statistics = "full".equals(mode)
+                ? tableDataService.getTableScoreStatistics(tableId, period)
+                : tableDataService.getTableScoreSummary(tableId, period);
         return Response.success(statistics);
     }
 
+    /**
+     * 聚合数值字段（管理员功能）
+     * 返回字段值为数字的数据的条数、合计、平均、最小和最大值，groupBy=none|user|period
+     */
+    @GetMapping("/{tableId}/data/aggregate")
+    public Response<List<FieldAggregateVO>> aggregateField(
+            @PathVariable("tableId") Integer tableId,
+            @RequestParam("field") String fieldName,
+            @RequestParam(value = "groupBy", required = false) String groupBy,
+            @RequestParam(value = "status", required = false) List<Integer> statuses,
+            @RequestParam(value = "periodFrom", required = false) String periodFrom,
+            @RequestParam(value = "periodTo", required = false) String periodTo,
+            @RequestParam(value = "filter", required = false) List<String> filters) {
+        return Response.success(tableDataService.aggregateField(tableId, fieldName, groupBy, statuses,
+                PeriodUtils.parseRange(periodFrom, periodTo), filters));
+    }
+
+    /**
+     * 游标分页获取指定用户在表格中的数据
+     * 用于得分统计中按用户展开明细
+     */
+    @GetMapping("/{tableId}/users/{userId}/data")
+    public Response<CursorPageVO<TableDataVO>> getUserTableDataPage(
+            @PathVariable("tableId") Integer tableId,
+            @PathVariable("userId") String userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "periodFrom", required = false) String periodFrom,
+            @RequestParam(value = "periodTo", required = false) String periodTo) {
+        return Response.success(tableDataService.getUserTableDataPage(
+                tableId, userId, cursor, size, PeriodUtils.parseRange(periodFrom, periodTo)));
+    }
+
+    /**
+     * 重建用户得分汇总（管理员功能）
+     * 不传tableId时重建全部表格
+     */
+    @PostMapping("/score-agg/rebuild")
+    public Response<Integer> rebuildScoreAggregates(
+            @RequestParam(value = "tableId", required = false) Integer tableId) {
+        log.info("重建用户得分汇总，表格ID: {}", tableId);
+        return Response.success(tableDataService.rebuildScoreAggregates(tableId));
+    }
+
     /**
      * 退回数据（管理员功能）
      */
     @PostMapping("/data/reject")
     public Response<String> rejectData(@RequestBody RejectDataRequest request) {
         log.info("退回数据，数据ID: {}, 退回原因: {}", request.getId(), request.getRejectReason());
-        tableDataService.rejectData(request.getId(), request.getRejectReason());
+        tableDataService.rejectData(request.getId(), request.getRejectReason(), request.getVersion());
         return Response.success("退回成功");
     }
 
+    /**
+     * 批量审核（管理员功能）
+     * 每个条目给出分数即打分，给出退回原因即退回，返回逐条结果
+     */
+    @PostMapping("/data/batch-review")
+    public Response<BatchReviewResultVO> batchReviewData(@RequestBody BatchReviewRequest request) {
+        log.info("批量审核数据，条数: {}", request.getItems() != null ? request.getItems().size() : 0);
+        BatchReviewResultVO result = tableDataService.batchReviewData(
+                TableConverter.INSTANCE.toReviewItemQueries(request.getItems())
+        );
+        return Response.success(result);
+    }
+
     /**
      * 获取全局数据统计（管理员功能）
      * 返回：totalCount(总数据量), pendingCount(待审核), scoredCount(已打分)
@@ -247,12 +389,30 @@ public class TableController {
 
     /**
      * 删除表格
-     * 只有超级管理员(roleId=1)才有权限
+     * 只有管理员才有权限（在删除任务服务中校验）
+     * 表格立即不可见，数据和附件由后台任务清理，返回删除任务ID
      */
     @DeleteMapping("/delete-table/{tableId}")
     // @RequiresRole(1)  // TODO: 临时注释，测试完成后需要恢复
-    public Response<String> deleteTable(@PathVariable("tableId") Integer tableId) {
-        tableService.deleteTable(tableId);
-        return Response.success("删除成功");
+    public Response<Long> deleteTable(@PathVariable("tableId") Integer tableId) {
+        return Response.success(tableService.deleteTable(tableId));
+    }
+
+    /**
+     * 查询表格删除任务进度
+     * 只有管理员才有权限
+     */
+    @GetMapping("/delete-jobs/{jobId}")
+    public Response<TableDeleteJobVO> getDeleteJob(@PathVariable("jobId") Long jobId) {
+        return Response.success(tableDeleteJobService.getJob(jobId));
+    }
+
+    /**
+     * 查询表格最近一次字段迁移任务进度（字段改名或删除后，已有数据的字段键由后台任务改写）
+     * 没有迁移任务时返回null，只有管理员才有权限
+     */
+    @GetMapping("/{tableId}/field-migration")
+    public Response<TableFieldMigrationJobVO> getFieldMigration(@PathVariable("tableId") Integer tableId) {
+        return Response.success(tableFieldMigrationService.getLatestJob(tableId));
     }
 }
@@ -1,10 +1,14 @@
 package com.txq.interfaces.converter;
 
+import com.txq.application.entity.query.ReviewItemQuery;
 import com.txq.application.entity.query.TableQuery;
+import com.txq.interfaces.dto.ReviewItemDTO;
 import com.txq.interfaces.dto.TableDTO;
 import org.mapstruct.Mapper;
 import org.mapstruct.factory.Mappers;
 
+import java.util.List;
+
 /**
  * 转换类
  */
@@ -14,4 +18,6 @@ public interface TableConverter {
     TableConverter INSTANCE = Mappers.getMapper(TableConverter.class);
 
     TableQuery toQuery(TableDTO tableDTO);
+
+    List<ReviewItemQuery> toReviewItemQueries(List<ReviewItemDTO> items);
 }
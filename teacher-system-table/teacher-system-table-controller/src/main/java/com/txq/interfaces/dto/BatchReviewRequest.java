@@ -0,0 +1,13 @@
+package com.txq.interfaces.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量审核请求
+ */
+@Data
+public class BatchReviewRequest {
+    private List<ReviewItemDTO> items;  // 审核条目
+}
@@ -9,5 +9,6 @@ import lombok.Data;
 public class RejectDataRequest {
     private Long id;              // 数据ID
     private String rejectReason;  // 退回原因
+    private Integer version;      // 读取到的版本号（可选，不一致时返回冲突）
 }
 
@@ -0,0 +1,28 @@
+package com.txq.interfaces.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 批量审核条目DTO
+ * score 与 rejectReason 二选一：给出分数即打分，给出退回原因即退回
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewItemDTO {
+    // 数据ID
+    private Long id;
+
+    // 分数
+    private BigDecimal score;
+
+    // 退回原因
+    private String rejectReason;
+
+    // 读取到的版本号（可选，不一致时该条目失败）
+    private Integer version;
+}
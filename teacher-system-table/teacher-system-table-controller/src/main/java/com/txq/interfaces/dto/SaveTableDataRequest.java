@@ -18,5 +18,6 @@ public class SaveTableDataRequest {
     private BigDecimal score;                  // 分数（普通成员不能提交）
     private String reviewMaterial;             // 审核材料
     private Integer status;                    // 数据状态：0=暂存，1=已提交，2=已打分
+    private Integer version;                   // 更新时读取到的版本号（可选，不一致时返回冲突）
 }
 
@@ -1,5 +1,6 @@
 package com.txq.interfaces.dto;
 
+import com.fasterxml.jackson.databind.util.RawValue;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -7,7 +8,6 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Map;
 
 /**
  * 表格数据传输对象
@@ -21,11 +21,12 @@ public class TableDataDTO {
     private Integer tableId;
     private String userId;                     // 所属用户工号
     private String submissionPeriod;           // 提交时期（格式：YYYY-MM）
-    private Map<String, Object> dataContent;  // 动态字段数据
+    private RawValue dataContent;              // 动态字段数据（原始JSON）
     private BigDecimal score;                  // 分数
     private String reviewMaterial;             // 审核材料
     private String rejectReason;               // 退回原因
     private Integer status;                    // 数据状态：0=暂存，1=已提交，2=已打分，3=已退回
+    private Integer version;                   // 版本号，更新时回传用于冲突检测
     private String createdBy;
     private String updatedBy;
     private LocalDateTime createdAt;
@@ -11,6 +11,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class TableFieldDTO {
+    private Integer fieldId;
     private Boolean root;
     private String fieldName;
 }
@@ -0,0 +1,85 @@
+package com.txq.interfaces.service;
+
+import com.txq.application.service.ITableMetricsService;
+import com.txq.interfaces.config.TableMetricsConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 表格指标服务实现
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TableMetricsServiceImpl implements ITableMetricsService {
+
+    private final TableMetricsConfig tableMetricsConfig;
+
+    @Override
+    public void recordDataExport(long rows, long bytes, long durationNanos) {
+        tableMetricsConfig.getDataExportedCounter().increment(rows);
+        tableMetricsConfig.getDataExportBytesSummary().record(bytes);
+        tableMetricsConfig.getDataExportTimer().record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordDataExportFailure() {
+        tableMetricsConfig.getDataExportFailedCounter().increment();
+    }
+
+    @Override
+    public void recordDataImport(long successRows, long failedRows, long durationNanos) {
+        tableMetricsConfig.getDataImportedCounter().increment(successRows);
+        tableMetricsConfig.getDataImportFailedCounter().increment(failedRows);
+        tableMetricsConfig.getDataImportTimer().record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordDataReviewed(long scoredRows, long rejectedRows) {
+        tableMetricsConfig.getDataApprovedCounter().increment(scoredRows);
+        tableMetricsConfig.getDataRejectedCounter().increment(rejectedRows);
+    }
+
+    @Override
+    public void recordDataDeleted(long rows) {
+        tableMetricsConfig.getDataDeletedCounter().increment(rows);
+    }
+
+    @Override
+    public void recordFieldFilter(long indexedFilters, long scanFilters) {
+        tableMetricsConfig.getDataFilterIndexedCounter().increment(indexedFilters);
+        tableMetricsConfig.getDataFilterScanCounter().increment(scanFilters);
+    }
+
+    @Override
+    public void recordSchemaCache(boolean hit) {
+        if (hit) {
+            tableMetricsConfig.getSchemaCacheHitCounter().increment();
+        } else {
+            tableMetricsConfig.getSchemaCacheMissCounter().increment();
+        }
+    }
+
+    @Override
+    public void recordAttachmentDownload(long bytes, long durationNanos) {
+        tableMetricsConfig.getAttachmentDownloadCounter().increment();
+        tableMetricsConfig.getAttachmentDownloadBytesSummary().record(bytes);
+        tableMetricsConfig.getAttachmentDownloadTimer().record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordEmailDispatch(long sent, long retried, long failed) {
+        tableMetricsConfig.getEmailSentCounter().increment(sent);
+        tableMetricsConfig.getEmailRetryCounter().increment(retried);
+        tableMetricsConfig.getEmailFailedCounter().increment(failed);
+    }
+
+    @Override
+    public void updateStatistics(int activeTableCount, long pendingDataCount) {
+        tableMetricsConfig.updateActiveTableCount(activeTableCount);
+        tableMetricsConfig.updatePendingDataCount((int) Math.min(pendingDataCount, Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,66 @@
+package com.txq.interfaces.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 附件下载Range请求头解析测试
+ */
+class AttachmentControllerTest {
+
+    private static final long FILE_SIZE = 1000;
+
+    @Test
+    void closedRange() {
+        assertArrayEquals(new long[]{0, 499}, AttachmentController.parseRange("bytes=0-499", FILE_SIZE));
+        assertArrayEquals(new long[]{500, 500}, AttachmentController.parseRange("bytes=500-500", FILE_SIZE));
+    }
+
+    @Test
+    void openEndedRange() {
+        assertArrayEquals(new long[]{900, 999}, AttachmentController.parseRange("bytes=900-", FILE_SIZE));
+    }
+
+    @Test
+    void endBeyondFileIsClamped() {
+        assertArrayEquals(new long[]{900, 999}, AttachmentController.parseRange("bytes=900-5000", FILE_SIZE));
+    }
+
+    @Test
+    void suffixRange() {
+        assertArrayEquals(new long[]{500, 999}, AttachmentController.parseRange("bytes=-500", FILE_SIZE));
+        // 后缀长度超过文件大小时返回整个文件
+        assertArrayEquals(new long[]{0, 999}, AttachmentController.parseRange("bytes=-5000", FILE_SIZE));
+    }
+
+    @Test
+    void whitespaceIsTolerated() {
+        assertArrayEquals(new long[]{10, 20}, AttachmentController.parseRange("bytes= 10 - 20 ", FILE_SIZE));
+    }
+
+    @Test
+    void unsatisfiableRangeReturnsEmpty() {
+        assertEquals(0, AttachmentController.parseRange("bytes=1000-", FILE_SIZE).length);
+        assertEquals(0, AttachmentController.parseRange("bytes=2000-3000", FILE_SIZE).length);
+        assertEquals(0, AttachmentController.parseRange("bytes=-0", FILE_SIZE).length);
+        assertEquals(0, AttachmentController.parseRange("bytes=-10", 0).length);
+        assertEquals(0, AttachmentController.parseRange("bytes=0-", 0).length);
+        assertEquals(0, AttachmentController.parseRange("bytes=0-0", 0).length);
+    }
+
+    @Test
+    void invalidRangeReturnsNull() {
+        assertNull(AttachmentController.parseRange("items=0-10", FILE_SIZE));
+        assertNull(AttachmentController.parseRange("bytes=10", FILE_SIZE));
+        assertNull(AttachmentController.parseRange("bytes=-", FILE_SIZE));
+        assertNull(AttachmentController.parseRange("bytes=20-10", FILE_SIZE));
+        assertNull(AttachmentController.parseRange("bytes=a-b", FILE_SIZE));
+        assertNull(AttachmentController.parseRange("bytes=--5", FILE_SIZE));
+    }
+
+    @Test
+    void multipleRangesServeWholeFile() {
+        assertNull(AttachmentController.parseRange("bytes=0-10,20-30", FILE_SIZE));
+    }
+}
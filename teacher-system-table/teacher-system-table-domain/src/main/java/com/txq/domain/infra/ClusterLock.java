@@ -0,0 +1,36 @@
+package com.txq.domain.infra;
+
+/**
+ * 集群锁
+ * 多实例部署时保证同一时刻只有一个实例执行某项后台维护；锁带租约，持有者中断后租约到期可被其他实例获取
+ */
+public interface ClusterLock {
+
+    /**
+     * 字段索引列维护
+     */
+    String FIELD_INDEX = "table_field_index";
+
+    /**
+     * table_data 分区维护
+     */
+    String PARTITION = "table_data_partition";
+
+    /**
+     * 历史时期归档
+     */
+    String ARCHIVE = "table_data_archive";
+
+    /**
+     * 尝试获取锁，已由本实例持有时续租
+     * @param name 锁名称
+     * @param leaseSeconds 租约时长（秒），需大于持有期间最长一步操作的耗时
+     * @return 是否获取成功
+     */
+    boolean tryLock(String name, int leaseSeconds);
+
+    /**
+     * 释放本实例持有的锁，未持有时忽略
+     */
+    void unlock(String name);
+}
@@ -0,0 +1,24 @@
+package com.txq.domain.infra;
+
+/**
+ * ID生成器
+ * 多实例部署时生成的ID全局唯一，同一实例内递增
+ */
+public interface IdGenerator {
+
+    /**
+     * 表格ID
+     */
+    String TABLE_META = "table_meta";
+
+    /**
+     * 表格数据ID
+     */
+    String TABLE_DATA = "table_data";
+
+    /**
+     * 生成下一个ID
+     * @param bizTag 业务标识
+     */
+    long nextId(String bizTag);
+}
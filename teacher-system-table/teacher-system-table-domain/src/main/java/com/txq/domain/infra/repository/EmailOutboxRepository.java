@@ -0,0 +1,44 @@
+package com.txq.domain.infra.repository;
+
+import com.txq.domain.model.EmailOutboxMessage;
+
+import java.util.List;
+
+/**
+ * 邮件发件箱持久化层接口
+ */
+public interface EmailOutboxRepository {
+
+    /**
+     * 写入待发送邮件，调用方在业务事务内调用时与业务数据一起提交
+     * @param delaySeconds 延迟发送的秒数，汇总模式下为汇总窗口
+     */
+    void enqueue(List<EmailOutboxMessage> messages, int delaySeconds);
+
+    /**
+     * 领取到期的待发送邮件，并将其下次尝试时间推迟到租约结束，避免被其他实例重复领取
+     * 发送进程中断时，租约到期后邮件会被重新领取
+     * 到期邮件带汇总键时，同一汇总键下在汇总窗口内到期、且不在其他实例租约内的待发送邮件一并领取，因此返回条数可能超过 limit
+     * @param limit 最多领取条数
+     * @param leaseSeconds 租约时长（秒）
+     * @param windowSeconds 汇总窗口（秒），同键邮件最多提前这么久领取
+     * @return 领取的邮件，attempts 为领取前的尝试次数
+     */
+    List<EmailOutboxMessage> claimDue(int limit, int leaseSeconds, int windowSeconds);
+
+    /**
+     * 标记邮件已发送
+     */
+    void markSent(List<Long> ids);
+
+    /**
+     * 标记邮件发送失败，等待下次重试
+     * @param delaySeconds 距下次尝试的秒数
+     */
+    void markRetry(Long id, int delaySeconds, String error);
+
+    /**
+     * 标记邮件最终发送失败，不再重试
+     */
+    void markFailed(Long id, String error);
+}
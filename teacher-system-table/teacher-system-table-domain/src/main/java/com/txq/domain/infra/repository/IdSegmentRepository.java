@@ -0,0 +1,15 @@
+package com.txq.domain.infra.repository;
+
+import com.txq.domain.model.IdSegment;
+
+/**
+ * 号段持久化层接口
+ */
+public interface IdSegmentRepository {
+
+    /**
+     * 租用下一个号段，在独立事务中提交，调用方事务回滚不会回收已租用的号段
+     * @param bizTag 业务标识
+     */
+    IdSegment allocate(String bizTag);
+}
@@ -0,0 +1,41 @@
+package com.txq.domain.infra.repository;
+
+import com.txq.domain.model.ArchiveWatermark;
+
+import java.util.List;
+
+/**
+ * 表格数据归档持久化层接口
+ * 已关闭时期的数据从 table_data 迁移到 table_data_archive，数据内容压缩存储
+ */
+public interface TableDataArchiveRepository {
+
+    /**
+     * 获取当前归档水位，最多缓存 {@link ArchiveWatermark#CACHE_TTL_MS}
+     */
+    ArchiveWatermark findWatermark();
+
+    /**
+     * 开始归档早于指定时期的数据，只会推进水位
+     * 需在迁移数据之前调用，使读取路由在迁移期间同时读取两张表
+     */
+    void startArchiving(String before);
+
+    /**
+     * 不加锁读取一批提交时期早于 before 的数据ID，按时期和ID排序
+     * @return 候选数据ID，没有可迁移的数据时返回空列表
+     */
+    List<Long> findArchivableIds(String before, int limit);
+
+    /**
+     * 迁移一批数据：锁定候选数据中提交时期仍早于 before 的部分，写入归档表并从在线表删除
+     * @param candidateIds {@link #findArchivableIds} 读取的候选ID
+     * @return 本批迁移的数据ID，候选数据都已不满足条件时返回空列表
+     */
+    List<Long> archiveChunk(String before, List<Long> candidateIds);
+
+    /**
+     * 完成归档，早于指定时期的数据全部在归档表
+     */
+    void finishArchiving(String before);
+}
@@ -0,0 +1,26 @@
+package com.txq.domain.infra.repository;
+
+import java.util.List;
+
+/**
+ * 表格数据分区持久化层接口
+ * table_data 按提交时期的年份做 RANGE COLUMNS 分区，分区名 pYYYY，最后一个分区为 pmax
+ */
+public interface TableDataPartitionRepository {
+
+    /**
+     * table_data 是否已按提交时期分区
+     */
+    boolean isPartitioned();
+
+    /**
+     * 获取已创建的年份分区，按年份升序，不含 pmax
+     */
+    List<Integer> findPartitionYears();
+
+    /**
+     * 从 pmax 中拆分出指定年份的分区
+     * 年份需大于已有的最大分区年份
+     */
+    void addYearPartition(int year);
+}
@@ -1,8 +1,13 @@
 package com.txq.domain.infra.repository;
 
+import com.txq.domain.model.*;
+
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 表格数据持久化层接口
@@ -10,25 +15,108 @@ import java.util.Map;
 public interface TableDataRepository {
 
     /**
-     * 保存表格数据（新增或更新）
+     * 新增表格数据
      * @param dataUserId 数据所属用户ID
      * @param submissionPeriod 提交时期（格式：YYYY-MM）
      * @param status 数据状态：0=暂存，1=已提交，2=已打分
-     * @param operatorId 操作者ID（创建人/更新人）
+     * @param operatorId 操作者ID（创建人）
+     * @return 新数据ID，表格不存在或已标记删除时返回null
+     */
+    Long insertTableData(Integer tableId, String dataUserId, String submissionPeriod,
+                         Map<String, Object> dataContent, BigDecimal score, String reviewMaterial,
+                         Integer status, String operatorId);
+
+    /**
+     * 按版本号条件更新表格数据（WHERE id AND status IN AND version），成功后版本号加1
+     * 从退回状态(3)改为已提交(1)时清除退回原因
+     * @param expected 更新前读取的数据状态，提供ID、版本号和原归属
+     * @param allowedStatuses 允许更新的当前状态
+     * @param operatorId 操作者ID（更新人）
+     * @return 是否更新成功，false表示数据已被修改或状态不允许
+     */
+    boolean updateTableData(TableDataState expected, Collection<Integer> allowedStatuses,
+                            Integer tableId, String dataUserId, String submissionPeriod,
+                            Map<String, Object> dataContent, BigDecimal score, String reviewMaterial,
+                            Integer status, String operatorId);
+
+    /**
+     * 批量写入导入数据（单个事务内一次多行INSERT）
+     * @param rows 导入数据行，调用方负责控制批次大小
+     * @param operatorId 操作者ID（创建人）
+     * @return 写入行数，表格不存在或已标记删除时不写入并返回0
+     */
+    int batchInsertData(List<TableDataImportRow> rows, String operatorId);
+
+    /**
+     * 统计表格的数据条数（含归档数据）
+     */
+    long countDataByTableId(Integer tableId);
+
+    /**
+     * 读取表格的一批数据ID与附件路径，用于分批删除表格数据
+     * @param archived 是否读取归档表
+     */
+    List<TableDataAttachment> findAttachmentChunk(Integer tableId, boolean archived, int limit);
+
+    /**
+     * 按ID删除一批数据，不刷新得分汇总（用于删除整个表格）
+     * @param archived 是否删除归档表中的数据
+     * @return 删除行数
+     */
+    int deleteDataChunk(List<Long> ids, boolean archived);
+
+    /**
+     * 在数据库内聚合数值字段，字段值不是数字的数据不计入
+     * @param groupBy 分组方式：none=不分组，user=按用户，period=按提交时期
+     * @param statuses 数据状态范围，为null或空时不限
+     * @param period 提交时期范围
+     * @param filters 数据内容字段筛选条件，可为null
+     */
+    List<FieldAggregateRow> aggregateField(Integer tableId, String fieldName, String groupBy,
+                                           Collection<Integer> statuses, PeriodRange period,
+                                           List<TableDataFilter> filters);
+
+    /**
+     * 按 (createdAt, id) 游标分页获取表格数据，按创建时间倒序
+     * @param userId 数据所属用户ID，为null时不按用户过滤
+     * @param period 提交时期范围
+     * @param filters 数据内容字段筛选条件，可为null
+     * @param cursorCreatedAt 游标创建时间，为null时从第一页开始
+     * @param cursorId 游标数据ID
+     * @param limit 最多返回条数，为null时不限制
      */
-    Long saveTableData(Long id, Integer tableId, String dataUserId, String submissionPeriod,
-                      Map<String, Object> dataContent, BigDecimal score, String reviewMaterial, 
-                      Integer status, String operatorId);
+    List<TableDataRow> findDataPageByTableId(Integer tableId, String userId, PeriodRange period,
+                                             List<TableDataFilter> filters,
+                                             LocalDateTime cursorCreatedAt, Long cursorId, Integer limit);
 
     /**
-     * 根据表格ID获取所有数据
+     * 分块遍历表格数据，按创建时间升序
+     * 按 (created_at, id) 游标逐块读取后交给consumer处理，不在内存中累积，也不在遍历期间持有事务
+     * @param period 提交时期范围
+     * @param consumer 行处理器
+     * @return 遍历的行数
      */
-    List<Map<String, Object>> findDataByTableId(Integer tableId);
+    long streamDataByTableId(Integer tableId, PeriodRange period, Consumer<TableDataRow> consumer);
 
     /**
      * 根据数据ID获取单条数据
      */
-    Map<String, Object> findDataById(Long id);
+    TableDataRow findDataById(Long id);
+
+    /**
+     * 根据数据ID列表批量获取数据（一次 WHERE id IN 查询）
+     * @return 数据列表，不存在的ID不返回
+     */
+    List<TableDataRow> findDataByIds(List<Long> ids);
+
+    /**
+     * 批量审核（打分或退回），单个事务内按批次执行UPDATE
+     * 只对已提交或已打分、且版本号与审核条目一致的数据生效
+     * @param reviews 审核结果列表
+     * @param operatorId 操作人ID
+     * @return 实际更新行数
+     */
+    int batchReviewData(List<TableDataReview> reviews, String operatorId);
 
     /**
      * 删除数据
@@ -36,38 +124,62 @@ public interface TableDataRepository {
     void deleteData(Long id);
 
     /**
-     * 批量删除数据
+     * 批量获取数据的权限校验字段（不含数据内容）
+     * @return 不存在的ID不返回
+     */
+    List<TableDataState> findDataStatesByIds(List<Long> ids);
+
+    /**
+     * 批量删除数据，单个事务内按批次执行
+     * @return 实际删除条数
      */
-    void batchDeleteData(List<Long> ids);
+    int batchDeleteData(List<Long> ids);
 
     /**
-     * 根据用户ID查询所有数据
+     * 根据用户ID查询所有数据，按创建时间倒序
      * @param userId 用户ID
-     * @return 数据列表（包含表格信息）
+     * @return 数据列表
      */
-    List<Map<String, Object>> findByUserId(String userId);
-    
+    List<TableDataRow> findByUserId(String userId);
+
     /**
-     * 根据表格ID查询所有数据（关联用户信息）
-     * 用于管理员查看表格的用户得分统计
-     * @param tableId 表格ID
-     * @return 数据列表（包含用户信息）
+     * 根据数据ID列表查询通知收件人，单次查询，调用方负责控制ID数量
+     * @return 不存在的ID不返回
      */
-    List<Map<String, Object>> findByTableIdWithUser(Integer tableId);
+    List<NotificationRecipient> findRecipientsByDataIds(List<Long> ids);
 
     /**
-     * 退回数据
+     * 按版本号退回数据，只退回已提交或已打分的数据
      * @param id 数据ID
+     * @param expectedVersion 退回前读取的版本号
      * @param rejectReason 退回原因
      * @param operatorId 操作人ID
+     * @return 是否退回成功，false表示数据已被修改或状态不允许
+     */
+    boolean rejectData(Long id, Integer expectedVersion, String rejectReason, String operatorId);
+
+    /**
+     * 查询表格的用户得分汇总（来自 table_user_score_agg 投影），按总分降序
+     */
+    List<TableUserScoreRow> findUserScoreAggByTableId(Integer tableId);
+
+    /**
+     * 按提交时期范围从表格数据实时汇总用户得分，按总分降序
+     */
+    List<TableUserScoreRow> findUserScoreByPeriod(Integer tableId, PeriodRange period);
+
+    /**
+     * 从表格数据重建用户得分汇总，用于修复汇总偏差
+     * @param tableId 表格ID，为null时重建全部表格
+     * @return 重建的汇总行数
      */
-    void rejectData(Long id, String rejectReason, String operatorId);
+    int rebuildUserScoreAgg(Integer tableId);
 
     /**
-     * 统计全局数据
-     * @return Map包含: totalCount(总数据量), pendingCount(待审核), scoredCount(已打分)
+     * 按状态统计全部数据条数
+     * @return key为状态值，没有数据的状态不返回
      */
-    Map<String, Long> countGlobalStatistics();
+    Map<Integer, Long> countDataByStatus();
 
     /**
      * 统计用户数据按状态分类
@@ -0,0 +1,46 @@
+package com.txq.domain.infra.repository;
+
+import com.txq.domain.model.TableDeleteJob;
+
+/**
+ * 表格删除任务持久化层接口
+ */
+public interface TableDeleteJobRepository {
+
+    /**
+     * 标记表格已删除并创建删除任务，两者在同一事务内完成
+     * @return 任务ID，表格不存在或已删除时返回null
+     */
+    Long createJob(Integer tableId, String operatorId);
+
+    /**
+     * 根据ID查询任务
+     */
+    TableDeleteJob findById(Long jobId);
+
+    /**
+     * 领取一个待执行或租约已过期的任务，置为执行中并设置租约
+     * @return 领取到的任务，没有可执行的任务时返回null
+     */
+    TableDeleteJob claimNext(int leaseSeconds);
+
+    /**
+     * 记录开始执行时的数据条数
+     */
+    void updateTotalRows(Long jobId, long totalRows);
+
+    /**
+     * 累加进度并续租
+     */
+    void addProgress(Long jobId, long deletedRows, long deletedAttachments, long failedAttachments, int leaseSeconds);
+
+    /**
+     * 标记任务完成
+     */
+    void markDone(Long jobId);
+
+    /**
+     * 记录失败原因，超过最大执行次数时标记为失败，否则等待租约到期后重试
+     */
+    void markError(Long jobId, String error, int maxAttempts);
+}
@@ -0,0 +1,62 @@
+package com.txq.domain.infra.repository;
+
+import com.txq.domain.model.TableFieldFilterHit;
+import com.txq.domain.model.TableFieldIndex;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 字段索引列持久化层接口
+ */
+public interface TableFieldIndexRepository {
+
+    /**
+     * 获取已登记的字段索引列（所有状态）
+     */
+    List<TableFieldIndex> findAll();
+
+    /**
+     * 获取指定字段中可用的索引列
+     * @return 字段名称 -> 生成列名
+     */
+    Map<String, String> findReadyColumns(Collection<String> fieldNames);
+
+    /**
+     * 获取标记删除超过宽限期的索引列
+     */
+    List<TableFieldIndex> findDropExpired(int graceSeconds);
+
+    /**
+     * 获取所有表格中定义的字段名称
+     */
+    Set<String> findDefinedFieldNames();
+
+    /**
+     * 登记为创建中，在 table_data 上创建字段生成列及索引后标记为可用
+     * 中断后再次调用会继续完成；字段名称需符合 {@link TableFieldIndex#isIndexableFieldName}
+     */
+    void createIndex(TableFieldIndex index);
+
+    /**
+     * 标记为删除中，查询不再使用该列
+     */
+    void markDropping(TableFieldIndex index);
+
+    /**
+     * 删除字段生成列及索引，并取消登记
+     */
+    void dropIndex(TableFieldIndex index);
+
+    /**
+     * 累加筛选次数，hits 为负数时扣减，扣减到0及以下的记录会被删除
+     */
+    void addFilterHits(List<TableFieldFilterHit> hits);
+
+    /**
+     * 获取累计的筛选次数
+     */
+    List<TableFieldFilterHit> findFilterHits();
+}
@@ -0,0 +1,60 @@
+package com.txq.domain.infra.repository;
+
+import com.txq.domain.model.TableFieldMigrationJob;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 字段迁移任务持久化层接口
+ */
+public interface TableFieldMigrationRepository {
+
+    /**
+     * 创建迁移任务
+     * @param renames 字段改名：原名称 -> 新名称
+     * @param removedFields 删除的字段名称
+     * @return 任务ID
+     */
+    Long createJob(Integer tableId, Map<String, String> renames, List<String> removedFields, String operatorId);
+
+    /**
+     * 根据ID查询任务
+     */
+    TableFieldMigrationJob findById(Long jobId);
+
+    /**
+     * 查询表格最近一次迁移任务
+     */
+    TableFieldMigrationJob findLatestByTableId(Integer tableId);
+
+    /**
+     * 领取一个待执行或租约已过期的任务，置为执行中并设置租约
+     * 同一表格的任务按创建顺序执行，前一个任务未结束时不领取后一个
+     * @return 领取到的任务，没有可执行的任务时返回null
+     */
+    TableFieldMigrationJob claimNext(int leaseSeconds);
+
+    /**
+     * 记录开始执行时的数据条数
+     */
+    void updateTotalRows(Long jobId, long totalRows);
+
+    /**
+     * 迁移检查点之后的一批数据，改写与检查点、进度在同一事务内提交，并续租
+     * @param archived 是否为归档表
+     * @param afterId 检查点（已处理的最大数据ID）
+     * @return 新的检查点，没有剩余数据时返回null（在线表同时记录为已处理完）
+     */
+    Long migrateChunk(TableFieldMigrationJob job, boolean archived, long afterId, int limit, int leaseSeconds);
+
+    /**
+     * 标记任务完成
+     */
+    void markDone(Long jobId);
+
+    /**
+     * 记录失败原因，超过最大执行次数时标记为失败，否则等待租约到期后重试
+     */
+    void markError(Long jobId, String error, int maxAttempts);
+}
@@ -1,6 +1,8 @@
 package com.txq.domain.infra.repository;
 
 import com.txq.domain.model.Table;
+import com.txq.domain.model.TableSchema;
+import com.txq.domain.model.TableSchemaDiff;
 
 import java.util.List;
 import java.util.Map;
@@ -32,24 +34,36 @@ public interface TableRepository {
     List<Map<String, Object>> findAllTables();
 
     /**
-     * 获取表格的字段列表
-     * 返回的Map包含: root, fieldName
+     * 获取表格结构（元信息与按定义顺序的字段列表），表格不存在或已删除时返回null
      */
-    List<Map<String, Object>> findTableFields(Integer tableId);
+    TableSchema findSchema(Integer tableId);
 
     /**
-     * 更新表格信息（包含元信息和字段信息）
+     * 更新表格信息，字段只写入差异部分
+     * @param expectedVersion 计算差异时读取的结构版本号
+     * @param diff 字段差异
+     * @return 是否更新成功，false表示表格已删除或结构已被他人修改
      */
-    void updateTable(Table table, Integer tableId);
+    boolean updateTable(Table table, Integer tableId, int expectedVersion, TableSchemaDiff diff);
 
     /**
-     * 删除表格（包含元信息和字段信息）
+     * 清除已标记删除的表格（包含元信息、字段信息和得分汇总），表格数据需已由删除任务清空
      */
-    void deleteTable(Integer tableId);
+    void purgeTable(Integer tableId);
 
     /**
      * 判断表格是否存在
      */
     boolean existsById(Integer tableId);
+
+    /**
+     * 判断表格ID是否已被占用（包含已标记删除的表格）
+     */
+    boolean isTableIdUsed(Integer tableId);
+
+    /**
+     * 统计表格总数
+     */
+    long countTables();
 }
 
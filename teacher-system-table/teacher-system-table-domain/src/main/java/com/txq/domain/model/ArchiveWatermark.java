@@ -0,0 +1,58 @@
+package com.txq.domain.model;
+
+/**
+ * 归档水位
+ * 提交时期早于 archivedBefore 的数据全部在归档表，不早于 archivingBefore 的数据全部在在线表，
+ * 两者之间的数据正在归档，可能在任一张表中
+ */
+public record ArchiveWatermark(
+        // 已完成归档的时期上界（不含），格式 YYYY-MM
+        String archivedBefore,
+        // 正在归档的时期上界（不含），不小于 archivedBefore
+        String archivingBefore
+) {
+
+    /**
+     * 未归档任何时期时的水位
+     */
+    public static final String NONE_PERIOD = "0000-00";
+
+    public static final ArchiveWatermark NONE = new ArchiveWatermark(NONE_PERIOD, NONE_PERIOD);
+
+    /**
+     * 各实例缓存水位的时长（毫秒）
+     * 推进 archiving_before 后需等待缓存过期，所有实例的写入校验和读取路由都使用新水位后才能开始迁移
+     */
+    public static final long CACHE_TTL_MS = 5_000;
+
+    /**
+     * 是否已有数据归档
+     */
+    public boolean hasArchive() {
+        return archivingBefore != null && archivingBefore.compareTo(NONE_PERIOD) > 0;
+    }
+
+    /**
+     * 时期是否已关闭（已归档或正在归档），关闭的时期不再接受写入
+     */
+    public boolean isClosed(String period) {
+        return hasArchive() && period != null && period.compareTo(archivingBefore) < 0;
+    }
+
+    /**
+     * 根据查询的时期范围选择读取来源
+     */
+    public TableDataSource route(PeriodRange period) {
+        if (!hasArchive()) {
+            return TableDataSource.HOT;
+        }
+        PeriodRange range = period != null ? period : PeriodRange.ALL;
+        if (range.from() != null && range.from().compareTo(archivingBefore) >= 0) {
+            return TableDataSource.HOT;
+        }
+        if (range.to() != null && range.to().compareTo(archivedBefore) < 0) {
+            return TableDataSource.COLD;
+        }
+        return TableDataSource.BOTH;
+    }
+}
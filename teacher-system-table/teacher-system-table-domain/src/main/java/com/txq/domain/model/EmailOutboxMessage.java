@@ -0,0 +1,50 @@
+package com.txq.domain.model;
+
+/**
+ * 发件箱邮件
+ */
+public record EmailOutboxMessage(
+        // 发件箱ID（写入前为null）
+        Long id,
+        // 收件人邮箱
+        String toEmail,
+        // 邮件主题
+        String subject,
+        // 邮件正文（HTML）；汇总模式下为单条通知的正文片段
+        String body,
+        // 业务类型
+        String bizType,
+        // 业务ID
+        Long bizId,
+        // 汇总键，相同汇总键的邮件合并发送；为null时单独发送
+        String digestKey,
+        // 收件人姓名（汇总邮件称呼用）
+        String recipientName,
+        // 已尝试次数（不含本次）
+        Integer attempts
+) {
+
+    /**
+     * 创建单独发送的邮件
+     */
+    public static EmailOutboxMessage of(String toEmail, String subject, String body, String bizType, Long bizId) {
+        return new EmailOutboxMessage(null, toEmail, subject, body, bizType, bizId, null, null, 0);
+    }
+
+    /**
+     * 创建参与汇总的邮件，同一业务类型、同一收件人的邮件合并为一封
+     * @param fragment 单条通知的正文片段
+     */
+    public static EmailOutboxMessage digest(String toEmail, String recipientName, String subject, String fragment,
+                                            String bizType, Long bizId) {
+        String digestKey = bizType + ":" + toEmail.trim().toLowerCase();
+        return new EmailOutboxMessage(null, toEmail, subject, fragment, bizType, bizId, digestKey, recipientName, 0);
+    }
+
+    /**
+     * 是否参与汇总
+     */
+    public boolean isDigest() {
+        return digestKey != null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.txq.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * 数值字段聚合结果行
+ */
+public record FieldAggregateRow(
+        // 分组键：按用户分组时为用户ID，按时期分组时为提交时期，不分组时为null
+        String groupKey,
+        // 数值条数（字段值不是数字的数据不计入）
+        Long count,
+        BigDecimal sum,
+        BigDecimal min,
+        BigDecimal max,
+        BigDecimal avg
+) {
+}
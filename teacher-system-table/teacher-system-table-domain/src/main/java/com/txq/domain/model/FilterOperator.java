@@ -0,0 +1,63 @@
+package com.txq.domain.model;
+
+/**
+ * 数据内容字段筛选运算符
+ */
+public enum FilterOperator {
+    EQ("eq", "=", true),
+    NE("ne", "<>", false),
+    GT("gt", ">", true),
+    GE("ge", ">=", true),
+    LT("lt", "<", true),
+    LE("le", "<=", true),
+    // 包含
+    LIKE("like", "LIKE", false),
+    // 前缀匹配
+    PREFIX("prefix", "LIKE", true);
+
+    // 请求中的运算符写法
+    private final String code;
+
+    // SQL运算符
+    private final String sql;
+
+    // 是否可以使用字段索引列上的B+树索引
+    private final boolean indexable;
+
+    FilterOperator(String code, String sql, boolean indexable) {
+        this.code = code;
+        this.sql = sql;
+        this.indexable = indexable;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public boolean isIndexable() {
+        return indexable;
+    }
+
+    /**
+     * 是否为范围比较
+     */
+    public boolean isRange() {
+        return this == GT || this == GE || this == LT || this == LE;
+    }
+
+    /**
+     * 根据写法查找运算符，不存在时返回null
+     */
+    public static FilterOperator of(String code) {
+        for (FilterOperator operator : values()) {
+            if (operator.code.equalsIgnoreCase(code)) {
+                return operator;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.txq.domain.model;
+
+/**
+ * 号段（闭区间），由一个实例独占分配
+ */
+public record IdSegment(
+        // 起始ID（含）
+        long start,
+        // 结束ID（含）
+        long end
+) {
+
+    /**
+     * 号段内ID数量
+     */
+    public long size() {
+        return end - start + 1;
+    }
+}
@@ -0,0 +1,18 @@
+package com.txq.domain.model;
+
+/**
+ * 数据通知收件人（数据所属用户的邮箱、用户名及所属表格名称）
+ */
+public record NotificationRecipient(
+        // 数据ID
+        Long dataId,
+        // 所属用户工号
+        String userId,
+        // 用户邮箱
+        String email,
+        // 用户名
+        String username,
+        // 表格全称
+        String tableFullName
+) {
+}
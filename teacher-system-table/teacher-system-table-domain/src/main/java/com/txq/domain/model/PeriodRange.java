@@ -0,0 +1,24 @@
+package com.txq.domain.model;
+
+/**
+ * 提交时期范围（闭区间，格式 YYYY-MM），端点为null时不限
+ */
+public record PeriodRange(
+        // 起始时期
+        String from,
+        // 结束时期
+        String to
+) {
+
+    /**
+     * 不限时期
+     */
+    public static final PeriodRange ALL = new PeriodRange(null, null);
+
+    /**
+     * 是否不限时期
+     */
+    public boolean isUnbounded() {
+        return from == null && to == null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.txq.domain.model;
+
+/**
+ * 数据ID与附件路径（删除表格时分批读取）
+ */
+public record TableDataAttachment(
+        // 数据ID
+        Long id,
+        // 附件相对路径，可为null
+        String reviewMaterial
+) {
+}
@@ -0,0 +1,105 @@
+package com.txq.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * 数据内容字段筛选条件
+ * 有字段索引列时按索引列比较，否则按 JSON 路径从 data_content 中取值比较
+ */
+@AllArgsConstructor
+@Getter
+@ToString
+public class TableDataFilter {
+
+    /**
+     * 字段索引列保存的最大字符数
+     * 索引列只保存值的前191个字符，值长度小于该长度时，等值、范围和前缀比较在截断后的列上与原值结果一致；
+     * 长度达到191时截断列会与更长的原值相等，不能走索引列
+     */
+    public static final int INDEXED_VALUE_LENGTH = 191;
+
+    // 字段名称
+    private String fieldName;
+
+    // 运算符
+    private FilterOperator operator;
+
+    // 比较值
+    private String value;
+
+    // 数值比较时的比较值（范围比较且比较值为数字时非null）
+    private BigDecimal numericValue;
+
+    // 字段索引列名，为null时按 JSON 路径比较
+    private String column;
+
+    /**
+     * 创建筛选条件，范围比较的比较值为数字时按数值比较
+     */
+    public static TableDataFilter of(String fieldName, FilterOperator operator, String value) {
+        BigDecimal numericValue = null;
+        if (operator.isRange()) {
+            try {
+                numericValue = new BigDecimal(value.trim());
+            } catch (NumberFormatException e) {
+                // 非数字按字符串比较
+            }
+        }
+        return new TableDataFilter(fieldName, operator, value, numericValue, null);
+    }
+
+    /**
+     * 该条件是否可以使用字段索引列
+     */
+    public boolean canUseIndex() {
+        return operator.isIndexable() && !isNumeric() && value.length() < INDEXED_VALUE_LENGTH;
+    }
+
+    /**
+     * 使用字段索引列比较
+     */
+    public TableDataFilter withColumn(String column) {
+        return new TableDataFilter(fieldName, operator, value, numericValue, column);
+    }
+
+    public boolean isNumeric() {
+        return numericValue != null;
+    }
+
+    public String getSqlOperator() {
+        return operator.getSql();
+    }
+
+    /**
+     * 字段的 JSON 路径，如 $."姓名"
+     */
+    public String getJsonPath() {
+        return jsonPathOf(fieldName);
+    }
+
+    /**
+     * 字段名称对应的 JSON 路径，字段名加引号并转义，可包含点号、空格等字符
+     */
+    public static String jsonPathOf(String fieldName) {
+        return "$.\"" + fieldName.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    /**
+     * 绑定到SQL的比较值，LIKE 条件转义通配符
+     */
+    public String getBindValue() {
+        return switch (operator) {
+            case LIKE -> "%" + escapeLike(value) + "%";
+            case PREFIX -> escapeLike(value) + "%";
+            default -> value;
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,51 @@
+package com.txq.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * 批量导入的表格数据行
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@ToString
+public class TableDataImportRow {
+    // 表格ID
+    private Integer tableId;
+
+    // 所属用户工号
+    private String userId;
+
+    // 提交时期（格式：YYYY-MM）
+    private String submissionPeriod;
+
+    // 数据内容
+    private Map<String, Object> dataContent;
+
+    // 分数
+    private BigDecimal score;
+
+    // 数据状态：1=已提交，2=已打分
+    private Integer status;
+
+    /**
+     * 创建导入数据行
+     */
+    public static TableDataImportRow of(Integer tableId, String userId, String submissionPeriod,
+                                        Map<String, Object> dataContent, BigDecimal score, Integer status) {
+        return new TableDataImportRow(
+                tableId,
+                userId,
+                submissionPeriod,
+                dataContent,
+                score,
+                status
+        );
+    }
+}
@@ -0,0 +1,57 @@
+package com.txq.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * 表格数据审核结果（打分或退回）
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@ToString
+public class TableDataReview {
+    // 数据ID
+    private Long id;
+
+    // 分数（退回时为null）
+    private BigDecimal score;
+
+    // 退回原因（打分时为null）
+    private String rejectReason;
+
+    // 审核时数据的版本号，版本号不一致时不更新
+    private Integer version;
+
+    /**
+     * 创建打分审核
+     */
+    public static TableDataReview score(Long id, BigDecimal score, Integer version) {
+        return new TableDataReview(id, score, null, version);
+    }
+
+    /**
+     * 创建退回审核
+     */
+    public static TableDataReview reject(Long id, String rejectReason, Integer version) {
+        return new TableDataReview(id, null, rejectReason, version);
+    }
+
+    /**
+     * 是否为退回
+     */
+    public boolean isReject() {
+        return rejectReason != null;
+    }
+
+    /**
+     * 审核后的数据状态：2=已打分，3=已退回
+     */
+    public int getTargetStatus() {
+        return isReject() ? 3 : 2;
+    }
+}
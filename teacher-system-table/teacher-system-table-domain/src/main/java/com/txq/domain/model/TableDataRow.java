@@ -0,0 +1,40 @@
+package com.txq.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 表格数据行（只读）
+ * dataContent 为数据库中的原始JSON文本，读取路径上不做解析
+ */
+public record TableDataRow(
+        // 数据ID
+        Long id,
+        // 表格ID
+        Integer tableId,
+        // 所属用户工号
+        String userId,
+        // 提交时期（格式：YYYY-MM）
+        String submissionPeriod,
+        // 数据内容（原始JSON）
+        String dataContent,
+        // 分数
+        BigDecimal score,
+        // 审核材料
+        String reviewMaterial,
+        // 退回原因
+        String rejectReason,
+        // 数据状态：0=暂存，1=已提交，2=已打分，3=已退回
+        Integer status,
+        // 版本号（每次更新加1）
+        Integer version,
+        // 创建人工号
+        String createdBy,
+        // 更新人工号
+        String updatedBy,
+        // 创建时间
+        LocalDateTime createdAt,
+        // 更新时间
+        LocalDateTime updatedAt
+) {
+}
@@ -0,0 +1,13 @@
+package com.txq.domain.model;
+
+/**
+ * 表格数据读取来源
+ */
+public enum TableDataSource {
+    // 只读在线表 table_data
+    HOT,
+    // 只读归档表 table_data_archive
+    COLD,
+    // 两张表合并读取
+    BOTH
+}
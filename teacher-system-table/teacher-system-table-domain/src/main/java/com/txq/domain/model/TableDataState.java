@@ -0,0 +1,24 @@
+package com.txq.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * 表格数据的归属与状态（不含数据内容），用于权限和状态校验
+ */
+public record TableDataState(
+        // 数据ID
+        Long id,
+        // 表格ID
+        Integer tableId,
+        // 所属用户工号
+        String userId,
+        // 创建人工号
+        String createdBy,
+        // 数据状态：0=暂存，1=已提交，2=已打分，3=已退回
+        Integer status,
+        // 分数
+        BigDecimal score,
+        // 版本号（每次更新加1）
+        Integer version
+) {
+}
@@ -0,0 +1,39 @@
+package com.txq.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * 表格删除任务
+ */
+public record TableDeleteJob(
+        // 任务ID
+        Long id,
+        // 表格ID
+        Integer tableId,
+        // 状态：0=待执行，1=执行中，2=已完成，3=失败
+        Integer status,
+        // 开始执行时的数据条数（含归档数据）
+        Long totalRows,
+        // 已删除数据条数
+        Long deletedRows,
+        // 已删除附件数
+        Long deletedAttachments,
+        // 删除失败或不存在的附件数
+        Long failedAttachments,
+        // 执行次数
+        Integer attempts,
+        // 最近一次失败原因
+        String lastError,
+        // 操作人
+        String createdBy,
+        // 创建时间
+        LocalDateTime createdAt,
+        // 完成时间
+        LocalDateTime finishedAt
+) {
+
+    public static final int STATUS_PENDING = 0;
+    public static final int STATUS_RUNNING = 1;
+    public static final int STATUS_DONE = 2;
+    public static final int STATUS_FAILED = 3;
+}
@@ -13,19 +13,41 @@ import lombok.ToString;
 @Getter
 @ToString
 public class TableField {
+    // 字段ID，新增字段为null
+    private Integer id;
+
     // 管理员操作字段
     private boolean root;
 
     // 字段名称
     private String fieldName;
 
+    // 排序序号，从0开始
+    private int sortOrder;
+
     /**
      * 创建TableField领域对象
      */
     public static TableField of(boolean root, String fieldName) {
+        return of(null, root, fieldName, 0);
+    }
+
+    /**
+     * 创建TableField领域对象（包含字段ID和排序序号）
+     */
+    public static TableField of(Integer id, boolean root, String fieldName, int sortOrder) {
         return new TableField(
+                id,
                 root,
-                fieldName
+                fieldName,
+                sortOrder
         );
     }
+
+    /**
+     * 返回指定排序序号的副本
+     */
+    public TableField withSortOrder(int sortOrder) {
+        return sortOrder == this.sortOrder ? this : of(id, root, fieldName, sortOrder);
+    }
 }
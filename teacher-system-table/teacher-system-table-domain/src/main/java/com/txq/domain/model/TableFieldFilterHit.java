@@ -0,0 +1,14 @@
+package com.txq.domain.model;
+
+/**
+ * 字段筛选次数：某表格某字段可走索引的筛选次数
+ */
+public record TableFieldFilterHit(
+        // 表格ID
+        Integer tableId,
+        // 字段名称
+        String fieldName,
+        // 筛选次数
+        long hits
+) {
+}
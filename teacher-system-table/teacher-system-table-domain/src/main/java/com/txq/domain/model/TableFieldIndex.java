@@ -0,0 +1,42 @@
+package com.txq.domain.model;
+
+import java.util.regex.Pattern;
+
+/**
+ * 字段索引列：table_data 上按字段名从 data_content 生成的虚拟列及其索引
+ * 同名字段在所有表格间共用一列，索引为 (table_id, 列)
+ */
+public record TableFieldIndex(
+        // 字段名称
+        String fieldName,
+        // 生成列名
+        String columnName,
+        // 状态
+        int state
+) {
+
+    /**
+     * 创建中：已登记，DDL 未完成
+     */
+    public static final int STATE_BUILDING = 0;
+
+    /**
+     * 可用：查询可以使用该列
+     */
+    public static final int STATE_READY = 1;
+
+    /**
+     * 删除中：查询不再使用，宽限期后删除列
+     */
+    public static final int STATE_DROPPING = 2;
+
+    /**
+     * 可建索引列的字段名称：字母、数字、下划线、连字符、空格、中英文括号和间隔号
+     * 字段名称会拼接进 DDL 的 JSON 路径字面量，只允许白名单内的字符
+     */
+    private static final Pattern INDEXABLE_FIELD_NAME = Pattern.compile("[\\p{L}\\p{N}_\\- ()（）·]{1,64}");
+
+    public static boolean isIndexableFieldName(String fieldName) {
+        return fieldName != null && INDEXABLE_FIELD_NAME.matcher(fieldName).matches();
+    }
+}
@@ -0,0 +1,79 @@
+package com.txq.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 字段迁移任务
+ * 字段改名或删除后，将已有数据内容中的原字段键改写为新名称或删除
+ */
+public record TableFieldMigrationJob(
+        // 任务ID
+        Long id,
+        // 表格ID
+        Integer tableId,
+        // 字段改名：原名称 -> 新名称
+        Map<String, String> renames,
+        // 删除的字段名称
+        List<String> removedFields,
+        // 状态：0=待执行，1=执行中，2=已完成，3=失败
+        Integer status,
+        // 在线表检查点
+        Long hotLastId,
+        // 归档表检查点
+        Long archiveLastId,
+        // 在线表是否已处理完
+        Boolean hotDone,
+        // 开始执行时的数据条数（含归档数据）
+        Long totalRows,
+        // 已扫描数据条数
+        Long scannedRows,
+        // 已改写数据条数
+        Long rewrittenRows,
+        // 执行次数
+        Integer attempts,
+        // 最近一次失败原因
+        String lastError,
+        // 操作人
+        String createdBy,
+        // 创建时间
+        LocalDateTime createdAt,
+        // 完成时间
+        LocalDateTime finishedAt
+) {
+
+    public static final int STATUS_PENDING = 0;
+    public static final int STATUS_RUNNING = 1;
+    public static final int STATUS_DONE = 2;
+    public static final int STATUS_FAILED = 3;
+
+    /**
+     * 改名字段的键改写规则
+     * 原键存在时新键取原键的值（包括JSON null）；原键不存在时保留新键已有的值（改名后按新名称保存的数据）
+     */
+    public record KeyRewrite(String fromPath, String toPath) {
+    }
+
+    /**
+     * 改名字段的键改写规则
+     */
+    public List<KeyRewrite> keyRewrites() {
+        List<KeyRewrite> rewrites = new ArrayList<>(renames.size());
+        renames.forEach((from, to) -> rewrites.add(new KeyRewrite(
+                TableDataFilter.jsonPathOf(from),
+                TableDataFilter.jsonPathOf(to))));
+        return rewrites;
+    }
+
+    /**
+     * 需要从数据内容中移除的键路径（改名字段的原名称与删除的字段），至少包含一个
+     */
+    public List<String> removePaths() {
+        List<String> paths = new ArrayList<>(renames.size() + removedFields.size());
+        renames.keySet().forEach(from -> paths.add(TableDataFilter.jsonPathOf(from)));
+        removedFields.forEach(field -> paths.add(TableDataFilter.jsonPathOf(field)));
+        return paths;
+    }
+}
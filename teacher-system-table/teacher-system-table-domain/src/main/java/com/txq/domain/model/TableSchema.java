@@ -0,0 +1,45 @@
+package com.txq.domain.model;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 表格结构（元信息与字段定义），不可变，可在线程间共享
+ */
+public record TableSchema(
+        // 表格ID
+        Integer tableId,
+        // 结构版本号，表格修改时递增
+        int schemaVersion,
+        // 表格全称
+        String tableFullName,
+        // 表格别称
+        String tableAliasName,
+        // 字段列表，按定义顺序
+        List<TableField> fields,
+        // 字段名称集合，按定义顺序
+        Set<String> fieldNames
+) {
+
+    /**
+     * 创建表格结构，字段名称集合由字段列表生成
+     */
+    public static TableSchema of(Integer tableId, int schemaVersion, String tableFullName,
+                                 String tableAliasName, List<TableField> fields) {
+        Set<String> fieldNames = fields.stream()
+                .map(TableField::getFieldName)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        return new TableSchema(tableId, schemaVersion, tableFullName, tableAliasName,
+                List.copyOf(fields), Collections.unmodifiableSet(fieldNames));
+    }
+
+    /**
+     * 是否包含指定字段
+     */
+    public boolean hasField(String fieldName) {
+        return fieldNames.contains(fieldName);
+    }
+}
@@ -0,0 +1,41 @@
+package com.txq.domain.model;
+
+import java.util.List;
+
+/**
+ * 表格结构变更事件
+ * 表格修改或删除时在事务内发布：字段迁移任务在提交前随结构变更一起写入，结构缓存、字段索引列等派生数据在提交后更新
+ */
+public record TableSchemaChangedEvent(
+        // 表格ID
+        Integer tableId,
+        // 是否为删除表格
+        boolean tableDeleted,
+        // 新增字段名称
+        List<String> addedFieldNames,
+        // 删除字段名称
+        List<String> removedFieldNames,
+        // 改名字段
+        List<TableSchemaDiff.FieldRename> renamed
+) {
+
+    /**
+     * 表格修改
+     */
+    public static TableSchemaChangedEvent updated(Integer tableId, TableSchemaDiff diff) {
+        return new TableSchemaChangedEvent(
+                tableId,
+                false,
+                diff.added().stream().map(TableField::getFieldName).toList(),
+                diff.removed().stream().map(TableField::getFieldName).toList(),
+                diff.renamed()
+        );
+    }
+
+    /**
+     * 表格删除
+     */
+    public static TableSchemaChangedEvent deleted(Integer tableId) {
+        return new TableSchemaChangedEvent(tableId, true, List.of(), List.of(), List.of());
+    }
+}
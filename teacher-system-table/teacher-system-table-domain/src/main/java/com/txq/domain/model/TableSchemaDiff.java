@@ -0,0 +1,32 @@
+package com.txq.domain.model;
+
+import java.util.List;
+
+/**
+ * 表格字段结构差异（目标结构相对已存储结构）
+ * 新增字段的ID为null；修改字段包含名称、管理员标记或排序序号有变化的已有字段，字段值均为目标值
+ */
+public record TableSchemaDiff(
+        // 新增字段
+        List<TableField> added,
+        // 删除字段
+        List<TableField> removed,
+        // 修改字段
+        List<TableField> updated,
+        // 改名字段（修改字段的子集）
+        List<FieldRename> renamed
+) {
+
+    /**
+     * 字段改名
+     */
+    public record FieldRename(Integer fieldId, String oldName, String newName) {
+    }
+
+    /**
+     * 字段结构是否无变化
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && updated.isEmpty();
+    }
+}
@@ -0,0 +1,20 @@
+package com.txq.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * 表格列表行（元信息与字段数量）
+ */
+public record TableSummaryRow(
+        // 表格ID
+        Integer tableId,
+        // 表格全称
+        String tableFullName,
+        // 表格别称
+        String tableAliasName,
+        // 字段数量
+        Integer fieldCount,
+        // 创建时间
+        LocalDateTime createTime
+) {
+}
@@ -0,0 +1,22 @@
+package com.txq.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * 表格用户得分汇总行（只读）
+ */
+public record TableUserScoreRow(
+        // 用户工号
+        String userId,
+        // 用户名
+        String username,
+        // 数据条数
+        Integer dataCount,
+        // 已打分条数
+        Integer scoredCount,
+        // 总分
+        BigDecimal totalScore,
+        // 平均分（总分 / 已打分条数）
+        BigDecimal avgScore
+) {
+}
@@ -2,7 +2,12 @@ package com.txq.domain.service;
 
 import com.txq.common.exception.BizException;
 import com.txq.domain.infra.repository.TableRepository;
+import com.txq.domain.model.TableField;
+import com.txq.domain.model.TableSchemaDiff;
 
+import java.util.*;
+
+import static com.txq.domain.status.ErrorCode.PARAM_ERROR_CODE;
 import static com.txq.domain.status.ErrorCode.TABLE_EXIST_ERROR_CODE;
 
 /**
@@ -24,5 +29,74 @@ public class TableDomainService {
             throw new BizException(TABLE_EXIST_ERROR_CODE, "表格名称重复");
         }
     }
-}
 
+    /**
+     * 计算目标字段列表相对已存储字段的差异
+     * 目标字段带ID时按ID对应已有字段（可改名），不带ID时按名称对应未被其他目标字段按ID占用的已有字段，
+     * 都对应不上的为新增字段；未被对应的已有字段为删除字段。排序序号按目标列表顺序重新编号
+     * @param stored 已存储的字段，按排序序号排列
+     * @param target 目标字段，按定义顺序排列
+     */
+    public TableSchemaDiff diffFields(List<TableField> stored, List<TableField> target) {
+        Map<Integer, TableField> storedById = new HashMap<>();
+        for (TableField field : stored) {
+            storedById.put(field.getId(), field);
+        }
+
+        // 校验目标字段：名称非空且不重复，ID属于本表格且不重复
+        Set<String> targetNames = new HashSet<>();
+        Set<Integer> claimedIds = new HashSet<>();
+        for (TableField field : target) {
+            if (field.getFieldName() == null || field.getFieldName().isBlank()) {
+                throw new BizException(PARAM_ERROR_CODE, "字段名称不能为空");
+            }
+            if (!targetNames.add(field.getFieldName())) {
+                throw new BizException(PARAM_ERROR_CODE, "字段名称重复: " + field.getFieldName());
+            }
+            if (field.getId() != null) {
+                if (!storedById.containsKey(field.getId())) {
+                    throw new BizException(PARAM_ERROR_CODE, "字段不属于该表格: " + field.getId());
+                }
+                if (!claimedIds.add(field.getId())) {
+                    throw new BizException(PARAM_ERROR_CODE, "字段ID重复: " + field.getId());
+                }
+            }
+        }
+
+        // 未被按ID占用的已有字段可按名称对应
+        Map<String, TableField> unclaimedByName = new HashMap<>();
+        for (TableField field : stored) {
+            if (!claimedIds.contains(field.getId())) {
+                unclaimedByName.put(field.getFieldName(), field);
+            }
+        }
+
+        List<TableField> added = new ArrayList<>();
+        List<TableField> updated = new ArrayList<>();
+        List<TableSchemaDiff.FieldRename> renamed = new ArrayList<>();
+        Set<Integer> matchedIds = new HashSet<>();
+        for (int i = 0; i < target.size(); i++) {
+            TableField field = target.get(i);
+            TableField existing = field.getId() != null
+                    ? storedById.get(field.getId())
+                    : unclaimedByName.remove(field.getFieldName());
+            if (existing == null) {
+                added.add(TableField.of(null, field.isRoot(), field.getFieldName(), i));
+                continue;
+            }
+            matchedIds.add(existing.getId());
+            boolean nameChanged = !existing.getFieldName().equals(field.getFieldName());
+            if (nameChanged || existing.isRoot() != field.isRoot() || existing.getSortOrder() != i) {
+                updated.add(TableField.of(existing.getId(), field.isRoot(), field.getFieldName(), i));
+            }
+            if (nameChanged) {
+                renamed.add(new TableSchemaDiff.FieldRename(existing.getId(), existing.getFieldName(), field.getFieldName()));
+            }
+        }
+
+        List<TableField> removed = stored.stream()
+                .filter(field -> !matchedIds.contains(field.getId()))
+                .toList();
+        return new TableSchemaDiff(List.copyOf(added), removed, List.copyOf(updated), List.copyOf(renamed));
+    }
+}
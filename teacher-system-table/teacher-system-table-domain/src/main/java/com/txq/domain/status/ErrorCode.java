@@ -34,4 +34,13 @@ public class ErrorCode {
 
     // 参数错误
     public final static int PARAM_ERROR_CODE = TABLE_BIZ_BASE_CODE + 9;
+
+    // 数据已被他人修改（版本冲突）
+    public final static int TABLE_DATA_VERSION_CONFLICT_ERROR_CODE = TABLE_BIZ_BASE_CODE + 10;
+
+    // 表格结构已被他人修改（版本冲突）
+    public final static int TABLE_SCHEMA_VERSION_CONFLICT_ERROR_CODE = TABLE_BIZ_BASE_CODE + 11;
+
+    // 数据所在时期已归档（只读）
+    public final static int TABLE_DATA_ARCHIVED_ERROR_CODE = TABLE_BIZ_BASE_CODE + 12;
 }
@@ -0,0 +1,171 @@
+package com.txq.domain.service;
+
+import com.txq.common.exception.BizException;
+import com.txq.domain.model.TableField;
+import com.txq.domain.model.TableSchemaDiff;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.txq.domain.status.ErrorCode.PARAM_ERROR_CODE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 表格领域服务字段差异计算测试
+ */
+class TableDomainServiceTest {
+
+    // diffFields不访问持久化层
+    private final TableDomainService service = new TableDomainService(null);
+
+    private final List<TableField> stored = List.of(
+            TableField.of(1, false, "姓名", 0),
+            TableField.of(2, false, "工号", 1),
+            TableField.of(3, true, "审核意见", 2)
+    );
+
+    @Test
+    void sameFieldsProduceEmptyDiff() {
+        TableSchemaDiff diff = service.diffFields(stored, stored);
+
+        assertTrue(diff.isEmpty());
+        assertTrue(diff.renamed().isEmpty());
+    }
+
+    @Test
+    void fieldsWithoutIdMatchByName() {
+        List<TableField> target = List.of(
+                TableField.of(false, "姓名"),
+                TableField.of(false, "工号"),
+                TableField.of(true, "审核意见")
+        );
+
+        assertTrue(service.diffFields(stored, target).isEmpty());
+    }
+
+    @Test
+    void fieldWithIdIsRenamed() {
+        List<TableField> target = List.of(
+                TableField.of(1, false, "教师姓名", 0),
+                TableField.of(2, false, "工号", 1),
+                TableField.of(3, true, "审核意见", 2)
+        );
+
+        TableSchemaDiff diff = service.diffFields(stored, target);
+
+        assertTrue(diff.added().isEmpty());
+        assertTrue(diff.removed().isEmpty());
+        assertEquals(1, diff.updated().size());
+        assertEquals(1, diff.updated().get(0).getId());
+        assertEquals("教师姓名", diff.updated().get(0).getFieldName());
+        assertEquals(List.of(new TableSchemaDiff.FieldRename(1, "姓名", "教师姓名")), diff.renamed());
+    }
+
+    @Test
+    void unmatchedFieldsAreAddedAndRemoved() {
+        List<TableField> target = List.of(
+                TableField.of(false, "姓名"),
+                TableField.of(false, "职称"),
+                TableField.of(true, "审核意见")
+        );
+
+        TableSchemaDiff diff = service.diffFields(stored, target);
+
+        assertEquals(1, diff.added().size());
+        TableField added = diff.added().get(0);
+        assertNull(added.getId());
+        assertEquals("职称", added.getFieldName());
+        assertEquals(1, added.getSortOrder());
+        assertEquals(List.of(2), diff.removed().stream().map(TableField::getId).toList());
+        assertTrue(diff.updated().isEmpty());
+        assertTrue(diff.renamed().isEmpty());
+    }
+
+    @Test
+    void reorderRenumbersSortOrder() {
+        List<TableField> target = List.of(
+                TableField.of(2, false, "工号", 0),
+                TableField.of(1, false, "姓名", 1),
+                TableField.of(3, true, "审核意见", 2)
+        );
+
+        TableSchemaDiff diff = service.diffFields(stored, target);
+
+        assertTrue(diff.added().isEmpty());
+        assertTrue(diff.removed().isEmpty());
+        assertTrue(diff.renamed().isEmpty());
+        assertEquals(List.of(2, 1), diff.updated().stream().map(TableField::getId).toList());
+        assertEquals(List.of(0, 1), diff.updated().stream().map(TableField::getSortOrder).toList());
+    }
+
+    @Test
+    void rootFlagChangeIsUpdate() {
+        List<TableField> target = List.of(
+                TableField.of(1, false, "姓名", 0),
+                TableField.of(2, true, "工号", 1),
+                TableField.of(3, true, "审核意见", 2)
+        );
+
+        TableSchemaDiff diff = service.diffFields(stored, target);
+
+        assertEquals(1, diff.updated().size());
+        assertTrue(diff.updated().get(0).isRoot());
+        assertTrue(diff.renamed().isEmpty());
+    }
+
+    @Test
+    void nameClaimedByIdIsNotMatchedByName() {
+        // 字段1改名为"工号"，原"工号"字段未带ID提交时不能再按名称对应到字段1
+        List<TableField> target = List.of(
+                TableField.of(1, false, "工号", 0),
+                TableField.of(false, "姓名")
+        );
+
+        TableSchemaDiff diff = service.diffFields(stored, target);
+
+        assertEquals(1, diff.added().size());
+        assertEquals("姓名", diff.added().get(0).getFieldName());
+        assertEquals(List.of(2, 3), diff.removed().stream().map(TableField::getId).toList());
+        assertEquals(List.of(new TableSchemaDiff.FieldRename(1, "姓名", "工号")), diff.renamed());
+    }
+
+    @Test
+    void swapNamesByIdIsTwoRenames() {
+        List<TableField> target = List.of(
+                TableField.of(1, false, "工号", 0),
+                TableField.of(2, false, "姓名", 1),
+                TableField.of(3, true, "审核意见", 2)
+        );
+
+        TableSchemaDiff diff = service.diffFields(stored, target);
+
+        assertTrue(diff.added().isEmpty());
+        assertTrue(diff.removed().isEmpty());
+        assertEquals(2, diff.renamed().size());
+    }
+
+    @Test
+    void blankNameIsRejected() {
+        assertParamError(List.of(TableField.of(false, " ")));
+    }
+
+    @Test
+    void duplicateNameIsRejected() {
+        assertParamError(List.of(TableField.of(false, "姓名"), TableField.of(true, "姓名")));
+    }
+
+    @Test
+    void foreignIdIsRejected() {
+        assertParamError(List.of(TableField.of(99, false, "姓名", 0)));
+    }
+
+    @Test
+    void duplicateIdIsRejected() {
+        assertParamError(List.of(TableField.of(1, false, "姓名", 0), TableField.of(1, false, "工号", 1)));
+    }
+
+    private void assertParamError(List<TableField> target) {
+        BizException e = assertThrows(BizException.class, () -> service.diffFields(stored, target));
+        assertEquals(PARAM_ERROR_CODE, e.getCode());
+    }
+}
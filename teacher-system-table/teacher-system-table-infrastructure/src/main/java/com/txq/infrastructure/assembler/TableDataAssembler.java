@@ -0,0 +1,38 @@
+package com.txq.infrastructure.assembler;
+
+import com.txq.domain.model.TableDataImportRow;
+import com.txq.infrastructure.po.TableDataPO;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 表格数据转换器
+ */
+public class TableDataAssembler {
+
+    /**
+     * 导入数据行转PO
+     */
+    public static List<TableDataPO> toPOs(List<TableDataImportRow> rows, String operatorId) {
+        return rows.stream()
+                .map(row -> toPO(row, operatorId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 单个导入数据行转PO
+     */
+    private static TableDataPO toPO(TableDataImportRow row, String operatorId) {
+        TableDataPO po = new TableDataPO();
+        po.setTableId(row.getTableId());
+        po.setUserId(row.getUserId());
+        po.setSubmissionPeriod(row.getSubmissionPeriod());
+        po.setDataContent(row.getDataContent());
+        po.setScore(row.getScore());
+        po.setStatus(row.getStatus());
+        po.setCreatedBy(operatorId);
+        // createdAt、updatedAt 由数据库默认值填充
+        return po;
+    }
+}
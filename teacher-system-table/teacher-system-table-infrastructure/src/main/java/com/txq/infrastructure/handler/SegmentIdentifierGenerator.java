@@ -0,0 +1,32 @@
+package com.txq.infrastructure.handler;
+
+import com.baomidou.mybatisplus.core.incrementer.DefaultIdentifierGenerator;
+import com.baomidou.mybatisplus.core.incrementer.IdentifierGenerator;
+import com.txq.domain.infra.IdGenerator;
+import com.txq.infrastructure.po.TableDataPO;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * MyBatis Plus 主键生成器（IdType.ASSIGN_ID），表格数据从号段分配ID，其他实体沿用默认的雪花算法
+ * 号段生成器依赖Mapper，Mapper又依赖本生成器所在的 SqlSessionFactory，因此延迟获取
+ */
+@Component
+public class SegmentIdentifierGenerator implements IdentifierGenerator {
+
+    private final ObjectProvider<IdGenerator> idGenerator;
+
+    private final IdentifierGenerator defaultGenerator = DefaultIdentifierGenerator.getInstance();
+
+    public SegmentIdentifierGenerator(ObjectProvider<IdGenerator> idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
+    @Override
+    public Number nextId(Object entity) {
+        if (entity instanceof TableDataPO) {
+            return idGenerator.getObject().nextId(IdGenerator.TABLE_DATA);
+        }
+        return defaultGenerator.nextId(entity);
+    }
+}
@@ -0,0 +1,31 @@
+package com.txq.infrastructure.mapper;
+
+import org.apache.ibatis.annotations.*;
+
+/**
+ * 集群锁Mapper
+ */
+@Mapper
+public interface ClusterLockMapper {
+
+    /**
+     * 锁行不存在时创建（未被持有）
+     */
+    @Insert("INSERT IGNORE INTO cluster_lock (name) VALUES (#{name})")
+    int insertIfAbsent(@Param("name") String name);
+
+    /**
+     * 锁未被持有、租约已过期或已由本实例持有时，写入持有者并设置租约
+     * @return 匹配行数，1表示获取成功
+     */
+    @Update("UPDATE cluster_lock SET owner = #{owner}, " +
+            "lease_until = DATE_ADD(NOW(), INTERVAL #{leaseSeconds} SECOND) " +
+            "WHERE name = #{name} AND (owner IS NULL OR lease_until IS NULL OR lease_until < NOW() OR owner = #{owner})")
+    int acquire(@Param("name") String name, @Param("owner") String owner, @Param("leaseSeconds") int leaseSeconds);
+
+    /**
+     * 释放锁，只释放本实例持有的锁
+     */
+    @Update("UPDATE cluster_lock SET owner = NULL, lease_until = NULL WHERE name = #{name} AND owner = #{owner}")
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
@@ -0,0 +1,109 @@
+package com.txq.infrastructure.mapper;
+
+import com.txq.domain.model.EmailOutboxMessage;
+import org.apache.ibatis.annotations.*;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 邮件发件箱Mapper
+ * status: 0=待发送, 1=已发送, 2=发送失败
+ */
+@Mapper
+public interface EmailOutboxMapper {
+
+    /**
+     * EmailOutboxMessage 对应的查询列，顺序与构造参数一致
+     */
+    String OUTBOX_COLUMNS = "id, to_email, subject, body, biz_type, biz_id, digest_key, recipient_name, attempts";
+
+    /**
+     * 多行INSERT写入待发送邮件
+     */
+    @Insert("<script>" +
+            "INSERT INTO email_outbox (to_email, subject, body, biz_type, biz_id, digest_key, recipient_name, next_attempt_at) VALUES " +
+            "<foreach collection='list' item='item' separator=','>" +
+            "(#{item.toEmail}, #{item.subject}, #{item.body}, #{item.bizType}, #{item.bizId}, " +
+            "#{item.digestKey}, #{item.recipientName}, DATE_ADD(NOW(), INTERVAL #{delaySeconds} SECOND))" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("list") List<EmailOutboxMessage> list, @Param("delaySeconds") int delaySeconds);
+
+    /**
+     * 锁定到期的待发送邮件，已被其他事务锁定的行直接跳过
+     */
+    @Select("SELECT " + OUTBOX_COLUMNS + " " +
+            "FROM email_outbox " +
+            "WHERE status = 0 AND next_attempt_at <= NOW() " +
+            "ORDER BY next_attempt_at, id " +
+            "LIMIT #{limit} " +
+            "FOR UPDATE SKIP LOCKED")
+    @ConstructorArgs({
+            @Arg(column = "id", javaType = Long.class, id = true),
+            @Arg(column = "to_email", javaType = String.class),
+            @Arg(column = "subject", javaType = String.class),
+            @Arg(column = "body", javaType = String.class),
+            @Arg(column = "biz_type", javaType = String.class),
+            @Arg(column = "biz_id", javaType = Long.class),
+            @Arg(column = "digest_key", javaType = String.class),
+            @Arg(column = "recipient_name", javaType = String.class),
+            @Arg(column = "attempts", javaType = Integer.class)
+    })
+    @Results(id = "emailOutboxMessage")
+    List<EmailOutboxMessage> selectDueForUpdate(@Param("limit") int limit);
+
+    /**
+     * 锁定指定汇总键下在汇总窗口内到期的待发送邮件，已被其他事务锁定或仍在领取租约内的行直接跳过
+     * 正在退避等待重试（下次尝试时间晚于窗口）的邮件不提前领取
+     * @param windowSeconds 汇总窗口（秒）
+     */
+    @Select("<script>" +
+            "SELECT " + OUTBOX_COLUMNS + " " +
+            "FROM email_outbox " +
+            "WHERE status = 0 AND digest_key IN " +
+            "<foreach collection='digestKeys' item='key' open='(' separator=',' close=')'>#{key}</foreach> " +
+            "AND (leased_until IS NULL OR leased_until &lt;= NOW()) " +
+            "AND next_attempt_at &lt;= DATE_ADD(NOW(), INTERVAL #{windowSeconds} SECOND) " +
+            "ORDER BY id " +
+            "FOR UPDATE SKIP LOCKED" +
+            "</script>")
+    @ResultMap("emailOutboxMessage")
+    List<EmailOutboxMessage> selectPendingByDigestKeysForUpdate(@Param("digestKeys") Collection<String> digestKeys,
+                                                                @Param("windowSeconds") int windowSeconds);
+
+    /**
+     * 领取邮件：尝试次数加1，写入租约到期时间，下次尝试时间推迟到租约结束
+     */
+    @Update("<script>" +
+            "UPDATE email_outbox SET attempts = attempts + 1, " +
+            "leased_until = DATE_ADD(NOW(), INTERVAL #{leaseSeconds} SECOND), " +
+            "next_attempt_at = DATE_ADD(NOW(), INTERVAL #{leaseSeconds} SECOND) " +
+            "WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int leaseByIds(@Param("ids") List<Long> ids, @Param("leaseSeconds") int leaseSeconds);
+
+    /**
+     * 标记已发送
+     */
+    @Update("<script>" +
+            "UPDATE email_outbox SET status = 1, sent_at = NOW(), leased_until = NULL, last_error = NULL " +
+            "WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int markSent(@Param("ids") List<Long> ids);
+
+    /**
+     * 标记待重试
+     */
+    @Update("UPDATE email_outbox SET next_attempt_at = DATE_ADD(NOW(), INTERVAL #{delaySeconds} SECOND), " +
+            "leased_until = NULL, last_error = #{error} WHERE id = #{id} AND status = 0")
+    int markRetry(@Param("id") Long id, @Param("delaySeconds") int delaySeconds, @Param("error") String error);
+
+    /**
+     * 标记最终失败
+     */
+    @Update("UPDATE email_outbox SET status = 2, leased_until = NULL, last_error = #{error} WHERE id = #{id} AND status = 0")
+    int markFailed(@Param("id") Long id, @Param("error") String error);
+}
@@ -0,0 +1,27 @@
+package com.txq.infrastructure.mapper;
+
+import com.txq.domain.model.IdSegment;
+import org.apache.ibatis.annotations.*;
+
+/**
+ * 号段Mapper
+ */
+@Mapper
+public interface IdSegmentMapper {
+
+    /**
+     * 推进号段，行锁保证多实例不会租到同一段
+     */
+    @Update("UPDATE id_segment SET max_id = max_id + step WHERE biz_tag = #{bizTag}")
+    int advance(@Param("bizTag") String bizTag);
+
+    /**
+     * 读取刚租用的号段（与 advance 在同一事务内）
+     */
+    @Select("SELECT max_id - step + 1 AS seg_start, max_id AS seg_end FROM id_segment WHERE biz_tag = #{bizTag}")
+    @ConstructorArgs({
+            @Arg(column = "seg_start", javaType = long.class),
+            @Arg(column = "seg_end", javaType = long.class)
+    })
+    IdSegment selectCurrent(@Param("bizTag") String bizTag);
+}
@@ -0,0 +1,130 @@
+package com.txq.infrastructure.mapper;
+
+import com.txq.domain.model.ArchiveWatermark;
+import com.txq.domain.model.TableDataAttachment;
+import com.txq.domain.model.TableFieldMigrationJob;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+/**
+ * 表格数据归档Mapper
+ */
+@Mapper
+public interface TableDataArchiveMapper {
+
+    /**
+     * 解压后的数据内容JSON
+     */
+    String ARCHIVE_DOC = "CAST(CONVERT(UNCOMPRESS(data_content_z) USING utf8mb4) AS JSON)";
+
+    @Select("SELECT archived_before, archiving_before FROM table_data_archive_state WHERE id = 1")
+    @ConstructorArgs({
+            @Arg(column = "archived_before", javaType = String.class),
+            @Arg(column = "archiving_before", javaType = String.class)
+    })
+    ArchiveWatermark selectWatermark();
+
+    /**
+     * 推进正在归档的时期上界
+     */
+    @Update("UPDATE table_data_archive_state SET archiving_before = #{before} " +
+            "WHERE id = 1 AND archiving_before < #{before}")
+    int updateArchivingBefore(@Param("before") String before);
+
+    /**
+     * 推进已完成归档的时期上界，不超过正在归档的上界
+     */
+    @Update("UPDATE table_data_archive_state SET archived_before = #{before} " +
+            "WHERE id = 1 AND archived_before < #{before} AND archiving_before >= #{before}")
+    int updateArchivedBefore(@Param("before") String before);
+
+    /**
+     * 普通读取一批待归档的数据ID（走 idx_period_id 索引，不加锁）
+     * 已迁移的数据会从在线表删除，因此每次都从索引起点读取，不需要游标
+     */
+    @Select("SELECT id FROM table_data WHERE submission_period < #{before} " +
+            "ORDER BY submission_period, id LIMIT #{limit}")
+    List<Long> selectArchivableIds(@Param("before") String before, @Param("limit") int limit);
+
+    /**
+     * 按主键锁定候选数据中仍早于 before 的部分，只锁定将要迁移的行
+     * 不跳过被锁定的行，保证迁移完成时早于 before 的数据没有遗漏
+     */
+    @Select("<script>" +
+            "SELECT id FROM table_data WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "AND submission_period &lt; #{before} FOR UPDATE" +
+            "</script>")
+    List<Long> lockArchivableIds(@Param("ids") List<Long> ids, @Param("before") String before);
+
+    /**
+     * 将数据复制到归档表，数据内容压缩存储
+     */
+    @Insert("<script>" +
+            "INSERT INTO table_data_archive (id, table_id, user_id, submission_period, data_content_z, score, " +
+            "review_material, reject_reason, status, version, created_by, updated_by, created_at, updated_at) " +
+            "SELECT id, table_id, user_id, submission_period, COMPRESS(data_content), score, " +
+            "review_material, reject_reason, status, version, created_by, updated_by, created_at, updated_at " +
+            "FROM table_data WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int copyToArchive(@Param("ids") List<Long> ids);
+
+    /**
+     * 从在线表删除已复制的数据
+     */
+    @Delete("<script>" +
+            "DELETE FROM table_data WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int deleteFromHot(@Param("ids") List<Long> ids);
+
+    /**
+     * 统计表格的归档数据条数
+     */
+    @Select("SELECT COUNT(*) FROM table_data_archive WHERE table_id = #{tableId}")
+    long countByTableId(@Param("tableId") Integer tableId);
+
+    /**
+     * 读取表格的一批归档数据ID与附件路径（删除表格用）
+     */
+    @Select("SELECT id, review_material FROM table_data_archive WHERE table_id = #{tableId} LIMIT #{limit}")
+    @ResultMap("com.txq.infrastructure.mapper.TableDataMapper.tableDataAttachment")
+    List<TableDataAttachment> selectAttachmentChunk(@Param("tableId") Integer tableId, @Param("limit") int limit);
+
+    /**
+     * 按ID删除归档数据
+     */
+    @Delete("<script>" +
+            "DELETE FROM table_data_archive WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int deleteByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * 读取表格检查点之后的一批归档数据ID（字段迁移用）
+     */
+    @Select("SELECT id FROM table_data_archive WHERE table_id = #{tableId} AND id > #{afterId} ORDER BY id LIMIT #{limit}")
+    List<Long> selectIdsAfter(@Param("tableId") Integer tableId, @Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * 改写归档数据内容中的字段键（字段迁移用），在数据库内解压、改写后重新压缩，规则同 TableDataMapper.rewriteKeys
+     */
+    @Update("<script>" +
+            "UPDATE table_data_archive SET data_content_z = COMPRESS(" +
+            "<choose><when test='rewrites.isEmpty()'>JSON_REMOVE(" + ARCHIVE_DOC + TableDataMapper.KEY_REMOVE_PATHS + ")</when>" +
+            "<otherwise>JSON_REMOVE(JSON_SET(JSON_REMOVE(" + ARCHIVE_DOC + TableDataMapper.KEY_REMOVE_PATHS + ")" +
+            "<foreach collection='rewrites' item='r'>, " +
+            "IF(JSON_CONTAINS_PATH(" + ARCHIVE_DOC + ", 'one', #{r.fromPath}), #{r.toPath}, " +
+            TableDataMapper.KEY_REWRITE_SKIP_PATH + "), " +
+            "JSON_EXTRACT(" + ARCHIVE_DOC + ", #{r.fromPath})" +
+            "</foreach>), " + TableDataMapper.KEY_REWRITE_SKIP_PATH + ")</otherwise></choose>) " +
+            "WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "AND JSON_CONTAINS_PATH(" + ARCHIVE_DOC + ", 'one'" + TableDataMapper.KEY_REMOVE_PATHS + ")" +
+            "</script>")
+    int rewriteKeys(@Param("ids") List<Long> ids,
+                    @Param("rewrites") List<TableFieldMigrationJob.KeyRewrite> rewrites,
+                    @Param("removePaths") List<String> removePaths);
+}
@@ -1,67 +1,522 @@
 package com.txq.infrastructure.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.txq.domain.model.*;
 import com.txq.infrastructure.po.TableDataPO;
-import org.apache.ibatis.annotations.Mapper;
-import org.apache.ibatis.annotations.Param;
-import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.*;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 /**
  * 表格数据Mapper
+ * 读取路径直接映射为只读行记录，data_content 以原始JSON文本返回
  */
 @Mapper
 public interface TableDataMapper extends BaseMapper<TableDataPO> {
-    
+
     /**
-     * 根据用户ID查询所有数据（关联表格信息）
+     * TableDataRow 对应的查询列，顺序与构造参数一致
      */
-    @Select("SELECT td.id, td.table_id, td.user_id, td.data_content, td.score, " +
-            "td.review_material, td.status, td.created_at, td.updated_at, tm.table_full_name " +
-            "FROM table_data td " +
-            "LEFT JOIN table_meta tm ON td.table_id = tm.id " +
-            "WHERE td.user_id = #{userId} " +
-            "ORDER BY td.created_at DESC")
-    List<Map<String, Object>> selectByUserId(@Param("userId") String userId);
-    
+    String ROW_COLUMNS = "id, table_id, user_id, submission_period, data_content, score, review_material, " +
+            "reject_reason, status, version, created_by, updated_by, created_at, updated_at";
+
+    /**
+     * 数据内容字段筛选条件（参数名 filters，元素为 TableDataFilter）
+     * 有索引列时按索引列比较，否则按 JSON 路径从 data_content 取值比较，路径以参数绑定
+     */
+    String FILTER_CONDITIONS = "<if test='filters != null'>" +
+            "<foreach collection='filters' item='f'>" +
+            "<choose>" +
+            "<when test='f.numeric'>" +
+            "AND CAST(JSON_UNQUOTE(JSON_EXTRACT(data_content, #{f.jsonPath})) AS DECIMAL(30, 6)) ${f.sqlOperator} #{f.numericValue} " +
+            "</when>" +
+            "<when test='f.column != null'>AND ${f.column} ${f.sqlOperator} #{f.bindValue} </when>" +
+            "<otherwise>AND JSON_UNQUOTE(JSON_EXTRACT(data_content, #{f.jsonPath})) ${f.sqlOperator} #{f.bindValue} </otherwise>" +
+            "</choose>" +
+            "</foreach>" +
+            "</if>";
+
+    /**
+     * 字段迁移需要移除的键路径参数列表（参数名 removePaths），接在 JSON 文档参数之后
+     */
+    String KEY_REMOVE_PATHS = "<foreach collection='removePaths' item='p'>, #{p}</foreach>";
+
+    /**
+     * 字段迁移中原键不存在的改名规则写入的占位路径，改写完成后移除
+     */
+    String KEY_REWRITE_SKIP_PATH = "'$.\"__field_migration_skip__\"'";
+
+    /**
+     * 归档表的数据内容字段筛选条件，归档表没有字段索引列，全部按 JSON 路径比较
+     */
+    String ARCHIVE_FILTER_CONDITIONS = "<if test='filters != null'>" +
+            "<foreach collection='filters' item='f'>" +
+            "<choose>" +
+            "<when test='f.numeric'>" +
+            "AND CAST(JSON_UNQUOTE(JSON_EXTRACT(data_content, #{f.jsonPath})) AS DECIMAL(30, 6)) ${f.sqlOperator} #{f.numericValue} " +
+            "</when>" +
+            "<otherwise>AND JSON_UNQUOTE(JSON_EXTRACT(data_content, #{f.jsonPath})) ${f.sqlOperator} #{f.bindValue} </otherwise>" +
+            "</choose>" +
+            "</foreach>" +
+            "</if>";
+
+    /**
+     * 归档表读取视图（需加别名），列名与 table_data 一致，data_content 解压为JSON文本
+     * 派生表会合并到外层查询，外层条件仍可使用归档表上的索引
+     */
+    String ARCHIVE_ROWS = "(SELECT id, table_id, user_id, submission_period, " +
+            "CONVERT(UNCOMPRESS(data_content_z) USING utf8mb4) AS data_content, score, review_material, " +
+            "reject_reason, status, version, created_by, updated_by, created_at, updated_at " +
+            "FROM table_data_archive)";
+
+    /**
+     * 按读取来源（参数名 source，取值 HOT/COLD/BOTH）拼接在线表与归档表的查询分支
+     */
+    String HOT_BRANCH = "<if test=\"source != 'COLD'\">";
+    String COLD_BRANCH = "<if test=\"source != 'HOT'\">";
+    String UNION_BRANCH = "<if test=\"source == 'BOTH'\"> UNION ALL </if>";
+
+    /**
+     * 提交时期范围条件（参数名 periodFrom、periodTo，闭区间，为null时不限）
+     * 时期格式固定为 YYYY-MM，按字符串比较即按时间比较，可使用索引 idx_table_period
+     */
+    String PERIOD_CONDITIONS = "<if test='periodFrom != null'>AND submission_period &gt;= #{periodFrom} </if>" +
+            "<if test='periodTo != null'>AND submission_period &lt;= #{periodTo} </if>";
+
     /**
-     * 根据表格ID查询所有数据（关联用户信息和表格信息）
-     * 用于管理员查看表格的用户得分统计和发送退回通知
+     * 根据ID查询单条数据
      */
-    @Select("SELECT td.id, td.table_id, td.user_id, td.submission_period, td.data_content, td.score, " +
-            "td.review_material, td.reject_reason, td.status, td.created_at, td.updated_at, td.created_by, td.updated_by, " +
-            "u.username, u.email, " +
-            "tm.table_full_name " +
+    @Select("SELECT " + ROW_COLUMNS + " FROM table_data WHERE id = #{id}")
+    @ConstructorArgs({
+            @Arg(column = "id", javaType = Long.class, id = true),
+            @Arg(column = "table_id", javaType = Integer.class),
+            @Arg(column = "user_id", javaType = String.class),
+            @Arg(column = "submission_period", javaType = String.class),
+            @Arg(column = "data_content", javaType = String.class),
+            @Arg(column = "score", javaType = BigDecimal.class),
+            @Arg(column = "review_material", javaType = String.class),
+            @Arg(column = "reject_reason", javaType = String.class),
+            @Arg(column = "status", javaType = Integer.class),
+            @Arg(column = "version", javaType = Integer.class),
+            @Arg(column = "created_by", javaType = String.class),
+            @Arg(column = "updated_by", javaType = String.class),
+            @Arg(column = "created_at", javaType = LocalDateTime.class),
+            @Arg(column = "updated_at", javaType = LocalDateTime.class)
+    })
+    @Results(id = "tableDataRow")
+    TableDataRow selectRowById(@Param("id") Long id);
+
+    /**
+     * 根据ID查询单条归档数据
+     */
+    @Select("SELECT " + ROW_COLUMNS + " FROM " + ARCHIVE_ROWS + " ta WHERE id = #{id}")
+    @ResultMap("tableDataRow")
+    TableDataRow selectArchivedRowById(@Param("id") Long id);
+
+    /**
+     * 根据ID列表查询数据
+     */
+    @Select("<script>" +
+            "SELECT " + ROW_COLUMNS + " FROM table_data WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    @ResultMap("tableDataRow")
+    List<TableDataRow> selectRowsByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * 统计表格的数据条数
+     */
+    @Select("SELECT COUNT(*) FROM table_data WHERE table_id = #{tableId}")
+    long countByTableId(@Param("tableId") Integer tableId);
+
+    /**
+     * 读取表格的一批数据ID与附件路径（删除表格用，已删除的行不会再被读到，因此不需要游标）
+     */
+    @Select("SELECT id, review_material FROM table_data WHERE table_id = #{tableId} LIMIT #{limit}")
+    @ConstructorArgs({
+            @Arg(column = "id", javaType = Long.class, id = true),
+            @Arg(column = "review_material", javaType = String.class)
+    })
+    @Results(id = "tableDataAttachment")
+    List<TableDataAttachment> selectAttachmentChunk(@Param("tableId") Integer tableId, @Param("limit") int limit);
+
+    /**
+     * 读取表格检查点之后的一批数据ID（字段迁移用）
+     */
+    @Select("SELECT id FROM table_data WHERE table_id = #{tableId} AND id > #{afterId} ORDER BY id LIMIT #{limit}")
+    List<Long> selectIdsAfter(@Param("tableId") Integer tableId, @Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * 改写数据内容中的字段键（字段迁移用），只改写包含原字段键的行，版本号加1
+     * 先移除原名称与删除字段的键，再用 JSON_SET 把原键的值写到新键，值为JSON null时同样保留；
+     * 原键不存在的改名写到占位路径后移除，保留新键已有的值。值均取自改写前的内容，互换名称时不会互相覆盖
+     * @param rewrites 改名规则，元素为 TableFieldMigrationJob.KeyRewrite
+     * @param removePaths 需要移除的键路径
+     * @return 实际改写行数
+     */
+    @Update("<script>" +
+            "UPDATE table_data SET data_content = " +
+            "<choose><when test='rewrites.isEmpty()'>JSON_REMOVE(data_content" + KEY_REMOVE_PATHS + ")</when>" +
+            "<otherwise>JSON_REMOVE(JSON_SET(JSON_REMOVE(data_content" + KEY_REMOVE_PATHS + ")" +
+            "<foreach collection='rewrites' item='r'>, " +
+            "IF(JSON_CONTAINS_PATH(data_content, 'one', #{r.fromPath}), #{r.toPath}, " + KEY_REWRITE_SKIP_PATH + "), " +
+            "JSON_EXTRACT(data_content, #{r.fromPath})" +
+            "</foreach>), " + KEY_REWRITE_SKIP_PATH + ")</otherwise></choose>, " +
+            "version = version + 1 " +
+            "WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "AND JSON_CONTAINS_PATH(data_content, 'one'" + KEY_REMOVE_PATHS + ")" +
+            "</script>")
+    int rewriteKeys(@Param("ids") List<Long> ids,
+                    @Param("rewrites") List<TableFieldMigrationJob.KeyRewrite> rewrites,
+                    @Param("removePaths") List<String> removePaths);
+
+    /**
+     * 根据ID列表查询数据的归属与状态（不含数据内容）
+     */
+    @Select("<script>" +
+            "SELECT id, table_id, user_id, created_by, status, score, version FROM table_data WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    @ConstructorArgs({
+            @Arg(column = "id", javaType = Long.class, id = true),
+            @Arg(column = "table_id", javaType = Integer.class),
+            @Arg(column = "user_id", javaType = String.class),
+            @Arg(column = "created_by", javaType = String.class),
+            @Arg(column = "status", javaType = Integer.class),
+            @Arg(column = "score", javaType = BigDecimal.class),
+            @Arg(column = "version", javaType = Integer.class)
+    })
+    @Results(id = "tableDataState")
+    List<TableDataState> selectStatesByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * 根据用户ID查询所有数据，按创建时间倒序
+     * @param source 读取来源：HOT/COLD/BOTH
+     */
+    @Select("<script>" +
+            HOT_BRANCH + "(SELECT " + ROW_COLUMNS + " FROM table_data WHERE user_id = #{userId})</if>" +
+            UNION_BRANCH +
+            COLD_BRANCH + "(SELECT " + ROW_COLUMNS + " FROM " + ARCHIVE_ROWS + " ta WHERE user_id = #{userId})</if> " +
+            "ORDER BY created_at DESC" +
+            "</script>")
+    @ResultMap("tableDataRow")
+    List<TableDataRow> selectByUserId(@Param("userId") String userId, @Param("source") String source);
+
+    /**
+     * 根据数据ID列表查询通知收件人（所属用户的邮箱、用户名和表格名称），不读取数据内容
+     */
+    @Select("<script>" +
+            "SELECT td.id, td.user_id, u.email, u.username, tm.table_full_name " +
             "FROM table_data td " +
             "LEFT JOIN user u ON td.user_id = u.id " +
             "LEFT JOIN table_meta tm ON td.table_id = tm.id " +
-            "WHERE td.table_id = #{tableId} " +
-            "ORDER BY td.user_id, td.created_at DESC")
-    List<Map<String, Object>> selectByTableIdWithUser(@Param("tableId") Integer tableId);
-    
+            "WHERE td.id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    @ConstructorArgs({
+            @Arg(column = "id", javaType = Long.class, id = true),
+            @Arg(column = "user_id", javaType = String.class),
+            @Arg(column = "email", javaType = String.class),
+            @Arg(column = "username", javaType = String.class),
+            @Arg(column = "table_full_name", javaType = String.class)
+    })
+    List<NotificationRecipient> selectRecipientsByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * 数值字段聚合的取值列，每行只解析一次 JSON 取出字段原值
+     */
+    String AGGREGATE_VALUES = "SELECT user_id, submission_period, " +
+            "JSON_UNQUOTE(JSON_EXTRACT(data_content, #{jsonPath})) AS raw_v ";
+
+    /**
+     * 数值字段聚合的条件（数据范围），字段值是否为数字在外层按取出的原值判断
+     */
+    String AGGREGATE_CONDITIONS = "WHERE table_id = #{tableId} " +
+            "<if test='statuses != null'>" +
+            "AND status IN <foreach collection='statuses' item='s' open='(' separator=',' close=')'>#{s}</foreach> " +
+            "</if>" +
+            PERIOD_CONDITIONS;
+
+    /**
+     * 数值字段聚合：对字段值为数字的数据计算条数、合计、最小、最大和平均值
+     * 在数据库内完成取值与聚合，不返回明细行；内层派生表 r 物化（NO_MERGE）后每行只提取一次字段值，
+     * 外层再按原值做数字校验和 DECIMAL 转换。字段值本身没有索引，生成列只用于可选的字段筛选条件
+     * @param source 读取来源：HOT/COLD/BOTH
+     * @param jsonPath 字段的 JSON 路径
+     * @param groupBy 分组方式：none=不分组，user=按用户，period=按提交时期
+     * @param statuses 数据状态范围，为null时不限
+     * @param periodFrom 起始提交时期，为null时不限
+     * @param periodTo 结束提交时期，为null时不限
+     * @param filters 数据内容字段筛选条件，可为null
+     */
+    @Select("<script>" +
+            "SELECT <choose><when test=\"groupBy == 'none'\">NULL</when><otherwise>group_key</otherwise></choose> AS group_key, " +
+            "COUNT(*) AS value_count, SUM(v) AS sum_value, MIN(v) AS min_value, MAX(v) AS max_value, AVG(v) AS avg_value " +
+            "FROM (" +
+            "SELECT /*+ NO_MERGE(r) */ " +
+            "<choose>" +
+            "<when test=\"groupBy == 'user'\">r.user_id</when>" +
+            "<when test=\"groupBy == 'period'\">r.submission_period</when>" +
+            "<otherwise>NULL</otherwise>" +
+            "</choose> AS group_key, " +
+            "CAST(r.raw_v AS DECIMAL(30, 6)) AS v " +
+            "FROM (" +
+            HOT_BRANCH + AGGREGATE_VALUES + "FROM table_data " + AGGREGATE_CONDITIONS + FILTER_CONDITIONS + "</if>" +
+            UNION_BRANCH +
+            COLD_BRANCH + AGGREGATE_VALUES + "FROM " + ARCHIVE_ROWS + " ta " + AGGREGATE_CONDITIONS +
+            ARCHIVE_FILTER_CONDITIONS + "</if>" +
+            ") r " +
+            "WHERE r.raw_v REGEXP '^[+-]?([0-9]+([.][0-9]*)?|[.][0-9]+)$'" +
+            ") t " +
+            "<if test=\"groupBy != 'none'\">GROUP BY group_key ORDER BY group_key</if>" +
+            "</script>")
+    @ConstructorArgs({
+            @Arg(column = "group_key", javaType = String.class),
+            @Arg(column = "value_count", javaType = Long.class),
+            @Arg(column = "sum_value", javaType = BigDecimal.class),
+            @Arg(column = "min_value", javaType = BigDecimal.class),
+            @Arg(column = "max_value", javaType = BigDecimal.class),
+            @Arg(column = "avg_value", javaType = BigDecimal.class)
+    })
+    List<FieldAggregateRow> selectFieldAggregate(@Param("source") String source,
+                                                 @Param("tableId") Integer tableId,
+                                                 @Param("jsonPath") String jsonPath,
+                                                 @Param("groupBy") String groupBy,
+                                                 @Param("statuses") Collection<Integer> statuses,
+                                                 @Param("periodFrom") String periodFrom,
+                                                 @Param("periodTo") String periodTo,
+                                                 @Param("filters") List<TableDataFilter> filters);
+
+    /**
+     * 游标分页条件
+     */
+    String PAGE_CONDITIONS = "WHERE table_id = #{tableId} " +
+            "<if test='userId != null'>AND user_id = #{userId} </if>" +
+            PERIOD_CONDITIONS +
+            "<if test='cursorCreatedAt != null'>" +
+            "AND (created_at &lt; #{cursorCreatedAt} OR (created_at = #{cursorCreatedAt} AND id &lt; #{cursorId})) " +
+            "</if>";
+
+    /**
+     * 游标分页排序
+     */
+    String PAGE_ORDER = "ORDER BY created_at DESC, id DESC <if test='limit != null'>LIMIT #{limit}</if>";
+
+    /**
+     * 按 (created_at, id) 游标分页查询表格数据
+     * 依赖索引 idx_table_user_created(table_id, user_id, created_at, id) 与 idx_table_created(table_id, created_at, id)
+     * 合并读取时两张表各取一页再合并排序
+     * @param source 读取来源：HOT/COLD/BOTH
+     * @param userId 数据所属用户ID，为null时查询全部用户
+     * @param periodFrom 起始提交时期，为null时不限
+     * @param periodTo 结束提交时期，为null时不限
+     * @param filters 数据内容字段筛选条件，可为null
+     * @param cursorCreatedAt 上一页最后一条的创建时间，为null时查询第一页
+     * @param cursorId 上一页最后一条的ID
+     * @param limit 查询条数（调用方多取一条用于判断是否还有下一页），为null时不限制
+     */
+    @Select("<script>" +
+            HOT_BRANCH + "(SELECT " + ROW_COLUMNS + " FROM table_data " +
+            PAGE_CONDITIONS + FILTER_CONDITIONS + PAGE_ORDER + ")</if>" +
+            UNION_BRANCH +
+            COLD_BRANCH + "(SELECT " + ROW_COLUMNS + " FROM " + ARCHIVE_ROWS + " ta " +
+            PAGE_CONDITIONS + ARCHIVE_FILTER_CONDITIONS + PAGE_ORDER + ")</if> " +
+            PAGE_ORDER +
+            "</script>")
+    @ResultMap("tableDataRow")
+    List<TableDataRow> selectPageByTableId(@Param("source") String source,
+                                           @Param("tableId") Integer tableId,
+                                           @Param("userId") String userId,
+                                           @Param("periodFrom") String periodFrom,
+                                           @Param("periodTo") String periodTo,
+                                           @Param("filters") List<TableDataFilter> filters,
+                                           @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                           @Param("cursorId") Long cursorId,
+                                           @Param("limit") Integer limit);
+
+    /**
+     * 按提交时期范围从 table_data 实时汇总每个用户的得分（关联用户名），按总分降序
+     * 得分汇总投影不区分时期，指定时期范围时使用该查询
+     * @param source 读取来源：HOT/COLD/BOTH
+     */
+    @Select("<script>" +
+            "SELECT td.user_id, u.username, COUNT(*) AS data_count, COUNT(td.score) AS scored_count, " +
+            "COALESCE(SUM(td.score), 0) AS total_score, " +
+            "CASE WHEN COUNT(td.score) > 0 THEN SUM(td.score) / COUNT(td.score) ELSE 0 END AS avg_score " +
+            "FROM (" +
+            HOT_BRANCH + "SELECT user_id, score FROM table_data WHERE table_id = #{tableId} " + PERIOD_CONDITIONS + "</if>" +
+            UNION_BRANCH +
+            COLD_BRANCH + "SELECT user_id, score FROM table_data_archive WHERE table_id = #{tableId} " +
+            PERIOD_CONDITIONS + "</if>" +
+            ") td " +
+            "LEFT JOIN user u ON td.user_id = u.id " +
+            "GROUP BY td.user_id, u.username " +
+            "ORDER BY total_score DESC, td.user_id" +
+            "</script>")
+    @ResultMap("com.txq.infrastructure.mapper.TableUserScoreAggMapper.tableUserScoreRow")
+    List<TableUserScoreRow> selectUserScoreByPeriod(@Param("source") String source,
+                                                    @Param("tableId") Integer tableId,
+                                                    @Param("periodFrom") String periodFrom,
+                                                    @Param("periodTo") String periodTo);
+
+    /**
+     * 导出分块条件，按 (created_at, id) 升序取游标之后的数据
+     */
+    String EXPORT_CHUNK_CONDITIONS = "WHERE table_id = #{tableId} " + PERIOD_CONDITIONS +
+            "<if test='cursorCreatedAt != null'>" +
+            "AND (created_at &gt; #{cursorCreatedAt} OR (created_at = #{cursorCreatedAt} AND id &gt; #{cursorId})) " +
+            "</if>";
+
+    /**
+     * 导出分块排序
+     */
+    String EXPORT_CHUNK_ORDER = "ORDER BY created_at, id LIMIT #{limit}";
+
+    /**
+     * 按 (created_at, id) 游标分块查询表格数据（用于导出），可按提交时期范围过滤
+     * 每块是一次独立的短查询，下载期间不占用连接和事务；依赖索引 idx_table_created(table_id, created_at, id)
+     * @param source 读取来源：HOT/COLD/BOTH
+     * @param cursorCreatedAt 上一块最后一条的创建时间，为null时从头读取
+     * @param cursorId 上一块最后一条的ID
+     * @param limit 每块条数
+     */
+    @Select("<script>" +
+            HOT_BRANCH + "(SELECT " + ROW_COLUMNS + " FROM table_data " +
+            EXPORT_CHUNK_CONDITIONS + EXPORT_CHUNK_ORDER + ")</if>" +
+            UNION_BRANCH +
+            COLD_BRANCH + "(SELECT " + ROW_COLUMNS + " FROM " + ARCHIVE_ROWS + " ta " +
+            EXPORT_CHUNK_CONDITIONS + EXPORT_CHUNK_ORDER + ")</if> " +
+            EXPORT_CHUNK_ORDER +
+            "</script>")
+    @ResultMap("tableDataRow")
+    List<TableDataRow> selectExportChunk(@Param("source") String source,
+                                         @Param("tableId") Integer tableId,
+                                         @Param("periodFrom") String periodFrom,
+                                         @Param("periodTo") String periodTo,
+                                         @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                         @Param("cursorId") Long cursorId,
+                                         @Param("limit") int limit);
+
+    /**
+     * 多行INSERT批量写入数据（用于批量导入），ID由调用方预先分配
+     * 调用方需控制单批行数，避免超过 max_allowed_packet
+     */
+    @Insert("<script>" +
+            "INSERT INTO table_data (id, table_id, user_id, submission_period, data_content, score, status, created_by) VALUES " +
+            "<foreach collection='list' item='item' separator=','>" +
+            "(#{item.id}, #{item.tableId}, #{item.userId}, #{item.submissionPeriod}, " +
+            "#{item.dataContent, typeHandler=com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler}, " +
+            "#{item.score}, #{item.status}, #{item.createdBy})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("list") List<TableDataPO> list);
+
+    /**
+     * 按版本号和状态条件更新数据，版本号加1
+     * 为null的字段不更新（含 score，清除分数只通过退回）
+     * @param expectedVersion 更新前的版本号
+     * @param statuses 允许更新的当前状态
+     * @param clearRejectReason 是否清除退回原因
+     * @return 实际更新行数，0表示数据已被修改或状态不允许
+     */
+    @Update("<script>" +
+            "UPDATE table_data SET " +
+            "<if test='po.tableId != null'>table_id = #{po.tableId}, </if>" +
+            "<if test='po.userId != null'>user_id = #{po.userId}, </if>" +
+            "<if test='po.submissionPeriod != null'>submission_period = #{po.submissionPeriod}, </if>" +
+            "<if test='po.dataContent != null'>" +
+            "data_content = #{po.dataContent, typeHandler=com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler}, " +
+            "</if>" +
+            "<if test='po.score != null'>score = #{po.score}, </if>" +
+            "<if test='po.reviewMaterial != null'>review_material = #{po.reviewMaterial}, </if>" +
+            "<if test='clearRejectReason'>reject_reason = NULL, </if>" +
+            "status = #{po.status}, " +
+            "updated_by = #{po.updatedBy}, " +
+            "version = version + 1 " +
+            "WHERE id = #{po.id} AND version = #{expectedVersion} AND status IN " +
+            "<foreach collection='statuses' item='status' open='(' separator=',' close=')'>#{status}</foreach>" +
+            "</script>")
+    int updateIfMatch(@Param("po") TableDataPO po,
+                      @Param("expectedVersion") Integer expectedVersion,
+                      @Param("statuses") Collection<Integer> statuses,
+                      @Param("clearRejectReason") boolean clearRejectReason);
+
+    /**
+     * 按版本号退回数据：状态置为已退回(3)、清除分数、版本号加1
+     * 只退回已提交(1)或已打分(2)的数据
+     * @return 实际更新行数，0表示数据已被修改或状态不允许
+     */
+    @Update("UPDATE table_data SET score = NULL, reject_reason = #{rejectReason}, status = 3, " +
+            "updated_by = #{operatorId}, version = version + 1 " +
+            "WHERE id = #{id} AND version = #{expectedVersion} AND status IN (1, 2)")
+    int rejectIfMatch(@Param("id") Long id,
+                      @Param("expectedVersion") Integer expectedVersion,
+                      @Param("rejectReason") String rejectReason,
+                      @Param("operatorId") String operatorId);
+
+    /**
+     * 批量审核（打分或退回），一条UPDATE按ID分别设置分数、状态和退回原因
+     * 只更新已提交(1)或已打分(2)且版本号与审核时一致的数据，其余行不受影响
+     * @return 实际更新行数
+     */
+    @Update("<script>" +
+            "UPDATE table_data SET " +
+            "score = CASE id " +
+            "<foreach collection='list' item='item'>WHEN #{item.id} THEN #{item.score} </foreach>" +
+            "END, " +
+            "reject_reason = CASE id " +
+            "<foreach collection='list' item='item'>WHEN #{item.id} THEN #{item.rejectReason} </foreach>" +
+            "END, " +
+            "status = CASE id " +
+            "<foreach collection='list' item='item'>WHEN #{item.id} THEN #{item.targetStatus} </foreach>" +
+            "END, " +
+            "updated_by = #{operatorId}, " +
+            "version = version + 1 " +
+            "WHERE status IN (1, 2) AND (id, version) IN " +
+            "<foreach collection='list' item='item' open='(' separator=',' close=')'>(#{item.id}, #{item.version})</foreach>" +
+            "</script>")
+    int updateReviewBatch(@Param("list") List<TableDataReview> list, @Param("operatorId") String operatorId);
+
     /**
-     * 统计全局数据（总数据量、待审核、已打分）
+     * 查询数据的得分镜像 (id, table_id, user_id, score)，用于计算得分汇总增量
+     * @param forUpdate 是否加行锁（变更前读取时加锁，保证镜像与随后的变更一致）
+     */
+    @Select("<script>" +
+            "SELECT id, table_id, user_id, score FROM table_data WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "ORDER BY id" +
+            "<if test='forUpdate'> FOR UPDATE</if>" +
+            "</script>")
+    List<TableDataPO> selectScoreImagesByIds(@Param("ids") List<Long> ids, @Param("forUpdate") boolean forUpdate);
+
+    /**
+     * 按状态统计数据条数（用于校准内存中的状态计数），包含归档数据
      * status: 0=暂存, 1=已提交(待审核), 2=已打分, 3=已退回
      */
-    @Select("SELECT " +
-            "COUNT(*) as totalCount, " +
-            "SUM(CASE WHEN status = 1 THEN 1 ELSE 0 END) as pendingCount, " +
-            "SUM(CASE WHEN status = 2 THEN 1 ELSE 0 END) as scoredCount " +
-            "FROM table_data")
-    Map<String, Object> selectGlobalStatistics();
+    @Select("SELECT CAST(status AS SIGNED) AS status, CAST(SUM(c) AS SIGNED) AS count FROM (" +
+            "SELECT status, COUNT(*) AS c FROM table_data GROUP BY status " +
+            "UNION ALL " +
+            "SELECT status, COUNT(*) AS c FROM table_data_archive GROUP BY status" +
+            ") t GROUP BY status")
+    List<Map<String, Object>> selectStatusCounts();
     
     /**
-     * 统计用户数据按状态分类
+     * 统计用户数据按状态分类，包含归档数据
      * status: 0=暂存, 1=已提交(待审核), 2=已打分, 3=已退回
      */
     @Select("SELECT " +
             "SUM(CASE WHEN status = 1 THEN 1 ELSE 0 END) as pendingCount, " +
             "SUM(CASE WHEN status = 2 THEN 1 ELSE 0 END) as scoredCount, " +
             "SUM(CASE WHEN status = 3 THEN 1 ELSE 0 END) as rejectedCount " +
-            "FROM table_data " +
-            "WHERE user_id = #{userId}")
+            "FROM (" +
+            "SELECT status FROM table_data WHERE user_id = #{userId} " +
+            "UNION ALL " +
+            "SELECT status FROM table_data_archive WHERE user_id = #{userId}" +
+            ") t")
     Map<String, Object> selectUserStatisticsByStatus(@Param("userId") String userId);
 }
-
@@ -0,0 +1,34 @@
+package com.txq.infrastructure.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+/**
+ * 表格数据分区Mapper
+ * 分区名和边界由服务端按年份生成，DDL 中以 ${} 拼接
+ */
+@Mapper
+public interface TableDataPartitionMapper {
+
+    /**
+     * 获取 table_data 的分区名，未分区时返回空列表
+     */
+    @Select("SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'table_data' AND PARTITION_NAME IS NOT NULL " +
+            "ORDER BY PARTITION_ORDINAL_POSITION")
+    List<String> selectPartitionNames();
+
+    /**
+     * 将 pmax 拆分为新年份分区和 pmax
+     * @param partitionName 分区名，如 p2028
+     * @param upperBound 分区上界，如 2029-01
+     */
+    @Update("ALTER TABLE table_data REORGANIZE PARTITION pmax INTO (" +
+            "PARTITION ${partitionName} VALUES LESS THAN ('${upperBound}'), " +
+            "PARTITION pmax VALUES LESS THAN (MAXVALUE))")
+    void splitMaxPartition(@Param("partitionName") String partitionName, @Param("upperBound") String upperBound);
+}
@@ -0,0 +1,81 @@
+package com.txq.infrastructure.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.txq.domain.model.TableDeleteJob;
+import com.txq.infrastructure.po.TableDeleteJobPO;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 表格删除任务Mapper
+ */
+@Mapper
+public interface TableDeleteJobMapper extends BaseMapper<TableDeleteJobPO> {
+
+    String JOB_COLUMNS = "id, table_id, status, total_rows, deleted_rows, deleted_attachments, failed_attachments, " +
+            "attempts, last_error, created_by, created_at, finished_at";
+
+    @Select("SELECT " + JOB_COLUMNS + " FROM table_delete_job WHERE id = #{id}")
+    @ConstructorArgs({
+            @Arg(column = "id", javaType = Long.class, id = true),
+            @Arg(column = "table_id", javaType = Integer.class),
+            @Arg(column = "status", javaType = Integer.class),
+            @Arg(column = "total_rows", javaType = Long.class),
+            @Arg(column = "deleted_rows", javaType = Long.class),
+            @Arg(column = "deleted_attachments", javaType = Long.class),
+            @Arg(column = "failed_attachments", javaType = Long.class),
+            @Arg(column = "attempts", javaType = Integer.class),
+            @Arg(column = "last_error", javaType = String.class),
+            @Arg(column = "created_by", javaType = String.class),
+            @Arg(column = "created_at", javaType = LocalDateTime.class),
+            @Arg(column = "finished_at", javaType = LocalDateTime.class)
+    })
+    @Results(id = "tableDeleteJob")
+    TableDeleteJob selectJobById(@Param("id") Long id);
+
+    /**
+     * 锁定一个待执行或租约已过期的任务，跳过其他实例正在领取的任务
+     */
+    @Select("SELECT " + JOB_COLUMNS + " FROM table_delete_job " +
+            "WHERE status = 0 OR (status = 1 AND lease_until < NOW()) " +
+            "ORDER BY id LIMIT 1 " +
+            "FOR UPDATE SKIP LOCKED")
+    @ResultMap("tableDeleteJob")
+    TableDeleteJob selectNextForUpdate();
+
+    /**
+     * 领取任务：置为执行中，执行次数加1并设置租约
+     */
+    @Update("UPDATE table_delete_job SET status = 1, attempts = attempts + 1, " +
+            "lease_until = DATE_ADD(NOW(), INTERVAL #{leaseSeconds} SECOND) WHERE id = #{id}")
+    int lease(@Param("id") Long id, @Param("leaseSeconds") int leaseSeconds);
+
+    @Update("UPDATE table_delete_job SET total_rows = #{totalRows} WHERE id = #{id}")
+    int updateTotalRows(@Param("id") Long id, @Param("totalRows") long totalRows);
+
+    /**
+     * 累加进度并续租
+     */
+    @Update("UPDATE table_delete_job SET deleted_rows = deleted_rows + #{deletedRows}, " +
+            "deleted_attachments = deleted_attachments + #{deletedAttachments}, " +
+            "failed_attachments = failed_attachments + #{failedAttachments}, " +
+            "lease_until = DATE_ADD(NOW(), INTERVAL #{leaseSeconds} SECOND) WHERE id = #{id}")
+    int addProgress(@Param("id") Long id,
+                    @Param("deletedRows") long deletedRows,
+                    @Param("deletedAttachments") long deletedAttachments,
+                    @Param("failedAttachments") long failedAttachments,
+                    @Param("leaseSeconds") int leaseSeconds);
+
+    @Update("UPDATE table_delete_job SET status = 2, lease_until = NULL, finished_at = NOW() WHERE id = #{id}")
+    int markDone(@Param("id") Long id);
+
+    /**
+     * 记录失败原因，达到最大执行次数时标记为失败，否则保持执行中，租约到期后重新领取
+     */
+    @Update("UPDATE table_delete_job SET last_error = #{error}, " +
+            "status = CASE WHEN attempts >= #{maxAttempts} THEN 3 ELSE status END, " +
+            "finished_at = CASE WHEN attempts >= #{maxAttempts} THEN NOW() ELSE finished_at END " +
+            "WHERE id = #{id}")
+    int markError(@Param("id") Long id, @Param("error") String error, @Param("maxAttempts") int maxAttempts);
+}
@@ -0,0 +1,98 @@
+package com.txq.infrastructure.mapper;
+
+import com.txq.domain.model.TableFieldFilterHit;
+import com.txq.domain.model.TableFieldIndex;
+import org.apache.ibatis.annotations.*;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 字段索引列Mapper
+ * 列名由服务端按字段名哈希生成（fx_ + 16位十六进制），DDL 中以 ${} 拼接
+ */
+@Mapper
+public interface TableFieldIndexMapper {
+
+    @Select("SELECT field_name, column_name, state FROM table_field_index ORDER BY created_at")
+    @ConstructorArgs({
+            @Arg(column = "field_name", javaType = String.class),
+            @Arg(column = "column_name", javaType = String.class),
+            @Arg(column = "state", javaType = int.class)
+    })
+    @Results(id = "tableFieldIndex")
+    List<TableFieldIndex> selectAll();
+
+    @Select("<script>" +
+            "SELECT field_name, column_name, state FROM table_field_index " +
+            "WHERE state = 1 AND field_name IN " +
+            "<foreach collection='fieldNames' item='fieldName' open='(' separator=',' close=')'>#{fieldName}</foreach>" +
+            "</script>")
+    @ResultMap("tableFieldIndex")
+    List<TableFieldIndex> selectReadyByFieldNames(@Param("fieldNames") Collection<String> fieldNames);
+
+    /**
+     * 查询标记删除超过宽限期的索引列
+     */
+    @Select("SELECT field_name, column_name, state FROM table_field_index " +
+            "WHERE state = 2 AND updated_at < DATE_SUB(NOW(), INTERVAL #{graceSeconds} SECOND)")
+    @ResultMap("tableFieldIndex")
+    List<TableFieldIndex> selectDropExpired(@Param("graceSeconds") int graceSeconds);
+
+    /**
+     * 登记为创建中，已登记时忽略
+     */
+    @Insert("INSERT IGNORE INTO table_field_index (column_name, field_name, state) VALUES (#{columnName}, #{fieldName}, 0)")
+    int insertBuilding(TableFieldIndex index);
+
+    @Update("UPDATE table_field_index SET state = #{state} WHERE column_name = #{columnName}")
+    int updateState(@Param("columnName") String columnName, @Param("state") int state);
+
+    @Delete("DELETE FROM table_field_index WHERE column_name = #{columnName}")
+    int deleteByColumnName(@Param("columnName") String columnName);
+
+    /**
+     * 判断 table_data 上是否存在指定列
+     */
+    @Select("SELECT COUNT(*) FROM information_schema.COLUMNS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'table_data' AND COLUMN_NAME = #{columnName}")
+    int countColumn(@Param("columnName") String columnName);
+
+    /**
+     * 添加虚拟生成列及索引
+     * 列值截取前191个字符，与 JSON_UNQUOTE 结果使用相同的二进制排序规则
+     * @param pathLiteral 已转义的 JSON 路径字符串字面量，如 '$."姓名"'
+     */
+    @Update("ALTER TABLE table_data " +
+            "ADD COLUMN ${columnName} VARCHAR(191) COLLATE utf8mb4_bin " +
+            "GENERATED ALWAYS AS (LEFT(JSON_UNQUOTE(JSON_EXTRACT(data_content, ${pathLiteral})), 191)) VIRTUAL, " +
+            "ADD INDEX idx_${columnName} (table_id, ${columnName})")
+    void addGeneratedColumn(@Param("columnName") String columnName, @Param("pathLiteral") String pathLiteral);
+
+    /**
+     * 删除虚拟生成列及索引
+     */
+    @Update("ALTER TABLE table_data DROP INDEX idx_${columnName}, DROP COLUMN ${columnName}")
+    void dropGeneratedColumn(@Param("columnName") String columnName);
+
+    /**
+     * 累加筛选次数
+     */
+    @Insert("<script>" +
+            "INSERT INTO table_field_filter_hit (table_id, field_name, hits) VALUES " +
+            "<foreach collection='hits' item='h' separator=','>(#{h.tableId}, #{h.fieldName}, #{h.hits})</foreach> " +
+            "ON DUPLICATE KEY UPDATE hits = hits + VALUES(hits)" +
+            "</script>")
+    int upsertFilterHits(@Param("hits") List<TableFieldFilterHit> hits);
+
+    @Select("SELECT table_id, field_name, hits FROM table_field_filter_hit WHERE hits > 0")
+    @ConstructorArgs({
+            @Arg(column = "table_id", javaType = Integer.class),
+            @Arg(column = "field_name", javaType = String.class),
+            @Arg(column = "hits", javaType = long.class)
+    })
+    List<TableFieldFilterHit> selectFilterHits();
+
+    @Delete("DELETE FROM table_field_filter_hit WHERE hits <= 0")
+    int deleteExhaustedFilterHits();
+}
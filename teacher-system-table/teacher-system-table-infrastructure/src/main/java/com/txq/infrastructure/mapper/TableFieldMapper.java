@@ -1,8 +1,11 @@
 package com.txq.infrastructure.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.txq.domain.model.TableField;
 import com.txq.infrastructure.po.TableFieldPO;
-import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
 
 /**
  * 表格字段Mapper
@@ -10,5 +13,48 @@ import org.apache.ibatis.annotations.Mapper;
 @Mapper
 public interface TableFieldMapper extends BaseMapper<TableFieldPO> {
 
-}
+    /**
+     * 获取所有表格中定义的字段名称（去重）
+     */
+    @Select("SELECT DISTINCT field_name FROM table_field")
+    List<String> selectDistinctFieldNames();
+
+    /**
+     * 批量新增字段，一条多行INSERT
+     */
+    @Insert("<script>" +
+            "INSERT INTO table_field (table_id, root, field_name, sort_order) VALUES " +
+            "<foreach collection='fields' item='f' separator=','>" +
+            "(#{tableId}, #{f.root}, #{f.fieldName}, #{f.sortOrder})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("tableId") Integer tableId, @Param("fields") List<TableField> fields);
 
+    /**
+     * 批量修改字段名称、管理员标记和排序序号，一条UPDATE按ID分别设置
+     */
+    @Update("<script>" +
+            "UPDATE table_field SET " +
+            "field_name = CASE id " +
+            "<foreach collection='fields' item='f'>WHEN #{f.id} THEN #{f.fieldName} </foreach>" +
+            "END, " +
+            "root = CASE id " +
+            "<foreach collection='fields' item='f'>WHEN #{f.id} THEN #{f.root} </foreach>" +
+            "END, " +
+            "sort_order = CASE id " +
+            "<foreach collection='fields' item='f'>WHEN #{f.id} THEN #{f.sortOrder} </foreach>" +
+            "END " +
+            "WHERE table_id = #{tableId} AND id IN " +
+            "<foreach collection='fields' item='f' open='(' separator=',' close=')'>#{f.id}</foreach>" +
+            "</script>")
+    int updateBatch(@Param("tableId") Integer tableId, @Param("fields") List<TableField> fields);
+
+    /**
+     * 按ID批量删除字段
+     */
+    @Delete("<script>" +
+            "DELETE FROM table_field WHERE table_id = #{tableId} AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int deleteByIds(@Param("tableId") Integer tableId, @Param("ids") List<Integer> ids);
+}
@@ -0,0 +1,106 @@
+package com.txq.infrastructure.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler;
+import com.txq.domain.model.TableFieldMigrationJob;
+import com.txq.infrastructure.po.TableFieldMigrationJobPO;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 字段迁移任务Mapper
+ */
+@Mapper
+public interface TableFieldMigrationJobMapper extends BaseMapper<TableFieldMigrationJobPO> {
+
+    String JOB_COLUMNS = "id, table_id, renames, removed_fields, status, hot_last_id, archive_last_id, hot_done, " +
+            "total_rows, scanned_rows, rewritten_rows, attempts, last_error, created_by, created_at, finished_at";
+
+    @Select("SELECT " + JOB_COLUMNS + " FROM table_field_migration_job WHERE id = #{id}")
+    @ConstructorArgs({
+            @Arg(column = "id", javaType = Long.class, id = true),
+            @Arg(column = "table_id", javaType = Integer.class),
+            @Arg(column = "renames", javaType = Map.class, typeHandler = JacksonTypeHandler.class),
+            @Arg(column = "removed_fields", javaType = List.class, typeHandler = JacksonTypeHandler.class),
+            @Arg(column = "status", javaType = Integer.class),
+            @Arg(column = "hot_last_id", javaType = Long.class),
+            @Arg(column = "archive_last_id", javaType = Long.class),
+            @Arg(column = "hot_done", javaType = Boolean.class),
+            @Arg(column = "total_rows", javaType = Long.class),
+            @Arg(column = "scanned_rows", javaType = Long.class),
+            @Arg(column = "rewritten_rows", javaType = Long.class),
+            @Arg(column = "attempts", javaType = Integer.class),
+            @Arg(column = "last_error", javaType = String.class),
+            @Arg(column = "created_by", javaType = String.class),
+            @Arg(column = "created_at", javaType = LocalDateTime.class),
+            @Arg(column = "finished_at", javaType = LocalDateTime.class)
+    })
+    @Results(id = "tableFieldMigrationJob")
+    TableFieldMigrationJob selectJobById(@Param("id") Long id);
+
+    @Select("SELECT " + JOB_COLUMNS + " FROM table_field_migration_job " +
+            "WHERE table_id = #{tableId} ORDER BY id DESC LIMIT 1")
+    @ResultMap("tableFieldMigrationJob")
+    TableFieldMigrationJob selectLatestByTableId(@Param("tableId") Integer tableId);
+
+    /**
+     * 锁定一个待执行或租约已过期的任务，跳过其他实例正在领取的任务；
+     * 同一表格有更早的未结束任务时不领取，保证连续改名按顺序应用
+     */
+    @Select("SELECT " + JOB_COLUMNS + " FROM table_field_migration_job j " +
+            "WHERE (j.status = 0 OR (j.status = 1 AND j.lease_until < NOW())) " +
+            "AND NOT EXISTS (SELECT 1 FROM table_field_migration_job p " +
+            "WHERE p.table_id = j.table_id AND p.id < j.id AND p.status IN (0, 1)) " +
+            "ORDER BY j.id LIMIT 1 " +
+            "FOR UPDATE SKIP LOCKED")
+    @ResultMap("tableFieldMigrationJob")
+    TableFieldMigrationJob selectNextForUpdate();
+
+    /**
+     * 领取任务：置为执行中，执行次数加1并设置租约
+     */
+    @Update("UPDATE table_field_migration_job SET status = 1, attempts = attempts + 1, " +
+            "lease_until = DATE_ADD(NOW(), INTERVAL #{leaseSeconds} SECOND) WHERE id = #{id}")
+    int lease(@Param("id") Long id, @Param("leaseSeconds") int leaseSeconds);
+
+    @Update("UPDATE table_field_migration_job SET total_rows = #{totalRows} WHERE id = #{id}")
+    int updateTotalRows(@Param("id") Long id, @Param("totalRows") long totalRows);
+
+    /**
+     * 推进检查点、累加进度并续租
+     */
+    @Update("<script>" +
+            "UPDATE table_field_migration_job SET " +
+            "<choose>" +
+            "<when test='archived'>archive_last_id = #{lastId}, </when>" +
+            "<otherwise>hot_last_id = #{lastId}, </otherwise>" +
+            "</choose>" +
+            "scanned_rows = scanned_rows + #{scannedRows}, " +
+            "rewritten_rows = rewritten_rows + #{rewrittenRows}, " +
+            "lease_until = DATE_ADD(NOW(), INTERVAL #{leaseSeconds} SECOND) WHERE id = #{id}" +
+            "</script>")
+    int addProgress(@Param("id") Long id,
+                    @Param("archived") boolean archived,
+                    @Param("lastId") long lastId,
+                    @Param("scannedRows") long scannedRows,
+                    @Param("rewrittenRows") long rewrittenRows,
+                    @Param("leaseSeconds") int leaseSeconds);
+
+    @Update("UPDATE table_field_migration_job SET hot_done = 1 WHERE id = #{id}")
+    int markHotDone(@Param("id") Long id);
+
+    @Update("UPDATE table_field_migration_job SET status = 2, lease_until = NULL, finished_at = NOW() WHERE id = #{id}")
+    int markDone(@Param("id") Long id);
+
+    /**
+     * 记录失败原因，达到最大执行次数时标记为失败，否则保持执行中，租约到期后重新领取
+     */
+    @Update("UPDATE table_field_migration_job SET last_error = #{error}, " +
+            "status = CASE WHEN attempts >= #{maxAttempts} THEN 3 ELSE status END, " +
+            "finished_at = CASE WHEN attempts >= #{maxAttempts} THEN NOW() ELSE finished_at END " +
+            "WHERE id = #{id}")
+    int markError(@Param("id") Long id, @Param("error") String error, @Param("maxAttempts") int maxAttempts);
+}
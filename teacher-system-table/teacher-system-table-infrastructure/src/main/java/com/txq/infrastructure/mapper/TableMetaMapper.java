@@ -1,14 +1,68 @@
 package com.txq.infrastructure.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.txq.domain.model.TableSummaryRow;
 import com.txq.infrastructure.po.TableMetaPO;
-import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 表格元信息Mapper
+ * deleted 为逻辑删除字段，BaseMapper 的查询自动排除已删除的表格，deleteById 只做标记
  */
 @Mapper
 public interface TableMetaMapper extends BaseMapper<TableMetaPO> {
 
+    /**
+     * 查询未删除的表格及其字段数量，一次聚合查询完成
+     */
+    @Select("SELECT m.id, m.table_full_name, m.table_alias_name, COUNT(f.id) AS field_count, m.created_at " +
+            "FROM table_meta m " +
+            "LEFT JOIN table_field f ON f.table_id = m.id " +
+            "WHERE m.deleted = 0 " +
+            "GROUP BY m.id, m.table_full_name, m.table_alias_name, m.created_at " +
+            "ORDER BY m.id")
+    @ConstructorArgs({
+            @Arg(column = "id", javaType = Integer.class, id = true),
+            @Arg(column = "table_full_name", javaType = String.class),
+            @Arg(column = "table_alias_name", javaType = String.class),
+            @Arg(column = "field_count", javaType = Integer.class),
+            @Arg(column = "created_at", javaType = LocalDateTime.class)
+    })
+    List<TableSummaryRow> selectSummaries();
+
+    /**
+     * 按结构版本号条件更新表格名称，版本号加1
+     * @param expectedVersion 读取结构时的版本号
+     * @return 实际更新行数，0表示表格已删除或已被他人修改
+     */
+    @Update("UPDATE table_meta SET table_full_name = #{tableFullName}, table_alias_name = #{tableAliasName}, " +
+            "schema_version = schema_version + 1 " +
+            "WHERE id = #{id} AND schema_version = #{expectedVersion} AND deleted = 0")
+    int updateIfVersionMatch(@Param("id") Integer id,
+                             @Param("tableFullName") String tableFullName,
+                             @Param("tableAliasName") String tableAliasName,
+                             @Param("expectedVersion") int expectedVersion);
+
+    /**
+     * 统计指定ID的表格元信息，包含已标记删除的表格
+     */
+    @Select("SELECT COUNT(*) FROM table_meta WHERE id = #{id}")
+    long countByIdIncludingDeleted(@Param("id") Integer id);
+
+    /**
+     * 以共享锁读取未删除的表格，写入数据的事务持有该锁直到提交，
+     * 标记删除需等待这些事务提交，标记后新的写入读不到表格
+     */
+    @Select("SELECT COUNT(*) FROM table_meta WHERE id = #{id} AND deleted = 0 FOR SHARE")
+    long lockActiveById(@Param("id") Integer id);
+
+    /**
+     * 物理删除表格元信息（删除任务完成后调用）
+     */
+    @Delete("DELETE FROM table_meta WHERE id = #{id}")
+    int purgeById(@Param("id") Integer id);
 }
 
@@ -0,0 +1,79 @@
+package com.txq.infrastructure.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.txq.domain.model.TableUserScoreRow;
+import com.txq.infrastructure.po.TableUserScoreAggPO;
+import org.apache.ibatis.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 表格用户得分汇总Mapper
+ */
+@Mapper
+public interface TableUserScoreAggMapper extends BaseMapper<TableUserScoreAggPO> {
+
+    /**
+     * 按增量累加汇总行，键不存在时以增量为初始值插入
+     * 调用方按 (table_id, user_id) 排序传入，多个事务按相同顺序加锁，避免死锁
+     * 条数减为0的汇总行保留（不做DELETE，避免间隙锁），查询时过滤
+     */
+    @Insert("<script>" +
+            "INSERT INTO table_user_score_agg (table_id, user_id, data_count, scored_count, total_score) VALUES " +
+            "<foreach collection='deltas' item='d' separator=','>" +
+            "(#{d.tableId}, #{d.userId}, #{d.dataCount}, #{d.scoredCount}, #{d.totalScore})" +
+            "</foreach> " +
+            "ON DUPLICATE KEY UPDATE data_count = data_count + VALUES(data_count), " +
+            "scored_count = scored_count + VALUES(scored_count), " +
+            "total_score = total_score + VALUES(total_score)" +
+            "</script>")
+    int upsertDeltas(@Param("deltas") List<TableUserScoreAggPO> deltas);
+
+    /**
+     * 删除汇总行，tableId为null时删除全部
+     */
+    @Delete("<script>" +
+            "DELETE FROM table_user_score_agg " +
+            "<if test='tableId != null'>WHERE table_id = #{tableId}</if>" +
+            "</script>")
+    int deleteByTableId(@Param("tableId") Integer tableId);
+
+    /**
+     * 从 table_data 和归档表全量汇总，tableId为null时汇总全部表格
+     */
+    @Insert("<script>" +
+            "INSERT INTO table_user_score_agg (table_id, user_id, data_count, scored_count, total_score) " +
+            "SELECT table_id, user_id, COUNT(*), COUNT(score), COALESCE(SUM(score), 0) " +
+            "FROM (" +
+            "SELECT table_id, user_id, score FROM table_data " +
+            "<if test='tableId != null'>WHERE table_id = #{tableId} </if>" +
+            "UNION ALL " +
+            "SELECT table_id, user_id, score FROM table_data_archive " +
+            "<if test='tableId != null'>WHERE table_id = #{tableId} </if>" +
+            ") t " +
+            "GROUP BY table_id, user_id" +
+            "</script>")
+    int insertFromDataByTableId(@Param("tableId") Integer tableId);
+
+    /**
+     * 查询表格的用户得分汇总（关联用户名），按总分降序
+     * 平均分 = 总分 / 已打分条数
+     */
+    @Select("SELECT a.user_id, u.username, a.data_count, a.scored_count, a.total_score, " +
+            "CASE WHEN a.scored_count > 0 THEN a.total_score / a.scored_count ELSE 0 END AS avg_score " +
+            "FROM table_user_score_agg a " +
+            "LEFT JOIN user u ON a.user_id = u.id " +
+            "WHERE a.table_id = #{tableId} AND a.data_count > 0 " +
+            "ORDER BY a.total_score DESC, a.user_id")
+    @ConstructorArgs({
+            @Arg(column = "user_id", javaType = String.class),
+            @Arg(column = "username", javaType = String.class),
+            @Arg(column = "data_count", javaType = Integer.class),
+            @Arg(column = "scored_count", javaType = Integer.class),
+            @Arg(column = "total_score", javaType = BigDecimal.class),
+            @Arg(column = "avg_score", javaType = BigDecimal.class)
+    })
+    @Results(id = "tableUserScoreRow")
+    List<TableUserScoreRow> selectByTableIdWithUser(@Param("tableId") Integer tableId);
+}
@@ -16,8 +16,8 @@ import java.util.Map;
 @Accessors(chain = true)
 @TableName(value = "table_data", autoResultMap = true)
 public class TableDataPO {
-    // 数据ID
-    @TableId(type = IdType.AUTO)
+    // 数据ID（写入前由号段分配）
+    @TableId(type = IdType.ASSIGN_ID)
     private Long id;
 
     // 表格ID
@@ -47,6 +47,9 @@ public class TableDataPO {
     // 数据状态：0=暂存（未提交），1=已提交，2=已打分（审核通过），3=已退回
     private Integer status;
 
+    // 版本号（乐观锁，每次更新加1）
+    private Integer version;
+
     // 创建人工号
     private String createdBy;
 
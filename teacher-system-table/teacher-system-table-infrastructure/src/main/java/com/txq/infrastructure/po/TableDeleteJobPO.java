@@ -0,0 +1,25 @@
+package com.txq.infrastructure.po;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * 表格删除任务PO（只用于写入，其余字段取数据库默认值）
+ */
+@Data
+@Accessors(chain = true)
+@TableName("table_delete_job")
+public class TableDeleteJobPO {
+    // 任务ID
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    // 表格ID
+    private Integer tableId;
+
+    // 操作人
+    private String createdBy;
+}
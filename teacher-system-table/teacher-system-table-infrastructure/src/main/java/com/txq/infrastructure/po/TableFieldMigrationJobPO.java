@@ -0,0 +1,38 @@
+package com.txq.infrastructure.po;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 字段迁移任务PO（只用于写入，其余字段取数据库默认值）
+ */
+@Data
+@Accessors(chain = true)
+@TableName(value = "table_field_migration_job", autoResultMap = true)
+public class TableFieldMigrationJobPO {
+    // 任务ID
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    // 表格ID
+    private Integer tableId;
+
+    // 字段改名：原名称 -> 新名称
+    @TableField(typeHandler = JacksonTypeHandler.class)
+    private Map<String, String> renames;
+
+    // 删除的字段名称
+    @TableField(typeHandler = JacksonTypeHandler.class)
+    private List<String> removedFields;
+
+    // 操作人
+    private String createdBy;
+}
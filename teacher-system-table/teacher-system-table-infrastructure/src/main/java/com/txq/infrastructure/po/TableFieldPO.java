@@ -25,5 +25,8 @@ public class TableFieldPO {
 
     // 字段名称
     private String fieldName;
+
+    // 排序序号
+    private Integer sortOrder;
 }
 
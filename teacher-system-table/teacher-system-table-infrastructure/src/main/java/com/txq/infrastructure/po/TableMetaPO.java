@@ -2,6 +2,7 @@ package com.txq.infrastructure.po;
 
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableLogic;
 import com.baomidou.mybatisplus.annotation.TableName;
 import lombok.Data;
 import lombok.experimental.Accessors;
@@ -25,8 +26,15 @@ public class TableMetaPO {
     // 表格别称
     private String tableAliasName;
 
+    // 结构版本号（修改表格时由数据库递增）
+    private Integer schemaVersion;
+
     // 创建时间（映射到数据库的 created_at 字段）
     @TableField("created_at")
     private LocalDateTime createTime;
+
+    // 是否已删除（删除任务执行期间为1）
+    @TableLogic
+    private Integer deleted;
 }
 
@@ -0,0 +1,35 @@
+package com.txq.infrastructure.po;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 表格用户得分汇总PO
+ * 主键为 (table_id, user_id)
+ */
+@Data
+@Accessors(chain = true)
+@TableName("table_user_score_agg")
+public class TableUserScoreAggPO {
+    // 表格ID
+    private Integer tableId;
+
+    // 用户工号
+    private String userId;
+
+    // 数据条数
+    private Integer dataCount;
+
+    // 已打分条数
+    private Integer scoredCount;
+
+    // 总分
+    private BigDecimal totalScore;
+
+    // 更新时间
+    private LocalDateTime updatedAt;
+}
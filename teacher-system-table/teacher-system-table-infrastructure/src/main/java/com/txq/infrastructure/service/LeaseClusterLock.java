@@ -0,0 +1,57 @@
+package com.txq.infrastructure.service;
+
+import com.txq.domain.infra.ClusterLock;
+import com.txq.infrastructure.mapper.ClusterLockMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+
+/**
+ * 基于 cluster_lock 表租约的集群锁
+ * 获取锁是一条带条件的 UPDATE，不持有数据库连接或事务；实例标识为主机名加启动时生成的随机串
+ */
+@Slf4j
+@Component
+public class LeaseClusterLock implements ClusterLock {
+
+    private final ClusterLockMapper clusterLockMapper;
+
+    private final String owner;
+
+    public LeaseClusterLock(ClusterLockMapper clusterLockMapper) {
+        this.clusterLockMapper = clusterLockMapper;
+        this.owner = hostName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Override
+    public boolean tryLock(String name, int leaseSeconds) {
+        try {
+            clusterLockMapper.insertIfAbsent(name);
+            return clusterLockMapper.acquire(name, owner, Math.max(leaseSeconds, 1)) > 0;
+        } catch (Exception e) {
+            log.error("获取集群锁失败: {}", name, e);
+            return false;
+        }
+    }
+
+    @Override
+    public void unlock(String name) {
+        try {
+            clusterLockMapper.release(name, owner);
+        } catch (Exception e) {
+            // 释放失败时等待租约到期
+            log.warn("释放集群锁失败: {}", name, e);
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.txq.infrastructure.service;
+
+import com.txq.domain.infra.IdGenerator;
+import com.txq.domain.infra.repository.IdSegmentRepository;
+import com.txq.domain.model.IdSegment;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 号段ID生成器
+ * 每个业务标识在内存中持有一个号段依次分配，剩余不足五分之一时异步预取下一段，
+ * 当前段用完时切换到预取的号段，分配过程不访问数据库。实例重启后未用完的号段直接丢弃
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SegmentIdGenerator implements IdGenerator {
+
+    /**
+     * 剩余ID低于号段长度的该比例时预取下一段
+     */
+    private static final double PREFETCH_RATIO = 0.2;
+
+    private final IdSegmentRepository idSegmentRepository;
+
+    private final ConcurrentHashMap<String, SegmentBuffer> buffers = new ConcurrentHashMap<>();
+
+    private final ExecutorService prefetchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "id-segment-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void destroy() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    @Override
+    public long nextId(String bizTag) {
+        return buffers.computeIfAbsent(bizTag, SegmentBuffer::new).next();
+    }
+
+    /**
+     * 单个业务标识的号段缓冲：当前号段 + 预取中的下一段
+     */
+    private class SegmentBuffer {
+
+        private final String bizTag;
+
+        private long cursor = 1;
+
+        private long end = 0;
+
+        private long prefetchThreshold = 0;
+
+        private CompletableFuture<IdSegment> prefetched;
+
+        SegmentBuffer(String bizTag) {
+            this.bizTag = bizTag;
+        }
+
+        synchronized long next() {
+            if (cursor > end) {
+                switchTo(takeNextSegment());
+            }
+            long id = cursor++;
+            if (prefetched == null && end - cursor < prefetchThreshold) {
+                prefetched = CompletableFuture.supplyAsync(() -> idSegmentRepository.allocate(bizTag), prefetchExecutor);
+            }
+            return id;
+        }
+
+        private IdSegment takeNextSegment() {
+            CompletableFuture<IdSegment> future = prefetched;
+            prefetched = null;
+            if (future != null) {
+                try {
+                    return future.join();
+                } catch (Exception e) {
+                    log.warn("预取号段失败，同步重新租用，bizTag: {}", bizTag, e);
+                }
+            }
+            return idSegmentRepository.allocate(bizTag);
+        }
+
+        private void switchTo(IdSegment segment) {
+            cursor = segment.start();
+            end = segment.end();
+            prefetchThreshold = (long) (segment.size() * PREFETCH_RATIO);
+        }
+    }
+}
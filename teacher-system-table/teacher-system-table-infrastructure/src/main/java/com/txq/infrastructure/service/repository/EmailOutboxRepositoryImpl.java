@@ -0,0 +1,89 @@
+package com.txq.infrastructure.service.repository;
+
+import com.txq.domain.infra.repository.EmailOutboxRepository;
+import com.txq.domain.model.EmailOutboxMessage;
+import com.txq.infrastructure.mapper.EmailOutboxMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 邮件发件箱持久化实现
+ */
+@Repository
+@RequiredArgsConstructor
+public class EmailOutboxRepositoryImpl implements EmailOutboxRepository {
+
+    /**
+     * 失败原因最大长度（与 last_error 列一致）
+     */
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final EmailOutboxMapper emailOutboxMapper;
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void enqueue(List<EmailOutboxMessage> messages, int delaySeconds) {
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
+        emailOutboxMapper.insertBatch(messages, Math.max(delaySeconds, 0));
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public List<EmailOutboxMessage> claimDue(int limit, int leaseSeconds, int windowSeconds) {
+        List<EmailOutboxMessage> messages = emailOutboxMapper.selectDueForUpdate(limit);
+        if (messages.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // 汇总邮件：同一汇总键下在汇总窗口内到期、且未被领取的邮件一并领取，合并为一封发送
+        Set<String> digestKeys = messages.stream()
+                .map(EmailOutboxMessage::digestKey)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (!digestKeys.isEmpty()) {
+            Set<Long> claimedIds = messages.stream().map(EmailOutboxMessage::id).collect(Collectors.toSet());
+            messages = new ArrayList<>(messages);
+            for (EmailOutboxMessage sibling : emailOutboxMapper.selectPendingByDigestKeysForUpdate(digestKeys, Math.max(windowSeconds, 0))) {
+                if (claimedIds.add(sibling.id())) {
+                    messages.add(sibling);
+                }
+            }
+        }
+        emailOutboxMapper.leaseByIds(messages.stream().map(EmailOutboxMessage::id).collect(Collectors.toList()),
+                leaseSeconds);
+        return messages;
+    }
+
+    @Override
+    public void markSent(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        emailOutboxMapper.markSent(ids);
+    }
+
+    @Override
+    public void markRetry(Long id, int delaySeconds, String error) {
+        emailOutboxMapper.markRetry(id, delaySeconds, truncate(error));
+    }
+
+    @Override
+    public void markFailed(Long id, String error) {
+        emailOutboxMapper.markFailed(id, truncate(error));
+    }
+
+    private String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
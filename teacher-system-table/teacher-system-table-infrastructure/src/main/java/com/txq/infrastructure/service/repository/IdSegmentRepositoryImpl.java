@@ -0,0 +1,28 @@
+package com.txq.infrastructure.service.repository;
+
+import com.txq.domain.infra.repository.IdSegmentRepository;
+import com.txq.domain.model.IdSegment;
+import com.txq.infrastructure.mapper.IdSegmentMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 号段持久化实现
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdSegmentRepositoryImpl implements IdSegmentRepository {
+
+    private final IdSegmentMapper idSegmentMapper;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public IdSegment allocate(String bizTag) {
+        if (idSegmentMapper.advance(bizTag) == 0) {
+            throw new IllegalStateException("号段未配置: " + bizTag);
+        }
+        return idSegmentMapper.selectCurrent(bizTag);
+    }
+}
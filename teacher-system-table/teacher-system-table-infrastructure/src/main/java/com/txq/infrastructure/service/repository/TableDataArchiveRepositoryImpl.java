@@ -0,0 +1,75 @@
+package com.txq.infrastructure.service.repository;
+
+import com.txq.domain.infra.repository.TableDataArchiveRepository;
+import com.txq.domain.model.ArchiveWatermark;
+import com.txq.infrastructure.mapper.TableDataArchiveMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * 表格数据归档持久化实现
+ */
+@Repository
+@RequiredArgsConstructor
+public class TableDataArchiveRepositoryImpl implements TableDataArchiveRepository {
+
+    private final TableDataArchiveMapper tableDataArchiveMapper;
+
+    /**
+     * 缓存的水位及过期时间，每次保存和读取路由都会用到，不必每次查询
+     */
+    private volatile ArchiveWatermark cachedWatermark;
+    private volatile long cacheExpiresAt;
+
+    @Override
+    public ArchiveWatermark findWatermark() {
+        ArchiveWatermark watermark = cachedWatermark;
+        long now = System.currentTimeMillis();
+        if (watermark == null || now >= cacheExpiresAt) {
+            watermark = tableDataArchiveMapper.selectWatermark();
+            if (watermark == null) {
+                watermark = ArchiveWatermark.NONE;
+            }
+            cachedWatermark = watermark;
+            cacheExpiresAt = now + ArchiveWatermark.CACHE_TTL_MS;
+        }
+        return watermark;
+    }
+
+    @Override
+    public void startArchiving(String before) {
+        tableDataArchiveMapper.updateArchivingBefore(before);
+        cachedWatermark = null;
+    }
+
+    @Override
+    public List<Long> findArchivableIds(String before, int limit) {
+        return tableDataArchiveMapper.selectArchivableIds(before, limit);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public List<Long> archiveChunk(String before, List<Long> candidateIds) {
+        if (candidateIds.isEmpty()) {
+            return List.of();
+        }
+        // 只按主键锁定候选行，并重新校验时期，普通读取之后被修改的数据不会被迁移
+        List<Long> ids = tableDataArchiveMapper.lockArchivableIds(candidateIds, before);
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        // 复制与删除在同一事务内，读取方任一时刻只会在一张表中看到该数据
+        tableDataArchiveMapper.copyToArchive(ids);
+        tableDataArchiveMapper.deleteFromHot(ids);
+        return ids;
+    }
+
+    @Override
+    public void finishArchiving(String before) {
+        tableDataArchiveMapper.updateArchivedBefore(before);
+        cachedWatermark = null;
+    }
+}
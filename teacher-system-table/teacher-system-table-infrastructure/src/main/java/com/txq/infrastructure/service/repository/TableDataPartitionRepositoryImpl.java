@@ -0,0 +1,54 @@
+package com.txq.infrastructure.service.repository;
+
+import com.txq.domain.infra.repository.TableDataPartitionRepository;
+import com.txq.infrastructure.mapper.TableDataPartitionMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 表格数据分区持久化实现
+ * DDL 会隐式提交事务，因此这里的方法不参与事务
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class TableDataPartitionRepositoryImpl implements TableDataPartitionRepository {
+
+    private static final String MAX_PARTITION = "pmax";
+
+    /**
+     * 年份分区名格式
+     */
+    private static final Pattern YEAR_PARTITION_PATTERN = Pattern.compile("p(\\d{4})");
+
+    private final TableDataPartitionMapper tableDataPartitionMapper;
+
+    @Override
+    public boolean isPartitioned() {
+        return tableDataPartitionMapper.selectPartitionNames().contains(MAX_PARTITION);
+    }
+
+    @Override
+    public List<Integer> findPartitionYears() {
+        return tableDataPartitionMapper.selectPartitionNames().stream()
+                .map(YEAR_PARTITION_PATTERN::matcher)
+                .filter(Matcher::matches)
+                .map(matcher -> Integer.parseInt(matcher.group(1)))
+                .sorted()
+                .toList();
+    }
+
+    @Override
+    public void addYearPartition(int year) {
+        if (year < 1000 || year > 9998) {
+            throw new IllegalArgumentException("非法的分区年份: " + year);
+        }
+        tableDataPartitionMapper.splitMaxPartition("p" + year, (year + 1) + "-01");
+        log.info("表格数据分区已创建: p{}", year);
+    }
+}
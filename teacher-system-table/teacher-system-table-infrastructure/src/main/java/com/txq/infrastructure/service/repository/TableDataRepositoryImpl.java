@@ -1,44 +1,66 @@
 package com.txq.infrastructure.service.repository;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.txq.domain.infra.IdGenerator;
+import com.txq.domain.infra.repository.TableDataArchiveRepository;
 import com.txq.domain.infra.repository.TableDataRepository;
+import com.txq.domain.model.*;
+import com.txq.infrastructure.assembler.TableDataAssembler;
+import com.txq.infrastructure.mapper.TableDataArchiveMapper;
 import com.txq.infrastructure.mapper.TableDataMapper;
+import com.txq.infrastructure.mapper.TableMetaMapper;
+import com.txq.infrastructure.mapper.TableUserScoreAggMapper;
 import com.txq.infrastructure.po.TableDataPO;
+import com.txq.infrastructure.po.TableUserScoreAggPO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
  * 表格数据持久化实现
+ * 按时期查询时根据归档水位读取在线表、归档表或两者合并，调用方无需感知数据是否已归档
  */
 @Repository
 @RequiredArgsConstructor
 public class TableDataRepositoryImpl implements TableDataRepository {
 
+    /**
+     * 批量更新、删除单批条数
+     */
+    private static final int BATCH_UPDATE_SIZE = 500;
+
+    /**
+     * 导出时每块读取条数
+     */
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+
     private final TableDataMapper tableDataMapper;
 
+    private final TableUserScoreAggMapper tableUserScoreAggMapper;
+
+    private final TableDataArchiveMapper tableDataArchiveMapper;
+
+    private final TableDataArchiveRepository tableDataArchiveRepository;
+
+    private final TableMetaMapper tableMetaMapper;
+
+    private final IdGenerator idGenerator;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public Long saveTableData(Long id, Integer tableId, String dataUserId, String submissionPeriod,
-                             Map<String, Object> dataContent, BigDecimal score, String reviewMaterial, 
-                             Integer status, String operatorId) {
-        TableDataPO po = new TableDataPO();
-        
-        if (id != null) {
-            // 更新操作
-            po.setId(id);
-            po.setUpdatedBy(operatorId);
-        } else {
-            // 新增操作
-            po.setCreatedBy(operatorId);
+    public Long insertTableData(Integer tableId, String dataUserId, String submissionPeriod,
+                                Map<String, Object> dataContent, BigDecimal score, String reviewMaterial,
+                                Integer status, String operatorId) {
+        // 表格已标记删除时不再写入，删除任务不会遗漏并发写入的数据
+        if (tableMetaMapper.lockActiveById(tableId) == 0) {
+            return null;
         }
-        
+        TableDataPO po = new TableDataPO();
         po.setTableId(tableId);
         po.setUserId(dataUserId);  // 设置数据所属用户
         po.setSubmissionPeriod(submissionPeriod);  // 设置提交时期
@@ -46,96 +68,251 @@ public class TableDataRepositoryImpl implements TableDataRepository {
         po.setScore(score);
         po.setReviewMaterial(reviewMaterial);
         po.setStatus(status != null ? status : 1); // 默认为已提交
-        
-        // 如果是更新操作且从退回状态(3)变为已提交状态(1)，清除退回原因
-        if (id != null && status == 1) {
-            TableDataPO existingPO = tableDataMapper.selectById(id);
-            if (existingPO != null && existingPO.getStatus() == 3) {
-                po.setRejectReason(null);  // 清除退回原因
+        po.setCreatedBy(operatorId);
+        tableDataMapper.insert(po);
+
+        applyScoreAggDelta(List.of(), List.of(po));
+        return po.getId();
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean updateTableData(TableDataState expected, Collection<Integer> allowedStatuses,
+                                   Integer tableId, String dataUserId, String submissionPeriod,
+                                   Map<String, Object> dataContent, BigDecimal score, String reviewMaterial,
+                                   Integer status, String operatorId) {
+        TableDataPO po = new TableDataPO();
+        po.setId(expected.id());
+        po.setTableId(tableId);
+        po.setUserId(dataUserId);
+        po.setSubmissionPeriod(submissionPeriod);
+        po.setDataContent(dataContent);
+        po.setScore(score);
+        po.setReviewMaterial(reviewMaterial);
+        po.setStatus(status != null ? status : 1); // 默认为已提交
+        po.setUpdatedBy(operatorId);
+
+        // 从退回状态(3)变为已提交状态(1)时清除退回原因，版本号条件保证读取到的状态仍然有效
+        boolean clearRejectReason = po.getStatus() == 1 && Integer.valueOf(3).equals(expected.status());
+        // 数据可能被改到其他用户名下，按变更前后镜像分别扣减和累加
+        List<Long> ids = List.of(expected.id());
+        List<TableDataPO> before = tableDataMapper.selectScoreImagesByIds(ids, true);
+        if (tableDataMapper.updateIfMatch(po, expected.version(), allowedStatuses, clearRejectReason) == 0) {
+            return false;
+        }
+        applyScoreAggDelta(before, tableDataMapper.selectScoreImagesByIds(ids, false));
+        return true;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int batchInsertData(List<TableDataImportRow> rows, String operatorId) {
+        if (rows == null || rows.isEmpty()) {
+            return 0;
+        }
+        for (Integer tableId : rows.stream().map(TableDataImportRow::getTableId).distinct().toList()) {
+            if (tableMetaMapper.lockActiveById(tableId) == 0) {
+                return 0;
             }
         }
-        
-        if (id != null) {
-            tableDataMapper.updateById(po);
-        } else {
-            tableDataMapper.insert(po);
+        // ID从号段预先分配，多行INSERT写入已知主键
+        List<TableDataPO> pos = TableDataAssembler.toPOs(rows, operatorId);
+        for (TableDataPO po : pos) {
+            po.setId(idGenerator.nextId(IdGenerator.TABLE_DATA));
         }
-        
-        return po.getId();
+        int inserted = tableDataMapper.insertBatch(pos);
+        applyScoreAggDelta(List.of(), pos);
+        return inserted;
     }
 
     @Override
-    public List<Map<String, Object>> findDataByTableId(Integer tableId) {
-        LambdaQueryWrapper<TableDataPO> queryWrapper = new LambdaQueryWrapper<TableDataPO>()
-                .eq(TableDataPO::getTableId, tableId)
-                .orderByDesc(TableDataPO::getCreatedAt);
-        
-        List<TableDataPO> dataList = tableDataMapper.selectList(queryWrapper);
-        
-        return dataList.stream().map(this::convertToMap).collect(Collectors.toList());
+    public long countDataByTableId(Integer tableId) {
+        return tableDataMapper.countByTableId(tableId) + tableDataArchiveMapper.countByTableId(tableId);
+    }
+
+    @Override
+    public List<TableDataAttachment> findAttachmentChunk(Integer tableId, boolean archived, int limit) {
+        return archived
+                ? tableDataArchiveMapper.selectAttachmentChunk(tableId, limit)
+                : tableDataMapper.selectAttachmentChunk(tableId, limit);
+    }
+
+    @Override
+    public int deleteDataChunk(List<Long> ids, boolean archived) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        return archived ? tableDataArchiveMapper.deleteByIds(ids) : tableDataMapper.deleteBatchIds(ids);
+    }
+
+    @Override
+    public List<FieldAggregateRow> aggregateField(Integer tableId, String fieldName, String groupBy,
+                                                  Collection<Integer> statuses, PeriodRange period,
+                                                  List<TableDataFilter> filters) {
+        PeriodRange range = period != null ? period : PeriodRange.ALL;
+        return tableDataMapper.selectFieldAggregate(route(range), tableId, TableDataFilter.jsonPathOf(fieldName),
+                groupBy, statuses == null || statuses.isEmpty() ? null : statuses, range.from(), range.to(),
+                filters == null || filters.isEmpty() ? null : filters);
+    }
+
+    @Override
+    public List<TableDataRow> findDataPageByTableId(Integer tableId, String userId, PeriodRange period,
+                                                    List<TableDataFilter> filters,
+                                                    LocalDateTime cursorCreatedAt, Long cursorId, Integer limit) {
+        PeriodRange range = period != null ? period : PeriodRange.ALL;
+        return tableDataMapper.selectPageByTableId(route(range), tableId, userId, range.from(), range.to(),
+                filters == null || filters.isEmpty() ? null : filters, cursorCreatedAt, cursorId, limit);
+    }
+
+    @Override
+    public long streamDataByTableId(Integer tableId, PeriodRange period, Consumer<TableDataRow> consumer) {
+        PeriodRange range = period != null ? period : PeriodRange.ALL;
+        String source = route(range);
+        long rows = 0;
+        LocalDateTime cursorCreatedAt = null;
+        Long cursorId = null;
+        List<TableDataRow> chunk;
+        do {
+            // 每块一次短查询，块之间不持有连接，consumer 写出变慢不会拖住事务
+            chunk = tableDataMapper.selectExportChunk(source, tableId, range.from(), range.to(),
+                    cursorCreatedAt, cursorId, EXPORT_CHUNK_SIZE);
+            for (TableDataRow row : chunk) {
+                consumer.accept(row);
+                rows++;
+            }
+            if (!chunk.isEmpty()) {
+                TableDataRow last = chunk.get(chunk.size() - 1);
+                cursorCreatedAt = last.createdAt();
+                cursorId = last.id();
+            }
+        } while (chunk.size() == EXPORT_CHUNK_SIZE);
+        return rows;
+    }
+
+    @Override
+    public TableDataRow findDataById(Long id) {
+        TableDataRow row = tableDataMapper.selectRowById(id);
+        if (row == null && findWatermark().hasArchive()) {
+            row = tableDataMapper.selectArchivedRowById(id);
+        }
+        return row;
+    }
+
+    @Override
+    public List<TableDataRow> findDataByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return tableDataMapper.selectRowsByIds(ids);
     }
 
     @Override
-    public Map<String, Object> findDataById(Long id) {
-        TableDataPO po = tableDataMapper.selectById(id);
-        return po != null ? convertToMap(po) : null;
+    @Transactional(rollbackFor = Exception.class)
+    public int batchReviewData(List<TableDataReview> reviews, String operatorId) {
+        if (reviews == null || reviews.isEmpty()) {
+            return 0;
+        }
+        int updated = 0;
+        for (int from = 0; from < reviews.size(); from += BATCH_UPDATE_SIZE) {
+            List<TableDataReview> chunk = reviews.subList(from, Math.min(from + BATCH_UPDATE_SIZE, reviews.size()));
+            List<Long> ids = chunk.stream().map(TableDataReview::getId).collect(Collectors.toList());
+            List<TableDataPO> before = tableDataMapper.selectScoreImagesByIds(ids, true);
+            updated += tableDataMapper.updateReviewBatch(chunk, operatorId);
+            applyScoreAggDelta(before, tableDataMapper.selectScoreImagesByIds(ids, false));
+        }
+        return updated;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void deleteData(Long id) {
+        List<TableDataPO> before = tableDataMapper.selectScoreImagesByIds(List.of(id), true);
         tableDataMapper.deleteById(id);
+        applyScoreAggDelta(before, List.of());
+    }
+
+    @Override
+    public List<TableDataState> findDataStatesByIds(List<Long> ids) {
+        List<TableDataState> states = new ArrayList<>();
+        if (ids == null || ids.isEmpty()) {
+            return states;
+        }
+        for (int from = 0; from < ids.size(); from += BATCH_UPDATE_SIZE) {
+            states.addAll(tableDataMapper.selectStatesByIds(
+                    ids.subList(from, Math.min(from + BATCH_UPDATE_SIZE, ids.size()))));
+        }
+        return states;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public void batchDeleteData(List<Long> ids) {
-        if (ids != null && !ids.isEmpty()) {
-            tableDataMapper.deleteBatchIds(ids);
+    public int batchDeleteData(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
         }
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += BATCH_UPDATE_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BATCH_UPDATE_SIZE, ids.size()));
+            List<TableDataPO> before = tableDataMapper.selectScoreImagesByIds(chunk, true);
+            deleted += tableDataMapper.deleteBatchIds(chunk);
+            applyScoreAggDelta(before, List.of());
+        }
+        return deleted;
     }
 
     @Override
-    public List<Map<String, Object>> findByUserId(String userId) {
-        // 使用原生SQL查询，关联table表获取表格名称
-        String sql = "SELECT td.id, td.table_id, td.user_id, td.data_content, td.score, " +
-                     "td.review_material, td.created_at, td.updated_at, t.table_full_name " +
-                     "FROM table_data td " +
-                     "LEFT JOIN `table` t ON td.table_id = t.table_id " +
-                     "WHERE td.user_id = #{userId} " +
-                     "ORDER BY td.created_at DESC";
-        
-        return tableDataMapper.selectByUserId(userId);
+    public List<TableDataRow> findByUserId(String userId) {
+        return tableDataMapper.selectByUserId(userId, route(PeriodRange.ALL));
     }
 
     @Override
-    public List<Map<String, Object>> findByTableIdWithUser(Integer tableId) {
-        return tableDataMapper.selectByTableIdWithUser(tableId);
+    public List<NotificationRecipient> findRecipientsByDataIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return tableDataMapper.selectRecipientsByIds(ids);
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public void rejectData(Long id, String rejectReason, String operatorId) {
-        TableDataPO po = new TableDataPO();
-        po.setId(id);
-        po.setRejectReason(rejectReason);
-        po.setStatus(3); // 状态设置为3（已退回）
-        po.setScore(null); // 清除分数，退回后需要重新审核打分
-        po.setUpdatedBy(operatorId);
-        tableDataMapper.updateById(po);
+    public boolean rejectData(Long id, Integer expectedVersion, String rejectReason, String operatorId) {
+        // 状态设置为3（已退回），清除分数，退回后需要重新审核打分
+        List<TableDataPO> before = tableDataMapper.selectScoreImagesByIds(List.of(id), true);
+        if (tableDataMapper.rejectIfMatch(id, expectedVersion, rejectReason, operatorId) == 0) {
+            return false;
+        }
+        applyScoreAggDelta(before, tableDataMapper.selectScoreImagesByIds(List.of(id), false));
+        return true;
     }
 
     @Override
-    public Map<String, Long> countGlobalStatistics() {
-        Map<String, Object> result = tableDataMapper.selectGlobalStatistics();
-        Map<String, Long> statistics = new HashMap<>();
-        
-        // 将Object转换为Long，处理null值
-        statistics.put("totalCount", convertToLong(result.get("totalCount")));
-        statistics.put("pendingCount", convertToLong(result.get("pendingCount")));
-        statistics.put("scoredCount", convertToLong(result.get("scoredCount")));
-        
-        return statistics;
+    public List<TableUserScoreRow> findUserScoreAggByTableId(Integer tableId) {
+        return tableUserScoreAggMapper.selectByTableIdWithUser(tableId);
+    }
+
+    @Override
+    public List<TableUserScoreRow> findUserScoreByPeriod(Integer tableId, PeriodRange period) {
+        PeriodRange range = period != null ? period : PeriodRange.ALL;
+        return tableDataMapper.selectUserScoreByPeriod(route(range), tableId, range.from(), range.to());
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int rebuildUserScoreAgg(Integer tableId) {
+        tableUserScoreAggMapper.deleteByTableId(tableId);
+        return tableUserScoreAggMapper.insertFromDataByTableId(tableId);
+    }
+
+    @Override
+    public Map<Integer, Long> countDataByStatus() {
+        Map<Integer, Long> counts = new HashMap<>();
+        for (Map<String, Object> row : tableDataMapper.selectStatusCounts()) {
+            Object status = row.get("status");
+            if (status != null) {
+                counts.put(convertToLong(status).intValue(), convertToLong(row.get("count")));
+            }
+        }
+        return counts;
     }
 
     @Override
@@ -159,6 +336,58 @@ public class TableDataRepositoryImpl implements TableDataRepository {
         return statistics;
     }
 
+    /**
+     * 根据归档水位选择读取来源
+     */
+    private String route(PeriodRange period) {
+        return findWatermark().route(period).name();
+    }
+
+    private ArchiveWatermark findWatermark() {
+        return tableDataArchiveRepository.findWatermark();
+    }
+
+    /**
+     * 按数据变更前后的得分镜像累加汇总增量，需在数据变更的同一事务内调用
+     * 变更前镜像需以 FOR UPDATE 读取；增量按 (table_id, user_id) 排序后写入，不删除、不重新汇总，避免间隙锁死锁
+     * @param before 变更前镜像（新增时为空）
+     * @param after 变更后镜像（删除时为空）
+     */
+    private void applyScoreAggDelta(List<TableDataPO> before, List<TableDataPO> after) {
+        Map<String, TableUserScoreAggPO> deltas = new TreeMap<>();
+        for (TableDataPO po : before) {
+            addScoreDelta(deltas, po, -1);
+        }
+        for (TableDataPO po : after) {
+            addScoreDelta(deltas, po, 1);
+        }
+        List<TableUserScoreAggPO> changed = deltas.values().stream()
+                .filter(d -> d.getDataCount() != 0 || d.getScoredCount() != 0 || d.getTotalScore().signum() != 0)
+                .collect(Collectors.toList());
+        for (int from = 0; from < changed.size(); from += BATCH_UPDATE_SIZE) {
+            tableUserScoreAggMapper.upsertDeltas(changed.subList(from, Math.min(from + BATCH_UPDATE_SIZE, changed.size())));
+        }
+    }
+
+    private void addScoreDelta(Map<String, TableUserScoreAggPO> deltas, TableDataPO po, int sign) {
+        if (po.getTableId() == null || po.getUserId() == null) {
+            return;
+        }
+        // 键按 table_id 定长补零后拼接，TreeMap 顺序即 (table_id, user_id) 顺序
+        String key = String.format("%010d:%s", po.getTableId(), po.getUserId());
+        TableUserScoreAggPO delta = deltas.computeIfAbsent(key, k -> new TableUserScoreAggPO()
+                .setTableId(po.getTableId())
+                .setUserId(po.getUserId())
+                .setDataCount(0)
+                .setScoredCount(0)
+                .setTotalScore(BigDecimal.ZERO));
+        delta.setDataCount(delta.getDataCount() + sign);
+        if (po.getScore() != null) {
+            delta.setScoredCount(delta.getScoredCount() + sign);
+            delta.setTotalScore(sign > 0 ? delta.getTotalScore().add(po.getScore()) : delta.getTotalScore().subtract(po.getScore()));
+        }
+    }
+
     /**
      * 将Object转换为Long，处理null值和不同数字类型
      */
@@ -177,26 +406,4 @@ public class TableDataRepositoryImpl implements TableDataRepository {
         }
         return Long.parseLong(value.toString());
     }
-
-    /**
-     * 将PO转换为Map
-     */
-    private Map<String, Object> convertToMap(TableDataPO po) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("id", po.getId());
-        map.put("tableId", po.getTableId());
-        map.put("userId", po.getUserId());
-        map.put("submissionPeriod", po.getSubmissionPeriod());
-        map.put("dataContent", po.getDataContent());
-        map.put("score", po.getScore());
-        map.put("reviewMaterial", po.getReviewMaterial());
-        map.put("rejectReason", po.getRejectReason());
-        map.put("status", po.getStatus());
-        map.put("createdBy", po.getCreatedBy());
-        map.put("updatedBy", po.getUpdatedBy());
-        map.put("createdAt", po.getCreatedAt());
-        map.put("updatedAt", po.getUpdatedAt());
-        return map;
-    }
 }
-
@@ -0,0 +1,79 @@
+package com.txq.infrastructure.service.repository;
+
+import com.txq.domain.infra.repository.TableDeleteJobRepository;
+import com.txq.domain.model.TableDeleteJob;
+import com.txq.infrastructure.mapper.TableDeleteJobMapper;
+import com.txq.infrastructure.mapper.TableMetaMapper;
+import com.txq.infrastructure.po.TableDeleteJobPO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 表格删除任务持久化实现
+ */
+@Repository
+@RequiredArgsConstructor
+public class TableDeleteJobRepositoryImpl implements TableDeleteJobRepository {
+
+    /**
+     * 失败原因最大长度，与 last_error 列一致
+     */
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final TableDeleteJobMapper tableDeleteJobMapper;
+
+    private final TableMetaMapper tableMetaMapper;
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Long createJob(Integer tableId, String operatorId) {
+        // 逻辑删除，并发删除同一表格时只有一个请求能标记成功
+        if (tableMetaMapper.deleteById(tableId) == 0) {
+            return null;
+        }
+        TableDeleteJobPO po = new TableDeleteJobPO()
+                .setTableId(tableId)
+                .setCreatedBy(operatorId);
+        tableDeleteJobMapper.insert(po);
+        return po.getId();
+    }
+
+    @Override
+    public TableDeleteJob findById(Long jobId) {
+        return tableDeleteJobMapper.selectJobById(jobId);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public TableDeleteJob claimNext(int leaseSeconds) {
+        TableDeleteJob job = tableDeleteJobMapper.selectNextForUpdate();
+        if (job == null) {
+            return null;
+        }
+        tableDeleteJobMapper.lease(job.id(), leaseSeconds);
+        return job;
+    }
+
+    @Override
+    public void updateTotalRows(Long jobId, long totalRows) {
+        tableDeleteJobMapper.updateTotalRows(jobId, totalRows);
+    }
+
+    @Override
+    public void addProgress(Long jobId, long deletedRows, long deletedAttachments, long failedAttachments,
+                            int leaseSeconds) {
+        tableDeleteJobMapper.addProgress(jobId, deletedRows, deletedAttachments, failedAttachments, leaseSeconds);
+    }
+
+    @Override
+    public void markDone(Long jobId) {
+        tableDeleteJobMapper.markDone(jobId);
+    }
+
+    @Override
+    public void markError(Long jobId, String error, int maxAttempts) {
+        String message = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        tableDeleteJobMapper.markError(jobId, message, maxAttempts);
+    }
+}
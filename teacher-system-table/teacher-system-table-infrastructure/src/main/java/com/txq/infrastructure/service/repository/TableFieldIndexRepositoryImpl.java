@@ -0,0 +1,117 @@
+package com.txq.infrastructure.service.repository;
+
+import com.txq.domain.infra.repository.TableFieldIndexRepository;
+import com.txq.domain.model.TableFieldFilterHit;
+import com.txq.domain.model.TableFieldIndex;
+import com.txq.infrastructure.mapper.TableFieldIndexMapper;
+import com.txq.infrastructure.mapper.TableFieldMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 字段索引列持久化实现
+ * DDL 会隐式提交事务，因此这里的方法不参与事务
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class TableFieldIndexRepositoryImpl implements TableFieldIndexRepository {
+
+    /**
+     * 生成列名格式
+     */
+    private static final Pattern COLUMN_NAME_PATTERN = Pattern.compile("fx_[0-9a-f]{16}");
+
+    private final TableFieldIndexMapper tableFieldIndexMapper;
+    private final TableFieldMapper tableFieldMapper;
+
+    @Override
+    public List<TableFieldIndex> findAll() {
+        return tableFieldIndexMapper.selectAll().stream()
+                .filter(index -> COLUMN_NAME_PATTERN.matcher(index.columnName()).matches())
+                .toList();
+    }
+
+    @Override
+    public Map<String, String> findReadyColumns(Collection<String> fieldNames) {
+        if (fieldNames == null || fieldNames.isEmpty()) {
+            return Map.of();
+        }
+        return tableFieldIndexMapper.selectReadyByFieldNames(fieldNames).stream()
+                .filter(index -> COLUMN_NAME_PATTERN.matcher(index.columnName()).matches())
+                .collect(Collectors.toMap(TableFieldIndex::fieldName, TableFieldIndex::columnName));
+    }
+
+    @Override
+    public List<TableFieldIndex> findDropExpired(int graceSeconds) {
+        return tableFieldIndexMapper.selectDropExpired(graceSeconds).stream()
+                .filter(index -> COLUMN_NAME_PATTERN.matcher(index.columnName()).matches())
+                .toList();
+    }
+
+    @Override
+    public Set<String> findDefinedFieldNames() {
+        return new HashSet<>(tableFieldMapper.selectDistinctFieldNames());
+    }
+
+    @Override
+    public void createIndex(TableFieldIndex index) {
+        String columnName = checkColumnName(index.columnName());
+        String fieldName = index.fieldName();
+        if (!TableFieldIndex.isIndexableFieldName(fieldName)) {
+            throw new IllegalArgumentException("字段名称不能用于生成列: " + fieldName);
+        }
+        // 先登记为创建中，DDL 中断后由下次维护继续完成或删除
+        tableFieldIndexMapper.insertBuilding(index);
+        if (tableFieldIndexMapper.countColumn(columnName) == 0) {
+            tableFieldIndexMapper.addGeneratedColumn(columnName, "'$.\"" + fieldName + "\"'");
+        }
+        tableFieldIndexMapper.updateState(columnName, TableFieldIndex.STATE_READY);
+        log.info("字段索引列已创建: fieldName={}, column={}", fieldName, columnName);
+    }
+
+    @Override
+    public void markDropping(TableFieldIndex index) {
+        tableFieldIndexMapper.updateState(checkColumnName(index.columnName()), TableFieldIndex.STATE_DROPPING);
+        log.info("字段索引列已标记删除: fieldName={}, column={}", index.fieldName(), index.columnName());
+    }
+
+    @Override
+    public void dropIndex(TableFieldIndex index) {
+        String columnName = checkColumnName(index.columnName());
+        if (tableFieldIndexMapper.countColumn(columnName) > 0) {
+            tableFieldIndexMapper.dropGeneratedColumn(columnName);
+        }
+        // 列删除后再取消登记，DDL 失败时下次维护重试
+        tableFieldIndexMapper.deleteByColumnName(columnName);
+        log.info("字段索引列已删除: fieldName={}, column={}", index.fieldName(), columnName);
+    }
+
+    @Override
+    public void addFilterHits(List<TableFieldFilterHit> hits) {
+        if (hits == null || hits.isEmpty()) {
+            return;
+        }
+        tableFieldIndexMapper.upsertFilterHits(hits);
+        if (hits.stream().anyMatch(hit -> hit.hits() < 0)) {
+            tableFieldIndexMapper.deleteExhaustedFilterHits();
+        }
+    }
+
+    @Override
+    public List<TableFieldFilterHit> findFilterHits() {
+        return tableFieldIndexMapper.selectFilterHits();
+    }
+
+    private String checkColumnName(String columnName) {
+        if (columnName == null || !COLUMN_NAME_PATTERN.matcher(columnName).matches()) {
+            throw new IllegalArgumentException("非法的生成列名: " + columnName);
+        }
+        return columnName;
+    }
+}
@@ -0,0 +1,104 @@
+package com.txq.infrastructure.service.repository;
+
+import com.txq.domain.infra.repository.TableFieldMigrationRepository;
+import com.txq.domain.model.TableFieldMigrationJob;
+import com.txq.infrastructure.mapper.TableDataArchiveMapper;
+import com.txq.infrastructure.mapper.TableDataMapper;
+import com.txq.infrastructure.mapper.TableFieldMigrationJobMapper;
+import com.txq.infrastructure.po.TableFieldMigrationJobPO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 字段迁移任务持久化实现
+ */
+@Repository
+@RequiredArgsConstructor
+public class TableFieldMigrationRepositoryImpl implements TableFieldMigrationRepository {
+
+    /**
+     * 失败原因最大长度，与 last_error 列一致
+     */
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final TableFieldMigrationJobMapper tableFieldMigrationJobMapper;
+
+    private final TableDataMapper tableDataMapper;
+
+    private final TableDataArchiveMapper tableDataArchiveMapper;
+
+    @Override
+    public Long createJob(Integer tableId, Map<String, String> renames, List<String> removedFields, String operatorId) {
+        TableFieldMigrationJobPO po = new TableFieldMigrationJobPO()
+                .setTableId(tableId)
+                .setRenames(renames)
+                .setRemovedFields(removedFields)
+                .setCreatedBy(operatorId);
+        tableFieldMigrationJobMapper.insert(po);
+        return po.getId();
+    }
+
+    @Override
+    public TableFieldMigrationJob findById(Long jobId) {
+        return tableFieldMigrationJobMapper.selectJobById(jobId);
+    }
+
+    @Override
+    public TableFieldMigrationJob findLatestByTableId(Integer tableId) {
+        return tableFieldMigrationJobMapper.selectLatestByTableId(tableId);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public TableFieldMigrationJob claimNext(int leaseSeconds) {
+        TableFieldMigrationJob job = tableFieldMigrationJobMapper.selectNextForUpdate();
+        if (job == null) {
+            return null;
+        }
+        tableFieldMigrationJobMapper.lease(job.id(), leaseSeconds);
+        return job;
+    }
+
+    @Override
+    public void updateTotalRows(Long jobId, long totalRows) {
+        tableFieldMigrationJobMapper.updateTotalRows(jobId, totalRows);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Long migrateChunk(TableFieldMigrationJob job, boolean archived, long afterId, int limit, int leaseSeconds) {
+        List<Long> ids = archived
+                ? tableDataArchiveMapper.selectIdsAfter(job.tableId(), afterId, limit)
+                : tableDataMapper.selectIdsAfter(job.tableId(), afterId, limit);
+        if (ids.isEmpty()) {
+            if (!archived) {
+                tableFieldMigrationJobMapper.markHotDone(job.id());
+            }
+            return null;
+        }
+
+        List<TableFieldMigrationJob.KeyRewrite> rewrites = job.keyRewrites();
+        List<String> removePaths = job.removePaths();
+        int rewritten = archived
+                ? tableDataArchiveMapper.rewriteKeys(ids, rewrites, removePaths)
+                : tableDataMapper.rewriteKeys(ids, rewrites, removePaths);
+        long lastId = ids.get(ids.size() - 1);
+        tableFieldMigrationJobMapper.addProgress(job.id(), archived, lastId, ids.size(), rewritten, leaseSeconds);
+        return lastId;
+    }
+
+    @Override
+    public void markDone(Long jobId) {
+        tableFieldMigrationJobMapper.markDone(jobId);
+    }
+
+    @Override
+    public void markError(Long jobId, String error, int maxAttempts) {
+        String message = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        tableFieldMigrationJobMapper.markError(jobId, message, maxAttempts);
+    }
+}
@@ -3,17 +3,20 @@ package com.txq.infrastructure.service.repository;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.txq.domain.infra.repository.TableRepository;
 import com.txq.domain.model.Table;
+import com.txq.domain.model.TableField;
+import com.txq.domain.model.TableSchema;
+import com.txq.domain.model.TableSchemaDiff;
 import com.txq.infrastructure.assembler.TableAssembler;
-import com.txq.infrastructure.mapper.TableDataMapper;
 import com.txq.infrastructure.mapper.TableFieldMapper;
 import com.txq.infrastructure.mapper.TableMetaMapper;
-import com.txq.infrastructure.po.TableDataPO;
+import com.txq.infrastructure.mapper.TableUserScoreAggMapper;
 import com.txq.infrastructure.po.TableFieldPO;
 import com.txq.infrastructure.po.TableMetaPO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,7 +34,7 @@ public class TableRepositoryImpl implements TableRepository {
 
     private final TableFieldMapper tableFieldMapper;
 
-    private final TableDataMapper tableDataMapper;
+    private final TableUserScoreAggMapper tableUserScoreAggMapper;
 
     /**
      * 保存表格信息（包含元信息和字段信息）
@@ -44,10 +47,14 @@ public class TableRepositoryImpl implements TableRepository {
         TableMetaPO metaPO = TableAssembler.toMetaPO(table, tableId);
         tableMetaMapper.insert(metaPO);
 
-        // 保存表格字段信息
-        List<TableFieldPO> fieldPOs = TableAssembler.toFieldPOs(table.getTableFields(), tableId);
-        for (TableFieldPO fieldPO : fieldPOs) {
-            tableFieldMapper.insert(fieldPO);
+        // 保存表格字段信息，一条多行INSERT，排序序号按定义顺序
+        List<TableField> fields = table.getTableFields();
+        if (!fields.isEmpty()) {
+            List<TableField> ordered = new ArrayList<>(fields.size());
+            for (int i = 0; i < fields.size(); i++) {
+                ordered.add(fields.get(i).withSortOrder(i));
+            }
+            tableFieldMapper.insertBatch(tableId, ordered);
         }
     }
 
@@ -66,45 +73,38 @@ public class TableRepositoryImpl implements TableRepository {
      */
     @Override
     public List<Map<String, Object>> findAllTables() {
-        // 查询所有表格元信息
-        List<TableMetaPO> metaPOs = tableMetaMapper.selectList(null);
-        
-        // 转换为Map格式
-        return metaPOs.stream().map(metaPO -> {
-            // 查询该表格的字段数量
-            LambdaQueryWrapper<TableFieldPO> fieldQuery = new LambdaQueryWrapper<TableFieldPO>()
-                    .eq(TableFieldPO::getTableId, metaPO.getId());
-            long fieldCount = tableFieldMapper.selectCount(fieldQuery);
-            
-            // 构建返回数据
+        // 元信息与字段数量一次聚合查询
+        return tableMetaMapper.selectSummaries().stream().map(summary -> {
             Map<String, Object> tableInfo = new HashMap<>();
-            tableInfo.put("tableId", metaPO.getId());
-            tableInfo.put("tableFullName", metaPO.getTableFullName());
-            tableInfo.put("tableAliasName", metaPO.getTableAliasName());
-            tableInfo.put("fieldCount", (int) fieldCount);
-            tableInfo.put("createTime", metaPO.getCreateTime());
-            
+            tableInfo.put("tableId", summary.tableId());
+            tableInfo.put("tableFullName", summary.tableFullName());
+            tableInfo.put("tableAliasName", summary.tableAliasName());
+            tableInfo.put("fieldCount", summary.fieldCount());
+            tableInfo.put("createTime", summary.createTime());
             return tableInfo;
         }).collect(Collectors.toList());
     }
 
     /**
-     * 获取表格的字段列表
+     * 获取表格结构（元信息与字段定义）
      */
     @Override
-    public List<Map<String, Object>> findTableFields(Integer tableId) {
-        // 查询指定表格的所有字段
+    public TableSchema findSchema(Integer tableId) {
+        TableMetaPO metaPO = tableMetaMapper.selectById(tableId);
+        if (metaPO == null) {
+            return null;
+        }
+        // 查询指定表格的所有字段，按排序序号返回
         LambdaQueryWrapper<TableFieldPO> queryWrapper = new LambdaQueryWrapper<TableFieldPO>()
-                .eq(TableFieldPO::getTableId, tableId);
-        List<TableFieldPO> fieldPOs = tableFieldMapper.selectList(queryWrapper);
-        
-        // 转换为Map格式
-        return fieldPOs.stream().map(fieldPO -> {
-            Map<String, Object> fieldInfo = new HashMap<>();
-            fieldInfo.put("root", fieldPO.getRoot());
-            fieldInfo.put("fieldName", fieldPO.getFieldName());
-            return fieldInfo;
-        }).collect(Collectors.toList());
+                .eq(TableFieldPO::getTableId, tableId)
+                .orderByAsc(TableFieldPO::getSortOrder)
+                .orderByAsc(TableFieldPO::getId);
+        List<TableField> fields = tableFieldMapper.selectList(queryWrapper).stream()
+                .map(fieldPO -> TableField.of(fieldPO.getId(), Boolean.TRUE.equals(fieldPO.getRoot()),
+                        fieldPO.getFieldName(), fieldPO.getSortOrder() == null ? 0 : fieldPO.getSortOrder()))
+                .collect(Collectors.toList());
+        int schemaVersion = metaPO.getSchemaVersion() == null ? 0 : metaPO.getSchemaVersion();
+        return TableSchema.of(tableId, schemaVersion, metaPO.getTableFullName(), metaPO.getTableAliasName(), fields);
     }
 
     /**
@@ -119,45 +119,46 @@ public class TableRepositoryImpl implements TableRepository {
     }
 
     /**
-     * 更新表格信息（包含元信息和字段信息）
+     * 更新表格信息，元信息按结构版本号条件更新，字段按差异批量删除、修改、新增
      */
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public void updateTable(Table table, Integer tableId) {
-        // 更新表格元信息
-        TableMetaPO metaPO = TableAssembler.toMetaPO(table, tableId);
-        tableMetaMapper.updateById(metaPO);
-
-        // 删除旧的字段信息
-        LambdaQueryWrapper<TableFieldPO> deleteWrapper = new LambdaQueryWrapper<TableFieldPO>()
-                .eq(TableFieldPO::getTableId, tableId);
-        tableFieldMapper.delete(deleteWrapper);
+    public boolean updateTable(Table table, Integer tableId, int expectedVersion, TableSchemaDiff diff) {
+        int updated = tableMetaMapper.updateIfVersionMatch(tableId, table.getTableFullName(),
+                table.getTableAliasName(), expectedVersion);
+        if (updated == 0) {
+            return false;
+        }
 
-        // 保存新的字段信息
-        List<TableFieldPO> fieldPOs = TableAssembler.toFieldPOs(table.getTableFields(), tableId);
-        for (TableFieldPO fieldPO : fieldPOs) {
-            tableFieldMapper.insert(fieldPO);
+        // 先删除再修改，改名为已删除字段的原名称时不会冲突
+        if (!diff.removed().isEmpty()) {
+            tableFieldMapper.deleteByIds(tableId, diff.removed().stream().map(TableField::getId).toList());
+        }
+        if (!diff.updated().isEmpty()) {
+            tableFieldMapper.updateBatch(tableId, diff.updated());
         }
+        if (!diff.added().isEmpty()) {
+            tableFieldMapper.insertBatch(tableId, diff.added());
+        }
+        return true;
     }
 
     /**
-     * 删除表格（包含元信息、字段信息和数据记录）
+     * 清除已标记删除的表格（包含元信息、字段信息和得分汇总）
      */
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public void deleteTable(Integer tableId) {
-        // 1. 删除该表格的所有数据记录
-        LambdaQueryWrapper<TableDataPO> dataWrapper = new LambdaQueryWrapper<TableDataPO>()
-                .eq(TableDataPO::getTableId, tableId);
-        tableDataMapper.delete(dataWrapper);
+    public void purgeTable(Integer tableId) {
+        // 1. 删除得分汇总
+        tableUserScoreAggMapper.deleteByTableId(tableId);
 
         // 2. 删除表格字段信息
         LambdaQueryWrapper<TableFieldPO> fieldWrapper = new LambdaQueryWrapper<TableFieldPO>()
                 .eq(TableFieldPO::getTableId, tableId);
         tableFieldMapper.delete(fieldWrapper);
 
-        // 3. 删除表格元信息
-        tableMetaMapper.deleteById(tableId);
+        // 3. 物理删除表格元信息
+        tableMetaMapper.purgeById(tableId);
     }
 
     /**
@@ -167,5 +168,21 @@ public class TableRepositoryImpl implements TableRepository {
     public boolean existsById(Integer tableId) {
         return tableMetaMapper.selectById(tableId) != null;
     }
+
+    /**
+     * 判断表格ID是否已被占用（包含已标记删除的表格）
+     */
+    @Override
+    public boolean isTableIdUsed(Integer tableId) {
+        return tableMetaMapper.countByIdIncludingDeleted(tableId) > 0;
+    }
+
+    /**
+     * 统计表格总数
+     */
+    @Override
+    public long countTables() {
+        return tableMetaMapper.selectCount(null);
+    }
 }
 
@@ -0,0 +1,150 @@
+package com.txq.infrastructure.service;
+
+import com.txq.domain.infra.repository.IdSegmentRepository;
+import com.txq.domain.model.IdSegment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 号段ID生成器测试
+ */
+class SegmentIdGeneratorTest {
+
+    private static final long SEGMENT_SIZE = 10;
+
+    private SegmentIdGenerator generator;
+
+    @AfterEach
+    void tearDown() {
+        if (generator != null) {
+            generator.destroy();
+        }
+    }
+
+    @Test
+    void idsAreSequentialAcrossSegments() {
+        FakeIdSegmentRepository repository = new FakeIdSegmentRepository();
+        generator = new SegmentIdGenerator(repository);
+
+        for (long expected = 1; expected <= SEGMENT_SIZE * 3 + 5; expected++) {
+            assertEquals(expected, generator.nextId("table_data"));
+        }
+        // 第四段剩余过半，尚未触发预取
+        assertEquals(4, repository.allocations("table_data"));
+    }
+
+    @Test
+    void bizTagsHaveIndependentSegments() {
+        FakeIdSegmentRepository repository = new FakeIdSegmentRepository();
+        generator = new SegmentIdGenerator(repository);
+
+        assertEquals(1, generator.nextId("table_data"));
+        assertEquals(1, generator.nextId("attachment"));
+        assertEquals(2, generator.nextId("table_data"));
+        assertEquals(2, generator.nextId("attachment"));
+    }
+
+    @Test
+    void nextSegmentIsPrefetchedBeforeExhaustion() throws Exception {
+        FakeIdSegmentRepository repository = new FakeIdSegmentRepository();
+        generator = new SegmentIdGenerator(repository);
+
+        for (int i = 0; i < SEGMENT_SIZE; i++) {
+            generator.nextId("table_data");
+        }
+        // 剩余不足五分之一时触发预取，当前段用完前下一段已租用
+        assertTrue(repository.awaitAllocations("table_data", 2));
+        assertEquals(SEGMENT_SIZE + 1, generator.nextId("table_data"));
+        assertEquals(2, repository.allocations("table_data"));
+    }
+
+    @Test
+    void failedPrefetchFallsBackToSyncAllocation() {
+        FakeIdSegmentRepository repository = new FakeIdSegmentRepository();
+        repository.failOnCall = 2;
+        generator = new SegmentIdGenerator(repository);
+
+        for (long expected = 1; expected <= SEGMENT_SIZE * 2; expected++) {
+            assertEquals(expected, generator.nextId("table_data"));
+        }
+    }
+
+    @Test
+    void concurrentCallersGetUniqueIds() throws Exception {
+        FakeIdSegmentRepository repository = new FakeIdSegmentRepository();
+        generator = new SegmentIdGenerator(repository);
+        int threads = 8;
+        int perThread = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    List<Long> ids = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(generator.nextId("table_data"));
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+            Set<Long> all = new HashSet<>();
+            for (Future<List<Long>> future : futures) {
+                all.addAll(future.get(30, TimeUnit.SECONDS));
+            }
+            assertEquals(threads * perThread, all.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 内存号段仓库：每个业务标识从1开始按固定长度依次分配
+     */
+    private static class FakeIdSegmentRepository implements IdSegmentRepository {
+
+        private final ConcurrentHashMap<String, Long> maxIds = new ConcurrentHashMap<>();
+
+        private final ConcurrentHashMap<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+        // 第几次调用抛出异常（不分配号段），0表示不失败
+        volatile int failOnCall;
+
+        @Override
+        public IdSegment allocate(String bizTag) {
+            int call = calls.computeIfAbsent(bizTag, key -> new AtomicInteger()).incrementAndGet();
+            if (call == failOnCall) {
+                throw new IllegalStateException("模拟租用失败");
+            }
+            long end = maxIds.merge(bizTag, SEGMENT_SIZE, Long::sum);
+            return new IdSegment(end - SEGMENT_SIZE + 1, end);
+        }
+
+        int allocations(String bizTag) {
+            AtomicInteger count = calls.get(bizTag);
+            return count == null ? 0 : count.get();
+        }
+
+        boolean awaitAllocations(String bizTag, int expected) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (allocations(bizTag) < expected) {
+                if (System.nanoTime() > deadline) {
+                    return false;
+                }
+                Thread.sleep(10);
+            }
+            return true;
+        }
+    }
+}
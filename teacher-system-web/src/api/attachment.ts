@@ -58,3 +58,44 @@ export function getAttachment(attachmentId: string) {
   })
 }
 
+
+/**
+ * 附件签名下载地址VO
+ */
+export interface AttachmentDownloadUrlVO {
+  url: string
+  expiresAt: number
+}
+
+/**
+ * 获取附件的签名下载地址
+ * 地址带过期时间和签名，浏览器可直接打开，由浏览器流式下载并发起 Range 请求
+ * @param filePath 上传时返回的相对路径
+ */
+export function getAttachmentDownloadUrl(filePath: string) {
+  return request<AttachmentDownloadUrlVO>({
+    url: '/table/attachment/download-url',
+    method: 'get',
+    params: { path: filePath }
+  })
+}
+
+/**
+ * 在新标签页打开附件
+ * 先同步打开空白标签页，避免异步获取地址后被浏览器拦截弹窗
+ * @param filePath 上传时返回的相对路径
+ */
+export async function openAttachmentInNewTab(filePath: string) {
+  const win = window.open('', '_blank')
+  try {
+    const { url } = await getAttachmentDownloadUrl(filePath)
+    const fullUrl = (import.meta.env.VITE_API_BASE_URL || '/api/v1') + url
+    if (win) {
+      win.location.href = fullUrl
+    } else {
+      window.open(fullUrl, '_blank')
+    }
+  } catch {
+    win?.close()
+  }
+}
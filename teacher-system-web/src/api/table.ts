@@ -4,6 +4,7 @@ import {del, get, post, put} from '@/utils/request'
  * 表格字段DTO
  */
 export interface TableFieldDTO {
+    fieldId?: number   // 字段ID，修改表格时保留以便改名，新增字段不传
     root: boolean      // 是否为管理员操作字段
     fieldName: string  // 字段名称
     calc: boolean      // 是否为计算字段 (新增)
@@ -45,11 +46,58 @@ export function updateTable(tableId: number, data: TableDTO): Promise<string> {
 
 /**
  * 删除表格
+ * 返回后台删除任务ID
  */
-export function deleteTable(tableId: number): Promise<string> {
+export function deleteTable(tableId: number): Promise<number> {
     return del(`/table/delete-table/${tableId}`)
 }
 
+export interface TableDeleteJob {
+    jobId: number
+    tableId: number
+    status: 'pending' | 'running' | 'done' | 'failed'
+    totalRows: number
+    deletedRows: number
+    deletedAttachments: number
+    failedAttachments: number
+    progress: number
+    lastError?: string
+    createdAt: string
+    finishedAt?: string
+}
+
+/**
+ * 查询表格删除任务进度
+ */
+export function getDeleteJob(jobId: number): Promise<TableDeleteJob> {
+    return get(`/table/delete-jobs/${jobId}`)
+}
+
+/**
+ * 字段迁移任务进度（字段改名或删除后改写已有数据）
+ */
+export interface TableFieldMigrationJob {
+    jobId: number
+    tableId: number
+    status: 'pending' | 'running' | 'done' | 'failed'
+    renames: Record<string, string>  // 原名称 -> 新名称
+    removedFields: string[]
+    totalRows: number
+    scannedRows: number
+    rewrittenRows: number
+    progress: number
+    lastError?: string
+    createdAt: string
+    finishedAt?: string
+}
+
+/**
+ * 查询表格最近一次字段迁移任务进度，没有任务时返回null
+ */
+export function getFieldMigration(tableId: number): Promise<TableFieldMigrationJob | null> {
+    return get(`/table/${tableId}/field-migration`)
+}
+
 /**
  * 获取表格列表
  */
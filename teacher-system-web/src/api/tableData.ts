@@ -13,6 +13,7 @@ export interface TableDataItem {
     reviewMaterial: string | null      // 审核材料
     rejectReason: string | null        // 退回原因
     status: number                     // 数据状态：0=暂存，1=已提交，2=已打分，3=已退回
+    version: number                    // 版本号，更新时回传用于冲突检测
     createdBy: string
     updatedBy: string | null
     createdAt: string
@@ -31,13 +32,18 @@ export interface SaveTableDataRequest {
     score?: number | null
     reviewMaterial?: string | null
     status?: number                    // 数据状态：0=暂存，1=已提交，2=已打分
+    version?: number                   // 读取到的版本号，不一致时返回冲突
 }
 
 /**
  * 获取表格数据列表
+ * @param filters 字段筛选条件，格式为 字段名:运算符:值（eq/ne/gt/ge/lt/le/like/prefix），多个条件之间为且关系
  */
-export function getTableData(tableId: number): Promise<TableDataItem[]> {
-    return get(`/table/${tableId}/data`)
+export function getTableData(tableId: number, filters?: string[]): Promise<TableDataItem[]> {
+    return get(`/table/${tableId}/data`, {
+        params: filters && filters.length > 0 ? {filter: filters} : undefined,
+        paramsSerializer: {indexes: null}  // 序列化为 filter=a&filter=b
+    })
 }
 
 /**
@@ -54,10 +60,18 @@ export function deleteTableData(id: number): Promise<string> {
     return del(`/table/data/${id}`)
 }
 
+/**
+ * 批量删除结果
+ */
+export interface BatchDeleteResult {
+    deletedCount: number
+    rejectedItems: { id: number; reason: string }[]
+}
+
 /**
  * 批量删除表格数据
  */
-export function batchDeleteTableData(ids: number[]): Promise<string> {
+export function batchDeleteTableData(ids: number[]): Promise<BatchDeleteResult> {
     return post('/table/data/batch-delete', ids)
 }
 
@@ -70,7 +84,7 @@ export interface TableUserScore {
     dataCount: number
     totalScore: number
     avgScore: number
-    dataList: TableDataItem[]
+    dataList?: TableDataItem[] | null  // 汇总模式下为空，明细通过 getUserTableDataPage 分页获取
 }
 
 /**
@@ -86,10 +100,35 @@ export interface TableScoreStatistics {
 }
 
 /**
- * 获取表格的用户得分统计（管理员功能）
+ * 游标分页结果
+ */
+export interface CursorPage<T> {
+    list: T[]
+    nextCursor: string | null  // 没有更多数据时为null
+    hasMore: boolean
+}
+
+/**
+ * 获取表格的用户得分汇总（管理员功能），不包含数据明细
+ * @param periodFrom 起始提交时期（YYYY-MM），不传时不限
+ * @param periodTo 结束提交时期（YYYY-MM），不传时不限
+ */
+export function getTableScoreStatistics(tableId: number, periodFrom?: string,
+                                        periodTo?: string): Promise<TableScoreStatistics> {
+    return get(`/table/${tableId}/score-statistics`, {
+        params: {mode: 'summary', periodFrom, periodTo}
+    })
+}
+
+/**
+ * 游标分页获取指定用户在表格中的数据（得分统计中按用户展开明细）
+ * @param cursor 上一页返回的nextCursor，首次请求不传
  */
-export function getTableScoreStatistics(tableId: number): Promise<TableScoreStatistics> {
-    return get(`/table/${tableId}/score-statistics`)
+export function getUserTableDataPage(tableId: number, userId: string, cursor?: string | null, size?: number,
+                                     periodFrom?: string, periodTo?: string): Promise<CursorPage<TableDataItem>> {
+    return get(`/table/${tableId}/users/${encodeURIComponent(userId)}/data`, {
+        params: {cursor: cursor || undefined, size, periodFrom, periodTo}
+    })
 }
 
 /**
@@ -112,6 +151,7 @@ export function submitData(data: SaveTableDataRequest): Promise<number> {
 export interface RejectDataRequest {
     id: number           // 数据ID
     rejectReason: string // 退回原因
+    version?: number     // 读取到的版本号，不一致时返回冲突
 }
 
 /**